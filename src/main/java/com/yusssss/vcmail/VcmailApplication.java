@@ -3,11 +3,27 @@ package com.yusssss.vcmail;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import java.net.InetAddress;
+import java.util.Map;
+
 @SpringBootApplication
 public class VcmailApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(VcmailApplication.class, args);
+		SpringApplication application = new SpringApplication(VcmailApplication.class);
+		// VCMAIL_NODE_ID verilmezse kullanılan node id: host adı, yeniden başlatmada değişmez.
+		// İndeks dizini, RUNNING özet işlerinin kurtarılması ve metrik etiketi buna bağlı.
+		// Aynı host'ta birden fazla JVM çalışacaksa VCMAIL_NODE_ID verilmeli
+		application.setDefaultProperties(Map.of("vcmail.generated-node-id", generateNodeId()));
+		application.run(args);
+	}
+
+	static String generateNodeId() {
+		try {
+			return InetAddress.getLocalHost().getHostName();
+		} catch (Exception e) {
+			return "vcmail-node-1";
+		}
 	}
 
 }
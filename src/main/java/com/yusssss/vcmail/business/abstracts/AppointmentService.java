@@ -0,0 +1,16 @@
+package com.yusssss.vcmail.business.abstracts;
+
+import com.yusssss.vcmail.entities.dtos.AppointmentResultDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+public interface AppointmentService {
+
+    AppointmentResultDto bookAppointment(String conversationId, String callerName, String callerNumber,
+                                         String purpose, LocalDate date, LocalTime time);
+
+    List<LocalDateTime> findAvailableSlots(LocalDate date, LocalTime time, int count);
+}
@@ -0,0 +1,21 @@
+package com.yusssss.vcmail.business.abstracts;
+
+import com.yusssss.vcmail.entities.CallLease;
+
+import java.util.function.Consumer;
+
+public interface CallLeaseService {
+
+    boolean tryClaim(String channelId, String callerNumber);
+
+    void attachCall(String channelId, String conversationId, String bridgeId, String mediaChannelId);
+
+    void release(String channelId);
+
+    void onTakeover(Consumer<CallLease> callback);
+
+    // Lease'i başka bir node devraldığında channel id ile çağrılır
+    void onLeaseLost(Consumer<String> callback);
+
+    String getNodeId();
+}
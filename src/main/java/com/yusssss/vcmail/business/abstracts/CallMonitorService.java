@@ -0,0 +1,12 @@
+package com.yusssss.vcmail.business.abstracts;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface CallMonitorService {
+
+    SseEmitter subscribe();
+
+    boolean hasSubscribers();
+
+    void publish(String type, String conversationId, Object data);
+}
@@ -0,0 +1,17 @@
+package com.yusssss.vcmail.business.abstracts;
+
+import com.yusssss.vcmail.entities.dtos.CallerProfileDto;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface CallerProfileService {
+
+    String normalizeNumber(String callerNumber);
+
+    CompletableFuture<CallerProfileDto> getProfile(String callerNumber);
+
+    // Tanınan arayan için model talimatına eklenecek metin, yeni arayan için null
+    String toAssistantContext(CallerProfileDto profile);
+
+    void invalidate(String callerNumber);
+}
@@ -0,0 +1,21 @@
+package com.yusssss.vcmail.business.abstracts;
+
+import com.yusssss.vcmail.entities.Conversation;
+import com.yusssss.vcmail.entities.Message;
+import com.yusssss.vcmail.entities.dtos.CacheStatsDto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public interface ConversationCacheService {
+
+    Conversation getConversation(String conversationId, Function<String, Conversation> loader);
+
+    List<Message> getMessages(String conversationId, Function<String, List<Message>> loader);
+
+    void invalidateConversation(String conversationId);
+
+    void invalidateMessages(String conversationId);
+
+    List<CacheStatsDto> getStats();
+}
@@ -1,17 +1,22 @@
 package com.yusssss.vcmail.business.abstracts;
 
+import com.yusssss.vcmail.entities.CallRecord;
 import com.yusssss.vcmail.entities.Conversation;
 import com.yusssss.vcmail.entities.Message;
-
-import java.util.List;
+import com.yusssss.vcmail.entities.dtos.ConversationFilter;
+import com.yusssss.vcmail.entities.dtos.ConversationPageDto;
 
 public interface ConversationService {
 
-    List<Conversation> getAllConversations();
+    ConversationPageDto listConversations(ConversationFilter filter, String cursor, int limit);
 
     Conversation getConversationById(String conversationId);
 
     Message addMessage(String conversationId, Message message);
 
     public Conversation startConversation();
+
+    Conversation startConversation(String callerPhoneNumber);
+
+    void endConversation(String conversationId, String status, String audioRecordingUrl, CallRecord callRecord);
 }
@@ -0,0 +1,10 @@
+package com.yusssss.vcmail.business.abstracts;
+
+import com.yusssss.vcmail.entities.dtos.LatencyReportDto;
+
+public interface LatencyService {
+
+    LatencyReportDto getFleetReport();
+
+    LatencyReportDto getCallReport(String conversationId);
+}
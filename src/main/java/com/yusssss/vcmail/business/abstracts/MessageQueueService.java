@@ -0,0 +1,16 @@
+package com.yusssss.vcmail.business.abstracts;
+
+import com.yusssss.vcmail.entities.Message;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface MessageQueueService {
+
+    boolean enqueue(String conversationId, Message message);
+
+    CompletableFuture<Void> flush(String conversationId);
+
+    int getPendingCount();
+
+    long getDroppedCount();
+}
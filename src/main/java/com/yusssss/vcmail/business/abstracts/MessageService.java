@@ -11,4 +11,6 @@ public interface MessageService {
 
     Message save(Message message);
 
+    int getLastSequenceIndex(String conversationId);
+
 }
@@ -0,0 +1,12 @@
+package com.yusssss.vcmail.business.abstracts;
+
+import org.springframework.core.io.Resource;
+
+import java.io.OutputStream;
+
+public interface RecordingService {
+
+    Resource getRecording(String conversationId);
+
+    void writePreview(String conversationId, int sampleRate, OutputStream outputStream);
+}
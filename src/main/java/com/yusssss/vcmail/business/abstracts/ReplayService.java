@@ -0,0 +1,11 @@
+package com.yusssss.vcmail.business.abstracts;
+
+import com.yusssss.vcmail.entities.dtos.ReplayReportDto;
+import com.yusssss.vcmail.entities.dtos.ReplayRequestDto;
+
+import java.util.List;
+
+public interface ReplayService {
+
+    List<ReplayReportDto> replay(ReplayRequestDto request);
+}
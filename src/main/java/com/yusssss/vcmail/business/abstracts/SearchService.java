@@ -0,0 +1,12 @@
+package com.yusssss.vcmail.business.abstracts;
+
+import com.yusssss.vcmail.entities.dtos.SearchHitDto;
+
+import java.util.List;
+
+public interface SearchService {
+
+    List<SearchHitDto> searchConversations(String query, int limit);
+
+    boolean rebuildIndex();
+}
@@ -0,0 +1,7 @@
+package com.yusssss.vcmail.business.abstracts;
+
+public interface SummaryService {
+
+    // Görüşmeyi kapatan transaction içinde çağrılır
+    void enqueue(String conversationId);
+}
@@ -0,0 +1,19 @@
+package com.yusssss.vcmail.business.abstracts;
+
+import com.yusssss.vcmail.core.utilities.openai.TranscriptEvent;
+import com.yusssss.vcmail.entities.dtos.TranscriptTurnDto;
+
+import java.util.List;
+
+public interface TranscriptService {
+
+    void startTranscript(String conversationId);
+
+    void onTranscriptEvent(String conversationId, TranscriptEvent event);
+
+    void appendMessage(String conversationId, String speaker, String text);
+
+    void endTranscript(String conversationId);
+
+    List<TranscriptTurnDto> getTranscript(String conversationId);
+}
@@ -0,0 +1,153 @@
+package com.yusssss.vcmail.business.concretes;
+
+import com.yusssss.vcmail.business.abstracts.AppointmentService;
+import com.yusssss.vcmail.core.utilities.appointment.AppointmentSlotIndex;
+import com.yusssss.vcmail.dataAccess.AppointmentDao;
+import com.yusssss.vcmail.dataAccess.AppointmentDayDao;
+import com.yusssss.vcmail.entities.Appointment;
+import com.yusssss.vcmail.entities.AppointmentDay;
+import com.yusssss.vcmail.entities.dtos.AppointmentResultDto;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Randevu defteri. Müsaitlik ve alternatif slot sorguları bellekteki gün bitmap'inden
+ * cevaplanır; rezervasyon gün satırının sürümüne karşı yazılır. Başka bir çağrı veya node
+ * araya girdiyse optimistic lock hatası alınır, gün DB'den tazelenir ve tekrar denenir.
+ */
+@Service
+public class AppointmentManager implements AppointmentService {
+
+    private static final int MAX_BOOKING_ATTEMPTS = 3;
+
+    private final AppointmentDao appointmentDao;
+    private final AppointmentDayDao appointmentDayDao;
+    private final TransactionTemplate transactionTemplate;
+    private final Logger logger = LoggerFactory.getLogger(AppointmentManager.class);
+    private AppointmentSlotIndex slotIndex;
+
+    @Value("${appointments.open-time:09:00}")
+    private String openTime;
+
+    @Value("${appointments.close-time:18:00}")
+    private String closeTime;
+
+    @Value("${appointments.slot-minutes:30}")
+    private int slotMinutes;
+
+    @Value("${appointments.working-days:MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY}")
+    private String[] workingDays;
+
+    @Value("${appointments.horizon-days:60}")
+    private int horizonDays;
+
+    @Value("${appointments.alternatives:3}")
+    private int alternativeCount;
+
+    public AppointmentManager(AppointmentDao appointmentDao, AppointmentDayDao appointmentDayDao,
+                              PlatformTransactionManager transactionManager) {
+        this.appointmentDao = appointmentDao;
+        this.appointmentDayDao = appointmentDayDao;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void loadIndex() {
+        Set<DayOfWeek> days = Arrays.stream(workingDays)
+                .map(day -> DayOfWeek.valueOf(day.trim().toUpperCase()))
+                .collect(Collectors.toSet());
+        slotIndex = new AppointmentSlotIndex(LocalTime.parse(openTime), LocalTime.parse(closeTime), slotMinutes, days);
+
+        List<AppointmentDay> upcoming = appointmentDayDao.findByAppointmentDateGreaterThanEqual(LocalDate.now());
+        upcoming.forEach(day -> slotIndex.load(day.getAppointmentDate(), day.getBookedSlots()));
+        logger.info("Appointment index loaded: {} day(s), {} slots/day of {} min", upcoming.size(),
+                slotIndex.getSlotsPerDay(), slotMinutes);
+    }
+
+    @Override
+    public AppointmentResultDto bookAppointment(String conversationId, String callerName, String callerNumber,
+                                                String purpose, LocalDate date, LocalTime time) {
+        LocalDateTime now = LocalDateTime.now();
+        int slot = slotIndex.slotOf(time);
+        LocalDateTime requested = date.atTime(time);
+
+        if (slot < 0 || !slotIndex.isWorkingDay(date) || requested.isBefore(now)
+                || date.isAfter(now.toLocalDate().plusDays(horizonDays))) {
+            return new AppointmentResultDto("INVALID", null, requested, alternativesFor(date, time, now));
+        }
+
+        for (int attempt = 1; attempt <= MAX_BOOKING_ATTEMPTS; attempt++) {
+            if (!slotIndex.isFree(date, slot)) {
+                return new AppointmentResultDto("UNAVAILABLE", null, requested, alternativesFor(date, time, now));
+            }
+
+            try {
+                Appointment appointment = transactionTemplate.execute(status ->
+                        insertBooking(conversationId, callerName, callerNumber, purpose, date, slot));
+                if (appointment != null) {
+                    slotIndex.markBooked(date, slot);
+                    logger.info("[{}] Appointment {} booked for {} {}", conversationId, appointment.getId(), date, time);
+                    return new AppointmentResultDto("BOOKED", appointment.getId(), requested, List.of());
+                }
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                // Aynı güne eşzamanlı yazım: günü tazele, slot hâlâ boşsa tekrar dene
+                logger.info("[{}] Concurrent booking on {} (attempt {}), reloading day", conversationId, date, attempt);
+            }
+            refreshDay(date);
+        }
+
+        return new AppointmentResultDto("UNAVAILABLE", null, requested, alternativesFor(date, time, now));
+    }
+
+    @Override
+    public List<LocalDateTime> findAvailableSlots(LocalDate date, LocalTime time, int count) {
+        return slotIndex.findNearestFree(date, time, LocalDateTime.now(), count, horizonDays);
+    }
+
+    // Slot DB'de doluysa null, index bayat demektir
+    private Appointment insertBooking(String conversationId, String callerName, String callerNumber,
+                                      String purpose, LocalDate date, int slot) {
+        AppointmentDay day = appointmentDayDao.findById(date).orElseGet(() -> new AppointmentDay(date, new byte[0], null));
+        if (AppointmentSlotIndex.isBitSet(day.getBookedSlots(), slot)) {
+            return null;
+        }
+        day.setBookedSlots(AppointmentSlotIndex.setBit(day.getBookedSlots(), slot));
+        appointmentDayDao.saveAndFlush(day);
+
+        Appointment appointment = new Appointment();
+        appointment.setConversationId(conversationId);
+        appointment.setCallerName(callerName);
+        appointment.setCallerNumber(callerNumber);
+        appointment.setPurpose(purpose);
+        appointment.setAppointmentDate(date);
+        appointment.setStartTime(slotIndex.timeOf(slot));
+        appointment.setSlotIndex(slot);
+        appointment.setStatus("BOOKED");
+        appointment.setCreatedAt(LocalDateTime.now());
+        return appointmentDao.save(appointment);
+    }
+
+    private void refreshDay(LocalDate date) {
+        appointmentDayDao.findById(date).ifPresent(day -> slotIndex.load(date, day.getBookedSlots()));
+    }
+
+    private List<LocalDateTime> alternativesFor(LocalDate date, LocalTime time, LocalDateTime now) {
+        return slotIndex.findNearestFree(date, time, now, alternativeCount, horizonDays);
+    }
+}
@@ -0,0 +1,165 @@
+package com.yusssss.vcmail.business.concretes;
+
+import com.yusssss.vcmail.business.abstracts.CallLeaseService;
+import com.yusssss.vcmail.dataAccess.CallLeaseDao;
+import com.yusssss.vcmail.entities.CallLease;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Postgres lease table shared by all vcmail nodes behind one Asterisk.
+ * Every node receives StasisStart for the shared ARI app; the first node that
+ * inserts the channel row owns the call. Owners renew their leases on a heartbeat,
+ * and leases of a dead node expire and are taken over by the next node that sweeps.
+ * Expiry is computed with the database clock so node clock skew cannot cause early takeovers.
+ * A node that could not renew in time (long GC pause, network partition) learns on its next
+ * heartbeat which of its calls were taken over and drops them locally.
+ */
+@Service
+public class CallLeaseManager implements CallLeaseService {
+
+    private final CallLeaseDao callLeaseDao;
+    private final Logger logger = LoggerFactory.getLogger(CallLeaseManager.class);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    // Bu node'un yerelde yürüttüğü çağrılar; renew sonucuyla karşılaştırılır
+    private final Set<String> ownedChannels = ConcurrentHashMap.newKeySet();
+    private Consumer<CallLease> onTakeover;
+    private Consumer<String> onLeaseLost;
+
+    @Value("${cluster.node-id}")
+    private String nodeId;
+
+    @Value("${asterisk.ari.rtp-app-host}")
+    private String rtpAppHost;
+
+    @Value("${cluster.lease.ttl-seconds:15}")
+    private long leaseTtlSeconds;
+
+    @Value("${cluster.lease.heartbeat-seconds:5}")
+    private long heartbeatSeconds;
+
+    public CallLeaseManager(CallLeaseDao callLeaseDao) {
+        this.callLeaseDao = callLeaseDao;
+    }
+
+    @PostConstruct
+    public void startHeartbeat() {
+        logger.info("Node {} advertising RTP host {}. Lease TTL {}s, heartbeat {}s",
+                nodeId, rtpAppHost, leaseTtlSeconds, heartbeatSeconds);
+        scheduler.scheduleAtFixedRate(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        try {
+            // Graceful stop: let other nodes pick our calls up on their next sweep
+            int expired = callLeaseDao.expireLeases(nodeId);
+            logger.info("Node {} released {} call lease(s) on shutdown", nodeId, expired);
+        } catch (Exception e) {
+            logger.warn("Could not expire call leases of node {} on shutdown", nodeId, e);
+        }
+    }
+
+    @Override
+    public boolean tryClaim(String channelId, String callerNumber) {
+        try {
+            boolean claimed = callLeaseDao.insertIfAbsent(channelId, nodeId, rtpAppHost, callerNumber, leaseTtlSeconds) == 1;
+            if (claimed) {
+                ownedChannels.add(channelId);
+            }
+            logger.info("Lease for channel {} {} by node {}", channelId, claimed ? "claimed" : "already owned, skipped", nodeId);
+            return claimed;
+        } catch (Exception e) {
+            logger.error("Error claiming lease for channel {}", channelId, e);
+            return false;
+        }
+    }
+
+    @Override
+    public void attachCall(String channelId, String conversationId, String bridgeId, String mediaChannelId) {
+        try {
+            callLeaseDao.attachCall(channelId, nodeId, conversationId, bridgeId, mediaChannelId);
+        } catch (Exception e) {
+            logger.error("[{}] Error attaching call state to lease of channel {}", conversationId, channelId, e);
+        }
+    }
+
+    @Override
+    public void release(String channelId) {
+        // Önce yerel kayıt silinir; aynı anda çalışan heartbeat bu çağrıyı kaybedilmiş saymaz
+        ownedChannels.remove(channelId);
+        try {
+            callLeaseDao.deleteOwned(channelId, nodeId);
+        } catch (Exception e) {
+            logger.error("Error releasing lease for channel {}", channelId, e);
+        }
+    }
+
+    @Override
+    public void onTakeover(Consumer<CallLease> callback) {
+        this.onTakeover = callback;
+    }
+
+    @Override
+    public void onLeaseLost(Consumer<String> callback) {
+        this.onLeaseLost = callback;
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    void heartbeat() {
+        try {
+            // Renew'dan önceki anlık görüntü: sonradan claim edilen çağrılar kayıp sayılmaz
+            Set<String> expected = new HashSet<>(ownedChannels);
+            Set<String> kept = new HashSet<>(callLeaseDao.renewLeases(nodeId, leaseTtlSeconds));
+            for (String channelId : expected) {
+                if (kept.contains(channelId) || !ownedChannels.remove(channelId)) {
+                    continue;
+                }
+                logger.warn("Node {} lost the lease of channel {} to another node, dropping the local call", nodeId, channelId);
+                if (onLeaseLost != null) {
+                    onLeaseLost.accept(channelId);
+                }
+            }
+
+            List<CallLease> expiredLeases = callLeaseDao.findExpired();
+            for (CallLease lease : expiredLeases) {
+                if (callLeaseDao.takeOverExpired(lease.getChannelId(), nodeId, rtpAppHost, leaseTtlSeconds) != 1) {
+                    continue;
+                }
+                ownedChannels.add(lease.getChannelId());
+                logger.warn("[{}] Node {} took over call on channel {} from dead node {}",
+                        lease.getConversationId(), nodeId, lease.getChannelId(), lease.getOwnerNodeId());
+                if (onTakeover != null) {
+                    try {
+                        onTakeover.accept(lease);
+                    } catch (Exception e) {
+                        // Çağrısı kurulmayan lease yenilenmez, diğer devralmalar sürer
+                        logger.error("[{}] Takeover callback failed for channel {}, releasing lease",
+                                lease.getConversationId(), lease.getChannelId(), e);
+                        release(lease.getChannelId());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Call lease heartbeat failed on node {}", nodeId, e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.yusssss.vcmail.business.concretes;
+
+import com.yusssss.vcmail.business.abstracts.CallMonitorService;
+import com.yusssss.vcmail.core.exceptions.InvalidRequestException;
+import com.yusssss.vcmail.core.utilities.monitor.SseBroadcaster;
+import com.yusssss.vcmail.entities.dtos.CallMonitorEventDto;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Service
+public class CallMonitorManager implements CallMonitorService {
+
+    private SseBroadcaster broadcaster;
+
+    @Value("${monitor.subscriber-buffer:256}")
+    private int subscriberBuffer;
+
+    @Value("${monitor.max-subscribers:100}")
+    private int maxSubscribers;
+
+    @Value("${monitor.emitter-timeout:30m}")
+    private Duration emitterTimeout;
+
+    @PostConstruct
+    public void initialize() {
+        broadcaster = new SseBroadcaster("CallMonitor", subscriberBuffer, maxSubscribers);
+    }
+
+    @Override
+    public SseEmitter subscribe() {
+        SseEmitter emitter = broadcaster.subscribe(emitterTimeout.toMillis());
+        if (emitter == null) {
+            throw new InvalidRequestException("Too many call monitor subscribers, limit is " + maxSubscribers);
+        }
+        return emitter;
+    }
+
+    @Override
+    public boolean hasSubscribers() {
+        return broadcaster.hasSubscribers();
+    }
+
+    @Override
+    public void publish(String type, String conversationId, Object data) {
+        // İzleyen yoksa olay nesnesi bile üretilmez
+        if (!broadcaster.hasSubscribers()) {
+            return;
+        }
+        broadcaster.publish(type, new CallMonitorEventDto(type, conversationId, LocalDateTime.now(), data));
+    }
+}
@@ -0,0 +1,166 @@
+package com.yusssss.vcmail.business.concretes;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yusssss.vcmail.business.abstracts.CallerProfileService;
+import com.yusssss.vcmail.core.utilities.caller.PhoneNumbers;
+import com.yusssss.vcmail.dataAccess.AppointmentDao;
+import com.yusssss.vcmail.dataAccess.ConversationDao;
+import com.yusssss.vcmail.entities.Appointment;
+import com.yusssss.vcmail.entities.Conversation;
+import com.yusssss.vcmail.entities.dtos.CallerProfileDto;
+import com.yusssss.vcmail.entities.dtos.ConversationSummaryDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+/**
+ * Arayan profili: ad, son görüşmeler, yaklaşan randevular ve son özet. StasisStart'ta
+ * çağrı kurulumuyla paralel yüklenir; aynı numaraya eşzamanlı istekler tek DB okumasını
+ * paylaşır. Profil çağrı bitince geçersiz kılınır; bu sadece çağrının bittiği node'un cache'ine
+ * ulaşır, bu yüzden TTL kısa tutulur (diğer node'lar en fazla TTL kadar eski brifing görür).
+ */
+@Service
+public class CallerProfileManager implements CallerProfileService {
+
+    private static final DateTimeFormatter CONTEXT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+
+    private final ConversationDao conversationDao;
+    private final AppointmentDao appointmentDao;
+    private final ExecutorService callPathExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Logger logger = LoggerFactory.getLogger(CallerProfileManager.class);
+    private AsyncCache<String, CallerProfileDto> profileCache;
+
+    @Value("${callers.default-country-code:90}")
+    private String defaultCountryCode;
+
+    @Value("${callers.profile-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${callers.profile-cache.ttl:5s}")
+    private Duration ttl;
+
+    @Value("${callers.recent-conversations:5}")
+    private int recentConversations;
+
+    public CallerProfileManager(ConversationDao conversationDao, AppointmentDao appointmentDao,
+                                ExecutorService callPathExecutor, MeterRegistry meterRegistry) {
+        this.conversationDao = conversationDao;
+        this.appointmentDao = appointmentDao;
+        this.callPathExecutor = callPathExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        profileCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .executor(callPathExecutor)
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, profileCache.synchronous(), "callerProfiles");
+    }
+
+    @Override
+    public String normalizeNumber(String callerNumber) {
+        return PhoneNumbers.normalize(callerNumber, defaultCountryCode);
+    }
+
+    @Override
+    public CompletableFuture<CallerProfileDto> getProfile(String callerNumber) {
+        String phoneNumber = normalizeNumber(callerNumber);
+        if (phoneNumber == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return profileCache.get(phoneNumber, this::loadProfile);
+    }
+
+    @Override
+    public String toAssistantContext(CallerProfileDto profile) {
+        if (profile == null || !profile.isKnownCaller()) {
+            return null;
+        }
+
+        StringBuilder context = new StringBuilder("Arayan daha önce aradı");
+        if (!profile.getRecentConversations().isEmpty()) {
+            context.append(" (son ").append(profile.getRecentConversations().size()).append(" görüşme kayıtlı)");
+        }
+        context.append(". ");
+        if (profile.getCallerName() != null) {
+            context.append("Adı: ").append(profile.getCallerName()).append(". ");
+        }
+        if (!profile.getUpcomingAppointments().isEmpty()) {
+            context.append("Yaklaşan randevuları: ")
+                    .append(profile.getUpcomingAppointments().stream()
+                            .map(CONTEXT_FORMAT::format)
+                            .collect(Collectors.joining(", ")))
+                    .append(". ");
+        }
+        if (profile.getLastSummary() != null) {
+            context.append("Son görüşmenin özeti: ").append(profile.getLastSummary()).append(" ");
+        }
+        context.append("Numarası sistemde kayıtlı. Adını ve numarasını tekrar sorma, biliniyorsa adıyla hitap et.");
+        return context.toString();
+    }
+
+    @Override
+    public void invalidate(String callerNumber) {
+        String phoneNumber = normalizeNumber(callerNumber);
+        if (phoneNumber != null) {
+            profileCache.synchronous().invalidate(phoneNumber);
+        }
+    }
+
+    private CallerProfileDto loadProfile(String phoneNumber) {
+        long start = System.nanoTime();
+
+        List<Conversation> conversations = conversationDao.findByCallerPhoneNumberOrderByStartTimeDesc(
+                phoneNumber, PageRequest.of(0, recentConversations + 1));
+        List<Conversation> finished = conversations.stream()
+                .filter(conversation -> !IN_PROGRESS.equals(conversation.getStatus()))
+                .limit(recentConversations)
+                .toList();
+
+        List<ConversationSummaryDto> recent = finished.stream()
+                .map(conversation -> new ConversationSummaryDto(conversation.getId(), conversation.getCallerPhoneNumber(),
+                        conversation.getStartTime(), conversation.getEndTime(), conversation.getStatus(),
+                        conversation.getAudioRecordingUrl()))
+                .toList();
+
+        String lastSummary = finished.stream()
+                .map(Conversation::getSummary)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+
+        List<LocalDateTime> upcoming = appointmentDao.findUpcoming(phoneNumber, LocalDate.now()).stream()
+                .map(appointment -> appointment.getAppointmentDate().atTime(appointment.getStartTime()))
+                .toList();
+
+        String callerName = appointmentDao.findFirstByCallerNumberOrderByCreatedAtDesc(phoneNumber)
+                .map(Appointment::getCallerName)
+                .orElse(null);
+
+        logger.debug("Caller profile for {} loaded in {} ms", phoneNumber, (System.nanoTime() - start) / 1_000_000);
+        return new CallerProfileDto(phoneNumber, callerName, recent, upcoming, lastSummary);
+    }
+}
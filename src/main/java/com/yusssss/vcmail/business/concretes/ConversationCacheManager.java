@@ -0,0 +1,165 @@
+package com.yusssss.vcmail.business.concretes;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.yusssss.vcmail.business.abstracts.ConversationCacheService;
+import com.yusssss.vcmail.entities.Conversation;
+import com.yusssss.vcmail.entities.Message;
+import com.yusssss.vcmail.entities.dtos.CacheStatsDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Read cache in front of conversation and message lookups. Ended conversations never
+ * change, so they stay for a long TTL; in-progress ones expire quickly. Message lists
+ * are bounded by total text size and invalidated whenever messages are written; they
+ * only get the long TTL when the cached conversation is known to have ended, since
+ * writes of a call running on another node do not invalidate this node's cache.
+ */
+@Service
+public class ConversationCacheManager implements ConversationCacheService {
+
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+    private static final int MESSAGE_OVERHEAD_BYTES = 64;
+
+    private final Logger logger = LoggerFactory.getLogger(ConversationCacheManager.class);
+    private final MeterRegistry meterRegistry;
+    private Cache<String, Conversation> conversationCache;
+    private Cache<String, List<Message>> messagesCache;
+    // Testlerde sahte saat verilir
+    private Ticker ticker = Ticker.systemTicker();
+
+    @Value("${cache.conversations.max-size:10000}")
+    private long conversationsMaxSize;
+
+    @Value("${cache.conversations.ended-ttl:6h}")
+    private Duration endedTtl;
+
+    @Value("${cache.conversations.active-ttl:5s}")
+    private Duration activeTtl;
+
+    @Value("${cache.messages.max-weight-bytes:52428800}")
+    private long messagesMaxWeight;
+
+    @Value("${cache.messages.ttl:30m}")
+    private Duration messagesTtl;
+
+    public ConversationCacheManager(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        conversationCache = Caffeine.newBuilder()
+                .maximumSize(conversationsMaxSize)
+                .ticker(ticker)
+                .expireAfter(new Expiry<String, Conversation>() {
+                    @Override
+                    public long expireAfterCreate(String key, Conversation value, long currentTime) {
+                        return ttlFor(value).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Conversation value, long currentTime, long currentDuration) {
+                        return ttlFor(value).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Conversation value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        messagesCache = Caffeine.newBuilder()
+                .maximumWeight(messagesMaxWeight)
+                .weigher((String key, List<Message> messages) -> weigh(messages))
+                .ticker(ticker)
+                .expireAfter(new Expiry<String, List<Message>>() {
+                    @Override
+                    public long expireAfterCreate(String key, List<Message> value, long currentTime) {
+                        return messagesTtlFor(key).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, List<Message> value, long currentTime, long currentDuration) {
+                        return messagesTtlFor(key).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, List<Message> value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, conversationCache, "conversations");
+        CaffeineCacheMetrics.monitor(meterRegistry, messagesCache, "messages");
+
+        logger.info("Conversation cache ready. Ended TTL: {}, active TTL: {}, messages max weight: {} bytes",
+                endedTtl, activeTtl, messagesMaxWeight);
+    }
+
+    @Override
+    public Conversation getConversation(String conversationId, Function<String, Conversation> loader) {
+        return conversationCache.get(conversationId, loader);
+    }
+
+    @Override
+    public List<Message> getMessages(String conversationId, Function<String, List<Message>> loader) {
+        return messagesCache.get(conversationId, id -> List.copyOf(loader.apply(id)));
+    }
+
+    @Override
+    public void invalidateConversation(String conversationId) {
+        conversationCache.invalidate(conversationId);
+    }
+
+    @Override
+    public void invalidateMessages(String conversationId) {
+        messagesCache.invalidate(conversationId);
+    }
+
+    @Override
+    public List<CacheStatsDto> getStats() {
+        return List.of(
+                toDto("conversations", conversationCache.stats(), conversationCache.estimatedSize()),
+                toDto("messages", messagesCache.stats(), messagesCache.estimatedSize()));
+    }
+
+    private Duration ttlFor(Conversation conversation) {
+        return IN_PROGRESS.equals(conversation.getStatus()) ? activeTtl : endedTtl;
+    }
+
+    // Durumu bilinmeyen conversation aktif sayılır
+    private Duration messagesTtlFor(String conversationId) {
+        Conversation conversation = conversationCache.getIfPresent(conversationId);
+        return conversation == null || IN_PROGRESS.equals(conversation.getStatus()) ? activeTtl : messagesTtl;
+    }
+
+    private static int weigh(List<Message> messages) {
+        long weight = 0;
+        for (Message message : messages) {
+            weight += MESSAGE_OVERHEAD_BYTES + (message.getText() != null ? message.getText().length() * 2L : 0);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, weight);
+    }
+
+    private static CacheStatsDto toDto(String name, CacheStats stats, long size) {
+        return new CacheStatsDto(name, stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount(), size);
+    }
+}
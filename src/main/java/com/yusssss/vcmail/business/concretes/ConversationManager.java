@@ -1,51 +1,92 @@
 package com.yusssss.vcmail.business.concretes;
 
+import com.yusssss.vcmail.business.abstracts.ConversationCacheService;
 import com.yusssss.vcmail.business.abstracts.ConversationService;
 import com.yusssss.vcmail.business.abstracts.MessageService;
+import com.yusssss.vcmail.business.abstracts.SummaryService;
+import com.yusssss.vcmail.core.exceptions.InvalidRequestException;
 import com.yusssss.vcmail.core.exceptions.ResourceNotFoundException;
+import com.yusssss.vcmail.dataAccess.CallRecordDao;
 import com.yusssss.vcmail.dataAccess.ConversationDao;
+import com.yusssss.vcmail.entities.CallRecord;
 import com.yusssss.vcmail.entities.Conversation;
 import com.yusssss.vcmail.entities.Message;
+import com.yusssss.vcmail.entities.dtos.ConversationFilter;
+import com.yusssss.vcmail.entities.dtos.ConversationPageDto;
+import com.yusssss.vcmail.entities.dtos.ConversationSummaryDto;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 
 @Service
 public class ConversationManager implements ConversationService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final ConversationDao conversationDao;
 
     private final Logger logger = LoggerFactory.getLogger(ConversationManager.class);
     private final MessageService messageService;
+    private final CallRecordDao callRecordDao;
+    private final ConversationCacheService conversationCacheService;
+    private final SummaryService summaryService;
 
 
-    public ConversationManager(ConversationDao conversationDao, MessageService messageService) {
+    public ConversationManager(ConversationDao conversationDao, MessageService messageService, CallRecordDao callRecordDao,
+                               ConversationCacheService conversationCacheService, SummaryService summaryService) {
         this.conversationDao = conversationDao;
         this.messageService = messageService;
+        this.callRecordDao = callRecordDao;
+        this.conversationCacheService = conversationCacheService;
+        this.summaryService = summaryService;
     }
 
     @Override
-    public List<Conversation> getAllConversations() {
-        logger.info("Fetching all conversations;");
-        return conversationDao.findAll();
+    public ConversationPageDto listConversations(ConversationFilter filter, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        logger.info("Listing conversations. Page size: {}, cursor: {}", pageSize, cursor);
+
+        LocalDateTime cursorStartTime = null;
+        String cursorId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = decodeCursor(cursor);
+            cursorStartTime = LocalDateTime.parse(parts[0]);
+            cursorId = parts[1];
+        }
+
+        // Bir fazlasını çekip sonraki sayfanın olup olmadığını anlıyoruz
+        List<ConversationSummaryDto> rows = conversationDao.findSummariesAfter(filter, cursorStartTime, cursorId, pageSize + 1);
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            ConversationSummaryDto last = rows.get(pageSize - 1);
+            nextCursor = encodeCursor(last.getStartTime(), last.getId());
+        }
+
+        return new ConversationPageDto(rows, nextCursor);
     }
 
     @Override
     public Conversation getConversationById(String conversationId) {
         logger.info("Fetching conversation with id: {}", conversationId);
-        Conversation conversation = conversationDao.findById(conversationId)
-                .orElseThrow(() -> {
-                    logger.info("Conversation not found with id: {}", conversationId);
-                    return new ResourceNotFoundException("Conversation not found with id: " + conversationId);
-                });
-
-        logger.info("Found conversation with id: {}", conversationId);
-
-        return conversation;
+        return conversationCacheService.getConversation(conversationId, id -> {
+            Conversation conversation = conversationDao.findById(id)
+                    .orElseThrow(() -> {
+                        logger.info("Conversation not found with id: {}", id);
+                        return new ResourceNotFoundException("Conversation not found with id: " + id);
+                    });
+
+            logger.info("Loaded conversation with id: {} from database", id);
+            return conversation;
+        });
     }
 
     @Override
@@ -62,12 +103,50 @@ public class ConversationManager implements ConversationService {
 
     @Override
     public Conversation startConversation() {
+        return startConversation(null);
+    }
+
+    @Override
+    public Conversation startConversation(String callerPhoneNumber) {
         logger.info("Starting a new conversation");
         Conversation conversation = new Conversation();
+        conversation.setCallerPhoneNumber(callerPhoneNumber);
         conversation.setStartTime(LocalDateTime.now());
         conversation.setStatus("IN_PROGRESS");
         var savedConversation = conversationDao.save(conversation);
         logger.info("Started a new conversation with id: {}", savedConversation.getId());
         return savedConversation;
     }
+
+    @Override
+    @Transactional
+    public void endConversation(String conversationId, String status, String audioRecordingUrl, CallRecord callRecord) {
+        logger.info("Ending conversation with id: {} - Status: {}", conversationId, status);
+        conversationDao.finish(conversationId, status, callRecord.getEndTime(), audioRecordingUrl);
+        callRecordDao.save(callRecord);
+        // Özet işi görüşmeyle aynı transaction'da yazılır, node düşse de kaybolmaz
+        summaryService.enqueue(conversationId);
+        conversationCacheService.invalidateConversation(conversationId);
+        logger.info("Saved call record for conversation {}: {} ms, {} turn(s), {} RTP packet(s) lost",
+                conversationId, callRecord.getDurationMs(), callRecord.getTurnCount(), callRecord.getRtpPacketsLost());
+    }
+
+    private String encodeCursor(LocalDateTime startTime, String id) {
+        String raw = startTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            if (parts.length != 2) {
+                throw new InvalidRequestException("Invalid cursor: " + cursor);
+            }
+            LocalDateTime.parse(parts[0]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        }
+    }
 }
@@ -0,0 +1,80 @@
+package com.yusssss.vcmail.business.concretes;
+
+import com.yusssss.vcmail.business.abstracts.LatencyService;
+import com.yusssss.vcmail.core.utilities.stats.CallStats;
+import com.yusssss.vcmail.core.utilities.stats.TurnTrace;
+import com.yusssss.vcmail.core.utilities.stats.TurnTraceRegistry;
+import com.yusssss.vcmail.entities.dtos.LatencyReportDto;
+import com.yusssss.vcmail.entities.dtos.StageLatencyDto;
+import com.yusssss.vcmail.entities.dtos.TurnLatencyDto;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+@Service
+public class LatencyManager implements LatencyService {
+
+    private final TurnTraceRegistry turnTraceRegistry;
+
+    public LatencyManager(TurnTraceRegistry turnTraceRegistry) {
+        this.turnTraceRegistry = turnTraceRegistry;
+    }
+
+    @Override
+    public LatencyReportDto getFleetReport() {
+        return buildReport(null, turnTraceRegistry.getFleetTurns());
+    }
+
+    @Override
+    public LatencyReportDto getCallReport(String conversationId) {
+        return buildReport(conversationId, turnTraceRegistry.getCallTurns(conversationId));
+    }
+
+    private LatencyReportDto buildReport(String conversationId, List<TurnTrace> traces) {
+        List<StageLatencyDto> stages = List.of(
+                stage("speech_stopped_to_response_created", traces, TurnTrace::getSpeechStoppedToResponseCreatedNanos),
+                stage("response_created_to_first_audio", traces, TurnTrace::getResponseCreatedToFirstAudioNanos),
+                stage("first_audio_to_first_rtp", traces, TurnTrace::getFirstAudioToFirstRtpNanos),
+                stage("total", traces, TurnTrace::getTotalNanos));
+
+        List<TurnLatencyDto> turns = traces.stream()
+                .map(trace -> new TurnLatencyDto(
+                        trace.getConversationId(),
+                        trace.getCompletedAt(),
+                        optionalMillis(trace.getSpeechStoppedToResponseCreatedNanos()),
+                        optionalMillis(trace.getResponseCreatedToFirstAudioNanos()),
+                        toMillis(trace.getFirstAudioToFirstRtpNanos()),
+                        toMillis(trace.getTotalNanos())))
+                .toList();
+
+        return new LatencyReportDto(conversationId, traces.size(), stages, turns);
+    }
+
+    private StageLatencyDto stage(String name, List<TurnTrace> traces, ToLongFunction<TurnTrace> extractor) {
+        List<Long> values = new ArrayList<>(traces.size());
+        for (TurnTrace trace : traces) {
+            long value = extractor.applyAsLong(trace);
+            if (value >= 0) {
+                values.add(value);
+            }
+        }
+        Collections.sort(values);
+
+        return new StageLatencyDto(name, values.size(),
+                optionalMillis(CallStats.percentile(values, 50)),
+                optionalMillis(CallStats.percentile(values, 90)),
+                optionalMillis(CallStats.percentile(values, 99)),
+                values.isEmpty() ? null : toMillis(values.get(values.size() - 1)));
+    }
+
+    private static Double optionalMillis(Long nanos) {
+        return nanos == null || nanos < 0 ? null : toMillis(nanos);
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 100_000.0) / 10.0;
+    }
+}
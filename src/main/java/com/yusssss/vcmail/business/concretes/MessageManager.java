@@ -1,6 +1,8 @@
 package com.yusssss.vcmail.business.concretes;
 
+import com.yusssss.vcmail.business.abstracts.ConversationCacheService;
 import com.yusssss.vcmail.business.abstracts.MessageService;
+import com.yusssss.vcmail.core.utilities.search.TranscriptSearchIndex;
 import com.yusssss.vcmail.dataAccess.MessageDao;
 import com.yusssss.vcmail.entities.Message;
 import org.slf4j.Logger;
@@ -15,19 +17,24 @@ public class MessageManager implements MessageService {
 
 
     private final MessageDao messageDao;
+    private final TranscriptSearchIndex transcriptSearchIndex;
+    private final ConversationCacheService conversationCacheService;
 
 
     private final Logger logger = LoggerFactory.getLogger(MessageManager.class);
 
 
-    public MessageManager(MessageDao messageDao) {
+    public MessageManager(MessageDao messageDao, TranscriptSearchIndex transcriptSearchIndex,
+                          ConversationCacheService conversationCacheService) {
         this.messageDao = messageDao;
+        this.transcriptSearchIndex = transcriptSearchIndex;
+        this.conversationCacheService = conversationCacheService;
     }
 
     @Override
     public List<Message> getMessagesByConversationId(String conversartionId) {
         logger.info("Fetching messages for conversation with id: {}", conversartionId);
-        return messageDao.findByConversation_IdOrderBySequenceIndexAsc(conversartionId);
+        return conversationCacheService.getMessages(conversartionId, messageDao::findByConversation_IdOrderBySequenceIndexAsc);
     }
 
     @Override
@@ -38,8 +45,15 @@ public class MessageManager implements MessageService {
         logger.info("Saving new message for conversation id: {}", message.getConversation().getId());
         var savedMessage = messageDao.save(message);
         logger.info("Saved message with id: {}", savedMessage.getId());
+        conversationCacheService.invalidateMessages(message.getConversation().getId());
+        transcriptSearchIndex.indexMessages(List.of(savedMessage));
         return savedMessage;
     }
 
+    @Override
+    public int getLastSequenceIndex(String conversationId) {
+        return messageDao.findMaxSequenceIndex(conversationId);
+    }
+
 
 }
@@ -0,0 +1,298 @@
+package com.yusssss.vcmail.business.concretes;
+
+import com.yusssss.vcmail.business.abstracts.ConversationCacheService;
+import com.yusssss.vcmail.business.abstracts.MessageQueueService;
+import com.yusssss.vcmail.core.utilities.metrics.VoicePipelineMetrics;
+import com.yusssss.vcmail.core.utilities.search.TranscriptSearchIndex;
+import com.yusssss.vcmail.dataAccess.ConversationDao;
+import com.yusssss.vcmail.dataAccess.MessageDao;
+import com.yusssss.vcmail.entities.Message;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind queue for call-path messages. Media and WebSocket threads only
+ * enqueue; a single worker persists the queued messages in JDBC batches and
+ * references conversations by id, so nothing on the call path waits for Postgres.
+ * A failed batch is retried with backoff; if it keeps failing, its messages are
+ * written one by one so only the rows that cannot be stored are dropped.
+ */
+@Service
+public class MessageQueueManager implements MessageQueueService {
+
+    public enum OverflowPolicy {
+        DROP_NEWEST,
+        DROP_OLDEST
+    }
+
+    private final MessageDao messageDao;
+    private final ConversationDao conversationDao;
+    private final TransactionTemplate transactionTemplate;
+    private final TranscriptSearchIndex transcriptSearchIndex;
+    private final ConversationCacheService conversationCacheService;
+    private final VoicePipelineMetrics voicePipelineMetrics;
+    private final Logger logger = LoggerFactory.getLogger(MessageQueueManager.class);
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "MessageWriteBehind");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final int BARRIER_OFFER_ATTEMPTS = 10;
+    private static final int EVICT_ATTEMPTS = 3;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+    private BlockingQueue<PendingWrite> queue;
+    private OverflowPolicy overflowPolicy;
+    private volatile boolean running = true;
+
+    @Value("${persistence.message-queue.capacity:10000}")
+    private int capacity;
+
+    @Value("${persistence.message-queue.batch-size:50}")
+    private int batchSize;
+
+    @Value("${persistence.message-queue.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${persistence.message-queue.overflow-policy:drop-oldest}")
+    private String overflowPolicyName;
+
+    @Value("${persistence.message-queue.retry-attempts:3}")
+    private int retryAttempts;
+
+    @Value("${persistence.message-queue.retry-backoff-ms:100}")
+    private long retryBackoffMs;
+
+    public MessageQueueManager(MessageDao messageDao, ConversationDao conversationDao,
+                               PlatformTransactionManager transactionManager, TranscriptSearchIndex transcriptSearchIndex,
+                               ConversationCacheService conversationCacheService, VoicePipelineMetrics voicePipelineMetrics) {
+        this.messageDao = messageDao;
+        this.conversationDao = conversationDao;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transcriptSearchIndex = transcriptSearchIndex;
+        this.conversationCacheService = conversationCacheService;
+        this.voicePipelineMetrics = voicePipelineMetrics;
+    }
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(capacity);
+        overflowPolicy = OverflowPolicy.valueOf(overflowPolicyName.toUpperCase().replace('-', '_'));
+        worker.submit(this::drainLoop);
+        logger.info("Message write-behind queue started. Capacity: {}, batch size: {}, overflow policy: {}",
+                capacity, batchSize, overflowPolicy);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("Message write-behind worker did not finish, {} message(s) lost", queue.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean enqueue(String conversationId, Message message) {
+        if (message.getTimestamp() == null) {
+            message.setTimestamp(LocalDateTime.now());
+        }
+        PendingWrite write = new PendingWrite(conversationId, message, null);
+        if (queue.offer(write)) {
+            return true;
+        }
+
+        if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+            // Boşalan yeri başka bir üretici kapabilir; birkaç kez denenir
+            for (int attempt = 0; attempt < EVICT_ATTEMPTS; attempt++) {
+                PendingWrite evicted = evictOldestMessage();
+                if (evicted == null) {
+                    break;
+                }
+                droppedCount.incrementAndGet();
+                logger.warn("[{}] Message queue full, dropped oldest message", evicted.conversationId);
+                if (queue.offer(write)) {
+                    return true;
+                }
+            }
+        }
+
+        droppedCount.incrementAndGet();
+        logger.warn("[{}] Message queue full, dropped message from {}", conversationId, message.getSpeaker());
+        return false;
+    }
+
+    // Bariyerler hiç kuyruktan çıkarılmaz, en eski mesaj onların arkasından seçilir;
+    // aksi halde geri koyarken yer kapılırsa flush future'ı hiç tamamlanmazdı
+    private PendingWrite evictOldestMessage() {
+        for (PendingWrite candidate : queue) {
+            if (candidate.message != null && queue.remove(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public CompletableFuture<Void> flush(String conversationId) {
+        CompletableFuture<Void> barrier = new CompletableFuture<>();
+        // Bariyer, kendinden önce kuyruğa giren mesajlar yazıldığında tamamlanır
+        offerBarrier(new PendingWrite(conversationId, null, barrier), BARRIER_OFFER_ATTEMPTS);
+        return barrier;
+    }
+
+    // Kuyruk doluysa çağıran beklemez; bariyer bir flush aralığı sonra yeniden denenir
+    private void offerBarrier(PendingWrite write, int attemptsLeft) {
+        if (queue.offer(write)) {
+            return;
+        }
+        if (attemptsLeft <= 1) {
+            write.barrier.completeExceptionally(new IllegalStateException("Message queue full, flush barrier rejected"));
+            return;
+        }
+        CompletableFuture.delayedExecutor(flushIntervalMs, TimeUnit.MILLISECONDS)
+                .execute(() -> offerBarrier(write, attemptsLeft - 1));
+    }
+
+    @Override
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private void drainLoop() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                persist(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Message write-behind batch failed unexpectedly, {} entries discarded", batch.size(), e);
+                batch.forEach(write -> {
+                    if (write.barrier != null) {
+                        write.barrier.completeExceptionally(e);
+                    }
+                });
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void persist(List<PendingWrite> batch) throws InterruptedException {
+        List<CompletableFuture<Void>> barriers = new ArrayList<>();
+        for (PendingWrite write : batch) {
+            if (write.barrier != null) {
+                barriers.add(write.barrier);
+            }
+        }
+
+        List<PendingWrite> writes = batch.stream().filter(write -> write.message != null).toList();
+        if (!writes.isEmpty()) {
+            List<PendingWrite> persisted = writeWithRetry(writes);
+            List<Message> persistedMessages = persisted.stream().map(write -> write.message).toList();
+
+            // Commit sonrası cache'i geçersiz kıl ve arama indeksine ekle
+            persisted.stream()
+                    .map(write -> write.conversationId)
+                    .distinct()
+                    .forEach(conversationCacheService::invalidateMessages);
+            transcriptSearchIndex.indexMessages(persistedMessages);
+        }
+
+        barriers.forEach(barrier -> barrier.complete(null));
+    }
+
+    // Geçici hatalar (bağlantı kopması, failover) için batch backoff ile tekrarlanır,
+    // sonra satır satır yazılır; dönen liste kalıcı olan mesajlardır
+    private List<PendingWrite> writeWithRetry(List<PendingWrite> writes) throws InterruptedException {
+        long backoff = retryBackoffMs;
+        for (int attempt = 1; attempt <= retryAttempts; attempt++) {
+            try {
+                long start = System.nanoTime();
+                writeBatch(writes);
+                long elapsed = System.nanoTime() - start;
+                voicePipelineMetrics.recordMessageBatchWrite(elapsed);
+                logger.debug("Persisted {} message(s) in {} ms", writes.size(), elapsed / 1_000_000);
+                return writes;
+            } catch (RuntimeException e) {
+                resetIds(writes);
+                if (attempt == retryAttempts) {
+                    logger.error("Message batch of {} failed {} time(s), writing rows one by one", writes.size(), attempt, e);
+                    break;
+                }
+                logger.warn("Message batch of {} failed (attempt {}/{}), retrying in {} ms: {}",
+                        writes.size(), attempt, retryAttempts, backoff, e.getMessage());
+                Thread.sleep(backoff);
+                backoff *= 2;
+            }
+        }
+
+        List<PendingWrite> persisted = new ArrayList<>(writes.size());
+        for (PendingWrite write : writes) {
+            try {
+                writeBatch(List.of(write));
+                persisted.add(write);
+            } catch (RuntimeException e) {
+                droppedCount.incrementAndGet();
+                logger.error("[{}] Message from {} could not be persisted, dropped", write.conversationId,
+                        write.message.getSpeaker(), e);
+            }
+        }
+        return persisted;
+    }
+
+    private void writeBatch(List<PendingWrite> writes) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (PendingWrite write : writes) {
+                write.message.setConversation(conversationDao.getReferenceById(write.conversationId));
+            }
+            messageDao.saveAll(writes.stream().map(write -> write.message).toList());
+        });
+    }
+
+    // Geri alınan işlemde üretilen id'ler tekrar denemede yeni kayıt olarak yazılsın
+    private static void resetIds(List<PendingWrite> writes) {
+        writes.forEach(write -> write.message.setId(null));
+    }
+
+    private static class PendingWrite {
+        private final String conversationId;
+        private final Message message;
+        private final CompletableFuture<Void> barrier;
+
+        PendingWrite(String conversationId, Message message, CompletableFuture<Void> barrier) {
+            this.conversationId = conversationId;
+            this.message = message;
+            this.barrier = barrier;
+        }
+    }
+}
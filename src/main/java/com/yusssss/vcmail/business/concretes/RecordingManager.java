@@ -0,0 +1,100 @@
+package com.yusssss.vcmail.business.concretes;
+
+import com.yusssss.vcmail.business.abstracts.ConversationService;
+import com.yusssss.vcmail.business.abstracts.RecordingService;
+import com.yusssss.vcmail.core.exceptions.InvalidRequestException;
+import com.yusssss.vcmail.core.exceptions.ResourceNotFoundException;
+import com.yusssss.vcmail.core.exceptions.VCMailException;
+import com.yusssss.vcmail.core.utilities.recording.DownmixingPcmStream;
+import com.yusssss.vcmail.entities.Conversation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.BufferedInputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Service
+public class RecordingManager implements RecordingService {
+
+    private static final int MIN_PREVIEW_SAMPLE_RATE = 2000;
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+
+    private final ConversationService conversationService;
+    private final Logger logger = LoggerFactory.getLogger(RecordingManager.class);
+
+    @Value("${recording.directory:kayitlar}")
+    private String recordingDirectory;
+
+    public RecordingManager(ConversationService conversationService) {
+        this.conversationService = conversationService;
+    }
+
+    @Override
+    public Resource getRecording(String conversationId) {
+        return new FileSystemResource(resolveRecordingPath(conversationId));
+    }
+
+    @Override
+    public void writePreview(String conversationId, int sampleRate, OutputStream outputStream) {
+        if (sampleRate < MIN_PREVIEW_SAMPLE_RATE) {
+            throw new InvalidRequestException("Preview sample rate must be at least " + MIN_PREVIEW_SAMPLE_RATE);
+        }
+        Path recordingPath = resolveRecordingPath(conversationId);
+
+        // Dosya baştan sona akış halinde işlenir, heap'e alınmaz
+        try (AudioInputStream source = AudioSystem.getAudioInputStream(
+                new BufferedInputStream(Files.newInputStream(recordingPath), READ_BUFFER_BYTES))) {
+
+            AudioFormat sourceFormat = source.getFormat();
+            int channels = sourceFormat.getChannels();
+            int sourceRate = (int) sourceFormat.getSampleRate();
+            int targetRate = Math.min(sampleRate, sourceRate);
+
+            AudioFormat pcmFormat = new AudioFormat(sourceRate, 16, channels, true, false);
+            AudioInputStream pcm = AudioSystem.getAudioInputStream(pcmFormat, source);
+
+            long previewFrames = source.getFrameLength() * targetRate / sourceRate;
+            AudioInputStream mono = new AudioInputStream(
+                    new DownmixingPcmStream(pcm, channels, sourceRate, targetRate),
+                    new AudioFormat(targetRate, 16, 1, true, false),
+                    previewFrames);
+
+            // Önizleme mono μ-law: 8 kHz için 8 KB/s
+            AudioFormat ulawFormat = new AudioFormat(AudioFormat.Encoding.ULAW, targetRate, 8, 1, 1, targetRate, false);
+            AudioSystem.write(AudioSystem.getAudioInputStream(ulawFormat, mono), AudioFileFormat.Type.WAVE, outputStream);
+
+            logger.debug("[{}] Recording preview streamed at {} Hz", conversationId, targetRate);
+        } catch (VCMailException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("[{}] Recording preview could not be generated", conversationId, e);
+            throw new VCMailException("Recording preview could not be generated for conversation: " + conversationId);
+        }
+    }
+
+    private Path resolveRecordingPath(String conversationId) {
+        Conversation conversation = conversationService.getConversationById(conversationId);
+        if (conversation.getAudioRecordingUrl() == null) {
+            throw new ResourceNotFoundException("No recording for conversation: " + conversationId);
+        }
+
+        // Sadece kayıt dizini altındaki dosyalar servis edilir
+        Path directory = Path.of(recordingDirectory).toAbsolutePath().normalize();
+        Path recordingPath = Path.of(conversation.getAudioRecordingUrl()).toAbsolutePath().normalize();
+        if (!recordingPath.startsWith(directory) || !Files.isRegularFile(recordingPath)) {
+            logger.warn("[{}] Recording file not available: {}", conversationId, recordingPath);
+            throw new ResourceNotFoundException("Recording file not found for conversation: " + conversationId);
+        }
+        return recordingPath;
+    }
+}
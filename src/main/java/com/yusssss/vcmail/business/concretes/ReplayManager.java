@@ -0,0 +1,243 @@
+package com.yusssss.vcmail.business.concretes;
+
+import com.yusssss.vcmail.business.abstracts.ReplayService;
+import com.yusssss.vcmail.core.exceptions.InvalidRequestException;
+import com.yusssss.vcmail.core.exceptions.ResourceNotFoundException;
+import com.yusssss.vcmail.core.exceptions.VCMailException;
+import com.yusssss.vcmail.core.utilities.audio.pipeline.AudioChain;
+import com.yusssss.vcmail.core.utilities.audio.pipeline.AudioChainFactory;
+import com.yusssss.vcmail.core.utilities.metrics.VoicePipelineMetrics;
+import com.yusssss.vcmail.core.utilities.openai.RealtimeAudioFormat;
+import com.yusssss.vcmail.core.utilities.replay.PipelineReplayer;
+import com.yusssss.vcmail.core.utilities.replay.RecordedCall;
+import com.yusssss.vcmail.core.utilities.replay.ReplayOptions;
+import com.yusssss.vcmail.core.utilities.replay.ReplayResult;
+import com.yusssss.vcmail.core.utilities.replay.ReplaySchedule;
+import com.yusssss.vcmail.core.utilities.replay.RtpReplayer;
+import com.yusssss.vcmail.entities.dtos.ReplayReportDto;
+import com.yusssss.vcmail.entities.dtos.ReplayRequestDto;
+import com.yusssss.vcmail.entities.dtos.StageLatencyDto;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ReplayManager implements ReplayService {
+
+    private static final String PIPELINE = "pipeline";
+    private static final String RTP = "rtp";
+    private static final String DEFAULT_FILES = "{call_,user_audio_}*.wav";
+
+    private final AudioChainFactory audioChainFactory;
+    private final Logger logger = LoggerFactory.getLogger(ReplayManager.class);
+
+    @Value("${replay.enabled:false}")
+    private boolean enabled;
+
+    @Value("${replay.rtp.allowed-hosts:}")
+    private String[] rtpAllowedHosts;
+
+    @Value("${recording.directory:kayitlar}")
+    private String recordingDirectory;
+
+    @Value("${openai.api.audio-format:pcm}")
+    private String defaultRealtimeAudioFormat;
+
+    public ReplayManager(AudioChainFactory audioChainFactory) {
+        this.audioChainFactory = audioChainFactory;
+    }
+
+    @Override
+    public List<ReplayReportDto> replay(ReplayRequestDto request) {
+        if (!enabled) {
+            throw new InvalidRequestException("Replay is disabled on this node (replay.enabled)");
+        }
+        String mode = request.getMode() == null ? PIPELINE : request.getMode().toLowerCase();
+        if (!mode.equals(PIPELINE) && !mode.equals(RTP)) {
+            throw new InvalidRequestException("Replay mode must be pipeline or rtp: " + request.getMode());
+        }
+        if (mode.equals(RTP) && (request.getPort() == null || request.getPort() <= 0 || request.getPort() > 65535)) {
+            throw new InvalidRequestException("RTP replay needs the call's RTP port");
+        }
+        InetAddress rtpTarget = mode.equals(RTP) ? resolveRtpTarget(request.getHost()) : null;
+        if (request.getSpeed() < 0) {
+            throw new InvalidRequestException("Replay speed must be >= 0");
+        }
+
+        ReplayOptions options;
+        RealtimeAudioFormat audioFormat;
+        try {
+            options = new ReplayOptions(request.getJitterMs(), request.getLossPercent(), request.getSeed());
+            audioFormat = RealtimeAudioFormat.fromName(
+                    request.getAudioFormat() != null ? request.getAudioFormat() : defaultRealtimeAudioFormat);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException(e.getMessage());
+        }
+        boolean noiseSuppression = request.getNoiseSuppression() != null
+                ? request.getNoiseSuppression() : audioChainFactory.isNoiseSuppressionDefault();
+
+        List<ReplayReportDto> reports = new ArrayList<>();
+        for (Path file : resolveFiles(request.getFiles())) {
+            RecordedCall call = load(file);
+            ReplaySchedule schedule = ReplaySchedule.of(call, options);
+            ReplayReportDto report = mode.equals(PIPELINE)
+                    ? replayThroughPipeline(call, schedule, audioFormat, noiseSuppression)
+                    : replayOverRtp(call, schedule, rtpTarget, request.getPort(), request.getSpeed());
+            logger.info("Replayed {} ({}): {} ms of audio in {} ms, crc {}", call.getName(), mode,
+                    report.getAudioMs(), Math.round(report.getWallMs()), report.getOutputCrc32());
+            reports.add(report);
+        }
+        return reports;
+    }
+
+    private ReplayReportDto replayThroughPipeline(RecordedCall call, ReplaySchedule schedule,
+                                                  RealtimeAudioFormat audioFormat, boolean noiseSuppression) {
+        // Dosya başına ayrı registry: aşama süreleri canlı metriklere karışmaz, sadece bu kaydı yansıtır
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                        .percentiles(0.5, 0.9, 0.99)
+                        .expiry(Duration.ofDays(1))
+                        .bufferLength(1)
+                        .build()
+                        .merge(config);
+            }
+        });
+        AudioChain chain = audioChainFactory.forReplay(new VoicePipelineMetrics(registry))
+                .createInbound(call.getCodec(), audioFormat, Map.of(), noiseSuppression);
+
+        ReplayResult result = PipelineReplayer.replay(schedule, chain);
+
+        List<StageLatencyDto> stages = chain.getStageNames().stream()
+                .map(stage -> stageLatency(stage, registry.get("vcmail.audio.stage")
+                        .tags("chain", chain.getName(), "stage", stage).timer()))
+                .toList();
+
+        ReplayReportDto report = baseReport(call, PIPELINE, result);
+        report.setPacketsLost(result.getPacketsLost());
+        report.setJitterMs(result.getJitterMillis());
+        report.setCpuMs(result.getCpuNanos() / 1_000_000.0);
+        report.setOutputBytes(result.getOutputBytes());
+        report.setOutputCrc32(String.format("%08x", result.getOutputCrc32()));
+        report.setStages(stages);
+        return report;
+    }
+
+    private ReplayReportDto replayOverRtp(RecordedCall call, ReplaySchedule schedule, InetAddress host, int port, double speed) {
+        try {
+            ReplayResult result = RtpReplayer.replay(schedule, host, port, speed);
+            ReplayReportDto report = baseReport(call, RTP, result);
+            report.setMaxSendLatenessMs(result.getMaxSendLatenessNanos() / 1_000_000.0);
+            return report;
+        } catch (IOException e) {
+            logger.error("RTP replay of {} to {}:{} failed", call.getName(), host.getHostAddress(), port, e);
+            throw new VCMailException("RTP replay failed for " + call.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private static ReplayReportDto baseReport(RecordedCall call, String mode, ReplayResult result) {
+        ReplayReportDto report = new ReplayReportDto();
+        report.setFile(call.getName());
+        report.setMode(mode);
+        report.setCodec(call.getCodec().getAsteriskFormat());
+        report.setAudioMs(call.getDurationMillis());
+        report.setPacketsSent(result.getPacketsSent());
+        report.setPacketsDropped(result.getPacketsDropped());
+        report.setWallMs(result.getWallNanos() / 1_000_000.0);
+        report.setRealTimeFactor(result.getWallNanos() == 0 ? 0 : call.getDurationMillis() * 1_000_000.0 / result.getWallNanos());
+        return report;
+    }
+
+    private static StageLatencyDto stageLatency(String stage, Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Double p50 = null;
+        Double p90 = null;
+        Double p99 = null;
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            double millis = value.value(TimeUnit.MILLISECONDS);
+            if (value.percentile() == 0.5) {
+                p50 = millis;
+            } else if (value.percentile() == 0.9) {
+                p90 = millis;
+            } else if (value.percentile() == 0.99) {
+                p99 = millis;
+            }
+        }
+        return new StageLatencyDto(stage, (int) snapshot.count(), p50, p90, p99, snapshot.max(TimeUnit.MILLISECONDS));
+    }
+
+    // Replay başka makinelere UDP trafiği üretmesin: loopback veya yapılandırılmış host'lar
+    private InetAddress resolveRtpTarget(String host) {
+        String target = host == null || host.isBlank() ? "127.0.0.1" : host.trim();
+        InetAddress address;
+        try {
+            address = InetAddress.getByName(target);
+        } catch (UnknownHostException e) {
+            throw new InvalidRequestException("RTP replay host could not be resolved: " + target);
+        }
+        if (address.isLoopbackAddress()
+                || Arrays.stream(rtpAllowedHosts).map(String::trim).anyMatch(target::equalsIgnoreCase)) {
+            return address;
+        }
+        throw new InvalidRequestException("RTP replay host must be loopback or listed in replay.rtp.allowed-hosts: " + target);
+    }
+
+    private List<Path> resolveFiles(String pattern) {
+        String glob = pattern == null || pattern.isBlank() ? DEFAULT_FILES : pattern;
+        // Sadece kayıt dizininin kendisi taranır
+        if (glob.contains("/") || glob.contains("\\") || glob.contains("..")) {
+            throw new InvalidRequestException("Replay file pattern must not contain a path: " + glob);
+        }
+        Path directory = Path.of(recordingDirectory).toAbsolutePath().normalize();
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+                for (Path file : stream) {
+                    if (Files.isRegularFile(file)) {
+                        files.add(file);
+                    }
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                throw new InvalidRequestException("Replay file pattern could not be used: " + glob);
+            }
+        }
+        if (files.isEmpty()) {
+            throw new ResourceNotFoundException("No recordings match " + glob + " in " + directory);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static RecordedCall load(Path file) {
+        try {
+            return RecordedCall.load(file);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException(file.getFileName() + ": " + e.getMessage());
+        } catch (Exception e) {
+            throw new VCMailException("Recording could not be read: " + file.getFileName());
+        }
+    }
+}
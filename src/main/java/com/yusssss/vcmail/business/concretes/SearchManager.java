@@ -0,0 +1,154 @@
+package com.yusssss.vcmail.business.concretes;
+
+import com.yusssss.vcmail.business.abstracts.SearchService;
+import com.yusssss.vcmail.core.exceptions.InvalidRequestException;
+import com.yusssss.vcmail.core.exceptions.VCMailException;
+import com.yusssss.vcmail.core.utilities.search.TranscriptSearchIndex;
+import com.yusssss.vcmail.dataAccess.ConversationDao;
+import com.yusssss.vcmail.dataAccess.MessageDao;
+import com.yusssss.vcmail.entities.Message;
+import com.yusssss.vcmail.entities.dtos.SearchHitDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Search runs against this node's local index. Calls handled by other nodes become
+ * searchable once they end: a periodic sync indexes the messages of conversations that
+ * ended since the last sync. Live calls of other nodes are not searchable.
+ */
+@Service
+public class SearchManager implements SearchService, ApplicationRunner {
+
+    private static final int MAX_RESULTS = 100;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final int SYNC_BATCH_SIZE = 500;
+    // Node saat kayması ve geç yazılan mesajlar için geriye doğru tekrar taranan aralık
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(2);
+
+    private final TranscriptSearchIndex transcriptSearchIndex;
+    private final MessageDao messageDao;
+    private final ConversationDao conversationDao;
+    private final Logger logger = LoggerFactory.getLogger(SearchManager.class);
+    // Rebuild ve cluster sync aynı thread'de sırayla çalışır
+    private final ScheduledExecutorService rebuildExecutor = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+
+    @Value("${search.index.rebuild-on-empty:true}")
+    private boolean rebuildOnEmpty;
+
+    @Value("${search.index.cluster-sync-seconds:30}")
+    private long clusterSyncSeconds;
+
+    public SearchManager(TranscriptSearchIndex transcriptSearchIndex, MessageDao messageDao, ConversationDao conversationDao) {
+        this.transcriptSearchIndex = transcriptSearchIndex;
+        this.messageDao = messageDao;
+        this.conversationDao = conversationDao;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (rebuildOnEmpty && transcriptSearchIndex.isEmpty()) {
+            logger.info("Transcript search index is empty, rebuilding from database.");
+            rebuildIndex();
+        }
+        if (clusterSyncSeconds > 0) {
+            rebuildExecutor.scheduleWithFixedDelay(this::syncEndedConversations,
+                    clusterSyncSeconds, clusterSyncSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    @Override
+    public List<SearchHitDto> searchConversations(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidRequestException("Search query must not be empty");
+        }
+        int resultLimit = Math.max(1, Math.min(limit, MAX_RESULTS));
+        long start = System.nanoTime();
+        try {
+            List<SearchHitDto> hits = transcriptSearchIndex.search(query, resultLimit);
+            logger.info("Search '{}' returned {} conversation(s) in {} µs", query, hits.size(), (System.nanoTime() - start) / 1000);
+            return hits;
+        } catch (Exception e) {
+            logger.error("Error searching transcripts for '{}'", query, e);
+            throw new VCMailException("Search failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean rebuildIndex() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            logger.warn("Transcript search index rebuild already running.");
+            return false;
+        }
+        rebuildExecutor.submit(() -> {
+            long start = System.currentTimeMillis();
+            LocalDateTime rebuildStart = LocalDateTime.now();
+            long indexed = 0;
+            try {
+                transcriptSearchIndex.deleteAll();
+                String lastId = "";
+                while (true) {
+                    List<Message> page = messageDao.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(REBUILD_PAGE_SIZE));
+                    transcriptSearchIndex.indexMessages(page);
+                    indexed += page.size();
+                    if (page.size() < REBUILD_PAGE_SIZE) {
+                        break;
+                    }
+                    lastId = page.get(page.size() - 1).getId();
+                }
+                transcriptSearchIndex.setSyncedUntil(rebuildStart);
+                transcriptSearchIndex.commit();
+                logger.info("Transcript search index rebuilt: {} message(s) in {} ms", indexed, System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                logger.error("Transcript search index rebuild failed after {} message(s)", indexed, e);
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+        return true;
+    }
+
+    // Diğer node'larda biten çağrıların mesajları; yeniden indekslemek id ile günceller, tekrar zararsız
+    private void syncEndedConversations() {
+        if (rebuilding.get()) {
+            return;
+        }
+        LocalDateTime syncStart = LocalDateTime.now();
+        LocalDateTime syncedUntil = transcriptSearchIndex.getSyncedUntil();
+        LocalDateTime since = (syncedUntil != null ? syncedUntil : syncStart).minus(SYNC_OVERLAP);
+        try {
+            List<String> conversationIds = conversationDao.findIdsEndedSince(since);
+            long indexed = 0;
+            for (int from = 0; from < conversationIds.size(); from += SYNC_BATCH_SIZE) {
+                List<Message> messages = messageDao.findByConversation_IdIn(
+                        conversationIds.subList(from, Math.min(conversationIds.size(), from + SYNC_BATCH_SIZE)));
+                transcriptSearchIndex.indexMessages(messages);
+                indexed += messages.size();
+            }
+            transcriptSearchIndex.setSyncedUntil(syncStart);
+            logger.debug("Search index synced {} conversation(s), {} message(s) ended since {}",
+                    conversationIds.size(), indexed, since);
+        } catch (Exception e) {
+            logger.warn("Search index sync from database failed, retrying next round: {}", e.getMessage());
+        }
+    }
+}
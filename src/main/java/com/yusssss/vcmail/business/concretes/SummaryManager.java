@@ -0,0 +1,310 @@
+package com.yusssss.vcmail.business.concretes;
+
+import com.yusssss.vcmail.business.abstracts.CallerProfileService;
+import com.yusssss.vcmail.business.abstracts.ConversationCacheService;
+import com.yusssss.vcmail.business.abstracts.SummaryService;
+import com.yusssss.vcmail.core.utilities.metrics.VoicePipelineMetrics;
+import com.yusssss.vcmail.core.utilities.summary.SummaryClient;
+import com.yusssss.vcmail.core.utilities.summary.SummaryException;
+import com.yusssss.vcmail.core.utilities.summary.TokenBucket;
+import com.yusssss.vcmail.dataAccess.ConversationDao;
+import com.yusssss.vcmail.dataAccess.MessageDao;
+import com.yusssss.vcmail.dataAccess.SummaryJobDao;
+import com.yusssss.vcmail.dataAccess.SummaryNodeDao;
+import com.yusssss.vcmail.entities.Message;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Görüşme sonrası özet hattı. İşler summary_jobs tablosunda kalıcıdır; her node boştaki
+ * worker ve rate limit token'ı kadar işi yarışarak üstlenir. Worker'lar ayrı, sabit boyutlu
+ * ve düşük öncelikli bir havuzdadır, çağrı yolundaki executor'a hiç dokunmaz.
+ * Başarısız istekler üstel geri çekilmeyle tekrar denenir, limit aşılınca FAILED kalır.
+ * Rate limit node'da tutulur: summary.rate-per-minute cluster geneli limittir. Her node her poll'da
+ * summary_nodes tablosuna canlılık yazar ve limiti o an canlı node sayısına bölerek payını yeniden
+ * hesaplar; node eklenince limit aşılmaz, node düşünce kalanlar payını büyütür.
+ */
+@Service
+public class SummaryManager implements SummaryService {
+
+    private static final String PENDING = "PENDING";
+    private static final String RUNNING = "RUNNING";
+    private static final String DONE = "DONE";
+    private static final String FAILED = "FAILED";
+    private static final int MAX_ERROR_LENGTH = 2000;
+    // Bu kadar poll boyunca görünmeyen node payından düşülür
+    private static final long NODE_TTL_POLLS = 5;
+    private static final long NODE_TTL_MIN_SECONDS = 15;
+
+    private final SummaryJobDao summaryJobDao;
+    private final SummaryNodeDao summaryNodeDao;
+    private final ConversationDao conversationDao;
+    private final MessageDao messageDao;
+    private final SummaryClient summaryClient;
+    private final ConversationCacheService conversationCacheService;
+    private final CallerProfileService callerProfileService;
+    private final VoicePipelineMetrics voicePipelineMetrics;
+    private final Logger logger = LoggerFactory.getLogger(SummaryManager.class);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicLong pendingJobs = new AtomicLong();
+    private final AtomicLong runningJobs = new AtomicLong();
+    private final AtomicLong failedJobs = new AtomicLong();
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+    private ExecutorService workers;
+    private Semaphore freeWorkers;
+    private TokenBucket rateLimiter;
+    private int nodeRatePerMinute;
+
+    @Value("${summary.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cluster.node-id}")
+    private String nodeId;
+
+    @Value("${summary.workers:2}")
+    private int workerCount;
+
+    @Value("${summary.rate-per-minute:30}")
+    private int ratePerMinute;
+
+    @Value("${summary.poll-interval-ms:2000}")
+    private long pollIntervalMs;
+
+    @Value("${summary.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${summary.retry-backoff:30s}")
+    private Duration retryBackoff;
+
+    @Value("${summary.stale-after:10m}")
+    private Duration staleAfter;
+
+    @Value("${summary.max-transcript-chars:12000}")
+    private int maxTranscriptChars;
+
+    public SummaryManager(SummaryJobDao summaryJobDao, SummaryNodeDao summaryNodeDao, ConversationDao conversationDao,
+                          MessageDao messageDao, SummaryClient summaryClient, ConversationCacheService conversationCacheService,
+                          CallerProfileService callerProfileService, VoicePipelineMetrics voicePipelineMetrics) {
+        this.summaryJobDao = summaryJobDao;
+        this.summaryNodeDao = summaryNodeDao;
+        this.conversationDao = conversationDao;
+        this.messageDao = messageDao;
+        this.summaryClient = summaryClient;
+        this.conversationCacheService = conversationCacheService;
+        this.callerProfileService = callerProfileService;
+        this.voicePipelineMetrics = voicePipelineMetrics;
+    }
+
+    @PostConstruct
+    public void start() {
+        voicePipelineMetrics.bindSummaryBacklog("pending", pendingJobs::get);
+        voicePipelineMetrics.bindSummaryBacklog("running", runningJobs::get);
+        voicePipelineMetrics.bindSummaryBacklog("failed", failedJobs::get);
+        voicePipelineMetrics.bindSummaryWorkers(busyWorkers::get);
+
+        if (!enabled) {
+            logger.info("Post-call summaries disabled");
+            return;
+        }
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "SummaryWorker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        freeWorkers = new Semaphore(workerCount);
+        // Canlı node sayısı ilk poll'da okunur; o zamana kadar token harcanmaz
+        nodeRatePerMinute = ratePerMinute;
+        rateLimiter = new TokenBucket(ratePerMinute, Math.min(workerCount, ratePerMinute), System.nanoTime());
+
+        scheduler.execute(this::recoverOwnJobs);
+        scheduler.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Summary workers started: {} worker(s), {} request(s)/min across the cluster, max {} attempt(s)",
+                workerCount, ratePerMinute, maxAttempts);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (enabled) {
+            // Kalan node'lar bir sonraki poll'da payını büyütür
+            try {
+                summaryNodeDao.deleteNode(nodeId);
+            } catch (Exception e) {
+                logger.warn("Could not remove summary node {}", nodeId, e);
+            }
+        }
+        if (workers != null) {
+            // Yarım kalan işler RUNNING kalır, açılışta veya stale süresi sonunda geri alınır
+            workers.shutdownNow();
+        }
+    }
+
+    @Override
+    public void enqueue(String conversationId) {
+        if (enabled) {
+            summaryJobDao.insertIfAbsent(conversationId, LocalDateTime.now());
+        }
+    }
+
+    private void recoverOwnJobs() {
+        try {
+            int requeued = summaryJobDao.requeueOwned(nodeId, LocalDateTime.now());
+            if (requeued > 0) {
+                logger.info("Requeued {} summary job(s) interrupted by the last shutdown of node {}", requeued, nodeId);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not requeue interrupted summary jobs", e);
+        }
+    }
+
+    private void poll() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            summaryJobDao.requeueStale(now.minus(staleAfter), now);
+            refreshBacklog();
+            refreshNodeShare();
+
+            int capacity = Math.min(freeWorkers.availablePermits(), rateLimiter.available(System.nanoTime()));
+            if (capacity <= 0) {
+                return;
+            }
+
+            for (String conversationId : summaryJobDao.findDue(now, PageRequest.of(0, capacity))) {
+                if (!rateLimiter.tryAcquire(System.nanoTime())) {
+                    break;
+                }
+                if (!freeWorkers.tryAcquire()) {
+                    break;
+                }
+                // Başka node daha önce aldıysa token harcanmış olur, limit yine aşılmaz
+                if (summaryJobDao.claim(conversationId, nodeId, LocalDateTime.now()) != 1) {
+                    freeWorkers.release();
+                    continue;
+                }
+                workers.execute(() -> {
+                    busyWorkers.incrementAndGet();
+                    try {
+                        runJob(conversationId);
+                    } finally {
+                        busyWorkers.decrementAndGet();
+                        freeWorkers.release();
+                    }
+                });
+            }
+        } catch (Exception e) {
+            logger.error("Summary poll failed", e);
+        }
+    }
+
+    // Payı 1'in altına düşen node yine de ilerler; limit o durumda en fazla node sayısı kadar aşılır
+    void refreshNodeShare() {
+        summaryNodeDao.heartbeat(nodeId);
+        long ttlSeconds = Math.max(NODE_TTL_MIN_SECONDS, TimeUnit.MILLISECONDS.toSeconds(pollIntervalMs * NODE_TTL_POLLS));
+        int alive = (int) Math.max(1, summaryNodeDao.countAlive(ttlSeconds));
+        int share = Math.max(1, ratePerMinute / alive);
+        if (share != nodeRatePerMinute) {
+            rateLimiter.setRate(share, Math.min(workerCount, share), System.nanoTime());
+            logger.info("Summary rate share of node {}: {} request(s)/min ({}/min across {} node(s))",
+                    nodeId, share, ratePerMinute, alive);
+        }
+        nodeRatePerMinute = share;
+    }
+
+    int getNodeRatePerMinute() {
+        return nodeRatePerMinute;
+    }
+
+    private void runJob(String conversationId) {
+        int attempts = summaryJobDao.findById(conversationId).map(job -> job.getAttempts()).orElse(0) + 1;
+        try {
+            String transcript = buildTranscript(messageDao.findByConversation_IdOrderBySequenceIndexAsc(conversationId));
+            if (transcript.isBlank()) {
+                summaryJobDao.complete(conversationId, DONE, attempts, LocalDateTime.now(), null, LocalDateTime.now());
+                voicePipelineMetrics.summaryCompleted();
+                return;
+            }
+
+            long start = System.nanoTime();
+            String summary = summaryClient.summarize(transcript);
+            voicePipelineMetrics.recordSummaryRequest(System.nanoTime() - start);
+
+            conversationDao.updateSummary(conversationId, summary);
+            summaryJobDao.complete(conversationId, DONE, attempts, LocalDateTime.now(), null, LocalDateTime.now());
+            conversationCacheService.invalidateConversation(conversationId);
+            conversationDao.findById(conversationId)
+                    .ifPresent(conversation -> callerProfileService.invalidate(conversation.getCallerPhoneNumber()));
+            voicePipelineMetrics.summaryCompleted();
+            logger.info("[{}] Summary stored after {} attempt(s)", conversationId, attempts);
+
+        } catch (SummaryException e) {
+            scheduleRetry(conversationId, attempts, e.getMessage(), e.isRetryable());
+        } catch (Exception e) {
+            scheduleRetry(conversationId, attempts, e.toString(), true);
+        }
+    }
+
+    private void scheduleRetry(String conversationId, int attempts, String error, boolean retryable) {
+        String lastError = error == null ? null : error.substring(0, Math.min(error.length(), MAX_ERROR_LENGTH));
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            if (!retryable || attempts >= maxAttempts) {
+                summaryJobDao.complete(conversationId, FAILED, attempts, now, lastError, now);
+                voicePipelineMetrics.summaryFailed();
+                logger.error("[{}] Summary failed permanently after {} attempt(s): {}", conversationId, attempts, lastError);
+                return;
+            }
+
+            // 30s, 60s, 120s ... en fazla 1 saat
+            Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 10));
+            if (backoff.compareTo(Duration.ofHours(1)) > 0) {
+                backoff = Duration.ofHours(1);
+            }
+            summaryJobDao.complete(conversationId, PENDING, attempts, now.plus(backoff), lastError, now);
+            voicePipelineMetrics.summaryRetried();
+            logger.warn("[{}] Summary attempt {} failed, retrying in {}s: {}", conversationId, attempts,
+                    backoff.toSeconds(), lastError);
+        } catch (Exception e) {
+            logger.error("[{}] Could not record summary job result", conversationId, e);
+        }
+    }
+
+    private String buildTranscript(List<Message> messages) {
+        StringBuilder transcript = new StringBuilder();
+        for (Message message : messages) {
+            if (message.getText() == null || message.getText().isBlank() || "SYSTEM".equals(message.getSpeaker())) {
+                continue;
+            }
+            transcript.append(message.getSpeaker()).append(": ").append(message.getText().trim()).append('\n');
+        }
+        // Çok uzun görüşmelerde baş kısım tutulur, istek boyutu sınırlı kalır
+        if (transcript.length() > maxTranscriptChars) {
+            transcript.setLength(maxTranscriptChars);
+        }
+        return transcript.toString();
+    }
+
+    private void refreshBacklog() {
+        pendingJobs.set(summaryJobDao.countByStatus(PENDING));
+        runningJobs.set(summaryJobDao.countByStatus(RUNNING));
+        failedJobs.set(summaryJobDao.countByStatus(FAILED));
+    }
+}
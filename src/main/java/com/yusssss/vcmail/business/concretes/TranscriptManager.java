@@ -0,0 +1,196 @@
+package com.yusssss.vcmail.business.concretes;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yusssss.vcmail.business.abstracts.CallMonitorService;
+import com.yusssss.vcmail.business.abstracts.MessageQueueService;
+import com.yusssss.vcmail.business.abstracts.MessageService;
+import com.yusssss.vcmail.business.abstracts.TranscriptService;
+import com.yusssss.vcmail.core.utilities.openai.TranscriptEvent;
+import com.yusssss.vcmail.entities.Message;
+import com.yusssss.vcmail.entities.dtos.TranscriptTurnDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces streaming transcript deltas into one message per turn. Each turn gets its
+ * sequence index when it starts, so turns keep conversational order even though user
+ * transcriptions often complete after the assistant has started answering. Completed
+ * turns go to the write-behind queue; active calls are served from memory.
+ */
+@Service
+public class TranscriptManager implements TranscriptService {
+
+    private final MessageService messageService;
+    private final MessageQueueService messageQueueService;
+    private final CallMonitorService callMonitorService;
+    private final Logger logger = LoggerFactory.getLogger(TranscriptManager.class);
+    private final Map<String, ConversationTranscript> transcripts = new ConcurrentHashMap<>();
+    // Biten çağrıların sayacı: kapanıştan sonra gelen mesajlar (ör. geç biten tool çağrısı) sırayı sürdürür.
+    // Kuyruktaki mesajlar henüz yazılmamış olabileceği için DB'deki son indeks yeterli değildir
+    private final Cache<String, ConversationTranscript> endedTranscripts = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .maximumSize(10_000)
+            .build();
+
+    public TranscriptManager(MessageService messageService, MessageQueueService messageQueueService,
+                             CallMonitorService callMonitorService) {
+        this.messageService = messageService;
+        this.messageQueueService = messageQueueService;
+        this.callMonitorService = callMonitorService;
+    }
+
+    @Override
+    public void startTranscript(String conversationId) {
+        // Devralınan çağrılarda sıra numarası DB'deki son mesajdan devam eder
+        int nextSequence = messageService.getLastSequenceIndex(conversationId) + 1;
+        transcripts.put(conversationId, new ConversationTranscript(nextSequence));
+        logger.debug("[{}] Transcript started at sequence {}", conversationId, nextSequence);
+    }
+
+    @Override
+    public void onTranscriptEvent(String conversationId, TranscriptEvent event) {
+        ConversationTranscript transcript = transcripts.get(conversationId);
+        if (transcript == null) {
+            return;
+        }
+
+        Turn completed = null;
+        synchronized (transcript) {
+            Turn turn = transcript.liveTurns.get(event.getItemId());
+            if (turn == null) {
+                turn = new Turn(transcript.nextSequence++, event.getSpeaker());
+                transcript.liveTurns.put(event.getItemId(), turn);
+            }
+
+            switch (event.getKind()) {
+                case DELTA -> turn.text.append(event.getText());
+                case COMPLETED -> {
+                    // Son metin delta birikiminin yerini alır
+                    if (event.getText() != null && !event.getText().isEmpty()) {
+                        turn.text.setLength(0);
+                        turn.text.append(event.getText());
+                    }
+                    turn.completed = true;
+                    transcript.liveTurns.remove(event.getItemId());
+                    transcript.completedTurns.add(turn);
+                    completed = turn;
+                }
+                default -> {
+                }
+            }
+        }
+
+        if (completed != null) {
+            logger.info("[{}] {} turn #{}: {}", conversationId, completed.speaker, completed.sequenceIndex, completed.text);
+            persist(conversationId, completed);
+        }
+    }
+
+    @Override
+    public void appendMessage(String conversationId, String speaker, String text) {
+        ConversationTranscript transcript = transcripts.get(conversationId);
+        boolean live = transcript != null;
+        if (!live) {
+            transcript = endedTranscripts.get(conversationId,
+                    id -> new ConversationTranscript(messageService.getLastSequenceIndex(id) + 1));
+        }
+        Turn turn;
+        synchronized (transcript) {
+            turn = new Turn(transcript.nextSequence++, speaker);
+            turn.text.append(text);
+            turn.completed = true;
+            if (live) {
+                transcript.completedTurns.add(turn);
+            }
+        }
+        persist(conversationId, turn);
+    }
+
+    @Override
+    public void endTranscript(String conversationId) {
+        ConversationTranscript transcript = transcripts.remove(conversationId);
+        if (transcript == null) {
+            return;
+        }
+
+        // Çağrı bittiğinde yarım kalan turlar da kaydedilir
+        List<Turn> unfinished;
+        synchronized (transcript) {
+            unfinished = new ArrayList<>(transcript.liveTurns.values());
+            transcript.liveTurns.clear();
+            transcript.completedTurns.clear();
+        }
+        endedTranscripts.put(conversationId, transcript);
+        for (Turn turn : unfinished) {
+            if (turn.text.length() > 0) {
+                persist(conversationId, turn);
+            }
+        }
+    }
+
+    @Override
+    public List<TranscriptTurnDto> getTranscript(String conversationId) {
+        ConversationTranscript transcript = transcripts.get(conversationId);
+        if (transcript == null) {
+            return messageService.getMessagesByConversationId(conversationId).stream()
+                    .map(message -> new TranscriptTurnDto(message.getSequenceIndex(), message.getSpeaker(),
+                            message.getText(), message.getTimestamp(), true))
+                    .toList();
+        }
+
+        List<TranscriptTurnDto> turns = new ArrayList<>();
+        synchronized (transcript) {
+            transcript.completedTurns.forEach(turn -> turns.add(turn.toDto()));
+            transcript.liveTurns.values().forEach(turn -> turns.add(turn.toDto()));
+        }
+        turns.sort(Comparator.comparingInt(TranscriptTurnDto::getSequenceIndex));
+        return turns;
+    }
+
+    private void persist(String conversationId, Turn turn) {
+        Message message = new Message();
+        message.setSequenceIndex(turn.sequenceIndex);
+        message.setSpeaker(turn.speaker);
+        message.setText(turn.text.toString());
+        message.setTimestamp(turn.startedAt);
+        messageQueueService.enqueue(conversationId, message);
+
+        if (callMonitorService.hasSubscribers()) {
+            callMonitorService.publish("TRANSCRIPT_TURN", conversationId, turn.toDto());
+        }
+    }
+
+    private static class ConversationTranscript {
+        private int nextSequence;
+        private final Map<String, Turn> liveTurns = new LinkedHashMap<>();
+        private final List<Turn> completedTurns = new ArrayList<>();
+
+        ConversationTranscript(int nextSequence) {
+            this.nextSequence = nextSequence;
+        }
+    }
+
+    private static class Turn {
+        private final int sequenceIndex;
+        private final String speaker;
+        private final StringBuilder text = new StringBuilder();
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private boolean completed;
+
+        Turn(int sequenceIndex, String speaker) {
+            this.sequenceIndex = sequenceIndex;
+            this.speaker = speaker;
+        }
+
+        TranscriptTurnDto toDto() {
+            return new TranscriptTurnDto(sequenceIndex, speaker, text.toString(), startedAt, completed);
+        }
+    }
+}
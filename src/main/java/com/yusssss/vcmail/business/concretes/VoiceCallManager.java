@@ -2,17 +2,45 @@ package com.yusssss.vcmail.business.concretes;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.yusssss.vcmail.business.abstracts.AppointmentService;
+import com.yusssss.vcmail.business.abstracts.CallLeaseService;
+import com.yusssss.vcmail.business.abstracts.CallMonitorService;
+import com.yusssss.vcmail.business.abstracts.CallerProfileService;
 import com.yusssss.vcmail.business.abstracts.ConversationService;
+import com.yusssss.vcmail.business.abstracts.MessageQueueService;
+import com.yusssss.vcmail.business.abstracts.TranscriptService;
 import com.yusssss.vcmail.core.utilities.ari.AriConnectionManager;
-import com.yusssss.vcmail.core.utilities.audio.AudioConversionService;
+import com.yusssss.vcmail.core.utilities.audio.pipeline.AudioChain;
+import com.yusssss.vcmail.core.utilities.audio.pipeline.AudioChainFactory;
+import com.yusssss.vcmail.core.utilities.audio.pipeline.AudioFrame;
+import com.yusssss.vcmail.core.utilities.jfr.AudioFrameConvertedEvent;
+import com.yusssss.vcmail.core.utilities.jfr.CallSetupStageEvent;
+import com.yusssss.vcmail.core.utilities.jfr.ToolExecutedEvent;
+import com.yusssss.vcmail.core.utilities.metrics.VoicePipelineMetrics;
 import com.yusssss.vcmail.core.utilities.openai.OpenAiRealtimeService;
+import com.yusssss.vcmail.core.utilities.openai.RealtimeAudioFormat;
+import com.yusssss.vcmail.core.utilities.openai.TranscriptEvent;
+import com.yusssss.vcmail.core.utilities.prompt.PromptClip;
+import com.yusssss.vcmail.core.utilities.prompt.PromptLibrary;
+import com.yusssss.vcmail.core.utilities.prompt.PromptType;
+import com.yusssss.vcmail.core.utilities.recording.CallRecorder;
+import com.yusssss.vcmail.core.utilities.recording.StereoCallRecording;
 import com.yusssss.vcmail.core.utilities.rtp.RtpAudioSender;
+import com.yusssss.vcmail.core.utilities.rtp.RtpCodec;
 import com.yusssss.vcmail.core.utilities.rtp.RtpListener;
 import com.yusssss.vcmail.core.utilities.rtp.RtpListenerFactory;
+import com.yusssss.vcmail.core.utilities.stats.CallStats;
+import com.yusssss.vcmail.core.utilities.stats.TurnTraceRegistry;
+import com.yusssss.vcmail.core.utilities.stats.TurnTracer;
+import com.yusssss.vcmail.entities.CallRecord;
+import com.yusssss.vcmail.entities.CallLease;
 import com.yusssss.vcmail.entities.Conversation;
-import com.yusssss.vcmail.entities.Message;
+import com.yusssss.vcmail.entities.dtos.AppointmentResultDto;
+import com.yusssss.vcmail.entities.dtos.CallHealthDto;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,10 +51,21 @@ import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class VoiceCallManager {
@@ -35,15 +74,36 @@ public class VoiceCallManager {
     private final AriConnectionManager ariConnectionManager;
     private final RtpListenerFactory rtpListenerFactory;
     private final OpenAiRealtimeService openAiRealtimeService;
-    private final AudioConversionService audioConversionService;
+    private final AudioChainFactory audioChainFactory;
     private final RtpAudioSender rtpAudioSender;
+    private final CallLeaseService callLeaseService;
+    private final MessageQueueService messageQueueService;
+    private final TranscriptService transcriptService;
+    private final CallRecorder callRecorder;
+    private final VoicePipelineMetrics voicePipelineMetrics;
+    private final TurnTraceRegistry turnTraceRegistry;
+    private final CallMonitorService callMonitorService;
+    private final PromptLibrary promptLibrary;
+    private final AppointmentService appointmentService;
+    private final CallerProfileService callerProfileService;
+    private final ExecutorService callPathExecutor;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
     private final Logger logger = LoggerFactory.getLogger(VoiceCallManager.class);
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final DateTimeFormatter SLOT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
     // Call state tracking
     private final Map<String, String> channelIdToConversationIdMap = new ConcurrentHashMap<>();
     private final Map<String, String> conversationIdToMediaChannelIdMap = new ConcurrentHashMap<>();
     private final Map<String, String> conversationIdToCallerNumberMap = new ConcurrentHashMap<>();
+    private final Map<String, RealtimeAudioFormat> conversationIdToAudioFormatMap = new ConcurrentHashMap<>();
+    private final Map<String, CallStats> conversationCallStats = new ConcurrentHashMap<>();
+    // Arayan profili kurulumla paralel yüklenir, OpenAI oturumu açılırken talimata eklenir
+    private final Map<String, CompletableFuture<String>> conversationCallerContexts = new ConcurrentHashMap<>();
+    // Kapanış anonsu çalınan çağrılar, aynı çağrı iki kez kapatılmasın
+    private final Set<String> closingConversations = ConcurrentHashMap.newKeySet();
+    // Gürültü bastırma açık çağrılar (varsayılan veya Stasis argümanı)
+    private final Set<String> noiseSuppressedConversations = ConcurrentHashMap.newKeySet();
 
 
 
@@ -60,25 +120,82 @@ public class VoiceCallManager {
     @Value("${asterisk.ari.rtp-app-host}")
     private String rtpAppHost;
 
+    @Value("${asterisk.ari.external-media-format:ulaw}")
+    private String externalMediaFormat;
+
+    private RtpCodec externalMediaCodec;
+
+    // pcm: 24kHz dönüşümlü, pcmu: G.711 passthrough. Çağrı bazında Stasis argümanı ile ezilebilir (audio-format=pcmu)
+    @Value("${openai.api.audio-format:pcm}")
+    private String defaultRealtimeAudioFormat;
+
+    // stereo: tek dosya, iki kanal hizalı (arayan/asistan). separate: eski üç ayrı WAV (debug)
+    @Value("${recording.mode:stereo}")
+    private String recordingMode;
+
+    @Value("${monitor.health-interval-ms:2000}")
+    private long healthIntervalMs;
+
+    // Hazır karşılama kaydının metni: transkripte ve model talimatına girer
+    @Value("${prompts.greeting-text:" + OpenAiRealtimeService.DEFAULT_GREETING + "}")
+    private String greetingText;
+
+    // Tool bu süreden uzun sürerse dolgu anonsu çalınır
+    @Value("${prompts.filler-delay-ms:700}")
+    private long fillerDelayMs;
+
     public VoiceCallManager(ConversationService conversationService,
                             OpenAiRealtimeService openAiRealtimeService,
                             AriConnectionManager ariConnectionManager,
                             RtpListenerFactory rtpListenerFactory,
-                            AudioConversionService audioConversionService,
-                            RtpAudioSender rtpAudioSender) {
+                            AudioChainFactory audioChainFactory,
+                            RtpAudioSender rtpAudioSender,
+                            CallLeaseService callLeaseService,
+                            MessageQueueService messageQueueService,
+                            TranscriptService transcriptService,
+                            CallRecorder callRecorder,
+                            VoicePipelineMetrics voicePipelineMetrics,
+                            TurnTraceRegistry turnTraceRegistry,
+                            CallMonitorService callMonitorService,
+                            PromptLibrary promptLibrary,
+                            AppointmentService appointmentService,
+                            CallerProfileService callerProfileService,
+                            ExecutorService callPathExecutor) {
         this.conversationService = conversationService;
         this.openAiRealtimeService = openAiRealtimeService;
         this.ariConnectionManager = ariConnectionManager;
         this.rtpListenerFactory = rtpListenerFactory;
-        this.audioConversionService = audioConversionService;
+        this.audioChainFactory = audioChainFactory;
         this.rtpAudioSender = rtpAudioSender;
+        this.callLeaseService = callLeaseService;
+        this.messageQueueService = messageQueueService;
+        this.transcriptService = transcriptService;
+        this.callRecorder = callRecorder;
+        this.voicePipelineMetrics = voicePipelineMetrics;
+        this.turnTraceRegistry = turnTraceRegistry;
+        this.callMonitorService = callMonitorService;
+        this.promptLibrary = promptLibrary;
+        this.appointmentService = appointmentService;
+        this.callerProfileService = callerProfileService;
+        this.callPathExecutor = callPathExecutor;
     }
 
     @PostConstruct
     public void initialize() {
         logger.info("Initializing VoiceCallManager and setting ARI event listeners.");
+        externalMediaCodec = RtpCodec.fromAsteriskFormat(externalMediaFormat);
+        voicePipelineMetrics.bindActiveCalls(channelIdToConversationIdMap);
         ariConnectionManager.onStasisStart(this::handleStasisStartEvent);
         ariConnectionManager.onStasisEnd(this::handleStasisEndEvent);
+        // Devralma ARI, DB ve OpenAI çağrıları yapar; heartbeat thread'ini bekletmesin
+        callLeaseService.onTakeover(lease -> callPathExecutor.execute(() -> takeOverCall(lease)));
+        callLeaseService.onLeaseLost(channelId -> callPathExecutor.execute(() -> handleLeaseLost(channelId)));
+        scheduler.scheduleAtFixedRate(this::publishCallHealth, healthIntervalMs, healthIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
     }
 
     private void handleStasisStartEvent(JsonNode stasisStartEvent) {
@@ -94,21 +211,38 @@ public class VoiceCallManager {
         }
 
         String callerNumber = callerNode.path("number").asText();
-        logger.info("🔄 NEW INCOMING CALL - Channel: {}, Caller: {}", channelId, callerNumber);
+
+        // Aynı Asterisk'e bağlı node'lar yarışır, lease'i alan node çağrıyı üstlenir
+        CallSetupStageEvent stageEvent = beginSetupStage();
+        if (!callLeaseService.tryClaim(channelId, callerNumber)) {
+            logger.info("Call on channel {} is owned by another node, ignoring", channelId);
+            return;
+        }
+        commitSetupStage(stageEvent, null, channelId, "lease");
+
+        logger.info("🔄 NEW INCOMING CALL - Channel: {}, Caller: {}, Node: {}", channelId, callerNumber, callLeaseService.getNodeId());
+
+        // Profil okuması bridge/media kurulumu sürerken arka planda yürür
+        CompletableFuture<String> callerContext = loadCallerContext(callerNumber);
 
         // Conversation oluştur
-        Conversation conversation = conversationService.startConversation();
+        stageEvent = beginSetupStage();
+        Conversation conversation = conversationService.startConversation(callerProfileService.normalizeNumber(callerNumber));
         String conversationId = conversation.getId();
+        conversationCallerContexts.put(conversationId, callerContext);
+        commitSetupStage(stageEvent, conversationId, channelId, "conversation");
 
-        conversationAudioBuffers.put(conversationId, new ByteArrayOutputStream());
-        conversationOpenAiAudioBuffers.put(conversationId, new ByteArrayOutputStream());
-        conversationAssistantAudioBuffers.put(conversationId, new ByteArrayOutputStream());
+        allocateDebugAudioBuffers(conversationId);
 
 
         channelIdToConversationIdMap.put(channelId, conversationId);
         conversationIdToCallerNumberMap.put(conversationId, callerNumber);
+        conversationIdToAudioFormatMap.put(conversationId, resolveRealtimeAudioFormat(conversationId, stasisStartEvent.path("args")));
+        resolveNoiseSuppression(conversationId, stasisStartEvent.path("args"));
+        conversationCallStats.put(conversationId, new CallStats(conversationId, callerNumber));
 
         // Bridge oluştur
+        stageEvent = beginSetupStage();
         String bridgeId = ariConnectionManager.createBridge();
         if (bridgeId == null) {
             logger.error("[{}] ❌ Could not create bridge. Ending call.", conversationId);
@@ -118,14 +252,121 @@ public class VoiceCallManager {
 
         // Caller channel'ı bridge'e ekle
         ariConnectionManager.addChannelToBridge(bridgeId, channelId);
+        commitSetupStage(stageEvent, conversationId, channelId, "bridge");
+
+        attachMedia(conversationId, channelId, bridgeId);
+    }
+
+    // Kurulum yarıda kalırsa lease bu node'da yenilenip durmasın: çağrı kapatılır, lease bırakılır
+    private void takeOverCall(CallLease lease) {
+        String channelId = lease.getChannelId();
+        try {
+            handleLeaseTakeover(lease);
+        } catch (Exception e) {
+            logger.error("[{}] Takeover of channel {} failed, hanging up", lease.getConversationId(), channelId, e);
+            if (channelIdToConversationIdMap.containsKey(channelId)) {
+                endCall(lease.getConversationId(), channelId, "TAKEOVER_FAILED", true);
+            } else {
+                ariConnectionManager.hangupChannel(channelId);
+                callLeaseService.release(channelId);
+            }
+        }
+    }
+
+    private void handleLeaseTakeover(CallLease lease) {
+        String channelId = lease.getChannelId();
+        String conversationId = lease.getConversationId();
+
+        // Önceki node kurulumu bitiremeden öldüyse çağrı devralınamaz
+        if (conversationId == null || lease.getBridgeId() == null) {
+            logger.warn("Lease for channel {} has no call state, hanging up", channelId);
+            ariConnectionManager.hangupChannel(channelId);
+            callLeaseService.release(channelId);
+            return;
+        }
+
+        logger.info("[{}] 🔁 TAKING OVER CALL - Channel: {}, Bridge: {}", conversationId, channelId, lease.getBridgeId());
+
+        // Ölü node'a ses gönderen eski external media kanalını kapat
+        if (lease.getMediaChannelId() != null) {
+            ariConnectionManager.hangupChannel(lease.getMediaChannelId());
+        }
+
+        allocateDebugAudioBuffers(conversationId);
+
+        channelIdToConversationIdMap.put(channelId, conversationId);
+        if (lease.getCallerNumber() != null) {
+            conversationIdToCallerNumberMap.put(conversationId, lease.getCallerNumber());
+            conversationCallerContexts.put(conversationId, loadCallerContext(lease.getCallerNumber()));
+        }
+        conversationIdToAudioFormatMap.put(conversationId, resolveRealtimeAudioFormat(conversationId, null));
+        resolveNoiseSuppression(conversationId, null);
+        conversationCallStats.put(conversationId, CallStats.takenOver(conversationId, lease.getCallerNumber(),
+                conversationStartTime(conversationId)));
+
+        attachMedia(conversationId, channelId, lease.getBridgeId());
+    }
 
+    private LocalDateTime conversationStartTime(String conversationId) {
+        try {
+            LocalDateTime startTime = conversationService.getConversationById(conversationId).getStartTime();
+            if (startTime != null) {
+                return startTime;
+            }
+        } catch (Exception e) {
+            logger.warn("[{}] Conversation start time could not be read, CDR duration starts at takeover", conversationId, e);
+        }
+        return LocalDateTime.now();
+    }
+
+    // Lease zamanında yenilenemedi ve başka bir node çağrıyı devraldı. Kanal, lease ve conversation artık
+    // yeni sahibin; burada sadece yerel kaynaklar kapatılır, hangup ve conversation kapanışı yapılmaz
+    private void handleLeaseLost(String channelId) {
+        String conversationId = channelIdToConversationIdMap.remove(channelId);
+        if (conversationId == null) {
+            return;
+        }
+        logger.warn("[{}] ⚠️ Call on channel {} was taken over by another node, dropping local session", conversationId, channelId);
+
+        callRecorder.finishRecording(conversationId);
+        conversationAudioBuffers.remove(conversationId);
+        conversationOpenAiAudioBuffers.remove(conversationId);
+        conversationAssistantAudioBuffers.remove(conversationId);
+        conversationCallStats.remove(conversationId);
+
+        rtpListenerFactory.stopListener(conversationId);
+        rtpAudioSender.closeSender(conversationId);
+        openAiRealtimeService.stopSession(conversationId);
+        turnTraceRegistry.endCall(conversationId);
+
+        conversationIdToAudioFormatMap.remove(conversationId);
+        conversationIdToMediaChannelIdMap.remove(conversationId);
+        conversationIdToCallerNumberMap.remove(conversationId);
+        conversationCallerContexts.remove(conversationId);
+        noiseSuppressedConversations.remove(conversationId);
+
+        // Bu node'da tamamlanmış turlar yine kaydedilir
+        transcriptService.endTranscript(conversationId);
+
+        if (callMonitorService.hasSubscribers()) {
+            ObjectNode ended = objectMapper.createObjectNode();
+            ended.put("channelId", channelId);
+            ended.put("status", "LEASE_LOST");
+            callMonitorService.publish("CALL_ENDED", conversationId, ended);
+        }
+    }
+
+    private void attachMedia(String conversationId, String channelId, String bridgeId) {
         // RTP Listener oluştur
-        RtpListener rtpListener = rtpListenerFactory.createListener(conversationId);
+        CallSetupStageEvent stageEvent = beginSetupStage();
+        RtpListener rtpListener = rtpListenerFactory.createListener(conversationId, externalMediaCodec);
         rtpListener.start();
         int listeningPort = rtpListener.getPort();
+        commitSetupStage(stageEvent, conversationId, channelId, "rtp_listener");
 
         // External media channel oluştur
-        JsonNode externalMediaChannel = ariConnectionManager.createExternalMediaChannel(rtpAppHost + ":" + listeningPort);
+        stageEvent = beginSetupStage();
+        JsonNode externalMediaChannel = ariConnectionManager.createExternalMediaChannel(rtpAppHost + ":" + listeningPort, externalMediaCodec.getAsteriskFormat());
         if (externalMediaChannel == null) {
             logger.error("[{}] ❌ Could not create external media channel. Ending call.", conversationId);
             endCall(conversationId, channelId, "MEDIA_CHANNEL_FAILED", true);
@@ -145,44 +386,137 @@ public class VoiceCallManager {
         String mediaChannelId = externalMediaChannel.path("id").asText();
         conversationIdToMediaChannelIdMap.put(conversationId, mediaChannelId);
         ariConnectionManager.addChannelToBridge(bridgeId, mediaChannelId);
+        callLeaseService.attachCall(channelId, conversationId, bridgeId, mediaChannelId);
+        commitSetupStage(stageEvent, conversationId, channelId, "external_media");
 
         // RTP Audio Sender oluştur
-        rtpAudioSender.createSender(conversationId, rtpHost, asteriskMediaPort);
+        stageEvent = beginSetupStage();
+        rtpAudioSender.createSender(conversationId, rtpHost, asteriskMediaPort, externalMediaCodec);
+
+        // Stereo kayıt RTP seviyesinde: arayan timestamp'e, asistan gönderim zamanına göre hizalanır
+        StereoCallRecording recording = "stereo".equalsIgnoreCase(recordingMode)
+                ? callRecorder.startRecording(conversationId, externalMediaCodec)
+                : null;
+        if (recording != null) {
+            rtpListener.onTimedAudioData(recording::writeInbound);
+        }
+
+        // Giden her paket kayda yazılır, turun ilk paketi tur izini kapatır
+        TurnTracer turnTracer = turnTraceRegistry.startCall(conversationId);
+        rtpAudioSender.onPacketSent(conversationId, (payload, sentNanos) -> {
+            turnTracer.onRtpSent(sentNanos);
+            if (recording != null) {
+                recording.writeOutbound(payload, sentNanos);
+            }
+        });
+
+        commitSetupStage(stageEvent, conversationId, channelId, "rtp_sender");
+
+        // Hazır karşılama bellekten hemen çalınır, OpenAI oturumu bu sırada kurulur
+        PromptClip greeting = promptLibrary.getPrompt(PromptType.GREETING);
+        if (greeting != null) {
+            callPathExecutor.execute(() -> rtpAudioSender.playPrompt(conversationId, greeting));
+        }
 
         // Audio processing pipeline kurulum
+        stageEvent = beginSetupStage();
         setupAudioPipeline(conversationId, rtpListener);
 
-        // OpenAI session başlat
-        setupOpenAiSession(conversationId, channelId);
+        // Transkript ve OpenAI session başlat
+        transcriptService.startTranscript(conversationId);
+        if (greeting != null) {
+            transcriptService.appendMessage(conversationId, TranscriptEvent.ASSISTANT, greetingText);
+        }
+        setupOpenAiSession(conversationId, channelId, greeting != null);
+        commitSetupStage(stageEvent, conversationId, channelId, "openai_session");
 
+        conversationCallStats.get(conversationId).markSetupCompleted();
         logger.info("[{}] ✅ Call setup completed successfully", conversationId);
+
+        if (callMonitorService.hasSubscribers()) {
+            ObjectNode started = objectMapper.createObjectNode();
+            started.put("channelId", channelId);
+            started.put("callerNumber", conversationIdToCallerNumberMap.get(conversationId));
+            started.put("nodeId", callLeaseService.getNodeId());
+            started.put("audioFormat", conversationIdToAudioFormatMap.get(conversationId).getType());
+            callMonitorService.publish("CALL_STARTED", conversationId, started);
+        }
     }
 
-    private void setupAudioPipeline(String conversationId, RtpListener rtpListener) {
-        rtpListener.onAudioData(audioData -> {
-            try {
+    private RealtimeAudioFormat resolveRealtimeAudioFormat(String conversationId, JsonNode stasisArgs) {
+        RealtimeAudioFormat format = RealtimeAudioFormat.fromName(defaultRealtimeAudioFormat);
 
-                ByteArrayOutputStream audioBuffer = conversationAudioBuffers.get(conversationId);
-                if (audioBuffer != null) {
+        // Dialplan: Stasis(vcmail-app,audio-format=pcmu)
+        if (stasisArgs != null && stasisArgs.isArray()) {
+            for (JsonNode arg : stasisArgs) {
+                String value = arg.asText();
+                if (value.startsWith("audio-format=")) {
+                    // Lease alındı ve conversation açıldı; hatalı dialplan argümanı çağrıyı düşürmesin
                     try {
-                        audioBuffer.write(audioData);
-                    } catch (Exception e) {
-                        logger.error("[{}] Sesi tampona yazarken hata oluştu", conversationId, e);
+                        format = RealtimeAudioFormat.fromName(value.substring("audio-format=".length()));
+                    } catch (IllegalArgumentException e) {
+                        logger.warn("[{}] Unknown Stasis argument {}, using default audio format {}",
+                                conversationId, value, defaultRealtimeAudioFormat);
                     }
                 }
+            }
+        }
 
-                byte[] convertedAudio = audioConversionService.convertAsteriskToOpenAi(audioData);
+        // Passthrough sadece Asterisk tarafı da μ-law ise mümkün
+        if (format.isPassthrough() && externalMediaCodec != RtpCodec.ULAW) {
+            logger.warn("[{}] G.711 passthrough requires ulaw external media, falling back to PCM", conversationId);
+            format = RealtimeAudioFormat.PCM;
+        }
+        logger.info("[{}] Realtime audio format: {}", conversationId, format.getType());
+        return format;
+    }
 
+    private void resolveNoiseSuppression(String conversationId, JsonNode stasisArgs) {
+        boolean enabled = audioChainFactory.isNoiseSuppressionDefault();
 
-                if (convertedAudio != null && convertedAudio.length > 0) {
-                    conversationOpenAiAudioBuffers.get(conversationId).write(convertedAudio);
+        // Dialplan: Stasis(vcmail-app,noise-suppression=on)
+        if (stasisArgs != null && stasisArgs.isArray()) {
+            for (JsonNode arg : stasisArgs) {
+                String value = arg.asText();
+                if (value.startsWith("noise-suppression=")) {
+                    String setting = value.substring("noise-suppression=".length());
+                    enabled = "on".equalsIgnoreCase(setting) || "true".equalsIgnoreCase(setting);
                 }
+            }
+        }
+
+        if (enabled && conversationIdToAudioFormatMap.get(conversationId).isPassthrough()) {
+            logger.warn("[{}] Noise suppression needs decoded audio, not available with G.711 passthrough", conversationId);
+        } else if (enabled) {
+            noiseSuppressedConversations.add(conversationId);
+            logger.info("[{}] Noise suppression enabled", conversationId);
+        }
+    }
+
+    private void setupAudioPipeline(String conversationId, RtpListener rtpListener) {
+        RealtimeAudioFormat audioFormat = conversationIdToAudioFormatMap.get(conversationId);
+        CallStats callStats = conversationCallStats.get(conversationId);
+        AudioChain inboundChain = audioChainFactory.createInbound(externalMediaCodec, audioFormat, debugAudioTaps(conversationId),
+                noiseSuppressedConversations.contains(conversationId));
+        String conversion = audioFormat.isPassthrough() ? "passthrough" : externalMediaCodec.getAsteriskFormat() + "->openai";
+
+        rtpListener.onAudioData(audioData -> {
+            voicePipelineMetrics.rtpPacketReceived();
+            try {
+
+                AudioFrameConvertedEvent conversionEvent = new AudioFrameConvertedEvent();
+                conversionEvent.begin();
+                long conversionStart = System.nanoTime();
+                // G.711 passthrough'ta zincir sadece tap'lerden oluşur, RTP payload'u olduğu gibi OpenAI'a
+                AudioFrame frame = inboundChain.process(audioData);
+                voicePipelineMetrics.recordInboundConversion(System.nanoTime() - conversionStart);
+                commitConversionEvent(conversionEvent, conversationId, conversion, audioData, frame);
 
-                if (convertedAudio != null && convertedAudio.length > 0) {
-                    byte[] normalizedAudio = audioConversionService.normalizeVolume(convertedAudio, 0.7f);
-                    openAiRealtimeService.sendAudio(normalizedAudio);
+                if (frame != null && frame.getLength() > 0) {
+                    openAiRealtimeService.sendAudio(conversationId, frame.getData(), frame.getLength());
+                    callStats.onAudioToOpenAi(frame.getLength());
 
-                    logger.debug("[{}] 🎤 Audio sent to OpenAI: {} bytes", conversationId, normalizedAudio.length);
+                    logger.debug("[{}] 🎤 Audio sent to OpenAI: {} bytes", conversationId, frame.getLength());
                 }
             } catch (Exception e) {
                 logger.error("[{}] ❌ Error processing incoming audio", conversationId, e);
@@ -190,31 +524,38 @@ public class VoiceCallManager {
         });
     }
 
-    private void setupOpenAiSession(String conversationId, String channelId) {
+    private void setupOpenAiSession(String conversationId, String channelId, boolean greetingPlayed) {
         String callerNumber = conversationIdToCallerNumberMap.get(conversationId);
-        String mediaChannelId = conversationIdToMediaChannelIdMap.get(conversationId);
+        RealtimeAudioFormat audioFormat = conversationIdToAudioFormatMap.get(conversationId);
+        CallStats callStats = conversationCallStats.get(conversationId);
+        TurnTracer turnTracer = turnTraceRegistry.getTracer(conversationId);
+        AudioChain outboundChain = audioChainFactory.createOutbound(externalMediaCodec, audioFormat, debugAudioTaps(conversationId));
+        String conversion = audioFormat.isPassthrough() ? "passthrough" : "openai->" + externalMediaCodec.getAsteriskFormat();
 
         openAiRealtimeService.startSession(
+                conversationId,
+                audioFormat,
                 // OpenAI'den gelen ses -> Asterisk'e gönder
                 audioBytes -> {
 
                     logger.debug("OpenAI'dan {} byte ses verisi alındı. Asterisk'e gönderilecek.", audioBytes.length);
+                    callStats.onAudioFromOpenAi(audioBytes.length);
+                    turnTracer.onAudioDelta(System.nanoTime());
 
                     try {
 
-                        ByteArrayOutputStream assistantAudioBuffer = conversationAssistantAudioBuffers.get(conversationId);
-                        if (assistantAudioBuffer != null) {
-                            assistantAudioBuffer.write(audioBytes);
-                        }
-
-
-                        // OpenAI audio'yu Asterisk formatına dönüştür
-                        byte[] convertedAudio = audioConversionService.convertOpenAiToAsterisk(audioBytes);
+                        AudioFrameConvertedEvent conversionEvent = new AudioFrameConvertedEvent();
+                        conversionEvent.begin();
+                        long conversionStart = System.nanoTime();
+                        // OpenAI audio'yu Asterisk formatına dönüştür (passthrough'ta μ-law delta olduğu gibi kalır)
+                        AudioFrame frame = outboundChain.process(audioBytes);
+                        voicePipelineMetrics.recordOutboundConversion(System.nanoTime() - conversionStart);
+                        commitConversionEvent(conversionEvent, conversationId, conversion, audioBytes, frame);
 
-                        if (convertedAudio.length > 0) {
+                        if (frame != null && frame.getLength() > 0) {
                             // RTP ile gönder
-                            rtpAudioSender.sendAudio(conversationId, convertedAudio);
-                            logger.trace("[{}] 🔊 Audio sent to Asterisk: {} bytes", conversationId, convertedAudio.length);
+                            rtpAudioSender.sendAudio(conversationId, frame.getData(), frame.getLength());
+                            logger.trace("[{}] 🔊 Audio sent to Asterisk: {} bytes", conversationId, frame.getLength());
                         }
                     } catch (Exception e) {
                         logger.error("[{}] ❌ Error processing outgoing audio", conversationId, e);
@@ -222,18 +563,81 @@ public class VoiceCallManager {
                 },
 
                 // Tool call handler
-                toolCall -> processToolCall(conversationId, toolCall, callerNumber),
+                toolCall -> callPathExecutor.execute(() -> processToolCall(conversationId, toolCall, callerNumber)),
+
+                // Transcript handler
+                transcriptEvent -> transcriptService.onTranscriptEvent(conversationId, transcriptEvent),
+
+                // Session event handler (tur gecikmesi için)
+                eventType -> {
+                    if ("input_audio_buffer.speech_stopped".equals(eventType)) {
+                        callStats.onSpeechStopped();
+                        turnTracer.onSpeechStopped(System.nanoTime());
+                    } else if ("response.created".equals(eventType)) {
+                        turnTracer.onResponseCreated(System.nanoTime());
+                    }
+                },
 
                 // Session close handler
                 reason -> {
                     logger.warn("[{}] 🔌 OpenAI session closed: {}", conversationId, reason);
-                    endCall(conversationId, channelId, "OPENAI_CLOSED", false);
-                }
+                    endCallWithPrompt(conversationId, channelId, PromptType.ERROR, "OPENAI_CLOSED");
+                },
+
+                greetingPlayed ? greetingText : null,
+                conversationCallerContexts.getOrDefault(conversationId, CompletableFuture.completedFuture(null))
         );
 
+        // Oturum kurulamazsa arayan sessizlikte beklemesin
+        openAiRealtimeService.awaitConfigured(conversationId).exceptionally(error -> {
+            if (promptLibrary.hasPrompt(PromptType.BUSY)) {
+                logger.warn("[{}] OpenAI session could not be configured, playing busy prompt", conversationId);
+                endCallWithPrompt(conversationId, channelId, PromptType.BUSY, "OPENAI_UNAVAILABLE");
+            }
+            return null;
+        });
+
         // Initial response'u tetikle (welcome message için)
-        logger.info("[{}] 🤖 Triggering initial AI response...", conversationId);
-        openAiRealtimeService.triggerInitialResponse();
+        if (!greetingPlayed) {
+            logger.info("[{}] 🤖 Triggering initial AI response...", conversationId);
+            openAiRealtimeService.triggerInitialResponse(conversationId);
+        }
+    }
+
+    // Anons varsa çalınır ve kanal kapatılır; yoksa eski davranış (sadece temizlik)
+    private void endCallWithPrompt(String conversationId, String channelId, PromptType promptType, String status) {
+        if (!channelIdToConversationIdMap.containsKey(channelId) || !closingConversations.add(conversationId)) {
+            return;
+        }
+        PromptClip prompt = promptLibrary.getPrompt(promptType);
+        callPathExecutor.execute(() -> {
+            try {
+                if (prompt != null) {
+                    rtpAudioSender.playPrompt(conversationId, prompt);
+                }
+                endCall(conversationId, channelId, status, prompt != null);
+            } finally {
+                closingConversations.remove(conversationId);
+            }
+        });
+    }
+
+    private CompletableFuture<String> loadCallerContext(String callerNumber) {
+        return callerProfileService.getProfile(callerNumber)
+                .thenApply(callerProfileService::toAssistantContext)
+                .exceptionally(error -> {
+                    logger.warn("Caller profile for {} could not be loaded: {}", callerNumber, error.getMessage());
+                    return null;
+                });
+    }
+
+    private ScheduledFuture<?> scheduleFiller(String conversationId) {
+        if (!promptLibrary.hasPrompt(PromptType.FILLER)) {
+            return null;
+        }
+        return scheduler.schedule(() -> callPathExecutor.execute(
+                        () -> rtpAudioSender.playPrompt(conversationId, promptLibrary.getPrompt(PromptType.FILLER))),
+                fillerDelayMs, TimeUnit.MILLISECONDS);
     }
 
     private void processToolCall(String conversationId, JsonNode toolCall, String callerNumber) {
@@ -245,6 +649,10 @@ public class VoiceCallManager {
 
         String result;
         boolean success = false;
+        long toolStart = System.nanoTime();
+        ToolExecutedEvent toolEvent = new ToolExecutedEvent();
+        toolEvent.begin();
+        ScheduledFuture<?> filler = scheduleFiller(conversationId);
 
         try {
             switch (toolName) {
@@ -267,8 +675,33 @@ public class VoiceCallManager {
             result = "{\"error\":\"Tool execution failed: " + e.getMessage() + "\"}";
         }
 
+        if (filler != null) {
+            filler.cancel(false);
+        }
+
+        CallStats callStats = conversationCallStats.get(conversationId);
+        if (callStats != null) {
+            callStats.recordToolCall(System.nanoTime() - toolStart);
+        }
+
+        toolEvent.end();
+        if (toolEvent.shouldCommit()) {
+            toolEvent.conversationId = conversationId;
+            toolEvent.toolName = toolName;
+            toolEvent.success = success;
+            toolEvent.commit();
+        }
+
+        if (callMonitorService.hasSubscribers()) {
+            ObjectNode toolSummary = objectMapper.createObjectNode();
+            toolSummary.put("toolName", toolName);
+            toolSummary.put("success", success);
+            toolSummary.put("durationMs", (System.nanoTime() - toolStart) / 1_000_000);
+            callMonitorService.publish("TOOL_CALL", conversationId, toolSummary);
+        }
+
         // Tool sonucunu OpenAI'ye gönder
-        openAiRealtimeService.sendToolResult(toolCallId, result);
+        openAiRealtimeService.sendToolResult(conversationId, toolCallId, result);
 
         // Tool call'u conversation'a kaydet
         saveToolCallMessage(conversationId, toolName, arguments.toString(), result, success);
@@ -312,55 +745,42 @@ public class VoiceCallManager {
     }
 
     private String handleScheduleAppointment(String conversationId, JsonNode arguments, String callerNumber) {
+        LocalDate date;
+        LocalTime time;
         try {
-            String date = arguments.path("date").asText("");
-            String time = arguments.path("time").asText("");
-            String purpose = arguments.path("purpose").asText("");
-            String callerName = arguments.path("caller_name").asText("Bilinmeyen");
-
-            // Terminal'e randevu bilgilerini yazdır
-            System.out.println("\n" + "=".repeat(60));
-            System.out.println("📅 YENİ RANDEVU KAYDI");
-            System.out.println("=".repeat(60));
-            System.out.println("🕒 Kayıt Zamanı: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss")));
-            System.out.println("👤 Hasta: " + callerName);
-            System.out.println("📱 Telefon: " + callerNumber);
-            System.out.println("📅 Randevu Tarihi: " + date);
-            System.out.println("⏰ Randevu Saati: " + time);
-            System.out.println("🎯 Amaç: " + purpose);
-            System.out.println("🔗 Conversation ID: " + conversationId);
-            System.out.println("📋 Durum: ONAY BEKLİYOR");
-            System.out.println("=".repeat(60));
-            System.out.println("⚠️  NOT: Bu randevu sisteme kaydedildi ve manuel onay bekliyor.");
-            System.out.println("=".repeat(60) + "\n");
-
-            // Basit availability check (şimdilik her zaman müsait)
-            boolean isAvailable = checkAppointmentAvailability(date, time);
-
-            if (!isAvailable) {
-                return "{\"status\":\"error\",\"message\":\"Bu tarih ve saat müsait değil. Alternatif bir zaman önerebilirim.\"}";
+            date = LocalDate.parse(arguments.path("date").asText(""));
+            time = LocalTime.parse(arguments.path("time").asText(""));
+        } catch (DateTimeParseException e) {
+            return "{\"status\":\"error\",\"message\":\"Tarih YYYY-MM-DD, saat HH:MM formatında olmalı\"}";
+        }
+        String purpose = arguments.path("purpose").asText("");
+        String callerName = arguments.path("caller_name").asText("Bilinmeyen");
+
+        AppointmentResultDto booking = appointmentService.bookAppointment(conversationId, callerName,
+                callerProfileService.normalizeNumber(callerNumber), purpose, date, time);
+
+        ObjectNode response = objectMapper.createObjectNode();
+        switch (booking.getStatus()) {
+            case "BOOKED" -> {
+                response.put("status", "success");
+                response.put("message", "Randevunuz " + date + " " + time + " için ayarlandı");
+                response.put("appointment_id", booking.getAppointmentId());
+            }
+            case "UNAVAILABLE" -> {
+                response.put("status", "unavailable");
+                response.put("message", "Bu tarih ve saat dolu. Aşağıdaki boş saatlerden birini önerebilirsin.");
+            }
+            default -> {
+                response.put("status", "invalid");
+                response.put("message", "Bu saat mesai veya randevu aralığı dışında. Aşağıdaki boş saatlerden birini önerebilirsin.");
             }
-
-            // Randevu ID oluştur
-            String appointmentId = "APT-" + System.currentTimeMillis();
-
-            ObjectNode response = objectMapper.createObjectNode();
-            response.put("status", "success");
-            response.put("message", "Randevunuz " + date + " " + time + " için ayarlandı");
-            response.put("appointment_id", appointmentId);
-
-            return response.toString();
-
-        } catch (Exception e) {
-            logger.error("[{}] Error scheduling appointment: {}", conversationId, e.getMessage());
-            return "{\"status\":\"error\",\"message\":\"Randevu ayarlanırken hata oluştu\"}";
         }
-    }
 
-    private boolean checkAppointmentAvailability(String date, String time) {
-        // TODO: Gerçek randevu sistemiyle entegrasyon
-        logger.info("Checking appointment availability for {} {}", date, time);
-        return true; // Şimdilik her zaman müsait
+        ArrayNode alternatives = response.putArray("alternatives");
+        booking.getAlternatives().forEach(slot -> alternatives.add(slot.format(SLOT_FORMAT)));
+
+        logger.info("[{}] Appointment request {} {} for {}: {}", conversationId, date, time, callerName, booking.getStatus());
+        return response.toString();
     }
 
     private void handleStasisEndEvent(JsonNode stasisEndEvent) {
@@ -378,25 +798,57 @@ public class VoiceCallManager {
             logger.info("[{}] 🧹 Cleaning up call resources - Status: {}", conversationId, status);
 
 
-            saveConversationAudioToFile(conversationId, "user_audio", conversationAudioBuffers, "ulaw");
+            String recordingPath = callRecorder.finishRecording(conversationId);
+
+            RealtimeAudioFormat audioFormat = conversationIdToAudioFormatMap.remove(conversationId);
+            if ("separate".equalsIgnoreCase(recordingMode)) {
+                saveConversationAudioToFile(conversationId, "user_audio", conversationAudioBuffers, externalMediaCodec.getAsteriskFormat());
+
+                saveConversationAudioToFile(conversationId, "openai_bound_audio", conversationOpenAiAudioBuffers, "pcm");
 
-            saveConversationAudioToFile(conversationId, "openai_bound_audio", conversationOpenAiAudioBuffers, "pcm");
+                String assistantFormat = audioFormat != null && audioFormat.isPassthrough() ? "ulaw" : "pcm";
+                saveConversationAudioToFile(conversationId, "assistant_audio", conversationAssistantAudioBuffers, assistantFormat);
+            }
 
-            saveConversationAudioToFile(conversationId, "assistant_audio", conversationAssistantAudioBuffers, "pcm");
+            // CDR: RTP alım istatistiklerini listener kapanmadan topla
+            CallRecord callRecord = buildCallRecord(conversationId, status);
 
             // RTP resources temizle
             rtpListenerFactory.stopListener(conversationId);
             rtpAudioSender.closeSender(conversationId);
 
             // OpenAI session kapat
-            openAiRealtimeService.stopSession();
+            openAiRealtimeService.stopSession(conversationId);
+
+            turnTraceRegistry.endCall(conversationId);
 
             // Maps'leri temizle
             conversationIdToMediaChannelIdMap.remove(conversationId);
-            conversationIdToCallerNumberMap.remove(conversationId);
+            String callerNumber = conversationIdToCallerNumberMap.remove(conversationId);
+            conversationCallerContexts.remove(conversationId);
+            noiseSuppressedConversations.remove(conversationId);
+
+            // Lease'i bırak
+            callLeaseService.release(channelId);
 
-            // Conversation'ı sonlandır (şimdilik comment)
-            // conversationService.endConversation(conversationId, status);
+            // Yarım kalan transkript turlarını kuyruğa at
+            transcriptService.endTranscript(conversationId);
+
+            // Kuyruktaki mesajlar yazıldıktan sonra conversation'ı ve CDR'ı tek işlemde kapat (bloklamadan)
+            messageQueueService.flush(conversationId).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    logger.error("[{}] Pending messages could not be flushed at call end", conversationId, error);
+                }
+                try {
+                    long writeStart = System.nanoTime();
+                    conversationService.endConversation(conversationId, status, recordingPath, callRecord);
+                    voicePipelineMetrics.recordCallFinalizeWrite(System.nanoTime() - writeStart);
+                    // Bir sonraki arama bu görüşmeyi ve yeni randevuları görsün
+                    callerProfileService.invalidate(callerNumber);
+                } catch (Exception e) {
+                    logger.error("[{}] Could not finalize conversation and call record", conversationId, e);
+                }
+            });
 
             // Force hangup gerekirse
             if (forceHangup) {
@@ -404,6 +856,14 @@ public class VoiceCallManager {
                 logger.info("[{}] 📞 Force hangup executed", conversationId);
             }
 
+            if (callMonitorService.hasSubscribers()) {
+                ObjectNode ended = objectMapper.createObjectNode();
+                ended.put("channelId", channelId);
+                ended.put("status", status);
+                ended.put("durationMs", callRecord.getDurationMs());
+                callMonitorService.publish("CALL_ENDED", conversationId, ended);
+            }
+
             // Final log
             System.out.println("\n" + "=".repeat(60));
             System.out.println("📞 ARAMA SONLANDI");
@@ -416,6 +876,102 @@ public class VoiceCallManager {
         }
     }
 
+    private CallRecord buildCallRecord(String conversationId, String status) {
+        CallStats callStats = conversationCallStats.remove(conversationId);
+        if (callStats == null) {
+            callStats = new CallStats(conversationId, conversationIdToCallerNumberMap.get(conversationId));
+        }
+
+        RtpListener rtpListener = rtpListenerFactory.getListener(conversationId);
+        long packetsReceived = rtpListener != null ? rtpListener.getPacketsReceived() : 0;
+        long packetsLost = rtpListener != null ? rtpListener.getPacketsLost() : 0;
+        voicePipelineMetrics.rtpPacketsLost(packetsLost);
+        double jitterMs = rtpListener != null ? rtpListener.getJitterMillis() : 0;
+
+        return callStats.toCallRecord(callLeaseService.getNodeId(), status, packetsReceived, packetsLost, jitterMs);
+    }
+
+    // İzleyen yoksa hiçbir şey ölçülmez; OpenAI ping'i bir sonraki tur için gönderilir
+    private void publishCallHealth() {
+        if (!callMonitorService.hasSubscribers()) {
+            return;
+        }
+        try {
+            channelIdToConversationIdMap.forEach((channelId, conversationId) -> {
+                RtpListener rtpListener = rtpListenerFactory.getListener(conversationId);
+                double rttMs = openAiRealtimeService.getRoundTripMillis(conversationId);
+
+                CallHealthDto health = new CallHealthDto(
+                        channelId,
+                        conversationIdToCallerNumberMap.get(conversationId),
+                        rtpListener != null ? rtpListener.getPacketsReceived() : 0,
+                        rtpListener != null ? rtpListener.getPacketsLost() : 0,
+                        rtpListener != null ? rtpListener.getJitterMillis() : 0,
+                        rtpAudioSender.getEgressLagMillis(conversationId),
+                        rttMs < 0 ? null : rttMs);
+                callMonitorService.publish("CALL_HEALTH", conversationId, health);
+
+                openAiRealtimeService.pingSession(conversationId);
+            });
+        } catch (Exception e) {
+            logger.error("Could not publish call health", e);
+        }
+    }
+
+    private CallSetupStageEvent beginSetupStage() {
+        CallSetupStageEvent event = new CallSetupStageEvent();
+        event.begin();
+        return event;
+    }
+
+    private void commitSetupStage(CallSetupStageEvent event, String conversationId, String channelId, String stage) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.conversationId = conversationId;
+            event.channelId = channelId;
+            event.stage = stage;
+            event.commit();
+        }
+    }
+
+    private void commitConversionEvent(AudioFrameConvertedEvent event, String conversationId, String conversion,
+                                       byte[] input, AudioFrame output) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.conversationId = conversationId;
+            event.conversion = conversion;
+            event.inputBytes = input.length;
+            event.outputBytes = output == null ? 0 : output.getLength();
+            event.commit();
+        }
+    }
+
+    // Ayrı kayıt modunda zincirlerdeki tap:<ad> aşamalarının yazdığı tamponlar
+    private Map<String, ByteArrayOutputStream> debugAudioTaps(String conversationId) {
+        Map<String, ByteArrayOutputStream> taps = new HashMap<>();
+        ByteArrayOutputStream caller = conversationAudioBuffers.get(conversationId);
+        ByteArrayOutputStream openAi = conversationOpenAiAudioBuffers.get(conversationId);
+        ByteArrayOutputStream assistant = conversationAssistantAudioBuffers.get(conversationId);
+        if (caller != null) {
+            taps.put("caller", caller);
+        }
+        if (openAi != null) {
+            taps.put("openai", openAi);
+        }
+        if (assistant != null) {
+            taps.put("assistant", assistant);
+        }
+        return taps;
+    }
+
+    private void allocateDebugAudioBuffers(String conversationId) {
+        if ("separate".equalsIgnoreCase(recordingMode)) {
+            conversationAudioBuffers.put(conversationId, new ByteArrayOutputStream());
+            conversationOpenAiAudioBuffers.put(conversationId, new ByteArrayOutputStream());
+            conversationAssistantAudioBuffers.put(conversationId, new ByteArrayOutputStream());
+        }
+    }
+
     private void saveConversationAudioToFile(String conversationId, String prefix, Map<String, ByteArrayOutputStream> bufferMap, String format) {
         ByteArrayOutputStream audioBuffer = bufferMap.remove(conversationId);
         if (audioBuffer == null || audioBuffer.size() == 0) {
@@ -430,6 +986,8 @@ public class VoiceCallManager {
             AudioFormat audioFormat;
             if ("ulaw".equals(format)) {
                 audioFormat = new AudioFormat(AudioFormat.Encoding.ULAW, 8000.0f, 8, 1, 1, 8000.0f, false);
+            } else if ("slin16".equals(format)) {
+                audioFormat = new AudioFormat(16000.0f, 16, 1, true, false);
             } else {
                 audioFormat = new AudioFormat(24000.0f, 16, 1, true, false);
             }
@@ -450,25 +1008,8 @@ public class VoiceCallManager {
     }
 
     private void saveToolCallMessage(String conversationId, String toolName, String arguments, String result, boolean success) {
-        Message message = new Message();
-        message.setSpeaker("SYSTEM");
-        message.setText(String.format("Tool Call: %s | Args: %s | Result: %s | Success: %s",
+        transcriptService.appendMessage(conversationId, "SYSTEM", String.format("Tool Call: %s | Args: %s | Result: %s | Success: %s",
                 toolName, arguments, result, success));
-        conversationService.addMessage(conversationId, message);
-    }
-
-    private void saveUserMessage(String conversationId, String text) {
-        Message message = new Message();
-        message.setSpeaker("USER");
-        message.setText(text);
-        conversationService.addMessage(conversationId, message);
-    }
-
-    private void saveAssistantMessage(String conversationId, String text) {
-        Message message = new Message();
-        message.setSpeaker("ASSISTANT");
-        message.setText(text);
-        conversationService.addMessage(conversationId, message);
     }
 
     // Utility methods for debugging and monitoring
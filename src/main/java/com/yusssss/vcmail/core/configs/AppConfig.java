@@ -1,15 +1,26 @@
 package com.yusssss.vcmail.core.configs;
 
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Component
 public class AppConfig {
 
     @Bean
     public RestTemplate restTemplate() {
-        return new RestTemplate();
+        // JDK HttpClient virtual thread'lerde carrier thread'i bloklamaz
+        return new RestTemplate(new JdkClientHttpRequestFactory());
+    }
+
+    // Çağrı yolundaki bloklayan işler (ARI REST, tool çalıştırma) için
+    @Bean(destroyMethod = "close")
+    public ExecutorService callPathExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
     }
 
 
@@ -0,0 +1,8 @@
+package com.yusssss.vcmail.core.exceptions;
+
+public class InvalidRequestException extends VCMailException
+{
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
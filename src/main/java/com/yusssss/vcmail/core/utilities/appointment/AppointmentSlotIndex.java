@@ -0,0 +1,158 @@
+package com.yusssss.vcmail.core.utilities.appointment;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gün başına dolu slot bitmap'i. Bir gün en fazla 1440 / slotMinutes slot tutar, birkaç long'a
+ * sığar; her güncelleme yeni bir dizi yazar, okuyucular kilitsiz bir anlık görüntü okur.
+ * Haritada olmayan gün boş sayılır. Bu yalnızca bu node'un görüşüdür, kesin kontrol
+ * rezervasyon sırasında veritabanındaki sürüm (version) ile yapılır.
+ */
+public class AppointmentSlotIndex {
+
+    private final LocalTime openTime;
+    private final int slotMinutes;
+    private final int slotsPerDay;
+    private final Set<DayOfWeek> workingDays;
+    private final Map<LocalDate, long[]> days = new ConcurrentHashMap<>();
+
+    public AppointmentSlotIndex(LocalTime openTime, LocalTime closeTime, int slotMinutes, Set<DayOfWeek> workingDays) {
+        if (slotMinutes <= 0 || !closeTime.isAfter(openTime)) {
+            throw new IllegalArgumentException("Invalid appointment hours " + openTime + "-" + closeTime + " / " + slotMinutes + " min");
+        }
+        this.openTime = openTime;
+        this.slotMinutes = slotMinutes;
+        this.slotsPerDay = (int) (ChronoUnit.MINUTES.between(openTime, closeTime) / slotMinutes);
+        this.workingDays = Set.copyOf(workingDays);
+    }
+
+    public int getSlotsPerDay() {
+        return slotsPerDay;
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public boolean isWorkingDay(LocalDate date) {
+        return workingDays.contains(date.getDayOfWeek());
+    }
+
+    /**
+     * Saat bir slot başlangıcına denk gelmiyorsa veya mesai dışındaysa -1.
+     */
+    public int slotOf(LocalTime time) {
+        long minutes = ChronoUnit.MINUTES.between(openTime, time);
+        if (minutes < 0 || minutes % slotMinutes != 0 || time.getSecond() != 0 || time.getNano() != 0) {
+            return -1;
+        }
+        long slot = minutes / slotMinutes;
+        return slot < slotsPerDay ? (int) slot : -1;
+    }
+
+    public LocalTime timeOf(int slot) {
+        return openTime.plusMinutes((long) slot * slotMinutes);
+    }
+
+    public boolean isFree(LocalDate date, int slot) {
+        if (slot < 0 || slot >= slotsPerDay || !isWorkingDay(date)) {
+            return false;
+        }
+        long[] bits = days.get(date);
+        return bits == null || (bits[slot >>> 6] & (1L << slot)) == 0;
+    }
+
+    public void markBooked(LocalDate date, int slot) {
+        days.compute(date, (day, bits) -> {
+            long[] updated = bits == null ? new long[wordCount()] : bits.clone();
+            updated[slot >>> 6] |= 1L << slot;
+            return updated;
+        });
+    }
+
+    /**
+     * Günün bitmap'ini veritabanındaki haliyle değiştirir (açılış ve çakışma sonrası).
+     */
+    public void load(LocalDate date, byte[] bookedSlots) {
+        days.put(date, fromBytes(bookedSlots, wordCount()));
+    }
+
+    /**
+     * İstenen zamana en yakın boş slotlar: önce aynı gün iki yöne genişleyerek, sonra sonraki
+     * mesai günleri sabahtan başlayarak. notBefore öncesi slotlar atlanır.
+     */
+    public List<LocalDateTime> findNearestFree(LocalDate date, LocalTime requested, LocalDateTime notBefore,
+                                               int count, int horizonDays) {
+        List<LocalDateTime> result = new ArrayList<>(count);
+        long requestedMinutes = ChronoUnit.MINUTES.between(openTime, requested);
+        int center = (int) Math.max(0, Math.min(slotsPerDay - 1, Math.floorDiv(requestedMinutes, slotMinutes)));
+
+        if (isWorkingDay(date)) {
+            for (int distance = 0; distance < slotsPerDay && result.size() < count; distance++) {
+                addIfFree(result, date, center - distance, notBefore);
+                if (distance > 0 && result.size() < count) {
+                    addIfFree(result, date, center + distance, notBefore);
+                }
+            }
+        }
+
+        LocalDate lastDay = notBefore.toLocalDate().plusDays(horizonDays);
+        for (LocalDate day = date.plusDays(1); !day.isAfter(lastDay) && result.size() < count; day = day.plusDays(1)) {
+            if (!isWorkingDay(day)) {
+                continue;
+            }
+            for (int slot = 0; slot < slotsPerDay && result.size() < count; slot++) {
+                addIfFree(result, day, slot, notBefore);
+            }
+        }
+        return result;
+    }
+
+    private void addIfFree(List<LocalDateTime> result, LocalDate date, int slot, LocalDateTime notBefore) {
+        if (slot < 0 || slot >= slotsPerDay || !isFree(date, slot)) {
+            return;
+        }
+        LocalDateTime start = date.atTime(timeOf(slot));
+        if (!start.isBefore(notBefore)) {
+            result.add(start);
+        }
+    }
+
+    private int wordCount() {
+        return (slotsPerDay + 63) >>> 6;
+    }
+
+    public static byte[] setBit(byte[] bookedSlots, int slot) {
+        int length = Math.max(bookedSlots == null ? 0 : bookedSlots.length, (slot >>> 3) + 1);
+        byte[] updated = new byte[length];
+        if (bookedSlots != null) {
+            System.arraycopy(bookedSlots, 0, updated, 0, bookedSlots.length);
+        }
+        updated[slot >>> 3] |= (byte) (1 << (slot & 7));
+        return updated;
+    }
+
+    public static boolean isBitSet(byte[] bookedSlots, int slot) {
+        return bookedSlots != null && (slot >>> 3) < bookedSlots.length
+                && (bookedSlots[slot >>> 3] & (1 << (slot & 7))) != 0;
+    }
+
+    private static long[] fromBytes(byte[] bookedSlots, int words) {
+        long[] bits = new long[words];
+        if (bookedSlots != null) {
+            for (int i = 0; i < bookedSlots.length && (i >>> 3) < words; i++) {
+                bits[i >>> 3] |= (bookedSlots[i] & 0xFFL) << ((i & 7) * 8);
+            }
+        }
+        return bits;
+    }
+}
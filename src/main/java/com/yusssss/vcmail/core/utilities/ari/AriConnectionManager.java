@@ -2,9 +2,11 @@ package com.yusssss.vcmail.core.utilities.ari;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yusssss.vcmail.core.utilities.metrics.VoicePipelineMetrics;
+import com.yusssss.vcmail.core.utilities.websocket.WebSocketConnection;
+import com.yusssss.vcmail.core.utilities.websocket.WebSocketListener;
+import com.yusssss.vcmail.core.utilities.websocket.WebSocketTransport;
 import jakarta.annotation.PreDestroy;
-import org.java_websocket.client.WebSocketClient;
-import org.java_websocket.handshake.ServerHandshake;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,6 +16,12 @@ import org.springframework.web.client.RestTemplate;
 
 import java.net.URI;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 
 @Component
@@ -22,9 +30,14 @@ public class AriConnectionManager {
     private final Logger logger = LoggerFactory.getLogger(AriConnectionManager.class);
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
-    private WebSocketClient eventSocket;
+    private WebSocketConnection eventSocket;
     private Consumer<JsonNode> onStasisStart;
     private Consumer<JsonNode> onStasisEnd;
+    private final ExecutorService callPathExecutor;
+    private final VoicePipelineMetrics voicePipelineMetrics;
+    private final WebSocketTransport webSocketTransport;
+    // Aynı kanalın olayları sırayla, farklı kanallarınki paralel işlenir
+    private final Map<String, CompletableFuture<Void>> channelEventChains = new ConcurrentHashMap<>();
 
     @Value("${asterisk.ari.host:localhost}")
     private String ariHost;
@@ -37,9 +50,13 @@ public class AriConnectionManager {
     @Value("${asterisk.ari.app:vcmail-app}")
     private String ariApp;
 
-    public AriConnectionManager(RestTemplate restTemplate, ObjectMapper objectMapper) {
+    public AriConnectionManager(RestTemplate restTemplate, ObjectMapper objectMapper, ExecutorService callPathExecutor,
+                                VoicePipelineMetrics voicePipelineMetrics, WebSocketTransport webSocketTransport) {
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
+        this.callPathExecutor = callPathExecutor;
+        this.voicePipelineMetrics = voicePipelineMetrics;
+        this.webSocketTransport = webSocketTransport;
     }
 
     public void connect() {
@@ -51,11 +68,16 @@ public class AriConnectionManager {
         String wsUrl = String.format("ws://%s:%d/ari/events?api_key=%s:%s&app=%s",
                 ariHost, ariPort, ariUser, ariPassword, ariApp);
 
+        // Daha önce bir bağlantı kurulduysa bu bir yeniden bağlanma denemesidir
+        if (eventSocket != null) {
+            voicePipelineMetrics.ariReconnect();
+        }
+
         try {
             logger.info("Attempting to connect to ARI WebSocket at {}", wsUrl);
-            eventSocket = new WebSocketClient(new URI(wsUrl)) {
+            eventSocket = webSocketTransport.newConnection(new URI(wsUrl), new WebSocketListener() {
                 @Override
-                public void onOpen(ServerHandshake handshakedata) {
+                public void onOpen() {
                     logger.info("SUCCESS: Connected to ARI WebSocket.");
                 }
 
@@ -66,10 +88,10 @@ public class AriConnectionManager {
                         String eventType = event.path("type").asText();
 
                         if ("StasisStart".equals(eventType) && onStasisStart != null) {
-                            onStasisStart.accept(event);
+                            dispatchChannelEvent(event, onStasisStart);
                         }
                         else if ("StasisEnd".equals(eventType) && onStasisEnd != null) {
-                            onStasisEnd.accept(event);
+                            dispatchChannelEvent(event, onStasisEnd);
                         }
                     } catch (Exception e) {
                         logger.error("Error parsing ARI event", e);
@@ -79,13 +101,16 @@ public class AriConnectionManager {
                 @Override
                 public void onClose(int code, String reason, boolean remote) {
                     logger.warn("ARI WebSocket connection closed. Code: {}, Reason: {}", code, reason);
+                    if (remote) {
+                        voicePipelineMetrics.ariDisconnected();
+                    }
                 }
 
                 @Override
-                public void onError(Exception ex) {
+                public void onError(Throwable ex) {
                     logger.error("An error occurred in ARI WebSocket: {}", ex.getMessage());
                 }
-            };
+            });
             eventSocket.connect();
         } catch (Exception e) {
             logger.error("Failed to initiate ARI WebSocket connection: {}", e.getMessage());
@@ -96,11 +121,13 @@ public class AriConnectionManager {
     public void disconnect() {
         try {
             if (eventSocket != null && eventSocket.isOpen()) {
-                eventSocket.closeBlocking();
+                eventSocket.close().get(10, TimeUnit.SECONDS);
             }
         } catch (InterruptedException e) {
             logger.warn("Interrupted while closing WebSocket", e);
             Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warn("ARI WebSocket did not close cleanly: {}", e.getMessage());
         }
     }
 
@@ -127,14 +154,14 @@ public class AriConnectionManager {
         }
     }
 
-    public JsonNode createExternalMediaChannel(String rtpDestination) {
+    public JsonNode createExternalMediaChannel(String rtpDestination, String format) {
         String url = String.format("http://%s:%d/ari/channels/externalMedia?api_key=%s:%s",
                 ariHost, ariPort, ariUser, ariPassword);
 
         Map<String, String> body = Map.of(
                 "app", ariApp,
                 "external_host", rtpDestination,
-                "format", "ulaw"
+                "format", format
         );
 
         try {
@@ -149,7 +176,7 @@ public class AriConnectionManager {
                 JsonNode channelNode = objectMapper.readTree(response.getBody());
                 String channelId = channelNode.path("id").asText();
 
-                logger.info("Successfully created external media channel {} for {}", channelId, rtpDestination);
+                logger.info("Successfully created external media channel {} for {} ({})", channelId, rtpDestination, format);
 
                 logger.debug("External media channel {} will trigger StasisStart - this should be ignored by VoiceCallManager", channelId);
 
@@ -226,6 +253,21 @@ public class AriConnectionManager {
         }
     }
 
+    // WebSocket okuma thread'i bloklanmasın diye olay işleme virtual thread'e aktarılır
+    private void dispatchChannelEvent(JsonNode event, Consumer<JsonNode> handler) {
+        String channelId = event.path("channel").path("id").asText();
+        CompletableFuture<Void> tail = channelEventChains.compute(channelId, (id, previous) ->
+                (previous == null ? CompletableFuture.<Void>completedFuture(null) : previous)
+                        .thenRunAsync(() -> {
+                            try {
+                                handler.accept(event);
+                            } catch (Exception e) {
+                                logger.error("Error handling ARI event for channel {}", id, e);
+                            }
+                        }, callPathExecutor));
+        tail.whenComplete((ignored, error) -> channelEventChains.remove(channelId, tail));
+    }
+
     private void sendPostRequest(String url, String commandName, String channelId) {
         try {
             HttpHeaders headers = new HttpHeaders();
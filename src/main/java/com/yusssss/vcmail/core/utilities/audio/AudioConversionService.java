@@ -1,153 +1,68 @@
 package com.yusssss.vcmail.core.utilities.audio;
 
-import be.tarsos.dsp.AudioDispatcher;
-import be.tarsos.dsp.AudioEvent;
-import be.tarsos.dsp.AudioProcessor;
-import be.tarsos.dsp.io.jvm.JVMAudioInputStream;
-import be.tarsos.dsp.resample.RateTransposer;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.yusssss.vcmail.core.utilities.audio.kernel.SampleKernels;
 import org.springframework.stereotype.Service;
 
-import javax.sound.sampled.AudioFormat;
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-
+/**
+ * Tek seferlik byte[] dönüşümleri. Çağrı yolundaki ses {@code pipeline} zinciriyle işlenir;
+ * ikisi de aynı G.711 ve yeniden örnekleme çekirdeklerini kullanır.
+ */
 @Service
 public class AudioConversionService {
 
-    private static final Logger logger = LoggerFactory.getLogger(AudioConversionService.class);
+    private static final int OPENAI_SAMPLE_RATE = 24000;
+    private static final int ULAW_SAMPLE_RATE = 8000;
+    private static final int SLIN16_SAMPLE_RATE = 16000;
 
     // OpenAI -> Asterisk (24kHz 16-bit PCM -> 8kHz 8-bit ULAW)
     public byte[] convertOpenAiToAsterisk(byte[] pcm24kHzData) {
-        if (pcm24kHzData == null || pcm24kHzData.length == 0) return new byte[0];
-        try {
-            // 1️⃣ Resample 24kHz -> 8kHz
-            byte[] pcm8kHzData = resample(pcm24kHzData, 24000, 8000);
-
-            // 2️⃣ PCM 16-bit -> ULAW 8-bit
-            AudioFormat pcmFormat = new AudioFormat(8000, 16, 1, true, false);
-            AudioFormat ulawFormat = new AudioFormat(AudioFormat.Encoding.ULAW, 8000, 8, 1, 1, 8000, false);
-
-            try (ByteArrayInputStream bais = new ByteArrayInputStream(pcm8kHzData);
-                 AudioInputStream pcmStream = new AudioInputStream(bais, pcmFormat, pcm8kHzData.length / pcmFormat.getFrameSize());
-                 AudioInputStream ulawStream = AudioSystem.getAudioInputStream(ulawFormat, pcmStream);
-                 ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-                byte[] buffer = new byte[1024];
-                int bytesRead;
-                while ((bytesRead = ulawStream.read(buffer)) != -1) {
-                    baos.write(buffer, 0, bytesRead);
-                }
-                return baos.toByteArray();
-            }
-
-        } catch (Exception e) {
-            logger.error("Error converting OpenAI audio to Asterisk format", e);
-            return new byte[0];
+        if (pcm24kHzData == null || pcm24kHzData.length < 2) return new byte[0];
+        short[] samples = resample(readPcm(pcm24kHzData), OPENAI_SAMPLE_RATE, ULAW_SAMPLE_RATE);
+        byte[] out = new byte[samples.length];
+        for (int i = 0; i < samples.length; i++) {
+            out[i] = G711.linearToUlaw(samples[i]);
         }
+        return out;
     }
 
     // Asterisk -> OpenAI (8kHz 8-bit ULAW -> 24kHz 16-bit PCM)
     public byte[] convertAsteriskToOpenAi(byte[] ulaw8kHzData) {
         if (ulaw8kHzData == null || ulaw8kHzData.length == 0) return new byte[0];
-        try {
-            AudioFormat ulawFormat = new AudioFormat(AudioFormat.Encoding.ULAW, 8000, 8, 1, 1, 8000, false);
-            AudioFormat pcmFormat = new AudioFormat(8000, 16, 1, true, false);
-
-            byte[] pcm8kHzData;
-            try (ByteArrayInputStream bais = new ByteArrayInputStream(ulaw8kHzData);
-                 AudioInputStream ulawStream = new AudioInputStream(bais, ulawFormat, ulaw8kHzData.length / ulawFormat.getFrameSize());
-                 AudioInputStream pcmStream = AudioSystem.getAudioInputStream(pcmFormat, ulawStream);
-                 ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-                byte[] buffer = new byte[1024];
-                int bytesRead;
-                while ((bytesRead = pcmStream.read(buffer)) != -1) {
-                    baos.write(buffer, 0, bytesRead);
-                }
-                pcm8kHzData = baos.toByteArray();
-            }
-
-            return resample(pcm8kHzData, 8000, 24000);
-
-        } catch (Exception e) {
-            logger.error("Error converting Asterisk audio to OpenAI format", e);
-            return new byte[0];
+        short[] samples = new short[ulaw8kHzData.length];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = G711.ulawToLinear(ulaw8kHzData[i]);
         }
+        return writePcm(resample(samples, ULAW_SAMPLE_RATE, OPENAI_SAMPLE_RATE));
     }
 
-    private byte[] resample(byte[] pcmData, int sourceRate, int targetRate) {
-        try {
-            double rateFactor = (double) targetRate / sourceRate;
-
-            AudioFormat sourceFormat = new AudioFormat(sourceRate, 16, 1, true, false);
-            JVMAudioInputStream jvmStream = new JVMAudioInputStream(
-                    new AudioInputStream(new ByteArrayInputStream(pcmData), sourceFormat, pcmData.length / 2)
-            );
-
-            AudioDispatcher dispatcher = new AudioDispatcher(jvmStream, 1024, 0);
-            RateTransposer rateTransposer = new RateTransposer(rateFactor);
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-
-            dispatcher.addAudioProcessor(rateTransposer);
-            dispatcher.addAudioProcessor(new AudioProcessor() {
-                @Override
-                public boolean process(AudioEvent audioEvent) {
-                    float[] buffer = audioEvent.getFloatBuffer();
-                    byte[] byteBuffer = new byte[buffer.length * 2];
-                    for (int i = 0; i < buffer.length; i++) {
-                        short val = (short) (buffer[i] * 32767);
-                        byteBuffer[i * 2] = (byte) (val & 0xFF);
-                        byteBuffer[i * 2 + 1] = (byte) ((val >> 8) & 0xFF);
-                    }
-                    try { baos.write(byteBuffer); } catch (Exception ignored) {}
-                    return true;
-                }
-
-                @Override
-                public void processingFinished() {}
-            });
-
-            dispatcher.run();
-            return baos.toByteArray();
-
-        } catch (Exception e) {
-            logger.error("Error during resampling from {}Hz to {}Hz", sourceRate, targetRate, e);
-            return new byte[0];
-        }
+    // OpenAI -> Asterisk (24kHz 16-bit PCM -> 16kHz 16-bit PCM, slin16)
+    public byte[] convertOpenAiToSlin16(byte[] pcm24kHzData) {
+        if (pcm24kHzData == null || pcm24kHzData.length < 2) return new byte[0];
+        return writePcm(resample(readPcm(pcm24kHzData), OPENAI_SAMPLE_RATE, SLIN16_SAMPLE_RATE));
     }
 
-    // Ses normalizasyonu
-    public byte[] normalizeVolume(byte[] audioData, float targetLevel) {
-        if (audioData == null || audioData.length < 2) return audioData;
-
-        int sampleCount = audioData.length / 2;
-        short[] samples = new short[sampleCount];
-        ByteBuffer.wrap(audioData).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(samples);
-
-        long sum = 0;
-        for (short sample : samples) sum += (long) sample * sample;
+    // Asterisk -> OpenAI (16kHz 16-bit PCM, slin16 -> 24kHz 16-bit PCM)
+    public byte[] convertSlin16ToOpenAi(byte[] pcm16kHzData) {
+        if (pcm16kHzData == null || pcm16kHzData.length < 2) return new byte[0];
+        return writePcm(resample(readPcm(pcm16kHzData), SLIN16_SAMPLE_RATE, OPENAI_SAMPLE_RATE));
+    }
 
-        double rms = Math.sqrt((double) sum / sampleCount);
-        if (rms == 0) return audioData;
+    private static short[] resample(short[] samples, int sourceRate, int targetRate) {
+        short[] out = new short[PcmResampler.outputLength(samples.length, sourceRate, targetRate)];
+        PcmResampler.resample(samples, samples.length, sourceRate, out, targetRate);
+        return out;
+    }
 
-        double targetRms = targetLevel * Short.MAX_VALUE;
-        double gain = targetRms / rms;
-        if (gain > 4.0) gain = 4.0;
-        if (gain < 0.1) gain = 0.1;
+    // Little endian 16-bit örnekler
+    private static short[] readPcm(byte[] pcm) {
+        short[] samples = new short[pcm.length / 2];
+        SampleKernels.INSTANCE.unpackLittleEndian(pcm, samples.length, samples);
+        return samples;
+    }
 
-        byte[] normalizedData = new byte[audioData.length];
-        for (int i = 0; i < samples.length; i++) {
-            int amplified = (int) (samples[i] * gain);
-            amplified = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, amplified));
-            normalizedData[i * 2] = (byte) (amplified & 0xFF);
-            normalizedData[i * 2 + 1] = (byte) ((amplified >> 8) & 0xFF);
-        }
-        return normalizedData;
+    private static byte[] writePcm(short[] samples) {
+        byte[] out = new byte[samples.length * 2];
+        SampleKernels.INSTANCE.packLittleEndian(samples, samples.length, out);
+        return out;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package com.yusssss.vcmail.core.utilities.audio;
+
+/**
+ * G.711 μ-law ↔ 16-bit linear PCM dönüşümü. Çözme 256 girişlik tablodan yapılır.
+ */
+public final class G711 {
+
+    private static final int BIAS = 0x84;
+    private static final int CLIP = 32635;
+    private static final short[] ULAW_TO_LINEAR = new short[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int ulaw = ~i & 0xFF;
+            int exponent = (ulaw >> 4) & 0x07;
+            int sample = ((((ulaw & 0x0F) << 3) + BIAS) << exponent) - BIAS;
+            ULAW_TO_LINEAR[i] = (short) ((ulaw & 0x80) != 0 ? -sample : sample);
+        }
+    }
+
+    private G711() {
+    }
+
+    public static short ulawToLinear(byte ulaw) {
+        return ULAW_TO_LINEAR[ulaw & 0xFF];
+    }
+
+    public static byte linearToUlaw(int pcm) {
+        int sign = (pcm >> 8) & 0x80;
+        if (sign != 0) {
+            pcm = -pcm;
+        }
+        if (pcm > CLIP) {
+            pcm = CLIP;
+        }
+        pcm += BIAS;
+
+        int exponent = 7;
+        for (int mask = 0x4000; (pcm & mask) == 0 && exponent > 0; mask >>= 1) {
+            exponent--;
+        }
+        int mantissa = (pcm >> (exponent + 3)) & 0x0F;
+        return (byte) ~(sign | (exponent << 4) | mantissa);
+    }
+}
@@ -0,0 +1,60 @@
+package com.yusssss.vcmail.core.utilities.audio;
+
+/**
+ * Bin başına gürültü tabanı takibi ve Wiener kazancı (karar yönlendirmeli a priori SNR).
+ * Sadece güç spektrumu üzerinde çalışır, FFT'den bağımsızdır. Dizi ayırması kurucuda yapılır.
+ */
+public class NoiseGainEstimator {
+
+    // İlk 200 ms (10 frame) ortalaması başlangıç tabanı: arayan genelde henüz konuşmuyor
+    private static final int INITIAL_FRAMES = 10;
+    // Taban konuşma sırasında yavaş (~4 s) yükselir, sessizlikte hızlı iner
+    private static final float NOISE_RISE = 0.995f;
+    private static final float NOISE_FALL = 0.7f;
+    private static final float DECISION_DIRECTED = 0.98f;
+    private static final float MIN_NOISE_POWER = 1e-3f;
+
+    private final float[] noisePower;
+    private final float[] previousCleanPower;
+    private final float[] gains;
+    private final float gainFloor;
+    private int frames;
+
+    public NoiseGainEstimator(int bins, float gainFloor) {
+        this.noisePower = new float[bins];
+        this.previousCleanPower = new float[bins];
+        this.gains = new float[bins];
+        this.gainFloor = gainFloor;
+    }
+
+    public float[] update(float[] power) {
+        boolean initializing = frames < INITIAL_FRAMES;
+        for (int k = 0; k < gains.length; k++) {
+            float p = power[k];
+            float noise = noisePower[k];
+            if (initializing) {
+                noise += (p - noise) / (frames + 1);
+            } else if (p < noise) {
+                noise = NOISE_FALL * noise + (1 - NOISE_FALL) * p;
+            } else {
+                noise = NOISE_RISE * noise + (1 - NOISE_RISE) * p;
+            }
+            noisePower[k] = noise;
+
+            float n = Math.max(noise, MIN_NOISE_POWER);
+            float posteriori = p / n;
+            float priori = DECISION_DIRECTED * previousCleanPower[k] / n
+                    + (1 - DECISION_DIRECTED) * Math.max(posteriori - 1, 0);
+            float gain = Math.max(gainFloor, priori / (1 + priori));
+
+            previousCleanPower[k] = gain * gain * p;
+            gains[k] = gain;
+        }
+        frames++;
+        return gains;
+    }
+
+    public float[] getNoisePower() {
+        return noisePower;
+    }
+}
@@ -0,0 +1,134 @@
+package com.yusssss.vcmail.core.utilities.audio;
+
+import be.tarsos.dsp.util.fft.FFT;
+import com.yusssss.vcmail.core.utilities.audio.kernel.SampleKernels;
+
+/**
+ * Tek kanal spektral gürültü bastırıcı. 20 ms'lik hop ve %50 örtüşmeli, karekök Hann
+ * pencereli STFT; her hop'ta bir ileri ve bir geri FFT. Sese bir hop (20 ms) gecikme ekler.
+ * Tüm tamponlar kurucuda ayrılır, çıkış kuyruğu sadece hop'tan uzun parçalar gelirse büyür.
+ * Bir çağrı yönüne aittir, thread-safe değildir.
+ */
+public class NoiseSuppressor {
+
+    private final int hop;
+    private final int fftSize;
+    private final FFT fft;
+    private final float[] window;
+    private final float[] history;
+    private final float[] spectrum;
+    private final float[] power;
+    private final float[] overlap;
+    private final NoiseGainEstimator gainEstimator;
+
+    private final float[] pending;
+    private int pendingCount;
+
+    private short[] output;
+    private int outputStart;
+    private int outputCount;
+
+    private boolean bypassed;
+
+    public NoiseSuppressor(int sampleRate, float gainFloor) {
+        this.hop = sampleRate / 50;
+        this.fftSize = hop * 2;
+        this.fft = new FFT(fftSize);
+        this.window = new float[fftSize];
+        for (int n = 0; n < fftSize; n++) {
+            // Analiz ve sentez pencerelerinin çarpımı Hann: %50 örtüşmede toplam 1
+            window[n] = (float) Math.sqrt(0.5 * (1 - Math.cos(2 * Math.PI * n / fftSize)));
+        }
+        this.history = new float[fftSize];
+        this.spectrum = new float[fftSize];
+        this.power = new float[hop + 1];
+        this.overlap = new float[hop];
+        this.gainEstimator = new NoiseGainEstimator(hop + 1, gainFloor);
+        this.pending = new float[hop];
+        this.output = new short[hop * 2];
+    }
+
+    /**
+     * Örnekleri yerinde işler. Çıkış girişin bir hop gerisindedir; ilk çağrılarda eksik kalan
+     * baş kısım sessizlikle doldurulur.
+     */
+    public void process(short[] samples, int count) {
+        for (int i = 0; i < count; i++) {
+            pending[pendingCount++] = samples[i];
+            if (pendingCount == hop) {
+                processHop();
+                pendingCount = 0;
+            }
+        }
+
+        int missing = Math.max(0, count - outputCount);
+        for (int i = 0; i < missing; i++) {
+            samples[i] = 0;
+        }
+        for (int i = missing; i < count; i++) {
+            samples[i] = output[outputStart];
+            outputStart = (outputStart + 1) % output.length;
+            outputCount--;
+        }
+    }
+
+    // Bütçe aşılırsa FFT atlanır, gecikme aynı kalır
+    public void setBypassed(boolean bypassed) {
+        this.bypassed = bypassed;
+    }
+
+    public boolean isBypassed() {
+        return bypassed;
+    }
+
+    private void processHop() {
+        System.arraycopy(history, hop, history, 0, hop);
+        System.arraycopy(pending, 0, history, hop, hop);
+
+        if (bypassed) {
+            appendOutput(history, 0, null);
+            return;
+        }
+
+        SampleKernels.INSTANCE.multiply(history, window, spectrum, fftSize);
+        fft.forwardTransform(spectrum);
+
+        // Paketlenmiş gerçel FFT: [0] DC, [1] Nyquist, [2k] / [2k+1] k. bin'in gerçel / sanal kısmı
+        power[0] = spectrum[0] * spectrum[0];
+        power[hop] = spectrum[1] * spectrum[1];
+        for (int k = 1; k < hop; k++) {
+            power[k] = spectrum[2 * k] * spectrum[2 * k] + spectrum[2 * k + 1] * spectrum[2 * k + 1];
+        }
+
+        float[] gains = gainEstimator.update(power);
+        spectrum[0] *= gains[0];
+        spectrum[1] *= gains[hop];
+        for (int k = 1; k < hop; k++) {
+            spectrum[2 * k] *= gains[k];
+            spectrum[2 * k + 1] *= gains[k];
+        }
+        fft.backwardsTransform(spectrum);
+
+        SampleKernels.INSTANCE.multiply(spectrum, window, spectrum, fftSize);
+        appendOutput(spectrum, 0, overlap);
+        System.arraycopy(spectrum, hop, overlap, 0, hop);
+    }
+
+    private void appendOutput(float[] source, int offset, float[] add) {
+        if (outputCount + hop > output.length) {
+            short[] grown = new short[output.length * 2];
+            for (int i = 0; i < outputCount; i++) {
+                grown[i] = output[(outputStart + i) % output.length];
+            }
+            output = grown;
+            outputStart = 0;
+        }
+        for (int n = 0; n < hop; n++) {
+            float value = source[offset + n] + (add != null ? add[n] : 0);
+            int rounded = Math.round(value);
+            output[(outputStart + outputCount) % output.length] =
+                    (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, rounded));
+            outputCount++;
+        }
+    }
+}
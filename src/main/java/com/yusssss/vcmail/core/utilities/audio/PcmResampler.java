@@ -0,0 +1,230 @@
+package com.yusssss.vcmail.core.utilities.audio;
+
+import java.util.Arrays;
+
+/**
+ * Telefon hattında kullanılan oranlar arasında 16-bit mono örnek dönüşümü (8/16/24 kHz).
+ * Statik {@link #resample} tek seferlik dönüşümdür: parça bağımsız işlenir, sınır dışı indeksler
+ * kenara sabitlenir. Akan ses için örnek oluşturulur ({@link #process}); filtre geçmişi ve
+ * çıktı fazı parçalar arasında taşınır, parça sınırlarında tıkırtı ve faz kayması olmaz.
+ * Çağıran çıktı dizisini hazırlar; sıcak yolda bellek ayırmaz.
+ */
+public final class PcmResampler {
+
+    private enum Mode { COPY, LINEAR, THREE_TO_TWO, DECIMATE }
+
+    private final int sourceRate;
+    private final int targetRate;
+    private final Mode mode;
+    private final int factor;
+    private final int lookBehind;
+    private final int lookAhead;
+
+    // Henüz işi bitmemiş girdi örnekleri; carry[0] akıştaki carryStart. örnektir
+    private short[] carry = new short[64];
+    private int carryCount;
+    private long carryStart;
+    private long inputSeen;
+    // Üretilecek sıradaki çıktı örneğinin akıştaki indeksi
+    private long nextOutput;
+
+    public PcmResampler(int sourceRate, int targetRate) {
+        this.sourceRate = sourceRate;
+        this.targetRate = targetRate;
+        if (sourceRate == targetRate) {
+            mode = Mode.COPY;
+            factor = 1;
+        } else if (sourceRate * 2 == targetRate * 3) {
+            mode = Mode.THREE_TO_TWO;
+            factor = 1;
+        } else if (sourceRate > targetRate && sourceRate % targetRate == 0) {
+            mode = Mode.DECIMATE;
+            factor = sourceRate / targetRate;
+        } else {
+            // 16 -> 24, 8 -> 24 ve diğer oranlar: doğrusal interpolasyon
+            mode = Mode.LINEAR;
+            factor = 1;
+        }
+        lookBehind = switch (mode) {
+            case THREE_TO_TWO -> 1;
+            case DECIMATE -> factor - 1;
+            default -> 0;
+        };
+        lookAhead = switch (mode) {
+            case LINEAR -> 1;
+            case THREE_TO_TWO -> 2;
+            case DECIMATE -> factor - 1;
+            default -> 0;
+        };
+    }
+
+    public int getSourceRate() {
+        return sourceRate;
+    }
+
+    // Sonraki process çağrısının üretebileceği en fazla çıktı örneği
+    public int maxOutputLength(int inputSamples) {
+        return (int) ((long) (carryCount + inputSamples) * targetRate / sourceRate) + 1;
+    }
+
+    /**
+     * Parçayı akışın devamı olarak işler. Filtrenin sağ penceresi için akış sabit {@code lookAhead}
+     * girdi örneği (en fazla 2 örnek, 24 kHz'de 0.1 ms) geciktirilir; böylece 20 ms'lik parça yine
+     * 20 ms'lik çıktı verir ve paketleme bozulmaz.
+     */
+    public int process(short[] in, int inSamples, short[] out) {
+        if (mode == Mode.COPY) {
+            System.arraycopy(in, 0, out, 0, inSamples);
+            return inSamples;
+        }
+        if (carry.length < carryCount + inSamples) {
+            carry = Arrays.copyOf(carry, Math.max(carry.length * 2, carryCount + inSamples));
+        }
+        System.arraycopy(in, 0, carry, carryCount, inSamples);
+        carryCount += inSamples;
+        inputSeen += inSamples;
+
+        int produced = 0;
+        while (true) {
+            long position = nextOutput * sourceRate;
+            long base = position / targetRate;
+            if (base >= inputSeen) {
+                break;
+            }
+            out[produced++] = (short) outputAt(base - lookAhead, (int) (position % targetRate));
+            nextOutput++;
+        }
+
+        // Sıradaki çıktının sol penceresinden eski örnekler artık gerekmez
+        long keepFrom = Math.max(0, nextOutput * sourceRate / targetRate - lookAhead - lookBehind);
+        int drop = (int) Math.min(carryCount, keepFrom - carryStart);
+        if (drop > 0) {
+            System.arraycopy(carry, drop, carry, 0, carryCount - drop);
+            carryCount -= drop;
+            carryStart += drop;
+        }
+        return produced;
+    }
+
+    // Filtre ağırlıkları statik çekirdeklerle aynı; sadece indeksler akış içinde mutlaktır
+    private int outputAt(long base, int remainder) {
+        return switch (mode) {
+            case LINEAR -> remainder == 0
+                    ? streamSample(base)
+                    : (int) (((long) streamSample(base) * (targetRate - remainder)
+                            + (long) streamSample(base + 1) * remainder) / targetRate);
+            case THREE_TO_TWO -> remainder == 0
+                    ? (streamSample(base - 1) + 2 * streamSample(base) + streamSample(base + 1)) >> 2
+                    : (streamSample(base - 1) + 3 * streamSample(base) + 3 * streamSample(base + 1)
+                            + streamSample(base + 2)) >> 3;
+            case DECIMATE -> {
+                int sum = 0;
+                for (int k = 1 - factor; k < factor; k++) {
+                    sum += (factor - Math.abs(k)) * streamSample(base + k);
+                }
+                yield sum / (factor * factor);
+            }
+            case COPY -> streamSample(base);
+        };
+    }
+
+    // Akışın başından önceki indeksler (gecikme dahil) ilk örneğe sabitlenir
+    private int streamSample(long index) {
+        return carry[(int) (Math.max(index, 0) - carryStart)];
+    }
+
+    public static int outputLength(int inputSamples, int sourceRate, int targetRate) {
+        return (int) ((long) inputSamples * targetRate / sourceRate);
+    }
+
+    public static int resample(short[] in, int inSamples, int sourceRate, short[] out, int targetRate) {
+        int outSamples = outputLength(inSamples, sourceRate, targetRate);
+        if (inSamples == 0 || outSamples == 0) {
+            return 0;
+        }
+
+        if (sourceRate == targetRate) {
+            System.arraycopy(in, 0, out, 0, inSamples);
+        } else if (sourceRate * 3 == targetRate * 2) {
+            upsampleTwoToThree(in, inSamples, out, outSamples);
+        } else if (sourceRate * 2 == targetRate * 3) {
+            downsampleThreeToTwo(in, inSamples, out, outSamples);
+        } else if (targetRate % sourceRate == 0) {
+            upsampleInteger(in, inSamples, out, outSamples, targetRate / sourceRate);
+        } else if (sourceRate % targetRate == 0) {
+            downsampleInteger(in, inSamples, out, outSamples, sourceRate / targetRate);
+        } else {
+            interpolate(in, inSamples, out, outSamples, (double) sourceRate / targetRate);
+        }
+        return outSamples;
+    }
+
+    // 16 -> 24 kHz: her 2 girdi örneğinden 3 çıktı, 0, 2/3 ve 4/3 konumlarında doğrusal interpolasyon
+    private static void upsampleTwoToThree(short[] in, int inSamples, short[] out, int outSamples) {
+        for (int o = 0; o < outSamples; o++) {
+            int base = (o / 3) * 2;
+            int s0 = sampleAt(in, base, inSamples);
+            out[o] = (short) switch (o % 3) {
+                case 0 -> s0;
+                case 1 -> (s0 + 2 * sampleAt(in, base + 1, inSamples)) / 3;
+                default -> (2 * sampleAt(in, base + 1, inSamples) + sampleAt(in, base + 2, inSamples)) / 3;
+            };
+        }
+    }
+
+    // 24 -> 16 kHz: her 3 girdi örneğinden 2 çıktı, 0. ve 1.5. konumlar, basit alçak geçiren ağırlıklarla
+    private static void downsampleThreeToTwo(short[] in, int inSamples, short[] out, int outSamples) {
+        for (int o = 0; o < outSamples; o++) {
+            int base = (o / 2) * 3;
+            if ((o & 1) == 0) {
+                // Tam konum: [1 2 1] / 4
+                out[o] = (short) ((sampleAt(in, base - 1, inSamples)
+                        + 2 * sampleAt(in, base, inSamples)
+                        + sampleAt(in, base + 1, inSamples)) >> 2);
+            } else {
+                // Yarım konum (base + 1.5): [1 3 3 1] / 8
+                out[o] = (short) ((sampleAt(in, base, inSamples)
+                        + 3 * sampleAt(in, base + 1, inSamples)
+                        + 3 * sampleAt(in, base + 2, inSamples)
+                        + sampleAt(in, base + 3, inSamples)) >> 3);
+            }
+        }
+    }
+
+    // 8 -> 24 kHz gibi tam katlar: doğrusal interpolasyon
+    private static void upsampleInteger(short[] in, int inSamples, short[] out, int outSamples, int factor) {
+        for (int o = 0; o < outSamples; o++) {
+            int base = o / factor;
+            int phase = o % factor;
+            out[o] = (short) ((sampleAt(in, base, inSamples) * (factor - phase)
+                    + sampleAt(in, base + 1, inSamples) * phase) / factor);
+        }
+    }
+
+    // 24 -> 8 kHz gibi tam katlar: üçgen pencereli alçak geçiren (3 için [1 2 3 2 1] / 9) ve seyreltme
+    private static void downsampleInteger(short[] in, int inSamples, short[] out, int outSamples, int factor) {
+        int norm = factor * factor;
+        for (int o = 0; o < outSamples; o++) {
+            int center = o * factor;
+            int sum = 0;
+            for (int k = 1 - factor; k < factor; k++) {
+                sum += (factor - Math.abs(k)) * sampleAt(in, center + k, inSamples);
+            }
+            out[o] = (short) (sum / norm);
+        }
+    }
+
+    private static void interpolate(short[] in, int inSamples, short[] out, int outSamples, double step) {
+        for (int o = 0; o < outSamples; o++) {
+            double position = o * step;
+            int base = (int) position;
+            double fraction = position - base;
+            out[o] = (short) Math.round(sampleAt(in, base, inSamples) * (1 - fraction)
+                    + sampleAt(in, base + 1, inSamples) * fraction);
+        }
+    }
+
+    private static int sampleAt(short[] samples, int index, int sampleCount) {
+        return samples[Math.max(0, Math.min(sampleCount - 1, index))];
+    }
+}
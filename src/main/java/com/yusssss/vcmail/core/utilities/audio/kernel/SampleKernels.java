@@ -0,0 +1,44 @@
+package com.yusssss.vcmail.core.utilities.audio.kernel;
+
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ses zincirinin örnek başına döngüleri. JVM {@code --add-modules jdk.incubator.vector} ile
+ * açıldıysa Vector API (SIMD) sürümü, değilse skaler sürüm kullanılır. Her iki sürüm de aynı
+ * sonucu verir; {@code -Dvcmail.audio.simd=false} ile skalere zorlanabilir.
+ */
+public interface SampleKernels {
+
+    SampleKernels INSTANCE = select();
+
+    // 16-bit örnekler -> little endian baytlar, out en az count * 2
+    void packLittleEndian(short[] samples, int count, byte[] out);
+
+    // Little endian baytlar -> 16-bit örnekler
+    void unpackLittleEndian(byte[] data, int count, short[] out);
+
+    // Kazanç uygulanır, sonuç sıfıra doğru kesilip 16-bit aralığına sabitlenir
+    void applyGain(short[] samples, int count, float gain);
+
+    // Örneklerin kareleri toplamı (RMS için)
+    double energy(short[] samples, int count);
+
+    // out[i] = a[i] * b[i]; out, a ile aynı dizi olabilir
+    void multiply(float[] a, float[] b, float[] out, int count);
+
+    String getName();
+
+    private static SampleKernels select() {
+        if (Boolean.parseBoolean(System.getProperty("vcmail.audio.simd", "true"))
+                && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                SampleKernels kernels = new VectorSampleKernels();
+                LoggerFactory.getLogger(SampleKernels.class).info("Audio sample kernels: {}", kernels.getName());
+                return kernels;
+            } catch (LinkageError | RuntimeException e) {
+                LoggerFactory.getLogger(SampleKernels.class).warn("Vector API kernels unavailable, using scalar loops", e);
+            }
+        }
+        return new ScalarSampleKernels();
+    }
+}
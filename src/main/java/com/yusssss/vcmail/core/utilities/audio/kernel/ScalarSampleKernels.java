@@ -0,0 +1,71 @@
+package com.yusssss.vcmail.core.utilities.audio.kernel;
+
+/**
+ * Vector API olmadan çalışan referans sürüm; SIMD sürümünün kuyruk döngüleri de bunu kullanır.
+ */
+class ScalarSampleKernels implements SampleKernels {
+
+    @Override
+    public void packLittleEndian(short[] samples, int count, byte[] out) {
+        packLittleEndian(samples, 0, count, out);
+    }
+
+    @Override
+    public void unpackLittleEndian(byte[] data, int count, short[] out) {
+        unpackLittleEndian(data, 0, count, out);
+    }
+
+    @Override
+    public void applyGain(short[] samples, int count, float gain) {
+        applyGain(samples, 0, count, gain);
+    }
+
+    @Override
+    public double energy(short[] samples, int count) {
+        return energy(samples, 0, count);
+    }
+
+    @Override
+    public void multiply(float[] a, float[] b, float[] out, int count) {
+        multiply(a, b, out, 0, count);
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    static void packLittleEndian(short[] samples, int from, int to, byte[] out) {
+        for (int i = from; i < to; i++) {
+            out[i * 2] = (byte) (samples[i] & 0xFF);
+            out[i * 2 + 1] = (byte) ((samples[i] >> 8) & 0xFF);
+        }
+    }
+
+    static void unpackLittleEndian(byte[] data, int from, int to, short[] out) {
+        for (int i = from; i < to; i++) {
+            out[i] = (short) ((data[i * 2 + 1] << 8) | (data[i * 2] & 0xFF));
+        }
+    }
+
+    static void applyGain(short[] samples, int from, int to, float gain) {
+        for (int i = from; i < to; i++) {
+            float amplified = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, samples[i] * gain));
+            samples[i] = (short) (int) amplified;
+        }
+    }
+
+    static double energy(short[] samples, int from, int to) {
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += samples[i] * samples[i];
+        }
+        return sum;
+    }
+
+    static void multiply(float[] a, float[] b, float[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = a[i] * b[i];
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.yusssss.vcmail.core.utilities.audio.kernel;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API sürümü. Örnek ↔ bayt dönüşümünde short ve byte vektörleri aynı genişliktedir
+ * (yeniden yorumlama little endian). Kazanç ve enerji float lane'lerde hesaplanır; short'lar
+ * lane sayısı float vektörüyle aynı olan yarım genişlikte vektörden genişletilir.
+ * Kalan örnekler skaler döngüyle işlenir. Ölçümde kazanç göstermeyen çekirdekler skaler kalır
+ * (SampleKernelsBenchmarkTests, mvn test -Pbenchmark).
+ */
+class VectorSampleKernels implements SampleKernels {
+
+    private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Short> HALF_SHORTS =
+            VectorSpecies.of(short.class, VectorShape.forBitSize(FLOATS.vectorBitSize() / 2));
+
+    VectorSampleKernels() {
+        if (FLOATS.length() < 4 || HALF_SHORTS.length() != FLOATS.length()) {
+            throw new IllegalStateException("No usable vector shape: " + FLOATS);
+        }
+    }
+
+    @Override
+    public void packLittleEndian(short[] samples, int count, byte[] out) {
+        int bound = SHORTS.loopBound(count);
+        for (int i = 0; i < bound; i += SHORTS.length()) {
+            ShortVector.fromArray(SHORTS, samples, i).reinterpretAsBytes().intoArray(out, i * 2);
+        }
+        ScalarSampleKernels.packLittleEndian(samples, bound, count, out);
+    }
+
+    @Override
+    public void unpackLittleEndian(byte[] data, int count, short[] out) {
+        int bound = SHORTS.loopBound(count);
+        for (int i = 0; i < bound; i += SHORTS.length()) {
+            ByteVector.fromArray(BYTES, data, i * 2).reinterpretAsShorts().intoArray(out, i);
+        }
+        ScalarSampleKernels.unpackLittleEndian(data, bound, count, out);
+    }
+
+    @Override
+    public void applyGain(short[] samples, int count, float gain) {
+        int bound = FLOATS.loopBound(count);
+        for (int i = 0; i < bound; i += FLOATS.length()) {
+            FloatVector amplified = widen(samples, i)
+                    .mul(gain)
+                    .max(Short.MIN_VALUE)
+                    .min(Short.MAX_VALUE);
+            // F2I sıfıra doğru keser, skaler (int) dönüşümüyle aynı
+            ((ShortVector) amplified.convertShape(VectorOperators.F2I, INTS, 0)
+                    .convertShape(VectorOperators.I2S, HALF_SHORTS, 0))
+                    .intoArray(samples, i);
+        }
+        ScalarSampleKernels.applyGain(samples, bound, count, gain);
+    }
+
+    @Override
+    public double energy(short[] samples, int count) {
+        int bound = FLOATS.loopBound(count);
+        FloatVector sum = FloatVector.zero(FLOATS);
+        for (int i = 0; i < bound; i += FLOATS.length()) {
+            FloatVector values = widen(samples, i);
+            sum = values.fma(values, sum);
+        }
+        return sum.reduceLanes(VectorOperators.ADD) + ScalarSampleKernels.energy(samples, bound, count);
+    }
+
+    // C2 bu döngüyü kendisi vektörleştiriyor; Vector API sürümü ölçümde kazanç göstermedi
+    @Override
+    public void multiply(float[] a, float[] b, float[] out, int count) {
+        ScalarSampleKernels.multiply(a, b, out, 0, count);
+    }
+
+    @Override
+    public String getName() {
+        return "vector-" + FLOATS.vectorBitSize() + "bit";
+    }
+
+    private static FloatVector widen(short[] samples, int offset) {
+        return (FloatVector) ShortVector.fromArray(HALF_SHORTS, samples, offset)
+                .convertShape(VectorOperators.S2F, FLOATS, 0);
+    }
+}
@@ -0,0 +1,38 @@
+package com.yusssss.vcmail.core.utilities.audio.pipeline;
+
+import com.yusssss.vcmail.core.utilities.audio.kernel.SampleKernels;
+
+/**
+ * Parça başına RMS'i hedef seviyeye çeker; kazanç 0.1 ile 4 arasında sınırlanır.
+ */
+public class AgcStage implements AudioStage {
+
+    private static final double MAX_GAIN = 4.0;
+    private static final double MIN_GAIN = 0.1;
+
+    private final double targetRms;
+
+    public AgcStage(float targetLevel) {
+        this.targetRms = targetLevel * Short.MAX_VALUE;
+    }
+
+    @Override
+    public String getName() {
+        return "agc";
+    }
+
+    @Override
+    public boolean process(AudioFrame frame) {
+        short[] samples = frame.getSamples();
+        int count = frame.getSampleCount();
+
+        double rms = Math.sqrt(SampleKernels.INSTANCE.energy(samples, count) / count);
+        if (rms == 0) {
+            return true;
+        }
+
+        double gain = Math.max(MIN_GAIN, Math.min(MAX_GAIN, targetRms / rms));
+        SampleKernels.INSTANCE.applyGain(samples, count, (float) gain);
+        return true;
+    }
+}
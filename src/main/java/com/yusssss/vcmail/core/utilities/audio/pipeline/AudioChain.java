@@ -0,0 +1,54 @@
+package com.yusssss.vcmail.core.utilities.audio.pipeline;
+
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bir çağrının tek yönündeki aşama zinciri. Her aşamanın süresi kendi histogramına yazılır.
+ */
+public final class AudioChain {
+
+    private final String name;
+    private final int inputSampleRate;
+    private final AudioStage[] stages;
+    private final Timer[] stageTimers;
+    private final AudioFrame frame = new AudioFrame();
+
+    public AudioChain(String name, int inputSampleRate, List<AudioStage> stages, List<Timer> stageTimers) {
+        if (stages.size() != stageTimers.size()) {
+            throw new IllegalArgumentException("Every audio stage needs a timer");
+        }
+        this.name = name;
+        this.inputSampleRate = inputSampleRate;
+        this.stages = stages.toArray(new AudioStage[0]);
+        this.stageTimers = stageTimers.toArray(new Timer[0]);
+    }
+
+    /**
+     * Girdiyi zincirden geçirir. Dönen frame bir sonraki çağrıda tekrar kullanılır;
+     * parça düşürüldüyse null döner.
+     */
+    public AudioFrame process(byte[] input) {
+        frame.load(input, inputSampleRate);
+        for (int i = 0; i < stages.length; i++) {
+            long start = System.nanoTime();
+            boolean keep = stages[i].process(frame);
+            stageTimers[i].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (!keep) {
+                return null;
+            }
+        }
+        return frame;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getStageNames() {
+        return Arrays.stream(stages).map(AudioStage::getName).toList();
+    }
+}
@@ -0,0 +1,159 @@
+package com.yusssss.vcmail.core.utilities.audio.pipeline;
+
+import com.yusssss.vcmail.core.utilities.metrics.VoicePipelineMetrics;
+import com.yusssss.vcmail.core.utilities.openai.RealtimeAudioFormat;
+import com.yusssss.vcmail.core.utilities.rtp.RtpCodec;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Çağrı başına gelen (Asterisk -> OpenAI) ve giden (OpenAI -> Asterisk) zincirleri
+ * {@code audio.pipeline} ayarındaki aşama listesinden kurar.
+ * Aşamalar: decode, denoise, resample, agc, encode ve tap:&lt;ad&gt;. Tap'in tamponu yoksa aşama atlanır,
+ * denoise sadece o çağrıda gürültü bastırma açıksa eklenir.
+ * G.711 passthrough'ta sadece decode'dan önceki tap'ler kalır, ses dönüştürülmez.
+ */
+@Component
+public class AudioChainFactory {
+
+    public static final String INBOUND = "inbound";
+    public static final String OUTBOUND = "outbound";
+
+    private static final String TAP_PREFIX = "tap:";
+    private static final List<String> SAMPLE_STAGES = List.of("denoise", "resample", "agc");
+
+    private final Logger logger = LoggerFactory.getLogger(AudioChainFactory.class);
+    private final VoicePipelineMetrics voicePipelineMetrics;
+    private final List<String> inboundStages;
+    private final List<String> outboundStages;
+    private final float agcTargetLevel;
+    private final boolean noiseSuppressionDefault;
+    private final float denoiseGainFloor;
+    private final long denoiseBudgetNanos;
+
+    public AudioChainFactory(VoicePipelineMetrics voicePipelineMetrics,
+                             @Value("${audio.pipeline.inbound:tap:caller,decode,denoise,resample,tap:openai,agc,encode}") String inboundStages,
+                             @Value("${audio.pipeline.outbound:tap:assistant,decode,resample,encode}") String outboundStages,
+                             @Value("${audio.pipeline.agc-target-level:0.7}") float agcTargetLevel,
+                             @Value("${audio.processing.noise-reduction:false}") boolean noiseSuppressionDefault,
+                             @Value("${audio.pipeline.denoise.gain-floor:0.1}") float denoiseGainFloor,
+                             @Value("${audio.pipeline.denoise.budget-micros:500}") long denoiseBudgetMicros) {
+        this(voicePipelineMetrics, parse(INBOUND, inboundStages), parse(OUTBOUND, outboundStages), agcTargetLevel,
+                noiseSuppressionDefault, denoiseGainFloor, denoiseBudgetMicros * 1000);
+        logger.info("Audio pipeline: inbound {} / outbound {}, noise suppression {} by default",
+                this.inboundStages, this.outboundStages, noiseSuppressionDefault ? "on" : "off");
+    }
+
+    private AudioChainFactory(VoicePipelineMetrics voicePipelineMetrics, List<String> inboundStages, List<String> outboundStages,
+                              float agcTargetLevel, boolean noiseSuppressionDefault, float denoiseGainFloor, long denoiseBudgetNanos) {
+        this.voicePipelineMetrics = voicePipelineMetrics;
+        this.inboundStages = inboundStages;
+        this.outboundStages = outboundStages;
+        this.agcTargetLevel = agcTargetLevel;
+        this.noiseSuppressionDefault = noiseSuppressionDefault;
+        this.denoiseGainFloor = denoiseGainFloor;
+        this.denoiseBudgetNanos = denoiseBudgetNanos;
+    }
+
+    /**
+     * Aynı aşama ayarlarıyla, süreleri verilen metriklere yazan bir kopya. Denoise bütçesi kapalıdır:
+     * duvar saatine bağlı bypass kararı replay çıktısını makineye göre değiştirmesin.
+     */
+    public AudioChainFactory forReplay(VoicePipelineMetrics replayMetrics) {
+        return new AudioChainFactory(replayMetrics, inboundStages, outboundStages, agcTargetLevel,
+                noiseSuppressionDefault, denoiseGainFloor, Long.MAX_VALUE / 1_000_000);
+    }
+
+    public boolean isNoiseSuppressionDefault() {
+        return noiseSuppressionDefault;
+    }
+
+    // Asterisk codec'i -> OpenAI formatı
+    public AudioChain createInbound(RtpCodec codec, RealtimeAudioFormat openAiFormat, Map<String, ByteArrayOutputStream> taps,
+                                    boolean noiseSuppression) {
+        return build(INBOUND, inboundStages, openAiFormat.isPassthrough(), noiseSuppression,
+                !codec.isLinear(), codec.getSampleRate(), false, openAiFormat.getSampleRate(), taps);
+    }
+
+    // OpenAI formatı -> Asterisk codec'i
+    public AudioChain createOutbound(RtpCodec codec, RealtimeAudioFormat openAiFormat, Map<String, ByteArrayOutputStream> taps) {
+        return build(OUTBOUND, outboundStages, openAiFormat.isPassthrough(), false,
+                false, openAiFormat.getSampleRate(), !codec.isLinear(), codec.getSampleRate(), taps);
+    }
+
+    private AudioChain build(String chainName, List<String> stageNames, boolean passthrough, boolean noiseSuppression,
+                             boolean inputUlaw, int inputRate, boolean outputUlaw, int outputRate,
+                             Map<String, ByteArrayOutputStream> taps) {
+        List<AudioStage> stages = new ArrayList<>();
+        for (String stageName : stageNames) {
+            if (passthrough && !stageName.startsWith(TAP_PREFIX)) {
+                break;
+            }
+            AudioStage stage = switch (stageName) {
+                case "decode" -> new DecodeStage(inputUlaw, inputRate);
+                case "denoise" -> noiseSuppression
+                        ? new DenoiseStage(inputRate, denoiseGainFloor, denoiseBudgetNanos, voicePipelineMetrics::denoiseBypassed)
+                        : null;
+                case "resample" -> new ResampleStage(outputRate);
+                case "agc" -> new AgcStage(agcTargetLevel);
+                case "encode" -> new EncodeStage(outputUlaw);
+                default -> {
+                    ByteArrayOutputStream sink = taps.get(stageName.substring(TAP_PREFIX.length()));
+                    yield sink != null ? new TapStage(stageName.substring(TAP_PREFIX.length()), sink) : null;
+                }
+            };
+            if (stage != null) {
+                stages.add(stage);
+            }
+        }
+
+        List<Timer> timers = stages.stream()
+                .map(stage -> voicePipelineMetrics.audioStageTimer(chainName, stage.getName()))
+                .toList();
+        return new AudioChain(chainName, inputRate, stages, timers);
+    }
+
+    // Hatalı yapılandırma açılışta yakalanır, ilk çağrıda değil
+    private static List<String> parse(String chainName, String stages) {
+        List<String> names = Arrays.stream(stages.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toList();
+
+        int decode = names.indexOf("decode");
+        int encode = names.indexOf("encode");
+        if (decode < 0 || encode < decode || names.lastIndexOf("decode") != decode || names.lastIndexOf("encode") != encode) {
+            throw new IllegalStateException("audio.pipeline." + chainName + " needs exactly one decode followed by one encode: " + names);
+        }
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            if (name.startsWith(TAP_PREFIX) && name.length() > TAP_PREFIX.length()) {
+                continue;
+            }
+            if (SAMPLE_STAGES.contains(name)) {
+                if (i < decode || i > encode) {
+                    throw new IllegalStateException("audio.pipeline." + chainName + ": " + name + " must run between decode and encode");
+                }
+            } else if (!name.equals("decode") && !name.equals("encode")) {
+                throw new IllegalStateException("audio.pipeline." + chainName + ": unknown stage " + name);
+            }
+        }
+        if (!names.contains("resample")) {
+            throw new IllegalStateException("audio.pipeline." + chainName + " needs a resample stage");
+        }
+        // Gürültü bastırıcı hop'u codec örnekleme hızına göre kurulur
+        if (names.contains("denoise") && names.indexOf("denoise") > names.indexOf("resample")) {
+            throw new IllegalStateException("audio.pipeline." + chainName + ": denoise must run before resample");
+        }
+        return names;
+    }
+}
@@ -0,0 +1,93 @@
+package com.yusssss.vcmail.core.utilities.audio.pipeline;
+
+/**
+ * Zincirde dolaşan ses parçası. Her zincirin tek bir frame'i vardır ve her pakette yeniden
+ * kullanılır; tamponlar sadece daha büyük bir parça geldiğinde büyür.
+ * Frame ya kodlanmış baytları ({@link #getData()}) ya da çözülmüş 16-bit örnekleri taşır.
+ */
+public final class AudioFrame {
+
+    private byte[] data = new byte[0];
+    private byte[] ownedData = new byte[0];
+    private int length;
+
+    private short[] samples = new short[0];
+    private short[] spareSamples = new short[0];
+    private int sampleCount;
+    private int sampleRate;
+    private boolean decoded;
+
+    // Girdi kopyalanmaz; ilk yazan aşama frame'in kendi tamponuna geçer
+    void load(byte[] input, int sampleRate) {
+        this.data = input;
+        this.length = input.length;
+        this.sampleCount = 0;
+        this.sampleRate = sampleRate;
+        this.decoded = false;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public short[] getSamples() {
+        return samples;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public boolean isDecoded() {
+        return decoded;
+    }
+
+    public byte[] dataBuffer(int capacity) {
+        if (ownedData.length < capacity) {
+            ownedData = new byte[capacity];
+        }
+        return ownedData;
+    }
+
+    public void setEncoded(int length) {
+        this.data = ownedData;
+        this.length = length;
+        this.decoded = false;
+    }
+
+    public short[] sampleBuffer(int capacity) {
+        if (samples.length < capacity) {
+            samples = new short[capacity];
+        }
+        return samples;
+    }
+
+    public void setDecoded(int sampleCount, int sampleRate) {
+        this.sampleCount = sampleCount;
+        this.sampleRate = sampleRate;
+        this.decoded = true;
+    }
+
+    // Oran değiştiren aşamalar ikinci tampona yazar, sonra tamponlar yer değiştirir
+    public short[] spareBuffer(int capacity) {
+        if (spareSamples.length < capacity) {
+            spareSamples = new short[capacity];
+        }
+        return spareSamples;
+    }
+
+    public void swapSamples(int sampleCount, int sampleRate) {
+        short[] previous = samples;
+        samples = spareSamples;
+        spareSamples = previous;
+        setDecoded(sampleCount, sampleRate);
+    }
+}
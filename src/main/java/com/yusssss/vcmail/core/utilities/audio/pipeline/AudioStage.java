@@ -0,0 +1,12 @@
+package com.yusssss.vcmail.core.utilities.audio.pipeline;
+
+/**
+ * Zincirin bir halkası. Aşamalar frame'i yerinde değiştirir; false dönerse parça düşürülür
+ * ve zincir devam etmez. Bir aşama tek bir çağrı yönüne aittir, thread-safe olması gerekmez.
+ */
+public interface AudioStage {
+
+    String getName();
+
+    boolean process(AudioFrame frame);
+}
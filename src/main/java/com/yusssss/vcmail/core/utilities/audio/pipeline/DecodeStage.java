@@ -0,0 +1,40 @@
+package com.yusssss.vcmail.core.utilities.audio.pipeline;
+
+import com.yusssss.vcmail.core.utilities.audio.G711;
+import com.yusssss.vcmail.core.utilities.audio.kernel.SampleKernels;
+
+/**
+ * μ-law veya little endian 16-bit baytları örneklere çözer.
+ */
+public class DecodeStage implements AudioStage {
+
+    private final boolean ulaw;
+    private final int sampleRate;
+
+    public DecodeStage(boolean ulaw, int sampleRate) {
+        this.ulaw = ulaw;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public String getName() {
+        return "decode";
+    }
+
+    @Override
+    public boolean process(AudioFrame frame) {
+        byte[] data = frame.getData();
+        int count = ulaw ? frame.getLength() : frame.getLength() / 2;
+        short[] samples = frame.sampleBuffer(count);
+
+        if (ulaw) {
+            for (int i = 0; i < count; i++) {
+                samples[i] = G711.ulawToLinear(data[i]);
+            }
+        } else {
+            SampleKernels.INSTANCE.unpackLittleEndian(data, count, samples);
+        }
+        frame.setDecoded(count, sampleRate);
+        return count > 0;
+    }
+}
@@ -0,0 +1,57 @@
+package com.yusssss.vcmail.core.utilities.audio.pipeline;
+
+import com.yusssss.vcmail.core.utilities.audio.NoiseSuppressor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hat gürültüsünü bastırır; server VAD'ın gürültüyle yanlış tur açmasını azaltır.
+ * Çözülmüş örnekler üzerinde, yeniden örneklemeden önce (8 veya 16 kHz) çalışır.
+ * Bütçe: 20 ms'lik frame başına {@code budgetNanos}. Üst üste 1 saniye aşılırsa bu çağrı için
+ * FFT kapatılır, ses gecikmesi değişmeden geçmeye devam eder.
+ */
+public class DenoiseStage implements AudioStage {
+
+    private static final int OVER_BUDGET_LIMIT = 50;
+
+    private final Logger logger = LoggerFactory.getLogger(DenoiseStage.class);
+    private final NoiseSuppressor suppressor;
+    private final long budgetNanos;
+    private final Runnable onBypass;
+    private int overBudgetFrames;
+
+    public DenoiseStage(int sampleRate, float gainFloor, long budgetNanos, Runnable onBypass) {
+        this.suppressor = new NoiseSuppressor(sampleRate, gainFloor);
+        this.budgetNanos = budgetNanos;
+        this.onBypass = onBypass;
+    }
+
+    @Override
+    public String getName() {
+        return "denoise";
+    }
+
+    @Override
+    public boolean process(AudioFrame frame) {
+        long start = System.nanoTime();
+        suppressor.process(frame.getSamples(), frame.getSampleCount());
+        if (suppressor.isBypassed()) {
+            return true;
+        }
+
+        // Bütçe 20 ms'lik frame'e göre; daha uzun parçalar orantılı değerlendirilir
+        long frameNanos = frame.getSampleCount() * 1_000_000_000L / frame.getSampleRate();
+        long allowed = budgetNanos * Math.max(1, frameNanos / 20_000_000L);
+        if (System.nanoTime() - start > allowed) {
+            if (++overBudgetFrames >= OVER_BUDGET_LIMIT) {
+                suppressor.setBypassed(true);
+                logger.warn("Noise suppression exceeded {} µs per frame for {} frames, bypassing for this call",
+                        budgetNanos / 1000, OVER_BUDGET_LIMIT);
+                onBypass.run();
+            }
+        } else {
+            overBudgetFrames = 0;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,39 @@
+package com.yusssss.vcmail.core.utilities.audio.pipeline;
+
+import com.yusssss.vcmail.core.utilities.audio.G711;
+import com.yusssss.vcmail.core.utilities.audio.kernel.SampleKernels;
+
+/**
+ * Örnekleri μ-law veya little endian 16-bit baytlara kodlar.
+ */
+public class EncodeStage implements AudioStage {
+
+    private final boolean ulaw;
+
+    public EncodeStage(boolean ulaw) {
+        this.ulaw = ulaw;
+    }
+
+    @Override
+    public String getName() {
+        return "encode";
+    }
+
+    @Override
+    public boolean process(AudioFrame frame) {
+        short[] samples = frame.getSamples();
+        int count = frame.getSampleCount();
+
+        if (ulaw) {
+            byte[] data = frame.dataBuffer(count);
+            for (int i = 0; i < count; i++) {
+                data[i] = G711.linearToUlaw(samples[i]);
+            }
+            frame.setEncoded(count);
+        } else {
+            SampleKernels.INSTANCE.packLittleEndian(samples, count, frame.dataBuffer(count * 2));
+            frame.setEncoded(count * 2);
+        }
+        return true;
+    }
+}
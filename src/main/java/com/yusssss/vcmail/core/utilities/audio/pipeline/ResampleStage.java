@@ -0,0 +1,38 @@
+package com.yusssss.vcmail.core.utilities.audio.pipeline;
+
+import com.yusssss.vcmail.core.utilities.audio.PcmResampler;
+
+/**
+ * Örnekleri hedef orana çevirir; oran zaten aynıysa frame'e dokunmaz.
+ * Zincir çağrı ve yön başına kurulduğu için resampler durumu da o akışa aittir.
+ */
+public class ResampleStage implements AudioStage {
+
+    private final int targetRate;
+    private PcmResampler resampler;
+
+    public ResampleStage(int targetRate) {
+        this.targetRate = targetRate;
+    }
+
+    @Override
+    public String getName() {
+        return "resample";
+    }
+
+    @Override
+    public boolean process(AudioFrame frame) {
+        int sourceRate = frame.getSampleRate();
+        if (sourceRate == targetRate) {
+            return true;
+        }
+        if (resampler == null || resampler.getSourceRate() != sourceRate) {
+            resampler = new PcmResampler(sourceRate, targetRate);
+        }
+        int count = frame.getSampleCount();
+        short[] out = frame.spareBuffer(resampler.maxOutputLength(count));
+        int outCount = resampler.process(frame.getSamples(), count, out);
+        frame.swapSamples(outCount, targetRate);
+        return outCount > 0;
+    }
+}
@@ -0,0 +1,41 @@
+package com.yusssss.vcmail.core.utilities.audio.pipeline;
+
+import com.yusssss.vcmail.core.utilities.audio.kernel.SampleKernels;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Frame'in o anki halini kayıt tamponuna kopyalar: çözülmüşse little endian PCM, değilse ham bayt.
+ */
+public class TapStage implements AudioStage {
+
+    private final String name;
+    private final ByteArrayOutputStream sink;
+    private byte[] scratch = new byte[0];
+
+    public TapStage(String tapName, ByteArrayOutputStream sink) {
+        this.name = "tap:" + tapName;
+        this.sink = sink;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean process(AudioFrame frame) {
+        if (!frame.isDecoded()) {
+            sink.write(frame.getData(), 0, frame.getLength());
+            return true;
+        }
+
+        int count = frame.getSampleCount();
+        if (scratch.length < count * 2) {
+            scratch = new byte[count * 2];
+        }
+        SampleKernels.INSTANCE.packLittleEndian(frame.getSamples(), count, scratch);
+        sink.write(scratch, 0, count * 2);
+        return true;
+    }
+}
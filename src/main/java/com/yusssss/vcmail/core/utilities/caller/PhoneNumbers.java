@@ -0,0 +1,34 @@
+package com.yusssss.vcmail.core.utilities.caller;
+
+/**
+ * Arayan numarasını tek biçime indirir: sadece rakamlar, ülke koduyla, başında + olmadan.
+ * "+90 555 123 45 67", "0090...", "0555..." ve "555..." aynı anahtara düşer.
+ */
+public final class PhoneNumbers {
+
+    private PhoneNumbers() {
+    }
+
+    public static String normalize(String raw, String defaultCountryCode) {
+        if (raw == null) {
+            return null;
+        }
+        String digits = raw.replaceAll("\\D", "");
+        if (digits.isEmpty()) {
+            return null;
+        }
+
+        if (digits.startsWith("00")) {
+            return digits.substring(2);
+        }
+        if (raw.trim().startsWith("+") || (digits.startsWith(defaultCountryCode) && digits.length() > 10)) {
+            return digits;
+        }
+        // Ulusal biçim: baştaki trunk 0 atılır
+        if (digits.startsWith("0")) {
+            digits = digits.substring(1);
+        }
+        // Dahili/kısa numaralar olduğu gibi kalır
+        return digits.length() >= 10 ? defaultCountryCode + digits : digits;
+    }
+}
@@ -0,0 +1,31 @@
+package com.yusssss.vcmail.core.utilities.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("vcmail.AudioFrameConverted")
+@Label("Audio Frame Converted")
+@Category({"VCMail", "Media"})
+@Description("One audio chunk converted by AudioConversionService")
+@StackTrace(false)
+public class AudioFrameConvertedEvent extends Event {
+
+    @Label("Conversation Id")
+    public String conversationId;
+
+    @Label("Conversion")
+    public String conversion;
+
+    @Label("Input Size")
+    @DataAmount
+    public int inputBytes;
+
+    @Label("Output Size")
+    @DataAmount
+    public int outputBytes;
+}
@@ -0,0 +1,23 @@
+package com.yusssss.vcmail.core.utilities.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("vcmail.CallSetupStage")
+@Label("Call Setup Stage")
+@Category({"VCMail", "Session"})
+@Description("One stage of call setup (lease, conversation, bridge, media, session) completed")
+public class CallSetupStageEvent extends Event {
+
+    @Label("Conversation Id")
+    public String conversationId;
+
+    @Label("Channel Id")
+    public String channelId;
+
+    @Label("Stage")
+    public String stage;
+}
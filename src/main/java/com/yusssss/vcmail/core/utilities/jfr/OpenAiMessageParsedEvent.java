@@ -0,0 +1,25 @@
+package com.yusssss.vcmail.core.utilities.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("vcmail.OpenAiMessageParsed")
+@Label("OpenAI Message Parsed")
+@Category({"VCMail", "Session"})
+@Description("Realtime API message parsed from JSON on the socket thread")
+@StackTrace(false)
+public class OpenAiMessageParsedEvent extends Event {
+
+    @Label("Conversation Id")
+    public String conversationId;
+
+    @Label("Event Type")
+    public String eventType;
+
+    @Label("Message Length")
+    public int messageLength;
+}
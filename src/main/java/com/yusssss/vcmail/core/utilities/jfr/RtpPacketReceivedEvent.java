@@ -0,0 +1,30 @@
+package com.yusssss.vcmail.core.utilities.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Gelen RTP paketinin işlenmesi (dönüşüm + OpenAI'a gönderim dahil) için geçen süre.
+ */
+@Name("vcmail.RtpPacketReceived")
+@Label("RTP Packet Received")
+@Category({"VCMail", "Media"})
+@Description("Inbound RTP packet handled by the audio pipeline")
+@StackTrace(false)
+public class RtpPacketReceivedEvent extends Event {
+
+    @Label("Conversation Id")
+    public String conversationId;
+
+    @Label("Payload Size")
+    @DataAmount
+    public int payloadBytes;
+
+    @Label("RTP Timestamp")
+    public long rtpTimestamp;
+}
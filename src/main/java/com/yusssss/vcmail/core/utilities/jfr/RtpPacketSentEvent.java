@@ -0,0 +1,30 @@
+package com.yusssss.vcmail.core.utilities.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("vcmail.RtpPacketSent")
+@Label("RTP Packet Sent")
+@Category({"VCMail", "Media"})
+@Description("Outbound RTP packet written to the socket, with its delay behind the 20 ms pacing slot")
+@StackTrace(false)
+public class RtpPacketSentEvent extends Event {
+
+    @Label("Conversation Id")
+    public String conversationId;
+
+    @Label("Payload Size")
+    @DataAmount
+    public int payloadBytes;
+
+    // Yanıtın ilk paketi için -1
+    @Label("Egress Lateness")
+    @Timespan(Timespan.NANOSECONDS)
+    public long latenessNanos;
+}
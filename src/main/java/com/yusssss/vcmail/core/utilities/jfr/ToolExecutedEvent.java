@@ -0,0 +1,23 @@
+package com.yusssss.vcmail.core.utilities.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("vcmail.ToolExecuted")
+@Label("Tool Executed")
+@Category({"VCMail", "Session"})
+@Description("Tool call requested by the model and executed by the application")
+public class ToolExecutedEvent extends Event {
+
+    @Label("Conversation Id")
+    public String conversationId;
+
+    @Label("Tool Name")
+    public String toolName;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,206 @@
+package com.yusssss.vcmail.core.utilities.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Ses hattının metrikleri. Sıcak yoldaki meter'lar bir kez oluşturulup tutulur,
+ * paket başına kayıt registry araması veya tag nesnesi üretmez.
+ */
+@Component
+public class VoicePipelineMetrics {
+
+    private final MeterRegistry registry;
+
+    private final Counter rtpPacketsIn;
+    private final Counter rtpPacketsOut;
+    private final Counter rtpPacketsLost;
+
+    private final Timer inboundConversion;
+    private final Timer outboundConversion;
+    private final Timer openAiSend;
+    private final Timer rtpEgressLag;
+
+    private final Timer messageBatchWrite;
+    private final Timer callFinalizeWrite;
+
+    private final Counter ariReconnects;
+    private final Counter ariDisconnects;
+    private final Counter openAiDisconnects;
+    private final Counter denoiseBypasses;
+
+    private final Timer summaryRequest;
+    private final Counter summariesCompleted;
+    private final Counter summariesRetried;
+    private final Counter summariesFailed;
+
+    private final Map<String, Counter> openAiEvents = new ConcurrentHashMap<>();
+    private final Map<String, Timer> audioStages = new ConcurrentHashMap<>();
+
+    public VoicePipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        this.rtpPacketsIn = Counter.builder("vcmail.rtp.packets").tag("direction", "in")
+                .description("RTP packets received from or sent to Asterisk").register(registry);
+        this.rtpPacketsOut = Counter.builder("vcmail.rtp.packets").tag("direction", "out")
+                .description("RTP packets received from or sent to Asterisk").register(registry);
+        this.rtpPacketsLost = Counter.builder("vcmail.rtp.packets.lost")
+                .description("Inbound RTP packets lost, per RFC 3550 sequence accounting").register(registry);
+
+        this.inboundConversion = histogram("vcmail.audio.conversion",
+                "Audio format conversion time per chunk", "direction", "inbound");
+        this.outboundConversion = histogram("vcmail.audio.conversion",
+                "Audio format conversion time per chunk", "direction", "outbound");
+        this.openAiSend = histogram("vcmail.openai.send",
+                "Time to encode and hand an audio chunk to the realtime socket");
+        this.rtpEgressLag = histogram("vcmail.rtp.egress.lag",
+                "Delay of each outbound RTP packet behind its 20 ms pacing slot");
+
+        this.messageBatchWrite = histogram("vcmail.db.write",
+                "Database write latency", "operation", "message-batch");
+        this.callFinalizeWrite = histogram("vcmail.db.write",
+                "Database write latency", "operation", "call-finalize");
+
+        this.ariReconnects = Counter.builder("vcmail.websocket.reconnects").tag("target", "ari")
+                .description("WebSocket reconnect attempts").register(registry);
+        this.ariDisconnects = Counter.builder("vcmail.websocket.disconnects").tag("target", "ari")
+                .description("WebSocket connections closed by the remote side or by errors").register(registry);
+        this.openAiDisconnects = Counter.builder("vcmail.websocket.disconnects").tag("target", "openai")
+                .description("WebSocket connections closed by the remote side or by errors").register(registry);
+        this.denoiseBypasses = Counter.builder("vcmail.audio.denoise.bypassed")
+                .description("Calls whose noise suppression was switched off after exceeding its frame budget").register(registry);
+
+        this.summaryRequest = histogram("vcmail.summary.request",
+                "Post-call summary model request time");
+        this.summariesCompleted = Counter.builder("vcmail.summary.jobs.finished").tag("outcome", "done")
+                .description("Summary job attempts by outcome").register(registry);
+        this.summariesRetried = Counter.builder("vcmail.summary.jobs.finished").tag("outcome", "retry")
+                .description("Summary job attempts by outcome").register(registry);
+        this.summariesFailed = Counter.builder("vcmail.summary.jobs.finished").tag("outcome", "failed")
+                .description("Summary job attempts by outcome").register(registry);
+    }
+
+    public void bindActiveCalls(Map<?, ?> activeCalls) {
+        Gauge.builder("vcmail.calls.active", activeCalls, Map::size)
+                .description("Calls currently handled by this node")
+                .register(registry);
+    }
+
+    // Kuyruk durumu DB'den periyodik okunur, scrape başına sorgu atılmaz
+    public void bindSummaryBacklog(String status, Supplier<Number> count) {
+        Gauge.builder("vcmail.summary.jobs", count)
+                .tag("status", status)
+                .description("Post-call summary jobs by state, cluster wide")
+                .register(registry);
+    }
+
+    public void bindSummaryWorkers(Supplier<Number> busyWorkers) {
+        Gauge.builder("vcmail.summary.workers.busy", busyWorkers)
+                .description("Summary workers currently running a job on this node")
+                .register(registry);
+    }
+
+    public void rtpPacketReceived() {
+        rtpPacketsIn.increment();
+    }
+
+    public void rtpPacketSent() {
+        rtpPacketsOut.increment();
+    }
+
+    public void rtpPacketsLost(long count) {
+        if (count > 0) {
+            rtpPacketsLost.increment(count);
+        }
+    }
+
+    public void recordInboundConversion(long nanos) {
+        inboundConversion.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordOutboundConversion(long nanos) {
+        outboundConversion.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Zincirler çağrı başına kurulur, timer'lar aşama başına bir kez oluşturulur
+    public Timer audioStageTimer(String chain, String stage) {
+        return audioStages.computeIfAbsent(chain + "/" + stage, key -> histogram("vcmail.audio.stage",
+                "Time spent in one audio pipeline stage per chunk", "chain", chain, "stage", stage));
+    }
+
+    public void denoiseBypassed() {
+        denoiseBypasses.increment();
+    }
+
+    public void recordOpenAiSend(long nanos) {
+        openAiSend.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRtpEgressLag(long nanos) {
+        rtpEgressLag.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordMessageBatchWrite(long nanos) {
+        messageBatchWrite.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCallFinalizeWrite(long nanos) {
+        callFinalizeWrite.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void openAiEvent(String type) {
+        // Önce kilitsiz okuma: bilinen tiplerde lambda/tag üretilmez
+        Counter counter = openAiEvents.get(type);
+        if (counter == null) {
+            counter = openAiEvents.computeIfAbsent(type, key -> Counter.builder("vcmail.openai.events")
+                    .tag("type", key)
+                    .description("Realtime API events received, by type")
+                    .register(registry));
+        }
+        counter.increment();
+    }
+
+    public void ariReconnect() {
+        ariReconnects.increment();
+    }
+
+    public void ariDisconnected() {
+        ariDisconnects.increment();
+    }
+
+    public void openAiDisconnected() {
+        openAiDisconnects.increment();
+    }
+
+    public void recordSummaryRequest(long nanos) {
+        summaryRequest.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void summaryCompleted() {
+        summariesCompleted.increment();
+    }
+
+    public void summaryRetried() {
+        summariesRetried.increment();
+    }
+
+    public void summaryFailed() {
+        summariesFailed.increment();
+    }
+
+    private Timer histogram(String name, String description, String... tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .description(description)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
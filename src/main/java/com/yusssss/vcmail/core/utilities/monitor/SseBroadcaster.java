@@ -0,0 +1,152 @@
+package com.yusssss.vcmail.core.utilities.monitor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sınırlı kuyruklu SSE yayıncısı. Her abonenin kendi kuyruğu ve kendi virtual thread'i
+ * vardır; yayın sadece kuyruklara offer eder. Yavaş abonenin kuyruğu dolarsa en eski olay
+ * atılır, yayıncı (ve dolayısıyla ses hattı) asla beklemez.
+ */
+public class SseBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(SseBroadcaster.class);
+    private static final long HEARTBEAT_SECONDS = 15;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong subscriberSequence = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final String name;
+    private final int bufferSize;
+    private final int maxSubscribers;
+
+    public SseBroadcaster(String name, int bufferSize, int maxSubscribers) {
+        this.name = name;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    /**
+     * Yeni abone; limit doluysa null.
+     */
+    public SseEmitter subscribe(long timeoutMillis) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        return subscribe(new SseEmitter(timeoutMillis));
+    }
+
+    // Testler gönderimi kontrol edilen bir emitter verir
+    SseEmitter subscribe(SseEmitter emitter) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+
+        Subscriber subscriber = new Subscriber(subscriberSequence.incrementAndGet(), emitter, bufferSize);
+        subscribers.add(subscriber);
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        Thread.ofVirtual().name(name + "-subscriber-" + subscriber.id).start(subscriber::drain);
+        logger.info("{} subscriber #{} connected ({} active)", name, subscriber.id, subscribers.size());
+        return emitter;
+    }
+
+    public boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public void publish(String eventName, Object data) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(new OutboundEvent(eventName, data));
+        }
+    }
+
+    private record OutboundEvent(String name, Object data) {
+    }
+
+    private class Subscriber {
+        private final long id;
+        private final SseEmitter emitter;
+        private final BlockingQueue<OutboundEvent> queue;
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile boolean active = true;
+
+        private Subscriber(long id, SseEmitter emitter, int bufferSize) {
+            this.id = id;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private void offer(OutboundEvent event) {
+            // Doluysa en eskiyi at: izleyici en güncel durumu görsün
+            while (active && !queue.offer(event)) {
+                if (queue.poll() != null) {
+                    dropped.incrementAndGet();
+                    droppedCount.incrementAndGet();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                while (active) {
+                    OutboundEvent event = queue.poll(HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+
+                    long droppedSinceLastSend = dropped.getAndSet(0);
+                    if (droppedSinceLastSend > 0) {
+                        emitter.send(SseEmitter.event().name("overflow").data(droppedSinceLastSend));
+                    }
+
+                    if (event == null) {
+                        // Kopan istemcileri fark etmek için yorum satırı
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                        continue;
+                    }
+                    emitter.send(SseEmitter.event().name(event.name()).data(event.data(), MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("{} subscriber #{} disconnected: {}", name, id, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        private void close() {
+            if (!active) {
+                return;
+            }
+            active = false;
+            subscribers.remove(this);
+            queue.clear();
+            try {
+                emitter.complete();
+            } catch (Exception ignored) {
+                // Bağlantı zaten kapanmış olabilir
+            }
+            logger.info("{} subscriber #{} disconnected ({} active)", name, id, subscribers.size());
+        }
+    }
+}
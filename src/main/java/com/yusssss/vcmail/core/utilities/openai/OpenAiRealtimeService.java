@@ -5,57 +5,103 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import org.java_websocket.client.WebSocketClient;
-import org.java_websocket.handshake.ServerHandshake;
+import com.yusssss.vcmail.core.utilities.jfr.OpenAiMessageParsedEvent;
+import com.yusssss.vcmail.core.utilities.metrics.VoicePipelineMetrics;
+import com.yusssss.vcmail.core.utilities.websocket.WebSocketConnection;
+import com.yusssss.vcmail.core.utilities.websocket.WebSocketListener;
+import com.yusssss.vcmail.core.utilities.websocket.WebSocketTransport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 @Component
 public class OpenAiRealtimeService {
 
+    public static final String DEFAULT_GREETING = "Merhaba, klinik sekreterine hoş geldiniz. Ben Elara, size nasıl yardımcı olabilirim?";
+
     private final Logger logger = LoggerFactory.getLogger(OpenAiRealtimeService.class);
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final VoicePipelineMetrics voicePipelineMetrics;
+    private final WebSocketTransport webSocketTransport;
+
+    // Her çağrının kendi realtime oturumu var
+    private final Map<String, RealtimeSession> sessions = new ConcurrentHashMap<>();
 
-    private volatile boolean isSessionConfigured = false;
 
 
+    public OpenAiRealtimeService(VoicePipelineMetrics voicePipelineMetrics, WebSocketTransport webSocketTransport) {
+        this.voicePipelineMetrics = voicePipelineMetrics;
+        this.webSocketTransport = webSocketTransport;
+    }
 
     @Value("${openai.api.key}")
     private String apiKey;
 
+    // Replay ve yük testlerinde sahte bir realtime sunucusuna yönlendirilebilir
+    @Value("${openai.api.realtime-url:wss://api.openai.com/v1/realtime?model=gpt-4o-mini-realtime-preview}")
+    private String realtimeUrl;
 
-    private WebSocketClient webSocketClient;
+    @Value("${openai.api.transcription-model:gpt-4o-mini-transcribe}")
+    private String transcriptionModel;
 
+    @Value("${callers.profile-timeout-ms:500}")
+    private long callerContextTimeoutMs;
 
-    public void startSession(Consumer<byte[]> onAudioReceived, Consumer<JsonNode> onToolCall, Consumer<String> onClose){
 
-        String url = "wss://api.openai.com/v1/realtime?model=gpt-4o-mini-realtime-preview";
+    public void startSession(String conversationId, RealtimeAudioFormat audioFormat,
+                             Consumer<byte[]> onAudioReceived, Consumer<JsonNode> onToolCall,
+                             Consumer<TranscriptEvent> onTranscript, Consumer<String> onSessionEvent,
+                             Consumer<String> onClose, String playedGreeting,
+                             CompletableFuture<String> callerContext){
+
+        String url = realtimeUrl;
+        RealtimeSession session = new RealtimeSession(conversationId, audioFormat, playedGreeting);
+        // Profil gecikirse oturum onsuz yapılandırılır, arayan beklemez
+        CompletableFuture<String> contextWithDeadline = callerContext.copy()
+                .completeOnTimeout(null, callerContextTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(error -> null);
+        sessions.put(conversationId, session);
         try{
-            webSocketClient = new WebSocketClient(new URI(url)) {
+            session.webSocketClient = webSocketTransport.newConnection(new URI(url), new WebSocketListener() {
                 @Override
-                public void onOpen(ServerHandshake serverHandshake) {
-                    logger.info("SUCCESS: WebSocket connection opened");
-                    isSessionConfigured = false;
-                    sendSessionUpdate();
+                public void onOpen() {
+                    logger.info("[{}] SUCCESS: WebSocket connection opened ({})", conversationId, audioFormat.getType());
+                    contextWithDeadline.thenAccept(context -> sendSessionUpdate(session, context));
 
                 }
 
                 @Override
                 public void onMessage(String message) {
 
-                    logger.info("RAW_FROM_OPENAI: {}", message);
+                    logger.trace("RAW_FROM_OPENAI: {}", message);
 
                     try{
+                        OpenAiMessageParsedEvent parsedEvent = new OpenAiMessageParsedEvent();
+                        parsedEvent.begin();
                         JsonNode event = objectMapper.readTree(message);
                         String type = event.path("type").asText();
+                        parsedEvent.end();
+                        if (parsedEvent.shouldCommit()) {
+                            parsedEvent.conversationId = conversationId;
+                            parsedEvent.eventType = type;
+                            parsedEvent.messageLength = message.length();
+                            parsedEvent.commit();
+                        }
 
                         logger.debug("Received OpenAI event: {}", type);
+                        voicePipelineMetrics.openAiEvent(type);
+                        onSessionEvent.accept(type);
 
                         switch (type) {
                             case "response.output_audio.delta":
@@ -78,9 +124,30 @@ public class OpenAiRealtimeService {
                                 logger.debug("Response completed");
                                 break;
 
+                            case "input_audio_buffer.committed":
+                                // Kullanıcı turu burada sıraya girer, transkripsiyon daha sonra gelir
+                                onTranscript.accept(new TranscriptEvent(TranscriptEvent.Kind.STARTED,
+                                        TranscriptEvent.USER, event.path("item_id").asText(), null));
+                                break;
+
+                            case "conversation.item.input_audio_transcription.delta":
+                                onTranscript.accept(new TranscriptEvent(TranscriptEvent.Kind.DELTA,
+                                        TranscriptEvent.USER, event.path("item_id").asText(), event.path("delta").asText()));
+                                break;
+
                             case "conversation.item.input_audio_transcription.completed":
-                                String transcript = event.path("transcript").asText();
-                                logger.info("User transcript: {}", transcript);
+                                onTranscript.accept(new TranscriptEvent(TranscriptEvent.Kind.COMPLETED,
+                                        TranscriptEvent.USER, event.path("item_id").asText(), event.path("transcript").asText()));
+                                break;
+
+                            case "response.output_audio_transcript.delta":
+                                onTranscript.accept(new TranscriptEvent(TranscriptEvent.Kind.DELTA,
+                                        TranscriptEvent.ASSISTANT, event.path("item_id").asText(), event.path("delta").asText()));
+                                break;
+
+                            case "response.output_audio_transcript.done":
+                                onTranscript.accept(new TranscriptEvent(TranscriptEvent.Kind.COMPLETED,
+                                        TranscriptEvent.ASSISTANT, event.path("item_id").asText(), event.path("transcript").asText()));
                                 break;
 
                             case "response.created":
@@ -92,8 +159,8 @@ public class OpenAiRealtimeService {
                                 break;
 
                             case "session.updated":
-                                logger.info("OpenAI session updated successfully");
-                                isSessionConfigured = true;
+                                logger.info("[{}] OpenAI session updated successfully", conversationId);
+                                session.configured.complete(null);
                                 break;
 
                             case "input_audio_buffer.speech_started":
@@ -120,29 +187,44 @@ public class OpenAiRealtimeService {
                     }
                 }
 
+                @Override
+                public void onPong() {
+                    // Sadece pingSession ile gönderilen ping ölçülür
+                    long sentAt = session.pingSentNanos;
+                    if (sentAt != 0) {
+                        session.pingSentNanos = 0;
+                        session.roundTripNanos = System.nanoTime() - sentAt;
+                    }
+                }
+
                 @Override
                 public void onClose(int code, String reason, boolean remote) {
-                    logger.warn("OpenAI WebSocket closed. Code: {}, Reason: {}", code, reason);
+                    logger.warn("[{}] OpenAI WebSocket closed. Code: {}, Reason: {}", conversationId, code, reason);
+                    sessions.remove(conversationId, session);
+                    if (remote) {
+                        voicePipelineMetrics.openAiDisconnected();
+                    }
                     onClose.accept(reason);
                 }
 
                 @Override
-                public void onError(Exception e) {
+                public void onError(Throwable e) {
                     logger.error("An error occurred in OpenAI WebSocket", e);
                 }
-            };
+            });
 
-            webSocketClient.addHeader("Authorization", "Bearer " + apiKey);
-            webSocketClient.connect();
+            session.webSocketClient.addHeader("Authorization", "Bearer " + apiKey);
+            session.webSocketClient.connect();
 
          } catch (Exception e) {
-            logger.error("Failed to initiate OpenAI WebSocket connection", e);
+            logger.error("[{}] Failed to initiate OpenAI WebSocket connection", conversationId, e);
+            sessions.remove(conversationId, session);
         }
     }
 
 
 
-    private void sendSessionUpdate() {
+    private void sendSessionUpdate(RealtimeSession realtimeSession, String callerContext) {
         ObjectNode session = objectMapper.createObjectNode();
         session.put("type", "session.update");
 
@@ -154,8 +236,10 @@ public class OpenAiRealtimeService {
         ObjectNode audio = objectMapper.createObjectNode();
         ObjectNode audioInput = objectMapper.createObjectNode();
         ObjectNode inputFormat = objectMapper.createObjectNode();
-        inputFormat.put("type", "audio/pcm");
-        inputFormat.put("rate", 24000);
+        inputFormat.put("type", realtimeSession.audioFormat.getType());
+        if (!realtimeSession.audioFormat.isPassthrough()) {
+            inputFormat.put("rate", realtimeSession.audioFormat.getSampleRate());
+        }
         audioInput.set("format", inputFormat);
         ObjectNode turnDetection = objectMapper.createObjectNode();
         turnDetection.put("type", "server_vad");
@@ -163,18 +247,29 @@ public class OpenAiRealtimeService {
         turnDetection.put("prefix_padding_ms", 300);
         turnDetection.put("silence_duration_ms", 500);
         audioInput.set("turn_detection", turnDetection);
+        ObjectNode transcription = objectMapper.createObjectNode();
+        transcription.put("model", transcriptionModel);
+        transcription.put("language", "tr");
+        audioInput.set("transcription", transcription);
         audio.set("input", audioInput);
         ObjectNode audioOutput = objectMapper.createObjectNode();
         audioOutput.put("voice", "alloy");
         ObjectNode outputFormat = objectMapper.createObjectNode();
-        outputFormat.put("type", "audio/pcm");
-        outputFormat.put("rate", 24000);
+        outputFormat.put("type", realtimeSession.audioFormat.getType());
+        if (!realtimeSession.audioFormat.isPassthrough()) {
+            outputFormat.put("rate", realtimeSession.audioFormat.getSampleRate());
+        }
         audioOutput.set("format", outputFormat);
         audio.set("output", audioOutput);
         sessionConfig.set("audio", audio);
 
+        // Hazır karşılama çalındıysa model tekrar selamlamaz, arayanı bekler
+        String greetingInstruction = realtimeSession.playedGreeting != null
+                ? "Arayana '" + realtimeSession.playedGreeting + "' karşılaması zaten çalındı, tekrar selamlama ve arayanın konuşmasını bekle. "
+                : "İlk konuşmada '" + DEFAULT_GREETING + "' diye karşıla. ";
         String systemMessage = "Sen bir sekretersin. Türkçe konuşuyorsun. Kısa ve öz cevaplar veriyorsun. " +
-                "İlk konuşmada 'Merhaba, klinik sekreterine hoş geldiniz. Ben Elara, size nasıl yardımcı olabilirim?' diye karşıla. " +
+                greetingInstruction +
+                (callerContext != null ? callerContext + " " : "") +
                 "Arayan kişinin adını, telefon numarasını ve mesajını alıp kaydetmelisin. " +
                 "Gerektiğinde randevu alabilirsin.";
         sessionConfig.put("instructions", systemMessage);
@@ -256,7 +351,7 @@ public class OpenAiRealtimeService {
 
 
         appointmentTool.put("name", "schedule_appointment");
-        appointmentTool.put("description", "Arayan kişi için randevu ayarla");
+        appointmentTool.put("description", "Arayan kişi için randevu ayarla. Saat dolu veya mesai dışıysa yanıttaki alternatives listesinden boş saat öner");
         appointmentTool.set("parameters", appointmentParams);
 
         tools.add(appointmentTool);
@@ -267,7 +362,7 @@ public class OpenAiRealtimeService {
         try {
             String jsonString = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(session);
             logger.info("Sending session config: {}", jsonString);
-            sendJson(session);
+            sendJson(realtimeSession, session);
         } catch (Exception e) {
             logger.error("Failed to serialize session config", e);
         }
@@ -275,19 +370,33 @@ public class OpenAiRealtimeService {
         logger.info("OpenAI session configuration sent successfully");
     }
 
-    public void sendAudio(byte[] audioData) {
-        if (webSocketClient != null && webSocketClient.isOpen() && isSessionConfigured) {
+    public void sendAudio(String conversationId, byte[] audioData) {
+        sendAudio(conversationId, audioData, audioData.length);
+    }
+
+    // Zincir frame'i tekrar kullandığından tampon uzunluğu değil, geçerli bayt sayısı gönderilir
+    public void sendAudio(String conversationId, byte[] audioData, int length) {
+        RealtimeSession session = sessions.get(conversationId);
+        if (session != null && session.isOpen() && session.configured.isDone()) {
 
-            logger.debug("OpenAI'a gönderilmek üzere {} byte Base64'e çevriliyor.", audioData.length);
+            logger.debug("OpenAI'a gönderilmek üzere {} byte Base64'e çevriliyor.", length);
 
+            long start = System.nanoTime();
+            ByteBuffer encoded = Base64.getEncoder().encode(ByteBuffer.wrap(audioData, 0, length));
             ObjectNode audioEvent = objectMapper.createObjectNode();
             audioEvent.put("type", "input_audio_buffer.append");
-            audioEvent.put("audio", Base64.getEncoder().encodeToString(audioData));
-            sendJson(audioEvent);
+            audioEvent.put("audio", new String(encoded.array(), 0, encoded.limit(), StandardCharsets.ISO_8859_1));
+            sendJson(session, audioEvent);
+            voicePipelineMetrics.recordOpenAiSend(System.nanoTime() - start);
         }
     }
 
-    public void sendToolResult(String toolCallId, String result) {
+    public void sendToolResult(String conversationId, String toolCallId, String result) {
+        RealtimeSession session = sessions.get(conversationId);
+        if (session == null) {
+            logger.warn("[{}] No OpenAI session to send tool result {}", conversationId, toolCallId);
+            return;
+        }
         ObjectNode toolEvent = objectMapper.createObjectNode();
         toolEvent.put("type", "tool.run.completed");
 
@@ -296,17 +405,45 @@ public class OpenAiRealtimeService {
         data.put("output", result);
 
         toolEvent.set("data", data);
-        sendJson(toolEvent);
+        sendJson(session, toolEvent);
     }
 
-    public void stopSession() {
-        if (webSocketClient != null) {
-            webSocketClient.close();
+    /**
+     * WebSocket ping gönderir; pong gelince tur süresi {@link #getRoundTripMillis} ile okunur.
+     */
+    public void pingSession(String conversationId) {
+        RealtimeSession session = sessions.get(conversationId);
+        if (session == null || !session.isOpen() || session.pingSentNanos != 0) {
+            return;
+        }
+        try {
+            session.pingSentNanos = System.nanoTime();
+            session.webSocketClient.sendPing();
+        } catch (Exception e) {
+            session.pingSentNanos = 0;
+            logger.debug("[{}] Could not ping OpenAI WebSocket: {}", conversationId, e.getMessage());
         }
     }
 
-    public void sendTextPrompt(String text) {
-        if (webSocketClient != null && webSocketClient.isOpen()) {
+    // Henüz ölçüm yoksa -1
+    public double getRoundTripMillis(String conversationId) {
+        RealtimeSession session = sessions.get(conversationId);
+        if (session == null || session.roundTripNanos < 0) {
+            return -1;
+        }
+        return session.roundTripNanos / 1_000_000.0;
+    }
+
+    public void stopSession(String conversationId) {
+        RealtimeSession session = sessions.remove(conversationId);
+        if (session != null && session.webSocketClient != null) {
+            session.webSocketClient.close();
+        }
+    }
+
+    public void sendTextPrompt(String conversationId, String text) {
+        RealtimeSession session = sessions.get(conversationId);
+        if (session != null && session.isOpen()) {
             ObjectNode event = objectMapper.createObjectNode();
             event.put("type", "conversation.item.create");
 
@@ -321,45 +458,72 @@ public class OpenAiRealtimeService {
             item.set("content", objectMapper.createArrayNode().add(content));
             event.set("item", item);
 
-            sendJson(event);
+            sendJson(session, event);
 
             ObjectNode responseEvent = objectMapper.createObjectNode();
             responseEvent.put("type", "response.create");
-            sendJson(responseEvent);
+            sendJson(session, responseEvent);
         }
     }
 
-    private void sendJson(ObjectNode node) {
+    private void sendJson(RealtimeSession session, ObjectNode node) {
         try {
             String jsonString = objectMapper.writeValueAsString(node);
-            webSocketClient.send(jsonString);
+            session.webSocketClient.send(jsonString);
         } catch (Exception e) {
-            logger.error("Failed to send JSON to OpenAI WebSocket", e);
+            logger.error("[{}] Failed to send JSON to OpenAI WebSocket", session.conversationId, e);
         }
     }
 
 
-    public void triggerInitialResponse() {
-        new Thread(() -> {
-            try {
-                int attempts = 0;
-                while (!isSessionConfigured && attempts < 100) { // Max 10 saniye bekle
-                    Thread.sleep(100);
-                    attempts++;
-                }
+    /**
+     * session.updated gelince tamamlanır; oturum yoksa veya 10 saniyede yapılandırılamazsa hata ile biter.
+     */
+    public CompletableFuture<Void> awaitConfigured(String conversationId) {
+        RealtimeSession session = sessions.get(conversationId);
+        if (session == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("No OpenAI session for " + conversationId));
+        }
+        return session.configured.copy().orTimeout(10, TimeUnit.SECONDS);
+    }
 
-                if (isSessionConfigured && webSocketClient != null && webSocketClient.isOpen()) {
-                    logger.info("Session is configured. Triggering initial response now.");
-                    ObjectNode responseEvent = objectMapper.createObjectNode();
-                    responseEvent.put("type", "response.create");
-                    sendJson(responseEvent);
-                } else {
-                    logger.error("Failed to trigger initial response: Session not configured in time.");
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                logger.error("Trigger initial response thread interrupted.", e);
-            }
-        }).start();
+    public void triggerInitialResponse(String conversationId) {
+        RealtimeSession session = sessions.get(conversationId);
+        if (session == null) {
+            logger.error("[{}] Failed to trigger initial response: no OpenAI session.", conversationId);
+            return;
+        }
+        // session.updated gelince tetiklenir, thread beklemez
+        awaitConfigured(conversationId)
+                .whenComplete((ignored, error) -> {
+                    if (error == null && session.isOpen()) {
+                        logger.info("[{}] Session is configured. Triggering initial response now.", conversationId);
+                        ObjectNode responseEvent = objectMapper.createObjectNode();
+                        responseEvent.put("type", "response.create");
+                        sendJson(session, responseEvent);
+                    } else {
+                        logger.error("[{}] Failed to trigger initial response: Session not configured in time.", conversationId);
+                    }
+                });
+    }
+
+    private static class RealtimeSession {
+        private final String conversationId;
+        private final RealtimeAudioFormat audioFormat;
+        private final String playedGreeting;
+        private volatile WebSocketConnection webSocketClient;
+        private final CompletableFuture<Void> configured = new CompletableFuture<>();
+        private volatile long pingSentNanos;
+        private volatile long roundTripNanos = -1;
+
+        RealtimeSession(String conversationId, RealtimeAudioFormat audioFormat, String playedGreeting) {
+            this.conversationId = conversationId;
+            this.audioFormat = audioFormat;
+            this.playedGreeting = playedGreeting;
+        }
+
+        boolean isOpen() {
+            return webSocketClient != null && webSocketClient.isOpen();
+        }
     }
 }
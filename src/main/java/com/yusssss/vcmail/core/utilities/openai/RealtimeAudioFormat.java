@@ -0,0 +1,42 @@
+package com.yusssss.vcmail.core.utilities.openai;
+
+/**
+ * Audio formats requested from the realtime API for both input and output.
+ */
+public enum RealtimeAudioFormat {
+
+    // 24 kHz 16-bit little endian PCM, needs μ-law decode and resampling on our side
+    PCM("audio/pcm", 24000),
+
+    // 8 kHz G.711 μ-law, RTP payloads are passed through unchanged
+    PCMU("audio/pcmu", 8000);
+
+    private final String type;
+    private final int sampleRate;
+
+    RealtimeAudioFormat(String type, int sampleRate) {
+        this.type = type;
+        this.sampleRate = sampleRate;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public boolean isPassthrough() {
+        return this == PCMU;
+    }
+
+    public static RealtimeAudioFormat fromName(String name) {
+        for (RealtimeAudioFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported realtime audio format: " + name);
+    }
+}
@@ -0,0 +1,44 @@
+package com.yusssss.vcmail.core.utilities.openai;
+
+/**
+ * Streaming transcript event from a realtime session, for either side of the call.
+ */
+public class TranscriptEvent {
+
+    public enum Kind {
+        STARTED,
+        DELTA,
+        COMPLETED
+    }
+
+    public static final String USER = "USER";
+    public static final String ASSISTANT = "ASSISTANT";
+
+    private final Kind kind;
+    private final String speaker;
+    private final String itemId;
+    private final String text;
+
+    public TranscriptEvent(Kind kind, String speaker, String itemId, String text) {
+        this.kind = kind;
+        this.speaker = speaker;
+        this.itemId = itemId;
+        this.text = text;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getSpeaker() {
+        return speaker;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
@@ -0,0 +1,47 @@
+package com.yusssss.vcmail.core.utilities.prompt;
+
+import com.yusssss.vcmail.core.utilities.rtp.RtpCodec;
+
+/**
+ * RTP'ye hazır kodlanmış ses. Her eleman tam bir 20 ms paket payload'udur; son paket
+ * sessizlikle doldurulur. wireFrames doğrudan gönderilir, localFrames (little endian)
+ * kayıt ve izleme callback'leri içindir. μ-law'da ikisi aynı dizidir.
+ */
+public class PromptClip {
+
+    private final String name;
+    private final RtpCodec codec;
+    private final byte[][] wireFrames;
+    private final byte[][] localFrames;
+
+    public PromptClip(String name, RtpCodec codec, byte[][] wireFrames, byte[][] localFrames) {
+        this.name = name;
+        this.codec = codec;
+        this.wireFrames = wireFrames;
+        this.localFrames = localFrames;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public RtpCodec getCodec() {
+        return codec;
+    }
+
+    public byte[][] getWireFrames() {
+        return wireFrames;
+    }
+
+    public byte[][] getLocalFrames() {
+        return localFrames;
+    }
+
+    public int getFrameCount() {
+        return wireFrames.length;
+    }
+
+    public long getDurationMillis() {
+        return wireFrames.length * 20L;
+    }
+}
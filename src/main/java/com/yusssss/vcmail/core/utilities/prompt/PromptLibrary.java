@@ -0,0 +1,188 @@
+package com.yusssss.vcmail.core.utilities.prompt;
+
+import com.yusssss.vcmail.core.utilities.rtp.RtpCodec;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hazır anonsları açılışta bir kez okur ve external media codec'ine göre 20 ms'lik RTP
+ * payload'larına kodlar. Çağrı sırasında hiçbir dönüştürme yapılmaz, paketler bellekten
+ * doğrudan {@link com.yusssss.vcmail.core.utilities.rtp.RtpAudioSender}'a gider.
+ * Dosyası olmayan tür için {@link #getPrompt} null döner ve çağıran eski davranışa döner.
+ */
+@Component
+public class PromptLibrary {
+
+    private static final Logger logger = LoggerFactory.getLogger(PromptLibrary.class);
+
+    private final Map<PromptType, List<PromptClip>> prompts = new EnumMap<>(PromptType.class);
+    private final Map<PromptType, AtomicInteger> rotation = new EnumMap<>(PromptType.class);
+
+    @Value("${prompts.directory:prompts}")
+    private String promptDirectory;
+
+    @Value("${asterisk.ari.external-media-format:ulaw}")
+    private String externalMediaFormat;
+
+    @PostConstruct
+    public void load() {
+        RtpCodec codec = RtpCodec.fromAsteriskFormat(externalMediaFormat);
+        Path directory = Paths.get(promptDirectory);
+        if (!Files.isDirectory(directory)) {
+            logger.warn("Prompt directory {} not found, pre-recorded prompts disabled", directory.toAbsolutePath());
+            return;
+        }
+
+        for (PromptType type : PromptType.values()) {
+            List<PromptClip> clips = new ArrayList<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, type.getFilePrefix() + "*.wav")) {
+                List<Path> sorted = new ArrayList<>();
+                files.forEach(sorted::add);
+                sorted.sort(null);
+                for (Path file : sorted) {
+                    try (AudioInputStream stream = AudioSystem.getAudioInputStream(file.toFile())) {
+                        PromptClip clip = encode(file.getFileName().toString(), stream, codec);
+                        clips.add(clip);
+                        logger.info("Loaded {} prompt {} ({} ms, {})", type, clip.getName(),
+                                clip.getDurationMillis(), codec.getAsteriskFormat());
+                    } catch (Exception e) {
+                        logger.error("Could not load prompt {}", file, e);
+                    }
+                }
+            } catch (IOException e) {
+                logger.error("Could not list prompt directory {}", directory, e);
+            }
+            if (!clips.isEmpty()) {
+                prompts.put(type, List.copyOf(clips));
+                rotation.put(type, new AtomicInteger());
+            }
+        }
+    }
+
+    /**
+     * Türün sıradaki varyantı; yüklenmediyse null.
+     */
+    public PromptClip getPrompt(PromptType type) {
+        List<PromptClip> clips = prompts.get(type);
+        if (clips == null) {
+            return null;
+        }
+        int index = Math.floorMod(rotation.get(type).getAndIncrement(), clips.size());
+        return clips.get(index);
+    }
+
+    public boolean hasPrompt(PromptType type) {
+        return prompts.containsKey(type);
+    }
+
+    /**
+     * WAV akışını codec'in örnekleme hızına mono 16-bit PCM olarak çeker ve paketlere böler.
+     */
+    public static PromptClip encode(String name, AudioInputStream source, RtpCodec codec) throws IOException {
+        short[] samples = readMonoPcm(source);
+        samples = resampleLinear(samples, Math.round(source.getFormat().getSampleRate()), codec.getSampleRate());
+
+        byte[] pcm = new byte[samples.length * 2];
+        for (int i = 0; i < samples.length; i++) {
+            pcm[i * 2] = (byte) samples[i];
+            pcm[i * 2 + 1] = (byte) (samples[i] >> 8);
+        }
+
+        byte[] encoded = codec.isLinear() ? pcm : toUlaw(pcm, codec.getSampleRate());
+        byte silence = codec.isLinear() ? 0 : (byte) 0xFF;
+
+        int frameSize = codec.getBytesPerFrame();
+        int frameCount = (encoded.length + frameSize - 1) / frameSize;
+        byte[][] localFrames = new byte[frameCount][];
+        for (int frame = 0; frame < frameCount; frame++) {
+            int offset = frame * frameSize;
+            byte[] payload = Arrays.copyOfRange(encoded, offset, offset + frameSize);
+            int valid = Math.min(frameSize, encoded.length - offset);
+            Arrays.fill(payload, valid, frameSize, silence);
+            localFrames[frame] = payload;
+        }
+
+        if (!codec.isLinear()) {
+            return new PromptClip(name, codec, localFrames, localFrames);
+        }
+
+        // slin16 ağda big endian, bir kez burada çevrilir
+        byte[][] wireFrames = new byte[frameCount][];
+        for (int frame = 0; frame < frameCount; frame++) {
+            wireFrames[frame] = localFrames[frame].clone();
+            RtpCodec.swapSampleBytes(wireFrames[frame], 0, frameSize);
+        }
+        return new PromptClip(name, codec, wireFrames, localFrames);
+    }
+
+    private static short[] readMonoPcm(AudioInputStream source) throws IOException {
+        AudioFormat sourceFormat = source.getFormat();
+        int channels = sourceFormat.getChannels();
+        AudioFormat pcmFormat = new AudioFormat(sourceFormat.getSampleRate(), 16, channels, true, false);
+
+        byte[] data;
+        try (AudioInputStream pcmStream = sourceFormat.matches(pcmFormat)
+                ? source
+                : AudioSystem.getAudioInputStream(pcmFormat, source)) {
+            data = pcmStream.readAllBytes();
+        }
+
+        // Çok kanallı kayıtlar ortalanarak mono'ya indirilir
+        int frames = data.length / (2 * channels);
+        short[] samples = new short[frames];
+        for (int frame = 0; frame < frames; frame++) {
+            int sum = 0;
+            for (int channel = 0; channel < channels; channel++) {
+                int index = (frame * channels + channel) * 2;
+                sum += (short) ((data[index] & 0xFF) | (data[index + 1] << 8));
+            }
+            samples[frame] = (short) (sum / channels);
+        }
+        return samples;
+    }
+
+    // Açılışta bir kez çalışır; kayıtların doğrudan 8/16 kHz hazırlanması tercih edilir
+    static short[] resampleLinear(short[] samples, int sourceRate, int targetRate) {
+        if (sourceRate == targetRate || samples.length == 0) {
+            return samples;
+        }
+        int outLength = (int) ((long) samples.length * targetRate / sourceRate);
+        short[] out = new short[outLength];
+        for (int i = 0; i < outLength; i++) {
+            double position = (double) i * sourceRate / targetRate;
+            int index = (int) position;
+            double fraction = position - index;
+            int next = Math.min(index + 1, samples.length - 1);
+            out[i] = (short) Math.round(samples[index] * (1 - fraction) + samples[next] * fraction);
+        }
+        return out;
+    }
+
+    private static byte[] toUlaw(byte[] pcm, int sampleRate) throws IOException {
+        AudioFormat pcmFormat = new AudioFormat(sampleRate, 16, 1, true, false);
+        AudioFormat ulawFormat = new AudioFormat(AudioFormat.Encoding.ULAW, sampleRate, 8, 1, 1, sampleRate, false);
+        try (AudioInputStream pcmStream = new AudioInputStream(new ByteArrayInputStream(pcm), pcmFormat, pcm.length / 2);
+             AudioInputStream ulawStream = AudioSystem.getAudioInputStream(ulawFormat, pcmStream)) {
+            return ulawStream.readAllBytes();
+        }
+    }
+}
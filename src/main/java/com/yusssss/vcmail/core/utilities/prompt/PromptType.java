@@ -0,0 +1,30 @@
+package com.yusssss.vcmail.core.utilities.prompt;
+
+/**
+ * Hazır ses kayıtları. Dosyalar prompts dizininde önekle aranır: greeting.wav,
+ * filler_1.wav, filler_2.wav ... Aynı türün birden fazla varyantı sırayla çalınır.
+ */
+public enum PromptType {
+
+    // Medya kurulur kurulmaz, OpenAI beklenmeden
+    GREETING("greeting"),
+
+    // Uzun süren tool çağrılarında sessizliği doldurur ("bir saniye lütfen")
+    FILLER("filler"),
+
+    // OpenAI oturumu açılamadığında, kapatmadan önce
+    BUSY("busy"),
+
+    // Görüşme ortasında OpenAI bağlantısı koptuğunda
+    ERROR("error");
+
+    private final String filePrefix;
+
+    PromptType(String filePrefix) {
+        this.filePrefix = filePrefix;
+    }
+
+    public String getFilePrefix() {
+        return filePrefix;
+    }
+}
@@ -0,0 +1,66 @@
+package com.yusssss.vcmail.core.utilities.recording;
+
+import com.yusssss.vcmail.core.utilities.rtp.RtpCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class CallRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CallRecorder.class);
+
+    private final Map<String, StereoCallRecording> recordings = new ConcurrentHashMap<>();
+
+    @Value("${recording.directory:kayitlar}")
+    private String recordingDirectory;
+
+    public StereoCallRecording startRecording(String conversationId, RtpCodec codec) {
+        StereoCallRecording recording = new StereoCallRecording(codec, System.nanoTime());
+        recordings.put(conversationId, recording);
+        logger.info("[{}] Stereo recording started ({} Hz {})", conversationId, codec.getSampleRate(), codec.getAsteriskFormat());
+        return recording;
+    }
+
+    /**
+     * Kaydı WAV olarak yazar ve dosya yolunu döner, kayıt yoksa null.
+     */
+    public String finishRecording(String conversationId) {
+        StereoCallRecording recording = recordings.remove(conversationId);
+        if (recording == null || recording.isEmpty()) {
+            logger.warn("[{}] Kaydedilecek stereo ses verisi bulunamadı.", conversationId);
+            return null;
+        }
+
+        File directory = new File(recordingDirectory);
+        if (!directory.exists() && !directory.mkdirs()) {
+            logger.error("[{}] Recording directory {} could not be created", conversationId, directory.getAbsolutePath());
+            return null;
+        }
+
+        File outputFile = new File(directory, "call_" + conversationId + ".wav");
+        byte[] audioBytes = recording.toInterleaved();
+        AudioFormat audioFormat = recording.getAudioFormat();
+
+        try (AudioInputStream audioInputStream = new AudioInputStream(
+                new ByteArrayInputStream(audioBytes), audioFormat, audioBytes.length / audioFormat.getFrameSize())) {
+            AudioSystem.write(audioInputStream, AudioFileFormat.Type.WAVE, outputFile);
+            logger.info("[{}] 📞 Stereo ses kaydı kaydedildi: {} ({} ms, {} KB)", conversationId,
+                    outputFile.getAbsolutePath(), recording.getDurationMillis(), outputFile.length() / 1024);
+            return outputFile.getPath();
+        } catch (Exception e) {
+            logger.error("[{}] Stereo kayıt dosyaya yazılırken hata oluştu.", conversationId, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.yusssss.vcmail.core.utilities.recording;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 16-bit little endian PCM kaynağı mono'ya indirip daha düşük örnekleme hızına çeker.
+ * Her çıkış örneği, karşılık gelen giriş frame'lerinin (tüm kanallar) ortalamasıdır,
+ * bu yüzden ayrı bir alçak geçiren filtreye gerek kalmaz. Kaynak akış halinde okunur.
+ */
+public class DownmixingPcmStream extends InputStream {
+
+    private final InputStream source;
+    private final int channels;
+    private final long sourceRate;
+    private final long targetRate;
+    private final byte[] frame;
+
+    private long inputFrameIndex = 0;
+    private long outputSampleIndex = 0;
+    private final byte[] pending = new byte[2];
+    private int pendingPosition = pending.length;
+    private boolean exhausted = false;
+
+    public DownmixingPcmStream(InputStream source, int channels, int sourceRate, int targetRate) {
+        if (targetRate <= 0 || targetRate > sourceRate) {
+            throw new IllegalArgumentException("Target rate must be between 1 and " + sourceRate);
+        }
+        this.source = source;
+        this.channels = channels;
+        this.sourceRate = sourceRate;
+        this.targetRate = targetRate;
+        this.frame = new byte[channels * 2];
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (pendingPosition == pending.length && !produceSample()) {
+            return -1;
+        }
+        return pending[pendingPosition++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+
+        int written = 0;
+        while (written < length) {
+            if (pendingPosition == pending.length && !produceSample()) {
+                break;
+            }
+            buffer[offset + written++] = pending[pendingPosition++];
+        }
+        return written == 0 ? -1 : written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private boolean produceSample() throws IOException {
+        if (exhausted) {
+            return false;
+        }
+
+        long endFrame = (outputSampleIndex + 1) * sourceRate / targetRate;
+        long sum = 0;
+        int count = 0;
+
+        while (inputFrameIndex < endFrame) {
+            if (source.readNBytes(frame, 0, frame.length) < frame.length) {
+                exhausted = true;
+                break;
+            }
+            for (int channel = 0; channel < channels; channel++) {
+                int index = channel * 2;
+                sum += (short) ((frame[index] & 0xFF) | (frame[index + 1] << 8));
+            }
+            count += channels;
+            inputFrameIndex++;
+        }
+
+        if (count == 0) {
+            return false;
+        }
+
+        short sample = (short) (sum / count);
+        pending[0] = (byte) sample;
+        pending[1] = (byte) (sample >> 8);
+        pendingPosition = 0;
+        outputSampleIndex++;
+        return true;
+    }
+}
@@ -0,0 +1,166 @@
+package com.yusssss.vcmail.core.utilities.recording;
+
+import com.yusssss.vcmail.core.utilities.rtp.RtpCodec;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.Arrays;
+
+/**
+ * Tek çağrının stereo kaydı: sol kanal arayan, sağ kanal asistan.
+ * Her iki taraf RTP codec'inde (8 kHz μ-law veya 16 kHz slin16) ve aynı örnek
+ * zaman çizelgesinde tutulur; gelen ses RTP timestamp'i, giden ses gönderim
+ * zamanıyla hizalanır.
+ */
+public class StereoCallRecording {
+
+    private static final int CALLER = 0;
+    private static final int ASSISTANT = 1;
+    private static final int INITIAL_CAPACITY_SECONDS = 60;
+    // μ-law sessizliği 0xFF, PCM sessizliği 0
+    private static final byte ULAW_SILENCE = (byte) 0xFF;
+
+    private final RtpCodec codec;
+    private final long startNanos;
+    private final int bytesPerSample;
+    private final byte silence;
+
+    private final byte[][] channels = new byte[2][];
+    // Kanal başına yazılmış örnek sayısı
+    private final long[] lengths = new long[2];
+
+    private long inboundAnchorSample = -1;
+    private long inboundAnchorTimestamp;
+    private long outboundEndSample = 0;
+
+    public StereoCallRecording(RtpCodec codec, long startNanos) {
+        this.codec = codec;
+        this.startNanos = startNanos;
+        this.bytesPerSample = codec.getBytesPerSample();
+        this.silence = codec.isLinear() ? 0 : ULAW_SILENCE;
+
+        int initialBytes = codec.getSampleRate() * INITIAL_CAPACITY_SECONDS * bytesPerSample;
+        for (int i = 0; i < channels.length; i++) {
+            channels[i] = new byte[initialBytes];
+            Arrays.fill(channels[i], silence);
+        }
+    }
+
+    /**
+     * Arayan sesi, RTP timestamp'ine göre yerleştirilir. slin16 little endian beklenir.
+     */
+    public synchronized void writeInbound(byte[] payload, long rtpTimestamp) {
+        long wallSample = elapsedSamples(System.nanoTime());
+
+        if (inboundAnchorSample < 0) {
+            anchorInbound(wallSample, rtpTimestamp);
+        }
+
+        long delta = (rtpTimestamp - inboundAnchorTimestamp) & 0xFFFFFFFFL;
+        if (delta >= 0x80000000L) {
+            // Çapadan önceki geç paket
+            delta -= 0x100000000L;
+        }
+        long position = inboundAnchorSample + delta;
+
+        // Timestamp sıçraması (kaynak değişimi, devralma): duvar saatine yeniden çapala
+        if (Math.abs(position - wallSample) > codec.getSampleRate()) {
+            anchorInbound(wallSample, rtpTimestamp);
+            position = wallSample;
+        }
+
+        if (position >= 0) {
+            write(CALLER, position, payload);
+        }
+    }
+
+    /**
+     * Asistan sesi, paketin gönderildiği zamana göre yerleştirilir. slin16 little endian beklenir.
+     */
+    public synchronized void writeOutbound(byte[] payload, long sendNanos) {
+        long position = elapsedSamples(sendNanos);
+
+        // Aynı yanıtın ardışık paketleri uç uca eklenir, pacing titremesi boşluk/çakışma yaratmaz
+        if (Math.abs(position - outboundEndSample) <= codec.getSamplesPerFrame()) {
+            position = outboundEndSample;
+        }
+
+        position = Math.max(0, position);
+        write(ASSISTANT, position, payload);
+        outboundEndSample = position + payload.length / bytesPerSample;
+    }
+
+    public synchronized boolean isEmpty() {
+        return lengths[CALLER] == 0 && lengths[ASSISTANT] == 0;
+    }
+
+    public synchronized long getDurationMillis() {
+        return Math.max(lengths[CALLER], lengths[ASSISTANT]) * 1000 / codec.getSampleRate();
+    }
+
+    /**
+     * İki kanalı WAV için örnek örnek birleştirir (sol, sağ, sol, sağ...).
+     */
+    public synchronized byte[] toInterleaved() {
+        int frames = (int) Math.max(lengths[CALLER], lengths[ASSISTANT]);
+        ensureCapacity(CALLER, frames);
+        ensureCapacity(ASSISTANT, frames);
+
+        byte[] left = channels[CALLER];
+        byte[] right = channels[ASSISTANT];
+        byte[] interleaved = new byte[frames * bytesPerSample * 2];
+
+        int out = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            int in = frame * bytesPerSample;
+            for (int b = 0; b < bytesPerSample; b++) {
+                interleaved[out++] = left[in + b];
+            }
+            for (int b = 0; b < bytesPerSample; b++) {
+                interleaved[out++] = right[in + b];
+            }
+        }
+        return interleaved;
+    }
+
+    public AudioFormat getAudioFormat() {
+        float sampleRate = codec.getSampleRate();
+        if (codec.isLinear()) {
+            return new AudioFormat(sampleRate, 16, 2, true, false);
+        }
+        return new AudioFormat(AudioFormat.Encoding.ULAW, sampleRate, 8, 2, 2, sampleRate, false);
+    }
+
+    private void anchorInbound(long wallSample, long rtpTimestamp) {
+        inboundAnchorSample = wallSample;
+        inboundAnchorTimestamp = rtpTimestamp;
+    }
+
+    private long elapsedSamples(long nanos) {
+        return (nanos - startNanos) * codec.getSampleRate() / 1_000_000_000L;
+    }
+
+    private void write(int channel, long samplePosition, byte[] payload) {
+        int samples = payload.length / bytesPerSample;
+        long end = samplePosition + samples;
+        if (end > Integer.MAX_VALUE / (bytesPerSample * 2)) {
+            return;
+        }
+
+        ensureCapacity(channel, (int) end);
+        System.arraycopy(payload, 0, channels[channel], (int) samplePosition * bytesPerSample, samples * bytesPerSample);
+        lengths[channel] = Math.max(lengths[channel], end);
+    }
+
+    private void ensureCapacity(int channel, int samples) {
+        byte[] buffer = channels[channel];
+        int required = samples * bytesPerSample;
+        if (required <= buffer.length) {
+            return;
+        }
+
+        int newLength = Math.max(required, buffer.length * 2);
+        byte[] grown = Arrays.copyOf(buffer, newLength);
+        Arrays.fill(grown, buffer.length, newLength, silence);
+        channels[channel] = grown;
+    }
+}
@@ -0,0 +1,87 @@
+package com.yusssss.vcmail.core.utilities.replay;
+
+import com.yusssss.vcmail.core.utilities.audio.pipeline.AudioChain;
+import com.yusssss.vcmail.core.utilities.audio.pipeline.AudioFrame;
+import com.yusssss.vcmail.core.utilities.rtp.RtpCodec;
+import com.yusssss.vcmail.core.utilities.rtp.RtpReceptionStats;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+
+/**
+ * Paketleri canlı RtpListener ile aynı adımlardan (alım istatistiği, başlık atma, byte sırası)
+ * geçirip zincire verir. Varışlar sanal saatte işlenir, beklenmez; zincir çıktısının CRC'si
+ * aynı kayıt ve ayarlarla her çalıştırmada aynıdır. Sanal thread'de çağrılırsa iş bir platform
+ * thread'ine taşınır: ThreadMXBean sanal thread'lerin CPU süresini vermez (-1 döner).
+ */
+public final class PipelineReplayer {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private PipelineReplayer() {
+    }
+
+    public static ReplayResult replay(ReplaySchedule schedule, AudioChain chain) {
+        if (!Thread.currentThread().isVirtual()) {
+            return replayOnCurrentThread(schedule, chain);
+        }
+        AtomicReference<ReplayResult> result = new AtomicReference<>();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Thread thread = Thread.ofPlatform().name("pipeline-replay").start(() -> {
+            try {
+                result.set(replayOnCurrentThread(schedule, chain));
+            } catch (RuntimeException e) {
+                failure.set(e);
+            }
+        });
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Pipeline replay interrupted", e);
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return result.get();
+    }
+
+    private static ReplayResult replayOnCurrentThread(ReplaySchedule schedule, AudioChain chain) {
+        RtpCodec codec = schedule.getCodec();
+        VirtualClock clock = new VirtualClock();
+        RtpReceptionStats receptionStats = new RtpReceptionStats(codec.getSampleRate());
+        CRC32 crc = new CRC32();
+        ReplayResult result = new ReplayResult();
+
+        long cpuStart = THREADS.getCurrentThreadCpuTime();
+        long wallStart = System.nanoTime();
+        for (ReplaySchedule.Packet packet : schedule.getPackets()) {
+            clock.advanceTo(packet.getArrivalNanos());
+            byte[] data = packet.getData();
+            receptionStats.update(data, 0, clock.nanoTime());
+
+            byte[] payload = Arrays.copyOfRange(data, packet.getPayloadOffset(), data.length);
+            if (codec.isLinear()) {
+                RtpCodec.swapSampleBytes(payload, 0, payload.length);
+            }
+            AudioFrame frame = chain.process(payload);
+            if (frame != null && frame.getLength() > 0) {
+                crc.update(frame.getData(), 0, frame.getLength());
+                result.outputBytes += frame.getLength();
+            }
+        }
+        result.wallNanos = System.nanoTime() - wallStart;
+        result.cpuNanos = THREADS.getCurrentThreadCpuTime() - cpuStart;
+
+        result.packetsSent = schedule.getPackets().size();
+        result.packetsDropped = schedule.getDroppedCount();
+        result.packetsReceived = receptionStats.getPacketsReceived();
+        result.packetsLost = receptionStats.getPacketsLost();
+        result.jitterMillis = receptionStats.getJitterMillis();
+        result.outputCrc32 = crc.getValue();
+        return result;
+    }
+}
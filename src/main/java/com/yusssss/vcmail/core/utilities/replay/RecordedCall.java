@@ -0,0 +1,86 @@
+package com.yusssss.vcmail.core.utilities.replay;
+
+import com.yusssss.vcmail.core.utilities.rtp.RtpCodec;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Kayıt dizinindeki bir çağrı WAV'ı: external media codec'i ve arayanın ham sesi
+ * (μ-law baytları veya little endian 16-bit PCM, RtpListener'ın pipeline'a verdiği biçim).
+ * Stereo call_*.wav kayıtlarından sol (arayan) kanal alınır; eski user_audio WAV'ları zaten monodur.
+ */
+public class RecordedCall {
+
+    private final String name;
+    private final RtpCodec codec;
+    private final byte[] audio;
+
+    public RecordedCall(String name, RtpCodec codec, byte[] audio) {
+        this.name = name;
+        this.codec = codec;
+        this.audio = audio;
+    }
+
+    public static RecordedCall load(Path path) throws IOException, UnsupportedAudioFileException {
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            AudioFormat format = in.getFormat();
+            RtpCodec codec = codecOf(format);
+            byte[] audio = in.readAllBytes();
+            if (format.getChannels() == 2) {
+                audio = leftChannel(audio, codec.getBytesPerSample());
+            }
+            return new RecordedCall(path.getFileName().toString(), codec, audio);
+        }
+    }
+
+    // Sadece çağrı kaydının yazdığı iki biçim: 8 kHz μ-law ve 16 kHz slin16, mono veya stereo
+    static RtpCodec codecOf(AudioFormat format) {
+        if (format.getChannels() == 1 || format.getChannels() == 2) {
+            if (AudioFormat.Encoding.ULAW.equals(format.getEncoding()) && format.getSampleRate() == 8000) {
+                return RtpCodec.ULAW;
+            }
+            if (AudioFormat.Encoding.PCM_SIGNED.equals(format.getEncoding()) && format.getSampleRate() == 16000
+                    && format.getSampleSizeInBits() == 16 && !format.isBigEndian()) {
+                return RtpCodec.SLIN16;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported recording format: " + format);
+    }
+
+    // Örnek başına sol kanal baytları; sondaki yarım frame atılır
+    static byte[] leftChannel(byte[] interleaved, int bytesPerSample) {
+        int frameSize = bytesPerSample * 2;
+        byte[] left = new byte[interleaved.length / frameSize * bytesPerSample];
+        for (int in = 0, out = 0; out < left.length; in += frameSize, out += bytesPerSample) {
+            System.arraycopy(interleaved, in, left, out, bytesPerSample);
+        }
+        return left;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public RtpCodec getCodec() {
+        return codec;
+    }
+
+    public byte[] getAudio() {
+        return audio;
+    }
+
+    public int getFrameCount() {
+        return (audio.length + codec.getBytesPerFrame() - 1) / codec.getBytesPerFrame();
+    }
+
+    public long getDurationMillis() {
+        return audio.length / codec.getBytesPerSample() * 1000L / codec.getSampleRate();
+    }
+}
@@ -0,0 +1,33 @@
+package com.yusssss.vcmail.core.utilities.replay;
+
+/**
+ * Simüle edilen ağ koşulları: her pakete 0..jitterMillis arası gecikme eklenir, lossPercent kadarı düşürülür.
+ * Aynı seed aynı gecikme ve kayıp dizisini üretir.
+ */
+public class ReplayOptions {
+
+    private final double jitterMillis;
+    private final double lossPercent;
+    private final long seed;
+
+    public ReplayOptions(double jitterMillis, double lossPercent, long seed) {
+        if (jitterMillis < 0 || lossPercent < 0 || lossPercent >= 100) {
+            throw new IllegalArgumentException("Jitter must be >= 0 and loss in [0, 100)");
+        }
+        this.jitterMillis = jitterMillis;
+        this.lossPercent = lossPercent;
+        this.seed = seed;
+    }
+
+    public double getJitterMillis() {
+        return jitterMillis;
+    }
+
+    public double getLossPercent() {
+        return lossPercent;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
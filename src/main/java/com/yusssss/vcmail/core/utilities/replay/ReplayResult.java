@@ -0,0 +1,59 @@
+package com.yusssss.vcmail.core.utilities.replay;
+
+/**
+ * Bir kaydın replay sonucu. Pipeline modunda çıktı özeti ve alım istatistikleri,
+ * RTP modunda gönderim zamanlaması dolar; diğer alanlar 0 kalır.
+ */
+public class ReplayResult {
+
+    long packetsSent;
+    long packetsDropped;
+    long packetsReceived;
+    long packetsLost;
+    double jitterMillis;
+    long wallNanos;
+    long cpuNanos;
+    long outputBytes;
+    long outputCrc32;
+    long maxSendLatenessNanos;
+
+    public long getPacketsSent() {
+        return packetsSent;
+    }
+
+    public long getPacketsDropped() {
+        return packetsDropped;
+    }
+
+    public long getPacketsReceived() {
+        return packetsReceived;
+    }
+
+    public long getPacketsLost() {
+        return packetsLost;
+    }
+
+    public double getJitterMillis() {
+        return jitterMillis;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    public long getOutputBytes() {
+        return outputBytes;
+    }
+
+    public long getOutputCrc32() {
+        return outputCrc32;
+    }
+
+    public long getMaxSendLatenessNanos() {
+        return maxSendLatenessNanos;
+    }
+}
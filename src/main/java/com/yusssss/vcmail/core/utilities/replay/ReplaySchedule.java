@@ -0,0 +1,117 @@
+package com.yusssss.vcmail.core.utilities.replay;
+
+import com.yusssss.vcmail.core.utilities.rtp.RtpCodec;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Kaydın 20 ms'lik RTP paketleri ve sanal varış zamanları. Paketler Asterisk'in gönderdiği gibidir:
+ * 12 bayt başlık, slin16 için network byte order. Jitter paketleri yer değiştirebilir, liste varış sırasındadır.
+ */
+public class ReplaySchedule {
+
+    public static final long FRAME_NANOS = 20_000_000L;
+    private static final int RTP_HEADER_BYTES = 12;
+
+    private final RtpCodec codec;
+    private final List<Packet> packets;
+    private final int droppedCount;
+    private final long durationNanos;
+
+    private ReplaySchedule(RtpCodec codec, List<Packet> packets, int droppedCount, long durationNanos) {
+        this.codec = codec;
+        this.packets = packets;
+        this.droppedCount = droppedCount;
+        this.durationNanos = durationNanos;
+    }
+
+    public static ReplaySchedule of(RecordedCall call, ReplayOptions options) {
+        RtpCodec codec = call.getCodec();
+        Random random = new Random(options.getSeed());
+        int ssrc = random.nextInt();
+        byte[] audio = call.getAudio();
+        int frameBytes = codec.getBytesPerFrame();
+
+        List<Packet> packets = new ArrayList<>(call.getFrameCount());
+        int dropped = 0;
+        for (int frame = 0; frame < call.getFrameCount(); frame++) {
+            // Kayıp ve gecikme her paket için aynı sırayla çekilir; biri değişse diğer paketler kaymaz
+            boolean lost = random.nextDouble() * 100 < options.getLossPercent();
+            long delayNanos = (long) (random.nextDouble() * options.getJitterMillis() * 1_000_000);
+            if (lost) {
+                dropped++;
+                continue;
+            }
+
+            int offset = frame * frameBytes;
+            int length = Math.min(frameBytes, audio.length - offset);
+            byte[] packet = new byte[RTP_HEADER_BYTES + length];
+            writeHeader(packet, codec, frame & 0xFFFF, (long) frame * codec.getSamplesPerFrame(), ssrc);
+            System.arraycopy(audio, offset, packet, RTP_HEADER_BYTES, length);
+            if (codec.isLinear()) {
+                RtpCodec.swapSampleBytes(packet, RTP_HEADER_BYTES, length);
+            }
+            packets.add(new Packet(frame * FRAME_NANOS + delayNanos, packet));
+        }
+        // Stabil sıralama: aynı anda varanlar gönderim sırasını korur
+        packets.sort(Comparator.comparingLong(Packet::getArrivalNanos));
+        return new ReplaySchedule(codec, packets, dropped, call.getFrameCount() * FRAME_NANOS);
+    }
+
+    private static void writeHeader(byte[] packet, RtpCodec codec, int sequence, long timestamp, int ssrc) {
+        packet[0] = (byte) 0x80;
+        packet[1] = (byte) (codec.getPayloadType() & 0x7F);
+        packet[2] = (byte) (sequence >> 8);
+        packet[3] = (byte) sequence;
+        packet[4] = (byte) (timestamp >> 24);
+        packet[5] = (byte) (timestamp >> 16);
+        packet[6] = (byte) (timestamp >> 8);
+        packet[7] = (byte) timestamp;
+        packet[8] = (byte) (ssrc >> 24);
+        packet[9] = (byte) (ssrc >> 16);
+        packet[10] = (byte) (ssrc >> 8);
+        packet[11] = (byte) ssrc;
+    }
+
+    public RtpCodec getCodec() {
+        return codec;
+    }
+
+    public List<Packet> getPackets() {
+        return packets;
+    }
+
+    public int getDroppedCount() {
+        return droppedCount;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public static final class Packet {
+
+        private final long arrivalNanos;
+        private final byte[] data;
+
+        Packet(long arrivalNanos, byte[] data) {
+            this.arrivalNanos = arrivalNanos;
+            this.data = data;
+        }
+
+        public long getArrivalNanos() {
+            return arrivalNanos;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        public int getPayloadOffset() {
+            return RTP_HEADER_BYTES;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.yusssss.vcmail.core.utilities.replay;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paketleri çalışan bir instance'ın RTP portuna gönderir. Sanal varış zamanı speed'e bölünerek
+ * duvar saatine eşlenir (speed 4: 4 kat hızlı); speed 0 beklemeden gönderir.
+ */
+public final class RtpReplayer {
+
+    private RtpReplayer() {
+    }
+
+    // Hedef çağıran tarafta çözülüp doğrulanır; burada tekrar DNS'e gidilmez
+    public static ReplayResult replay(ReplaySchedule schedule, InetAddress address, int port, double speed) throws IOException {
+        ReplayResult result = new ReplayResult();
+
+        try (DatagramSocket socket = new DatagramSocket()) {
+            long start = System.nanoTime();
+            for (ReplaySchedule.Packet packet : schedule.getPackets()) {
+                if (speed > 0) {
+                    long due = start + (long) (packet.getArrivalNanos() / speed);
+                    long wait;
+                    while ((wait = due - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    result.maxSendLatenessNanos = Math.max(result.maxSendLatenessNanos, System.nanoTime() - due);
+                }
+                byte[] data = packet.getData();
+                socket.send(new DatagramPacket(data, data.length, address, port));
+                result.packetsSent++;
+            }
+            result.wallNanos = System.nanoTime() - start;
+        }
+        result.packetsDropped = schedule.getDroppedCount();
+        return result;
+    }
+}
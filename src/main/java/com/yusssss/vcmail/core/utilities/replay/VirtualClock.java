@@ -0,0 +1,21 @@
+package com.yusssss.vcmail.core.utilities.replay;
+
+/**
+ * Replay'in saati. Zaman sadece bir sonraki paketin varışına ilerletilir; aynı girdi her makinede
+ * aynı varış zamanlarını, dolayısıyla aynı jitter ve sıralamayı üretir.
+ */
+public class VirtualClock {
+
+    private long nowNanos;
+
+    public long nanoTime() {
+        return nowNanos;
+    }
+
+    // Geri gitmez; sıra dışı gelen paket saati durdurmaz
+    public void advanceTo(long nanos) {
+        if (nanos > nowNanos) {
+            nowNanos = nanos;
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.yusssss.vcmail.core.utilities.rtp;
 
+import com.yusssss.vcmail.core.utilities.jfr.RtpPacketSentEvent;
+import com.yusssss.vcmail.core.utilities.metrics.VoicePipelineMetrics;
+import com.yusssss.vcmail.core.utilities.prompt.PromptClip;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.net.*;
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ObjLongConsumer;
 
 @Component
 public class RtpAudioSender {
@@ -16,29 +22,72 @@ public class RtpAudioSender {
     private static final Logger logger = LoggerFactory.getLogger(RtpAudioSender.class);
 
     private final Map<String, RtpSenderInstance> senders = new ConcurrentHashMap<>();
+    private final VoicePipelineMetrics voicePipelineMetrics;
 
-    public void createSender(String conversationId, String destinationHost, int destinationPort) {
+    public RtpAudioSender(VoicePipelineMetrics voicePipelineMetrics) {
+        this.voicePipelineMetrics = voicePipelineMetrics;
+    }
+
+    public void createSender(String conversationId, String destinationHost, int destinationPort, RtpCodec codec) {
         try {
-            RtpSenderInstance sender = new RtpSenderInstance(conversationId, destinationHost, destinationPort);
+            RtpSenderInstance sender = new RtpSenderInstance(conversationId, destinationHost, destinationPort, codec, voicePipelineMetrics);
             senders.put(conversationId, sender);
-            logger.info("[{}] RTP Sender created for {}:{}", conversationId, destinationHost, destinationPort);
+            logger.info("[{}] RTP Sender created for {}:{} ({})", conversationId, destinationHost, destinationPort, codec.getAsteriskFormat());
         } catch (Exception e) {
             logger.error("[{}] Failed to create RTP sender", conversationId, e);
         }
     }
 
     public void sendAudio(String conversationId, byte[] audioData) {
+        sendAudio(conversationId, audioData, audioData.length);
+    }
+
+    public void sendAudio(String conversationId, byte[] audioData, int length) {
         RtpSenderInstance sender = senders.get(conversationId);
         if (sender != null) {
 
-            logger.debug("[{}] {} byte ses verisi RTP üzerinden Asterisk'e gönderiliyor.", conversationId, audioData.length);
+            logger.debug("[{}] {} byte ses verisi RTP üzerinden Asterisk'e gönderiliyor.", conversationId, length);
 
-            sender.sendAudio(audioData);
+            sender.sendAudio(audioData, length);
         } else {
             logger.warn("[{}] No RTP sender found for conversation", conversationId);
         }
     }
 
+    /**
+     * Önceden kodlanmış anonsu paket paket çalar, bitene kadar bekler. OpenAI'dan ses gelirse
+     * anons kesilir ve false döner.
+     */
+    public boolean playPrompt(String conversationId, PromptClip clip) {
+        RtpSenderInstance sender = senders.get(conversationId);
+        if (sender == null || clip == null) {
+            return false;
+        }
+        if (clip.getCodec() != sender.codec) {
+            logger.warn("[{}] Prompt {} is {}, sender is {}", conversationId, clip.getName(),
+                    clip.getCodec().getAsteriskFormat(), sender.codec.getAsteriskFormat());
+            return false;
+        }
+        logger.debug("[{}] Playing prompt {} ({} ms)", conversationId, clip.getName(), clip.getDurationMillis());
+        return sender.playFrames(clip.getWireFrames(), clip.getLocalFrames());
+    }
+
+    /**
+     * Gönderilen her paketin payload'u (little endian) ve gönderim zamanı (nanoTime) bildirilir.
+     */
+    public void onPacketSent(String conversationId, ObjLongConsumer<byte[]> callback) {
+        RtpSenderInstance sender = senders.get(conversationId);
+        if (sender != null) {
+            sender.onPacketSent = callback;
+        }
+    }
+
+    // Son paketlerin 20ms slotundan ortalama sapması (EWMA)
+    public double getEgressLagMillis(String conversationId) {
+        RtpSenderInstance sender = senders.get(conversationId);
+        return sender != null ? sender.egressLagEwmaNanos / 1_000_000.0 : 0;
+    }
+
     public void closeSender(String conversationId) {
         RtpSenderInstance sender = senders.remove(conversationId);
         if (sender != null) {
@@ -53,6 +102,8 @@ public class RtpAudioSender {
         private final DatagramSocket socket;
         private final InetAddress destinationAddress;
         private final int destinationPort;
+        private final RtpCodec codec;
+        private final VoicePipelineMetrics metrics;
 
         // RTP Header fields
         private final AtomicInteger sequenceNumber = new AtomicInteger(0);
@@ -60,36 +111,63 @@ public class RtpAudioSender {
         private final int ssrc;
 
         // Timing
+        private static final long PACKET_INTERVAL_NANOS = 20_000_000L;
         private long lastSendTime = 0;
-        private static final int SAMPLE_RATE = 8000; // Asterisk slin16
-        private static final int BYTES_PER_SAMPLE = 2; // 16-bit
-        private static final int TIMESTAMP_INCREMENT = 160; // 20ms at 8kHz
+        // Sıradaki paketin pacing slotuna göre gecikmesi, yanıtın ilk paketi için -1
+        private long pendingLatenessNanos = -1;
+        private volatile double egressLagEwmaNanos;
+
+        private volatile ObjLongConsumer<byte[]> onPacketSent;
 
-        public RtpSenderInstance(String conversationId, String host, int port) throws Exception {
+        // Anons ve OpenAI sesi aynı sıra/timestamp/pacing durumunu paylaşır
+        private final ReentrantLock sendLock = new ReentrantLock();
+        private volatile boolean promptPlaying;
+        private volatile boolean promptCancelRequested;
+
+        public RtpSenderInstance(String conversationId, String host, int port, RtpCodec codec,
+                                 VoicePipelineMetrics metrics) throws Exception {
             this.conversationId = conversationId;
             this.socket = new DatagramSocket();
             this.destinationAddress = InetAddress.getByName(host);
             this.destinationPort = port;
+            this.codec = codec;
+            this.metrics = metrics;
             this.ssrc = (int) (Math.random() * Integer.MAX_VALUE);
 
             socket.setSendBufferSize(64 * 1024); // 64KB send buffer
             socket.setTrafficClass(0x10); // Low delay
         }
 
-        public void sendAudio(byte[] audioData) {
-            if (audioData == null || audioData.length == 0) {
+        public void sendAudio(byte[] audioData, int length) {
+            if (audioData == null || length == 0) {
                 return;
             }
 
+            // Model konuşmaya başladıysa anons kesilir
+            if (promptPlaying) {
+                promptCancelRequested = true;
+            }
+
+            sendLock.lock();
             try {
 
-                int chunkSize = 160; // 80 samples * 2 bytes = 160 bytes per 20ms
+                int chunkSize = codec.getBytesPerFrame(); // ulaw: 160 bytes, slin16: 640 bytes per 20ms
 
-                for (int offset = 0; offset < audioData.length; offset += chunkSize) {
-                    int remainingBytes = Math.min(chunkSize, audioData.length - offset);
+                for (int offset = 0; offset < length; offset += chunkSize) {
+                    int remainingBytes = Math.min(chunkSize, length - offset);
                     byte[] chunk = new byte[remainingBytes];
                     System.arraycopy(audioData, offset, chunk, 0, remainingBytes);
 
+                    ObjLongConsumer<byte[]> sentCallback = onPacketSent;
+                    if (sentCallback != null) {
+                        sentCallback.accept(chunk, System.nanoTime());
+                    }
+
+                    // slin16 little endian -> network byte order
+                    if (codec.isLinear()) {
+                        RtpCodec.swapSampleBytes(chunk, 0, chunk.length);
+                    }
+
                     sendRtpPacket(chunk);
 
                     // Pacing: 20ms intervals için timing
@@ -98,6 +176,36 @@ public class RtpAudioSender {
 
             } catch (Exception e) {
                 logger.error("[{}] Failed to send RTP audio packet", conversationId, e);
+            } finally {
+                sendLock.unlock();
+            }
+        }
+
+        public boolean playFrames(byte[][] wireFrames, byte[][] localFrames) {
+            sendLock.lock();
+            promptCancelRequested = false;
+            promptPlaying = true;
+            try {
+                for (int frame = 0; frame < wireFrames.length; frame++) {
+                    if (promptCancelRequested || socket.isClosed()) {
+                        return false;
+                    }
+
+                    ObjLongConsumer<byte[]> sentCallback = onPacketSent;
+                    if (sentCallback != null) {
+                        sentCallback.accept(localFrames[frame], System.nanoTime());
+                    }
+
+                    sendRtpPacket(wireFrames[frame]);
+                    maintainPacing();
+                }
+                return true;
+            } catch (Exception e) {
+                logger.error("[{}] Failed to send prompt packet", conversationId, e);
+                return false;
+            } finally {
+                promptPlaying = false;
+                sendLock.unlock();
             }
         }
 
@@ -108,8 +216,8 @@ public class RtpAudioSender {
             // Version (2), Padding (0), Extension (0), CSRC count (0)
             rtpHeader[0] = (byte) 0x80;
 
-            // Marker (0), Payload Type (11 for slin16 or 0 for PCMU)
-            rtpHeader[1] = (byte) 0x00; // slin16 payload type
+            // Marker (0), Payload Type (0 for PCMU, 118 for slin16)
+            rtpHeader[1] = (byte) (codec.getPayloadType() & 0x7F);
 
             // Sequence number (16 bits)
             int seqNum = sequenceNumber.getAndIncrement() & 0xFFFF;
@@ -117,7 +225,7 @@ public class RtpAudioSender {
             rtpHeader[3] = (byte) (seqNum & 0xFF);
 
             // Timestamp (32 bits)
-            long ts = timestamp.getAndAdd(TIMESTAMP_INCREMENT) & 0xFFFFFFFFL;
+            long ts = timestamp.getAndAdd(audioPayload.length / codec.getBytesPerSample()) & 0xFFFFFFFFL;
             rtpHeader[4] = (byte) ((ts >> 24) & 0xFF);
             rtpHeader[5] = (byte) ((ts >> 16) & 0xFF);
             rtpHeader[6] = (byte) ((ts >> 8) & 0xFF);
@@ -140,7 +248,18 @@ public class RtpAudioSender {
                     destinationAddress, destinationPort
             );
 
+            RtpPacketSentEvent event = new RtpPacketSentEvent();
+            event.begin();
             socket.send(packet);
+            event.end();
+            metrics.rtpPacketSent();
+
+            if (event.shouldCommit()) {
+                event.conversationId = conversationId;
+                event.payloadBytes = audioPayload.length;
+                event.latenessNanos = pendingLatenessNanos;
+                event.commit();
+            }
 
             logger.trace("[{}] Sent RTP packet: seq={}, ts={}, size={}",
                     conversationId, seqNum, ts, rtpPacket.length);
@@ -148,20 +267,30 @@ public class RtpAudioSender {
 
         private void maintainPacing() {
             // 20ms pacing between packets
-            long currentTime = System.currentTimeMillis();
+            long currentTime = System.nanoTime();
             if (lastSendTime > 0) {
                 long elapsed = currentTime - lastSendTime;
-                long targetInterval = 20; // 20ms
+                long targetInterval = PACKET_INTERVAL_NANOS;
 
                 if (elapsed < targetInterval) {
                     try {
-                        Thread.sleep(targetInterval - elapsed);
+                        Thread.sleep(Duration.ofNanos(targetInterval - elapsed));
                     } catch (InterruptedException e) {
                         Thread.currentThread().interrupt();
                     }
                 }
+
+                // Paketin 20ms slotunun ne kadar gerisinde kaldığı; yanıtlar arası boşluk sayılmaz
+                long lag = System.nanoTime() - (lastSendTime + targetInterval);
+                if (lag >= 0 && lag < targetInterval) {
+                    metrics.recordRtpEgressLag(lag);
+                    pendingLatenessNanos = lag;
+                    egressLagEwmaNanos += (lag - egressLagEwmaNanos) / 16;  // jitter ile aynı 1/16 kazanç
+                } else {
+                    pendingLatenessNanos = -1;
+                }
             }
-            lastSendTime = System.currentTimeMillis();
+            lastSendTime = System.nanoTime();
         }
 
         public void close() {
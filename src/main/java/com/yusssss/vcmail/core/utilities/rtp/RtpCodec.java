@@ -0,0 +1,75 @@
+package com.yusssss.vcmail.core.utilities.rtp;
+
+/**
+ * Codecs supported on the Asterisk external media leg. Frame sizes are for 20 ms packets.
+ */
+public enum RtpCodec {
+
+    // 8 kHz G.711 μ-law, static payload type 0
+    ULAW("ulaw", 0, 8000, 1),
+
+    // 16 kHz signed 16-bit linear PCM, network byte order on the wire, Asterisk dynamic payload type 118
+    SLIN16("slin16", 118, 16000, 2);
+
+    private static final int PACKET_MILLIS = 20;
+
+    private final String asteriskFormat;
+    private final int payloadType;
+    private final int sampleRate;
+    private final int bytesPerSample;
+
+    RtpCodec(String asteriskFormat, int payloadType, int sampleRate, int bytesPerSample) {
+        this.asteriskFormat = asteriskFormat;
+        this.payloadType = payloadType;
+        this.sampleRate = sampleRate;
+        this.bytesPerSample = bytesPerSample;
+    }
+
+    public String getAsteriskFormat() {
+        return asteriskFormat;
+    }
+
+    public int getPayloadType() {
+        return payloadType;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getBytesPerSample() {
+        return bytesPerSample;
+    }
+
+    public int getSamplesPerFrame() {
+        return sampleRate * PACKET_MILLIS / 1000;
+    }
+
+    public int getBytesPerFrame() {
+        return getSamplesPerFrame() * bytesPerSample;
+    }
+
+    public boolean isLinear() {
+        return this == SLIN16;
+    }
+
+    public static RtpCodec fromAsteriskFormat(String format) {
+        for (RtpCodec codec : values()) {
+            if (codec.asteriskFormat.equalsIgnoreCase(format)) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported external media format: " + format);
+    }
+
+    /**
+     * Swaps every 16-bit sample between little endian and network byte order, in place.
+     */
+    public static void swapSampleBytes(byte[] data, int offset, int length) {
+        for (int i = offset; i + 1 < offset + length; i += 2) {
+            byte tmp = data[i];
+            data[i] = data[i + 1];
+            data[i + 1] = tmp;
+        }
+    }
+}
@@ -1,28 +1,37 @@
 package com.yusssss.vcmail.core.utilities.rtp;
 
+import com.yusssss.vcmail.core.utilities.jfr.RtpPacketReceivedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
 
 public class RtpListener implements Runnable {
 
     private final Logger logger = LoggerFactory.getLogger(RtpListener.class);
     private final String callId;
     private final int port;
+    private final RtpCodec codec;
     private DatagramSocket socket;
     private volatile boolean isListening = false;
     private Consumer<byte[]> onAudioData;
+    // Payload ve RTP timestamp'i (kayıt hizalaması için)
+    private volatile ObjLongConsumer<byte[]> onTimedAudioData;
     private final Thread listenerThread;
 
-    public RtpListener(String callId, int port) {
+    // Sadece listener thread'i yazar
+    private final RtpReceptionStats receptionStats;
+
+    public RtpListener(String callId, int port, RtpCodec codec) {
         this.callId = callId;
         this.port = port;
-        this.listenerThread = new Thread(this);
-        this.listenerThread.setName("RtpListener-" + callId);
-        this.listenerThread.setDaemon(true);
+        this.codec = codec;
+        this.receptionStats = new RtpReceptionStats(codec.getSampleRate());
+        // Çağrı başına virtual thread, platform thread maliyeti yok
+        this.listenerThread = Thread.ofVirtual().name("RtpListener-" + callId).unstarted(this);
     }
 
     public int getPort() {
@@ -33,6 +42,10 @@ public class RtpListener implements Runnable {
         this.onAudioData = callback;
     }
 
+    public void onTimedAudioData(ObjLongConsumer<byte[]> callback) {
+        this.onTimedAudioData = callback;
+    }
+
     public void start() {
         if (!isListening) {
             isListening = true;
@@ -44,8 +57,8 @@ public class RtpListener implements Runnable {
     public void run() {
         try {
             socket = new DatagramSocket(port);
-            byte[] buffer = new byte[1024];
-            logger.info("[{}] RTP Listener started on UDP port {}", callId, port);
+            byte[] buffer = new byte[2048];
+            logger.info("[{}] RTP Listener started on UDP port {} ({})", callId, port, codec.getAsteriskFormat());
 
             while (isListening) {
                 DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
@@ -54,13 +67,40 @@ public class RtpListener implements Runnable {
                 int payloadOffset = 12;
                 int payloadLength = packet.getLength() - payloadOffset;
 
-                if (payloadLength > 0 && onAudioData != null) {
+                long rtpTimestamp = 0;
+                if (packet.getLength() >= payloadOffset) {
+                    rtpTimestamp = receptionStats.update(packet.getData(), packet.getOffset(), System.nanoTime());
+                }
+
+                ObjLongConsumer<byte[]> timedCallback = onTimedAudioData;
+                if (payloadLength > 0 && (onAudioData != null || timedCallback != null)) {
+                    RtpPacketReceivedEvent event = new RtpPacketReceivedEvent();
+                    event.begin();
+
                     byte[] audioData = new byte[payloadLength];
                     System.arraycopy(packet.getData(), packet.getOffset() + payloadOffset, audioData, 0, payloadLength);
 
+                    // slin16 network byte order (big endian) gelir, pipeline little endian PCM bekler
+                    if (codec.isLinear()) {
+                        RtpCodec.swapSampleBytes(audioData, 0, audioData.length);
+                    }
+
                     logger.debug("[{}] RTP'den {} byte ses verisi alındı.", callId, audioData.length);
 
-                    onAudioData.accept(audioData);
+                    if (timedCallback != null) {
+                        timedCallback.accept(audioData, rtpTimestamp);
+                    }
+                    if (onAudioData != null) {
+                        onAudioData.accept(audioData);
+                    }
+
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.conversationId = callId;
+                        event.payloadBytes = payloadLength;
+                        event.rtpTimestamp = rtpTimestamp;
+                        event.commit();
+                    }
                 }
             }
         } catch (Exception e) {
@@ -75,6 +115,18 @@ public class RtpListener implements Runnable {
         }
     }
 
+    public long getPacketsReceived() {
+        return receptionStats.getPacketsReceived();
+    }
+
+    public long getPacketsLost() {
+        return receptionStats.getPacketsLost();
+    }
+
+    public double getJitterMillis() {
+        return receptionStats.getJitterMillis();
+    }
+
     public void stop() {
         logger.info("[{}] Stopping RTP Listener on port {}...", callId, port);
         isListening = false;
@@ -1,5 +1,7 @@
 package com.yusssss.vcmail.core.utilities.rtp;
 
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
@@ -9,28 +11,43 @@ import java.util.concurrent.ConcurrentHashMap;
 public class RtpListenerFactory {
 
     private final Map<String, RtpListener> activeListeners = new ConcurrentHashMap<>();
-    private int nextPort = 10000;
+    private int nextPort;
 
+    // Her node kendi port aralığını kullanır, aynı makinede birden fazla JVM çakışmaz
+    @Value("${rtp.port-range.start:10000}")
+    private int portRangeStart;
 
-    public synchronized RtpListener createListener(String callId) {
+    @Value("${rtp.port-range.end:20000}")
+    private int portRangeEnd;
+
+    @PostConstruct
+    public void initialize() {
+        nextPort = portRangeStart;
+    }
+
+    public synchronized RtpListener createListener(String callId, RtpCodec codec) {
         // TODO: Portun kullanımda olup olmadığını kontrol etme mantığı eklenebilir.
         int portToUse = nextPort;
         nextPort += 2;
 
-        if (nextPort > 20000) {
-            nextPort = 10000;
+        if (nextPort > portRangeEnd) {
+            nextPort = portRangeStart;
         }
 
-        RtpListener listener = new RtpListener(callId, portToUse);
+        RtpListener listener = new RtpListener(callId, portToUse, codec);
         activeListeners.put(callId, listener);
 
         return listener;
     }
 
+    public RtpListener getListener(String callId) {
+        return activeListeners.get(callId);
+    }
+
     public void stopListener(String callId) {
         if (activeListeners.containsKey(callId)) {
             activeListeners.get(callId).stop();
             activeListeners.remove(callId);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package com.yusssss.vcmail.core.utilities.rtp;
+
+/**
+ * RFC 3550 alım istatistikleri: kayıp (genişletilmiş sıra numarasından) ve interarrival jitter.
+ * Varış zamanı dışarıdan verilir; canlı dinleyici System.nanoTime, replay sanal saat kullanır.
+ * Tek thread yazar, okumalar başka thread'den yapılabilir.
+ */
+public class RtpReceptionStats {
+
+    private final int clockRate;
+    private volatile long packetsReceived = 0;
+    private volatile long highestSequence = -1;
+    private long baseSequence = -1;
+    private long firstArrivalNanos;
+    private long lastTransit = Long.MIN_VALUE;
+    private volatile double jitter = 0;
+
+    public RtpReceptionStats(int clockRate) {
+        this.clockRate = clockRate;
+    }
+
+    // Paketin RTP timestamp'ini döner
+    public long update(byte[] data, int offset, long arrivalNanos) {
+        int sequence = ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+        long rtpTimestamp = ((long) (data[offset + 4] & 0xFF) << 24) | ((data[offset + 5] & 0xFF) << 16)
+                | ((data[offset + 6] & 0xFF) << 8) | (data[offset + 7] & 0xFF);
+
+        packetsReceived++;
+
+        // 16-bit sıra numarasını taşmalara karşı genişlet
+        if (highestSequence < 0) {
+            baseSequence = sequence;
+            highestSequence = sequence;
+        } else {
+            long candidate = (highestSequence & ~0xFFFFL) | sequence;
+            if (candidate < highestSequence - 0x8000) {
+                candidate += 0x10000;
+            } else if (candidate > highestSequence + 0x8000) {
+                candidate -= 0x10000;
+            }
+            if (candidate > highestSequence) {
+                highestSequence = candidate;
+            }
+        }
+
+        // Interarrival jitter (RFC 3550 A.8), RTP zaman birimi cinsinden. nanoTime açılıştan sayar;
+        // ilk pakete göre alınmazsa çarpım birkaç günlük uptime'da taşar
+        if (lastTransit == Long.MIN_VALUE) {
+            firstArrivalNanos = arrivalNanos;
+        }
+        long arrival = (arrivalNanos - firstArrivalNanos) * clockRate / 1_000_000_000L;
+        long transit = arrival - rtpTimestamp;
+        if (lastTransit != Long.MIN_VALUE) {
+            // 32-bit farkı: RTP timestamp'i taşınca 2^32'lik sıçrama görülmez
+            long d = Math.abs((int) (transit - lastTransit));
+            jitter += (d - jitter) / 16.0;
+        }
+        lastTransit = transit;
+        return rtpTimestamp;
+    }
+
+    public long getPacketsReceived() {
+        return packetsReceived;
+    }
+
+    public long getPacketsLost() {
+        if (highestSequence < 0) {
+            return 0;
+        }
+        long expected = highestSequence - baseSequence + 1;
+        return Math.max(0, expected - packetsReceived);
+    }
+
+    public double getJitterMillis() {
+        return jitter * 1000.0 / clockRate;
+    }
+}
@@ -0,0 +1,187 @@
+package com.yusssss.vcmail.core.utilities.search;
+
+import com.yusssss.vcmail.entities.Message;
+import com.yusssss.vcmail.entities.dtos.SearchHitDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.tr.TurkishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.*;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embedded Lucene index over message text on local disk, one document per message.
+ * Writes are visible to searches after the next refresh (about a second); commits are
+ * periodic, and the index can always be rebuilt from the messages table.
+ * Every node keeps its own index: messages of its own calls are indexed as they are
+ * written, calls handled by other nodes are pulled from the database once they end
+ * (see SearchManager). The time of the last such sync is stored in the commit data.
+ */
+@Component
+public class TranscriptSearchIndex {
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_CONVERSATION_ID = "conversationId";
+    private static final String FIELD_SPEAKER = "speaker";
+    private static final String FIELD_TEXT = "text";
+    private static final int SNIPPETS_PER_CONVERSATION = 3;
+    private static final String SYNCED_UNTIL = "syncedUntil";
+
+    private final Logger logger = LoggerFactory.getLogger(TranscriptSearchIndex.class);
+    private final Analyzer analyzer = new TurkishAnalyzer();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private FSDirectory directory;
+    private IndexWriter indexWriter;
+    private SearcherManager searcherManager;
+    private volatile LocalDateTime syncedUntil;
+
+    @Value("${search.index.path:search-index/${cluster.node-id:local}}")
+    private String indexPath;
+
+    @PostConstruct
+    public void open() throws IOException {
+        directory = FSDirectory.open(Paths.get(indexPath));
+        indexWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        Iterable<Map.Entry<String, String>> commitData = indexWriter.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (SYNCED_UNTIL.equals(entry.getKey())) {
+                    syncedUntil = LocalDateTime.parse(entry.getValue());
+                }
+            }
+        }
+        searcherManager = new SearcherManager(indexWriter, null);
+
+        scheduler.scheduleWithFixedDelay(this::refresh, 1, 1, TimeUnit.SECONDS);
+        scheduler.scheduleWithFixedDelay(this::commit, 30, 30, TimeUnit.SECONDS);
+        logger.info("Transcript search index opened at {} with {} document(s)", indexPath, indexWriter.getDocStats().numDocs);
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdownNow();
+        try {
+            searcherManager.close();
+            indexWriter.close();
+            directory.close();
+        } catch (IOException e) {
+            logger.error("Error closing transcript search index", e);
+        }
+    }
+
+    public void indexMessages(Collection<Message> messages) {
+        try {
+            for (Message message : messages) {
+                if (message.getId() == null || message.getText() == null || message.getConversation() == null) {
+                    continue;
+                }
+                Document document = new Document();
+                document.add(new StringField(FIELD_ID, message.getId(), Field.Store.YES));
+                document.add(new StringField(FIELD_CONVERSATION_ID, message.getConversation().getId(), Field.Store.YES));
+                document.add(new StringField(FIELD_SPEAKER, String.valueOf(message.getSpeaker()), Field.Store.YES));
+                document.add(new TextField(FIELD_TEXT, message.getText(), Field.Store.YES));
+                indexWriter.updateDocument(new Term(FIELD_ID, message.getId()), document);
+            }
+        } catch (IOException e) {
+            logger.error("Error indexing {} message(s)", messages.size(), e);
+        }
+    }
+
+    public List<SearchHitDto> search(String queryText, int limit) throws IOException {
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_TEXT);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = parser.parse(queryText);
+        if (query == null) {
+            return List.of();
+        }
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            // Mesaj bazında arayıp conversation bazında grupluyoruz
+            TopDocs topDocs = searcher.search(query, limit * 5);
+            UnifiedHighlighter highlighter = UnifiedHighlighter.builder(searcher, analyzer).build();
+            String[] highlights = highlighter.highlight(FIELD_TEXT, query, topDocs);
+
+            Map<String, SearchHitDto> hits = new LinkedHashMap<>();
+            StoredFields storedFields = searcher.storedFields();
+            for (int i = 0; i < topDocs.scoreDocs.length; i++) {
+                ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                String conversationId = storedFields.document(scoreDoc.doc, Set.of(FIELD_CONVERSATION_ID)).get(FIELD_CONVERSATION_ID);
+
+                SearchHitDto hit = hits.get(conversationId);
+                if (hit == null) {
+                    if (hits.size() >= limit) {
+                        continue;
+                    }
+                    hit = new SearchHitDto(conversationId, scoreDoc.score, new ArrayList<>());
+                    hits.put(conversationId, hit);
+                }
+                if (highlights[i] != null && hit.getSnippets().size() < SNIPPETS_PER_CONVERSATION) {
+                    hit.getSnippets().add(highlights[i]);
+                }
+            }
+            return new ArrayList<>(hits.values());
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    public void deleteAll() throws IOException {
+        indexWriter.deleteAll();
+    }
+
+    // Diğer node'ların çağrıları bu ana kadar (conversation bitişi) indekse alındı; bir sonraki commit'le kalıcı olur
+    public LocalDateTime getSyncedUntil() {
+        return syncedUntil;
+    }
+
+    public void setSyncedUntil(LocalDateTime syncedUntil) {
+        this.syncedUntil = syncedUntil;
+        indexWriter.setLiveCommitData(Map.of(SYNCED_UNTIL, syncedUntil.toString()).entrySet());
+    }
+
+    public boolean isEmpty() {
+        return indexWriter.getDocStats().numDocs == 0;
+    }
+
+    public void commit() {
+        try {
+            if (indexWriter.hasUncommittedChanges()) {
+                indexWriter.commit();
+            }
+        } catch (IOException e) {
+            logger.error("Error committing transcript search index", e);
+        }
+    }
+
+    private void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            logger.error("Error refreshing transcript search index", e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.yusssss.vcmail.core.utilities.stats;
+
+import com.yusssss.vcmail.entities.CallRecord;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters collected during one call and turned into a {@link CallRecord} at hangup.
+ * Updated from RTP, OpenAI and ARI threads, so everything is atomic or volatile.
+ */
+public class CallStats {
+
+    private final String conversationId;
+    private final String callerNumber;
+    private final LocalDateTime startTime;
+    private final long startNanos;
+    private final boolean takenOver;
+
+    private volatile long setupCompletedNanos;
+    private volatile long firstAudioNanos;
+    private volatile long speechStoppedNanos;
+
+    private final List<Long> responseLatenciesMs = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong bytesToOpenAi = new AtomicLong();
+    private final AtomicLong bytesFromOpenAi = new AtomicLong();
+    private final AtomicInteger toolCallCount = new AtomicInteger();
+    private final AtomicLong toolCallTotalNanos = new AtomicLong();
+    private final AtomicLong toolCallMaxNanos = new AtomicLong();
+
+    public CallStats(String conversationId, String callerNumber) {
+        this.conversationId = conversationId;
+        this.callerNumber = callerNumber;
+        this.startTime = LocalDateTime.now();
+        this.startNanos = System.nanoTime();
+        this.takenOver = false;
+    }
+
+    // Devralınan çağrı: süre conversation'ın başladığı andan sayılır
+    public static CallStats takenOver(String conversationId, String callerNumber, LocalDateTime conversationStart) {
+        return new CallStats(conversationId, callerNumber, conversationStart);
+    }
+
+    private CallStats(String conversationId, String callerNumber, LocalDateTime conversationStart) {
+        this.conversationId = conversationId;
+        this.callerNumber = callerNumber;
+        this.startTime = conversationStart;
+        // Node saatleri arasındaki küçük kayma negatif süre üretmesin
+        long elapsedNanos = Math.max(0, Duration.between(conversationStart, LocalDateTime.now()).toNanos());
+        this.startNanos = System.nanoTime() - elapsedNanos;
+        this.takenOver = true;
+    }
+
+    public void markSetupCompleted() {
+        setupCompletedNanos = System.nanoTime();
+    }
+
+    public void onAudioToOpenAi(int bytes) {
+        bytesToOpenAi.addAndGet(bytes);
+    }
+
+    public void onAudioFromOpenAi(int bytes) {
+        bytesFromOpenAi.addAndGet(bytes);
+        long now = System.nanoTime();
+        if (firstAudioNanos == 0) {
+            firstAudioNanos = now;
+        }
+        // Kullanıcı sustuktan sonraki ilk ses: tur yanıt gecikmesi
+        long stoppedAt = speechStoppedNanos;
+        if (stoppedAt != 0) {
+            speechStoppedNanos = 0;
+            responseLatenciesMs.add((now - stoppedAt) / 1_000_000);
+        }
+    }
+
+    public void onSpeechStopped() {
+        speechStoppedNanos = System.nanoTime();
+    }
+
+    public void recordToolCall(long durationNanos) {
+        toolCallCount.incrementAndGet();
+        toolCallTotalNanos.addAndGet(durationNanos);
+        toolCallMaxNanos.accumulateAndGet(durationNanos, Math::max);
+    }
+
+    public String getConversationId() {
+        return conversationId;
+    }
+
+    public CallRecord toCallRecord(String nodeId, String endStatus,
+                                   long rtpPacketsReceived, long rtpPacketsLost, double rtpJitterMs) {
+        long endNanos = System.nanoTime();
+
+        List<Long> latencies;
+        synchronized (responseLatenciesMs) {
+            latencies = new ArrayList<>(responseLatenciesMs);
+        }
+        Collections.sort(latencies);
+
+        CallRecord record = new CallRecord();
+        record.setConversationId(conversationId);
+        record.setNodeId(nodeId);
+        record.setCallerNumber(callerNumber);
+        record.setStartTime(startTime);
+        record.setEndTime(LocalDateTime.now());
+        record.setDurationMs((endNanos - startNanos) / 1_000_000);
+        record.setEndStatus(endStatus);
+        // Devralınan çağrıda bunlar yeniden bağlanmayı ölçer, çağrı kurulumunu değil
+        record.setSetupTimeMs(setupCompletedNanos == 0 || takenOver ? null : (setupCompletedNanos - startNanos) / 1_000_000);
+        record.setTimeToFirstAudioMs(firstAudioNanos == 0 || takenOver ? null : (firstAudioNanos - startNanos) / 1_000_000);
+        record.setTakenOver(takenOver);
+        record.setTurnCount(latencies.size());
+        record.setResponseLatencyP50Ms(percentile(latencies, 50));
+        record.setResponseLatencyP90Ms(percentile(latencies, 90));
+        record.setResponseLatencyMaxMs(latencies.isEmpty() ? null : latencies.get(latencies.size() - 1));
+        record.setRtpPacketsReceived(rtpPacketsReceived);
+        record.setRtpPacketsLost(rtpPacketsLost);
+        record.setRtpJitterMs(rtpJitterMs);
+        record.setBytesToOpenAi(bytesToOpenAi.get());
+        record.setBytesFromOpenAi(bytesFromOpenAi.get());
+        record.setToolCallCount(toolCallCount.get());
+        record.setToolCallTotalMs(toolCallTotalNanos.get() / 1_000_000);
+        record.setToolCallMaxMs(toolCallMaxNanos.get() / 1_000_000);
+        return record;
+    }
+
+    // Nearest-rank yüzdelik, liste sıralı olmalı
+    public static Long percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return null;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+}
@@ -0,0 +1,52 @@
+package com.yusssss.vcmail.core.utilities.stats;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tamamlanmış bir konuşma turunun zaman damgaları (System.nanoTime).
+ * Kullanıcı susar -> response.created -> ilk output_audio.delta -> ilk RTP paketi.
+ */
+public class TurnTrace {
+
+    private final String conversationId;
+    private final LocalDateTime completedAt;
+    private final long speechStoppedNanos;
+    private final long responseCreatedNanos;
+    private final long firstAudioDeltaNanos;
+    private final long firstRtpSentNanos;
+
+    public TurnTrace(String conversationId, LocalDateTime completedAt, long speechStoppedNanos,
+                     long responseCreatedNanos, long firstAudioDeltaNanos, long firstRtpSentNanos) {
+        this.conversationId = conversationId;
+        this.completedAt = completedAt;
+        this.speechStoppedNanos = speechStoppedNanos;
+        this.responseCreatedNanos = responseCreatedNanos;
+        this.firstAudioDeltaNanos = firstAudioDeltaNanos;
+        this.firstRtpSentNanos = firstRtpSentNanos;
+    }
+
+    public String getConversationId() {
+        return conversationId;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    // response.created gelmediyse -1
+    public long getSpeechStoppedToResponseCreatedNanos() {
+        return responseCreatedNanos == 0 ? -1 : responseCreatedNanos - speechStoppedNanos;
+    }
+
+    public long getResponseCreatedToFirstAudioNanos() {
+        return responseCreatedNanos == 0 ? -1 : firstAudioDeltaNanos - responseCreatedNanos;
+    }
+
+    public long getFirstAudioToFirstRtpNanos() {
+        return firstRtpSentNanos - firstAudioDeltaNanos;
+    }
+
+    public long getTotalNanos() {
+        return firstRtpSentNanos - speechStoppedNanos;
+    }
+}
@@ -0,0 +1,61 @@
+package com.yusssss.vcmail.core.utilities.stats;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Çağrı bazında ve node genelinde son turları tutar. Biten çağrıların turları
+ * node halkasında kalmaya devam eder.
+ */
+@Component
+public class TurnTraceRegistry {
+
+    private final Map<String, TurnTraceRing> callRings = new ConcurrentHashMap<>();
+    private final Map<String, TurnTracer> tracers = new ConcurrentHashMap<>();
+    private final TurnTraceRing fleetRing;
+    private final int turnsPerCall;
+
+    public TurnTraceRegistry(@Value("${latency.trace.turns-per-call:50}") int turnsPerCall,
+                             @Value("${latency.trace.fleet-turns:1000}") int fleetTurns) {
+        this.turnsPerCall = turnsPerCall;
+        this.fleetRing = new TurnTraceRing(fleetTurns);
+    }
+
+    public TurnTracer startCall(String conversationId) {
+        TurnTraceRing callRing = new TurnTraceRing(turnsPerCall);
+        callRings.put(conversationId, callRing);
+        TurnTracer tracer = new TurnTracer(conversationId, trace -> {
+            callRing.add(trace);
+            fleetRing.add(trace);
+        });
+        tracers.put(conversationId, tracer);
+        return tracer;
+    }
+
+    public TurnTracer getTracer(String conversationId) {
+        return tracers.get(conversationId);
+    }
+
+    public void endCall(String conversationId) {
+        tracers.remove(conversationId);
+        callRings.remove(conversationId);
+    }
+
+    public List<TurnTrace> getCallTurns(String conversationId) {
+        TurnTraceRing callRing = callRings.get(conversationId);
+        if (callRing != null) {
+            return callRing.snapshot();
+        }
+        return fleetRing.snapshot().stream()
+                .filter(trace -> conversationId.equals(trace.getConversationId()))
+                .toList();
+    }
+
+    public List<TurnTrace> getFleetTurns() {
+        return fleetRing.snapshot();
+    }
+}
@@ -0,0 +1,46 @@
+package com.yusssss.vcmail.core.utilities.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Son N turu tutan kilitsiz halka tampon. Yazarlar yalnızca bir sayaç artırıp
+ * slotu ezer; okuyucular o anki içeriğin kopyasını alır.
+ */
+public class TurnTraceRing {
+
+    private final AtomicReferenceArray<TurnTrace> slots;
+    private final AtomicLong writeIndex = new AtomicLong();
+
+    public TurnTraceRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ring capacity must be positive");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void add(TurnTrace trace) {
+        long index = writeIndex.getAndIncrement();
+        slots.set((int) (index % slots.length()), trace);
+    }
+
+    /**
+     * Eskiden yeniye sıralı kopya.
+     */
+    public List<TurnTrace> snapshot() {
+        int capacity = slots.length();
+        long end = writeIndex.get();
+        long start = Math.max(0, end - capacity);
+
+        List<TurnTrace> traces = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            TurnTrace trace = slots.get((int) (i % capacity));
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        return traces;
+    }
+}
@@ -0,0 +1,60 @@
+package com.yusssss.vcmail.core.utilities.stats;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Tek çağrının tur izleyicisi. speech_stopped yeni bir tur açar, sonraki
+ * response.created ve ilk ses delta'sı damgalanır, ilk giden RTP paketi turu kapatır.
+ * RTP başına çağrılan {@link #onRtpSent(long)} açık tur yoksa tek bir volatile okumadır.
+ */
+public class TurnTracer {
+
+    private final String conversationId;
+    private final Consumer<TurnTrace> onTurnCompleted;
+    private final AtomicReference<PendingTurn> current = new AtomicReference<>();
+
+    public TurnTracer(String conversationId, Consumer<TurnTrace> onTurnCompleted) {
+        this.conversationId = conversationId;
+        this.onTurnCompleted = onTurnCompleted;
+    }
+
+    public void onSpeechStopped(long nanos) {
+        // Araya giren konuşma (barge-in) önceki açık turu geçersiz kılar
+        current.set(new PendingTurn(nanos));
+    }
+
+    public void onResponseCreated(long nanos) {
+        PendingTurn turn = current.get();
+        if (turn != null && turn.responseCreatedNanos == 0) {
+            turn.responseCreatedNanos = nanos;
+        }
+    }
+
+    public void onAudioDelta(long nanos) {
+        PendingTurn turn = current.get();
+        if (turn != null && turn.firstAudioDeltaNanos == 0) {
+            turn.firstAudioDeltaNanos = nanos;
+        }
+    }
+
+    public void onRtpSent(long nanos) {
+        PendingTurn turn = current.get();
+        if (turn == null || turn.firstAudioDeltaNanos == 0 || !current.compareAndSet(turn, null)) {
+            return;
+        }
+        onTurnCompleted.accept(new TurnTrace(conversationId, LocalDateTime.now(), turn.speechStoppedNanos,
+                turn.responseCreatedNanos, turn.firstAudioDeltaNanos, nanos));
+    }
+
+    private static class PendingTurn {
+        private final long speechStoppedNanos;
+        private volatile long responseCreatedNanos;
+        private volatile long firstAudioDeltaNanos;
+
+        private PendingTurn(long speechStoppedNanos) {
+            this.speechStoppedNanos = speechStoppedNanos;
+        }
+    }
+}
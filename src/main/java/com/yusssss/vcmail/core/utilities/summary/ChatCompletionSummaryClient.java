@@ -0,0 +1,72 @@
+package com.yusssss.vcmail.core.utilities.summary;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Component
+public class ChatCompletionSummaryClient implements SummaryClient {
+
+    private static final String SYSTEM_PROMPT = "Bir klinik sekreterinin telefon görüşmesini özetliyorsun. " +
+            "Türkçe, en fazla üç cümle yaz: arayanın amacı, bırakılan mesaj veya alınan randevu, yapılması gerekenler.";
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String endpoint;
+    private final String model;
+    private final String apiKey;
+
+    public ChatCompletionSummaryClient(@Value("${summary.endpoint:https://api.openai.com/v1/chat/completions}") String endpoint,
+                                       @Value("${summary.model:gpt-4o-mini}") String model,
+                                       @Value("${openai.api.key}") String apiKey,
+                                       @Value("${summary.request-timeout:60s}") Duration requestTimeout) {
+        // Paylaşılan RestTemplate'in zaman aşımı yok; takılan bir istek worker'ı kilitlemesin
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory();
+        requestFactory.setReadTimeout(requestTimeout);
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.endpoint = endpoint;
+        this.model = model;
+        this.apiKey = apiKey;
+    }
+
+    @Override
+    public String summarize(String transcript) throws SummaryException {
+        ObjectNode request = objectMapper.createObjectNode();
+        request.put("model", model);
+        request.put("temperature", 0.2);
+        request.putArray("messages")
+                .add(objectMapper.createObjectNode().put("role", "system").put("content", SYSTEM_PROMPT))
+                .add(objectMapper.createObjectNode().put("role", "user").put("content", transcript));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(apiKey);
+
+        try {
+            JsonNode response = restTemplate.postForObject(endpoint, new HttpEntity<>(request, headers), JsonNode.class);
+            String summary = response == null ? "" : response.path("choices").path(0).path("message").path("content").asText("").trim();
+            if (summary.isEmpty()) {
+                throw new SummaryException("Empty summary in model response", true, null);
+            }
+            return summary;
+        } catch (RestClientResponseException e) {
+            int status = e.getStatusCode().value();
+            // Rate limit ve sunucu hataları tekrar denenir
+            boolean retryable = status == 429 || status >= 500;
+            throw new SummaryException("Summary request failed with HTTP " + status, retryable, e);
+        } catch (RestClientException e) {
+            throw new SummaryException("Summary request failed: " + e.getMessage(), true, e);
+        }
+    }
+}
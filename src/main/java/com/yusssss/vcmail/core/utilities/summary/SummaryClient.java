@@ -0,0 +1,10 @@
+package com.yusssss.vcmail.core.utilities.summary;
+
+/**
+ * Görüşme metnini özetleyen model. Varsayılan uygulama OpenAI uyumlu chat completions
+ * endpoint'ine gider; endpoint ayarla değiştirilebilir (testte yerel stub sunucu).
+ */
+public interface SummaryClient {
+
+    String summarize(String transcript) throws SummaryException;
+}
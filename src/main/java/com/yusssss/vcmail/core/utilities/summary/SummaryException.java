@@ -0,0 +1,16 @@
+package com.yusssss.vcmail.core.utilities.summary;
+
+public class SummaryException extends Exception {
+
+    // false: istek tekrar denense de düzelmez (ör. 400, 401)
+    private final boolean retryable;
+
+    public SummaryException(String message, boolean retryable, Throwable cause) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -0,0 +1,56 @@
+package com.yusssss.vcmail.core.utilities.summary;
+
+/**
+ * Basit token bucket: dakikada ratePerMinute istek, en fazla burst kadar birikir.
+ * Hız çalışırken değiştirilebilir; birikmiş token'lar yeni burst'e kırpılır.
+ */
+public class TokenBucket {
+
+    private double tokensPerNano;
+    private double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(int ratePerMinute, int burst, long nowNanos) {
+        if (ratePerMinute <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.tokensPerNano = ratePerMinute / 60_000_000_000.0;
+        this.capacity = burst;
+        this.tokens = burst;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    public synchronized void setRate(int ratePerMinute, int burst, long nowNanos) {
+        if (ratePerMinute <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        // Geçen süre eski hızla sayılır
+        refill(nowNanos);
+        this.tokensPerNano = ratePerMinute / 60_000_000_000.0;
+        this.capacity = burst;
+        this.tokens = Math.min(tokens, capacity);
+    }
+
+    public synchronized int available(long nowNanos) {
+        refill(nowNanos);
+        return (int) tokens;
+    }
+
+    public synchronized boolean tryAcquire(long nowNanos) {
+        refill(nowNanos);
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
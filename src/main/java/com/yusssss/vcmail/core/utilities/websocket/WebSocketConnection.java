@@ -0,0 +1,203 @@
+package com.yusssss.vcmail.core.utilities.websocket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link WebSocketTransport} üzerindeki tek bir istemci bağlantısı.
+ * Sunucudan yeni mesaj ancak dinleyici bir öncekini bitirince istenir (request(1)); yavaş dinleyici
+ * TCP penceresini doldurur, diğer oturumları bekletmez. Gönderimler sırayla kuyruğa alınır.
+ */
+public class WebSocketConnection {
+
+    public static final int NEVER_CONNECTED = -1;
+    public static final int ABNORMAL_CLOSURE = 1006;
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final Logger logger = LoggerFactory.getLogger(WebSocketConnection.class);
+    private final HttpClient httpClient;
+    private final URI uri;
+    private final Duration connectTimeout;
+    private final WebSocketListener listener;
+    private final Executor deliveryExecutor;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+    private final CompletableFuture<Void> closed = new CompletableFuture<>();
+    private final AtomicBoolean closeNotified = new AtomicBoolean();
+
+    private volatile WebSocket webSocket;
+    private volatile boolean closeRequested;
+    // JDK aynı anda tek bekleyen metin gönderimine izin verir
+    private CompletableFuture<WebSocket> sendChain = CompletableFuture.completedFuture(null);
+    // Dinleyici çağrıları bağlantı başına sıralı
+    private final Object deliveryLock = new Object();
+    private CompletableFuture<Void> deliveryChain = CompletableFuture.completedFuture(null);
+
+    WebSocketConnection(HttpClient httpClient, URI uri, Duration connectTimeout,
+                        WebSocketListener listener, Executor deliveryExecutor) {
+        this.httpClient = httpClient;
+        this.uri = uri;
+        this.connectTimeout = connectTimeout;
+        this.listener = listener;
+        this.deliveryExecutor = deliveryExecutor;
+    }
+
+    public void addHeader(String name, String value) {
+        headers.put(name, value);
+    }
+
+    public void connect() {
+        WebSocket.Builder builder = httpClient.newWebSocketBuilder().connectTimeout(connectTimeout);
+        headers.forEach(builder::header);
+        builder.buildAsync(uri, new FrameListener())
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        fail(error.getCause() != null ? error.getCause() : error, NEVER_CONNECTED, false);
+                    }
+                });
+    }
+
+    public boolean isOpen() {
+        WebSocket current = webSocket;
+        return current != null && !closeNotified.get() && !current.isOutputClosed() && !current.isInputClosed();
+    }
+
+    public void send(String text) {
+        WebSocket current = requireOpen();
+        synchronized (this) {
+            // Önceki gönderim hata verdiyse bağlantı zaten kapanıyordur, zincir devam eder
+            sendChain = sendChain.handle((ignored, error) -> null)
+                    .thenCompose(ignored -> current.sendText(text, true));
+        }
+    }
+
+    public void sendPing() {
+        requireOpen().sendPing(EMPTY);
+    }
+
+    /**
+     * Kuyruktaki gönderimlerden sonra Close gönderir. Sunucu 5 saniyede yanıt vermezse bağlantı kesilir.
+     * Dönen future onClose çağrılınca tamamlanır.
+     */
+    public CompletableFuture<Void> close() {
+        closeRequested = true;
+        WebSocket current = webSocket;
+        if (current != null && !closeNotified.get()) {
+            synchronized (this) {
+                sendChain = sendChain.handle((ignored, error) -> null)
+                        .thenCompose(ignored -> current.sendClose(WebSocket.NORMAL_CLOSURE, ""));
+            }
+            CompletableFuture.delayedExecutor(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS).execute(() -> {
+                if (!closed.isDone()) {
+                    current.abort();
+                    notifyClosed(ABNORMAL_CLOSURE, "Close handshake timed out", false);
+                }
+            });
+        }
+        return closed.copy();
+    }
+
+    private WebSocket requireOpen() {
+        WebSocket current = webSocket;
+        if (current == null || !isOpen()) {
+            throw new IllegalStateException("WebSocket is not open: " + uri.getHost());
+        }
+        return current;
+    }
+
+    private CompletableFuture<Void> deliver(Runnable callback) {
+        synchronized (deliveryLock) {
+            deliveryChain = deliveryChain.thenRunAsync(() -> {
+                try {
+                    callback.run();
+                } catch (RuntimeException e) {
+                    logger.error("WebSocket listener failed ({})", uri.getHost(), e);
+                }
+            }, deliveryExecutor);
+            return deliveryChain;
+        }
+    }
+
+    private void notifyClosed(int code, String reason, boolean remote) {
+        if (closeNotified.compareAndSet(false, true)) {
+            deliver(() -> listener.onClose(code, reason, remote))
+                    .whenComplete((ignored, error) -> closed.complete(null));
+        }
+    }
+
+    // Hatadan sonra onClose da çağrılır; oturumlar temizliği orada yapar
+    private void fail(Throwable error, int code, boolean remote) {
+        deliver(() -> listener.onError(error));
+        notifyClosed(code, String.valueOf(error.getMessage()), remote);
+    }
+
+    private class FrameListener implements WebSocket.Listener {
+
+        // Parçalı metin mesajının önceki parçaları; JDK listener çağrılarını sıralı yapar
+        private final StringBuilder fragments = new StringBuilder();
+
+        @Override
+        public void onOpen(WebSocket ws) {
+            webSocket = ws;
+            if (closeRequested) {
+                ws.sendClose(WebSocket.NORMAL_CLOSURE, "");
+            }
+            deliver(listener::onOpen).whenComplete((ignored, error) -> ws.request(1));
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+            if (!last) {
+                fragments.append(data);
+                ws.request(1);
+                return null;
+            }
+            String message;
+            if (fragments.isEmpty()) {
+                // Tek frame'lik mesaj ara tampona kopyalanmaz
+                message = data.toString();
+            } else {
+                message = fragments.append(data).toString();
+                fragments.setLength(0);
+            }
+            // Dinleyici bitmeden sıradaki mesaj okunmaz
+            return deliver(() -> listener.onMessage(message))
+                    .whenComplete((ignored, error) -> ws.request(1));
+        }
+
+        @Override
+        public CompletionStage<?> onPong(WebSocket ws, ByteBuffer message) {
+            // Tur süresi ölçümüne executor gecikmesi eklenmesin
+            try {
+                listener.onPong();
+            } finally {
+                ws.request(1);
+            }
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket ws, int statusCode, String reason) {
+            notifyClosed(statusCode, reason, !closeRequested);
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket ws, Throwable error) {
+            fail(error, ABNORMAL_CLOSURE, true);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.yusssss.vcmail.core.utilities.websocket;
+
+/**
+ * Bir {@link WebSocketConnection}'ın olayları. Mesaj, açılış, kapanış ve hata olayları
+ * bağlantı başına sırayla, I/O thread'leri dışında çağrılır; bloklamak sadece o bağlantıyı yavaşlatır.
+ */
+public interface WebSocketListener {
+
+    default void onOpen() {
+    }
+
+    // Parçalı mesajlar birleştirilmiş olarak gelir
+    void onMessage(String message);
+
+    // I/O thread'inde çağrılır, hızlı dönmeli
+    default void onPong() {
+    }
+
+    void onClose(int code, String reason, boolean remote);
+
+    void onError(Throwable error);
+}
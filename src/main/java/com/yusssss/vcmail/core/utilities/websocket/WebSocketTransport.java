@@ -0,0 +1,55 @@
+package com.yusssss.vcmail.core.utilities.websocket;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tüm WebSocket oturumları (OpenAI realtime, ARI olayları) tek bir JDK HttpClient'ı paylaşır:
+ * tek selector thread'i ve birkaç I/O thread'i. Dinleyiciler callPathExecutor'da çalışır.
+ */
+@Component
+public class WebSocketTransport {
+
+    private final ExecutorService ioExecutor;
+    private final HttpClient httpClient;
+    private final ExecutorService deliveryExecutor;
+    private final Duration connectTimeout;
+
+    public WebSocketTransport(ExecutorService callPathExecutor,
+                              @Value("${websocket.io-threads:2}") int ioThreads,
+                              @Value("${websocket.connect-timeout:10s}") Duration connectTimeout) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.ioExecutor = Executors.newFixedThreadPool(ioThreads, r -> {
+            Thread thread = new Thread(r, "websocket-io-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .executor(ioExecutor)
+                .connectTimeout(connectTimeout)
+                .build();
+        this.deliveryExecutor = callPathExecutor;
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * Bağlantı nesnesini oluşturur; başlıklar eklendikten sonra {@link WebSocketConnection#connect()} çağrılmalı.
+     */
+    public WebSocketConnection newConnection(URI uri, WebSocketListener listener) {
+        return new WebSocketConnection(httpClient, uri, connectTimeout, listener, deliveryExecutor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        httpClient.shutdownNow();
+        ioExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,22 @@
+package com.yusssss.vcmail.dataAccess;
+
+import com.yusssss.vcmail.entities.Appointment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AppointmentDao extends JpaRepository<Appointment, String> {
+
+    @Query("SELECT a FROM Appointment a WHERE a.callerNumber = :callerNumber AND a.status = 'BOOKED' " +
+            "AND a.appointmentDate >= :from ORDER BY a.appointmentDate, a.startTime")
+    List<Appointment> findUpcoming(@Param("callerNumber") String callerNumber, @Param("from") LocalDate from);
+
+    Optional<Appointment> findFirstByCallerNumberOrderByCreatedAtDesc(String callerNumber);
+
+}
@@ -0,0 +1,15 @@
+package com.yusssss.vcmail.dataAccess;
+
+import com.yusssss.vcmail.entities.AppointmentDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AppointmentDayDao extends JpaRepository<AppointmentDay, LocalDate> {
+
+    List<AppointmentDay> findByAppointmentDateGreaterThanEqual(LocalDate from);
+
+}
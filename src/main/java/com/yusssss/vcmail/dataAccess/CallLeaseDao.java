@@ -0,0 +1,72 @@
+package com.yusssss.vcmail.dataAccess;
+
+import com.yusssss.vcmail.entities.CallLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Lease süreleri node saatleriyle değil veritabanının saatiyle (UTC) hesaplanır;
+ * node'lar arasındaki saat kayması erken devralmaya yol açmaz.
+ */
+@Repository
+public interface CallLeaseDao extends JpaRepository<CallLease, String> {
+
+    String DB_NOW = "(now() AT TIME ZONE 'UTC')";
+    String EXPIRES_AT = "(now() AT TIME ZONE 'UTC') + :ttlSeconds * INTERVAL '1 second'";
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO call_leases (channel_id, owner_node_id, owner_rtp_host, caller_number, lease_expires_at) " +
+            "VALUES (:channelId, :nodeId, :rtpHost, :callerNumber, " + EXPIRES_AT + ") ON CONFLICT (channel_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("channelId") String channelId,
+                       @Param("nodeId") String nodeId,
+                       @Param("rtpHost") String rtpHost,
+                       @Param("callerNumber") String callerNumber,
+                       @Param("ttlSeconds") long ttlSeconds);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CallLease l SET l.conversationId = :conversationId, l.bridgeId = :bridgeId, l.mediaChannelId = :mediaChannelId " +
+            "WHERE l.channelId = :channelId AND l.ownerNodeId = :nodeId")
+    int attachCall(@Param("channelId") String channelId,
+                   @Param("nodeId") String nodeId,
+                   @Param("conversationId") String conversationId,
+                   @Param("bridgeId") String bridgeId,
+                   @Param("mediaChannelId") String mediaChannelId);
+
+    // Sadece hâlâ bu node'a ait olan satırlar uzatılır; dönen liste gerçekten tutulan channel'lardır
+    @Transactional
+    @Query(value = "UPDATE call_leases SET lease_expires_at = " + EXPIRES_AT + " WHERE owner_node_id = :nodeId " +
+            "RETURNING channel_id", nativeQuery = true)
+    List<String> renewLeases(@Param("nodeId") String nodeId, @Param("ttlSeconds") long ttlSeconds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE call_leases SET owner_node_id = :nodeId, owner_rtp_host = :rtpHost, lease_expires_at = " + EXPIRES_AT +
+            " WHERE channel_id = :channelId AND lease_expires_at < " + DB_NOW, nativeQuery = true)
+    int takeOverExpired(@Param("channelId") String channelId,
+                        @Param("nodeId") String nodeId,
+                        @Param("rtpHost") String rtpHost,
+                        @Param("ttlSeconds") long ttlSeconds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE call_leases SET lease_expires_at = " + DB_NOW + " WHERE owner_node_id = :nodeId", nativeQuery = true)
+    int expireLeases(@Param("nodeId") String nodeId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CallLease l WHERE l.channelId = :channelId AND l.ownerNodeId = :nodeId")
+    int deleteOwned(@Param("channelId") String channelId, @Param("nodeId") String nodeId);
+
+    @Query(value = "SELECT * FROM call_leases WHERE lease_expires_at < " + DB_NOW, nativeQuery = true)
+    List<CallLease> findExpired();
+
+}
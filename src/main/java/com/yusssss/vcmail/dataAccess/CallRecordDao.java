@@ -0,0 +1,14 @@
+package com.yusssss.vcmail.dataAccess;
+
+import com.yusssss.vcmail.entities.CallRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CallRecordDao extends JpaRepository<CallRecord, String> {
+
+    Optional<CallRecord> findByConversationId(String conversationId);
+
+}
@@ -1,9 +1,36 @@
 package com.yusssss.vcmail.dataAccess;
 
 import com.yusssss.vcmail.entities.Conversation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
-public interface ConversationDao extends JpaRepository<Conversation, String> {
+public interface ConversationDao extends JpaRepository<Conversation, String>, ConversationDaoCustom {
+
+    @Modifying
+    @Query("UPDATE Conversation c SET c.status = :status, c.endTime = :endTime, " +
+            "c.audioRecordingUrl = COALESCE(:audioRecordingUrl, c.audioRecordingUrl) WHERE c.id = :conversationId")
+    int finish(@Param("conversationId") String conversationId,
+               @Param("status") String status,
+               @Param("endTime") LocalDateTime endTime,
+               @Param("audioRecordingUrl") String audioRecordingUrl);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Conversation c SET c.summary = :summary WHERE c.id = :conversationId")
+    int updateSummary(@Param("conversationId") String conversationId, @Param("summary") String summary);
+
+    List<Conversation> findByCallerPhoneNumberOrderByStartTimeDesc(String callerPhoneNumber, Pageable pageable);
+
+    @Query("SELECT c.id FROM Conversation c WHERE c.endTime >= :since")
+    List<String> findIdsEndedSince(@Param("since") LocalDateTime since);
+
 }
@@ -0,0 +1,15 @@
+package com.yusssss.vcmail.dataAccess;
+
+import com.yusssss.vcmail.entities.dtos.ConversationFilter;
+import com.yusssss.vcmail.entities.dtos.ConversationSummaryDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ConversationDaoCustom {
+
+    List<ConversationSummaryDto> findSummariesAfter(ConversationFilter filter,
+                                                    LocalDateTime cursorStartTime,
+                                                    String cursorId,
+                                                    int limit);
+}
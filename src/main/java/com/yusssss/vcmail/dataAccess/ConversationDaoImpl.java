@@ -0,0 +1,69 @@
+package com.yusssss.vcmail.dataAccess;
+
+import com.yusssss.vcmail.entities.dtos.ConversationFilter;
+import com.yusssss.vcmail.entities.dtos.ConversationSummaryDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keyset (seek) pagination over (start_time, id), newest first. Only the filters
+ * that are present end up in the query so the planner can use the matching index.
+ */
+public class ConversationDaoImpl implements ConversationDaoCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ConversationSummaryDto> findSummariesAfter(ConversationFilter filter,
+                                                           LocalDateTime cursorStartTime,
+                                                           String cursorId,
+                                                           int limit) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT new com.yusssss.vcmail.entities.dtos.ConversationSummaryDto(" +
+                        "c.id, c.callerPhoneNumber, c.startTime, c.endTime, c.status, c.audioRecordingUrl) " +
+                        "FROM Conversation c WHERE 1 = 1");
+
+        if (filter.getStatus() != null) {
+            jpql.append(" AND c.status = :status");
+        }
+        if (filter.getCallerPhoneNumber() != null) {
+            jpql.append(" AND c.callerPhoneNumber = :callerPhoneNumber");
+        }
+        if (filter.getFrom() != null) {
+            jpql.append(" AND c.startTime >= :from");
+        }
+        if (filter.getTo() != null) {
+            jpql.append(" AND c.startTime < :to");
+        }
+        if (cursorStartTime != null) {
+            jpql.append(" AND (c.startTime < :cursorStartTime OR (c.startTime = :cursorStartTime AND c.id < :cursorId))");
+        }
+        jpql.append(" ORDER BY c.startTime DESC, c.id DESC");
+
+        TypedQuery<ConversationSummaryDto> query = entityManager.createQuery(jpql.toString(), ConversationSummaryDto.class);
+
+        if (filter.getStatus() != null) {
+            query.setParameter("status", filter.getStatus());
+        }
+        if (filter.getCallerPhoneNumber() != null) {
+            query.setParameter("callerPhoneNumber", filter.getCallerPhoneNumber());
+        }
+        if (filter.getFrom() != null) {
+            query.setParameter("from", filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            query.setParameter("to", filter.getTo());
+        }
+        if (cursorStartTime != null) {
+            query.setParameter("cursorStartTime", cursorStartTime);
+            query.setParameter("cursorId", cursorId);
+        }
+
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -1,13 +1,25 @@
 package com.yusssss.vcmail.dataAccess;
 
 import com.yusssss.vcmail.entities.Message;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface MessageDao extends JpaRepository<Message, String> {
     List<Message> findByConversation_IdOrderBySequenceIndexAsc(String conversartionId);
 
+    @Query("SELECT COALESCE(MAX(m.sequenceIndex), -1) FROM Message m WHERE m.conversation.id = :conversationId")
+    int findMaxSequenceIndex(@Param("conversationId") String conversationId);
+
+    // Keyset sayfalama: bir önceki sayfanın son id'sinden devam eder, OFFSET taraması yok
+    List<Message> findByIdGreaterThanOrderByIdAsc(String afterId, Limit limit);
+
+    List<Message> findByConversation_IdIn(Collection<String> conversationIds);
+
 }
@@ -0,0 +1,64 @@
+package com.yusssss.vcmail.dataAccess;
+
+import com.yusssss.vcmail.entities.SummaryJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SummaryJobDao extends JpaRepository<SummaryJob, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO summary_jobs (conversation_id, status, attempts, next_attempt_at, created_at, updated_at) " +
+            "VALUES (:conversationId, 'PENDING', 0, :now, :now, :now) ON CONFLICT (conversation_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("conversationId") String conversationId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT j.conversationId FROM SummaryJob j WHERE j.status = 'PENDING' AND j.nextAttemptAt <= :now " +
+            "ORDER BY j.nextAttemptAt")
+    List<String> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Node'lar aynı işi yarışarak alır, sadece biri 1 satır günceller
+    @Modifying
+    @Transactional
+    @Query("UPDATE SummaryJob j SET j.status = 'RUNNING', j.ownerNodeId = :nodeId, j.updatedAt = :now " +
+            "WHERE j.conversationId = :conversationId AND j.status = 'PENDING'")
+    int claim(@Param("conversationId") String conversationId,
+              @Param("nodeId") String nodeId,
+              @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SummaryJob j SET j.status = :status, j.attempts = :attempts, j.nextAttemptAt = :nextAttemptAt, " +
+            "j.lastError = :lastError, j.updatedAt = :now WHERE j.conversationId = :conversationId")
+    int complete(@Param("conversationId") String conversationId,
+                 @Param("status") String status,
+                 @Param("attempts") int attempts,
+                 @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                 @Param("lastError") String lastError,
+                 @Param("now") LocalDateTime now);
+
+    // Çalışırken ölen node'un işleri tekrar kuyruğa döner
+    @Modifying
+    @Transactional
+    @Query("UPDATE SummaryJob j SET j.status = 'PENDING', j.ownerNodeId = null, j.updatedAt = :now " +
+            "WHERE j.status = 'RUNNING' AND j.updatedAt < :staleBefore")
+    int requeueStale(@Param("staleBefore") LocalDateTime staleBefore, @Param("now") LocalDateTime now);
+
+    // Açılışta: bu node'un yeniden başlamadan önce yarım bıraktığı işler
+    @Modifying
+    @Transactional
+    @Query("UPDATE SummaryJob j SET j.status = 'PENDING', j.ownerNodeId = null, j.updatedAt = :now " +
+            "WHERE j.status = 'RUNNING' AND j.ownerNodeId = :nodeId")
+    int requeueOwned(@Param("nodeId") String nodeId, @Param("now") LocalDateTime now);
+
+    long countByStatus(String status);
+
+}
@@ -0,0 +1,32 @@
+package com.yusssss.vcmail.dataAccess;
+
+import com.yusssss.vcmail.entities.SummaryNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Özet worker'larının canlılık kaydı. Zamanlar lease tablosundaki gibi veritabanının saatiyle tutulur.
+ */
+@Repository
+public interface SummaryNodeDao extends JpaRepository<SummaryNode, String> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO summary_nodes (node_id, last_seen_at) VALUES (:nodeId, " + CallLeaseDao.DB_NOW + ") " +
+            "ON CONFLICT (node_id) DO UPDATE SET last_seen_at = " + CallLeaseDao.DB_NOW, nativeQuery = true)
+    int heartbeat(@Param("nodeId") String nodeId);
+
+    @Query(value = "SELECT count(*) FROM summary_nodes WHERE last_seen_at > " + CallLeaseDao.DB_NOW +
+            " - :ttlSeconds * INTERVAL '1 second'", nativeQuery = true)
+    long countAlive(@Param("ttlSeconds") long ttlSeconds);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SummaryNode n WHERE n.nodeId = :nodeId")
+    int deleteNode(@Param("nodeId") String nodeId);
+
+}
@@ -0,0 +1,57 @@
+package com.yusssss.vcmail.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "appointments", indexes = {
+        @Index(name = "idx_appointments_date_slot", columnList = "appointment_date, slot_index"),
+        @Index(name = "idx_appointments_caller", columnList = "caller_number, appointment_date")
+})
+public class Appointment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id")
+    private String id;
+
+    @Column(name = "conversation_id")
+    private String conversationId;
+
+    @Column(name = "caller_name")
+    private String callerName;
+
+    @Column(name = "caller_number")
+    private String callerNumber;
+
+    @Column(name = "purpose", columnDefinition = "TEXT")
+    private String purpose;
+
+    @Column(name = "appointment_date", nullable = false)
+    private LocalDate appointmentDate;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "slot_index", nullable = false)
+    private int slotIndex;
+
+    // BOOKED, CANCELLED
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,35 @@
+package com.yusssss.vcmail.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Bir günün dolu slot bitmap'i. Aynı güne yapılan her rezervasyon bu satırın sürümünü
+ * artırır; iki node aynı anda yazarsa ikincisi optimistic lock hatası alır.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "appointment_days")
+public class AppointmentDay {
+
+    @Id
+    @Column(name = "appointment_date")
+    private LocalDate appointmentDate;
+
+    // Bit i = slot i dolu (little endian, byte başına 8 slot)
+    @Column(name = "booked_slots", nullable = false)
+    private byte[] bookedSlots;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+}
@@ -0,0 +1,48 @@
+package com.yusssss.vcmail.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "call_leases", indexes = {
+        @Index(name = "idx_call_leases_owner", columnList = "owner_node_id"),
+        @Index(name = "idx_call_leases_expires", columnList = "lease_expires_at")
+})
+public class CallLease {
+
+    // Asterisk caller channel id, nodes race to insert this row
+    @Id
+    @Column(name = "channel_id")
+    private String channelId;
+
+    @Column(name = "owner_node_id", nullable = false)
+    private String ownerNodeId;
+
+    @Column(name = "owner_rtp_host")
+    private String ownerRtpHost;
+
+    @Column(name = "caller_number")
+    private String callerNumber;
+
+    @Column(name = "conversation_id")
+    private String conversationId;
+
+    @Column(name = "bridge_id")
+    private String bridgeId;
+
+    @Column(name = "media_channel_id")
+    private String mediaChannelId;
+
+    @Column(name = "lease_expires_at", nullable = false)
+    private LocalDateTime leaseExpiresAt;
+
+}
@@ -0,0 +1,94 @@
+package com.yusssss.vcmail.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "call_records", indexes = {
+        @Index(name = "idx_call_records_start_time", columnList = "start_time")
+})
+public class CallRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id")
+    private String id;
+
+    @Column(name = "conversation_id", nullable = false, unique = true)
+    private String conversationId;
+
+    @Column(name = "node_id")
+    private String nodeId;
+
+    @Column(name = "caller_number")
+    private String callerNumber;
+
+    @Column(name = "start_time")
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time")
+    private LocalDateTime endTime;
+
+    @Column(name = "duration_ms")
+    private long durationMs;
+
+    @Column(name = "end_status")
+    private String endStatus;
+
+    @Column(name = "setup_time_ms")
+    private Long setupTimeMs;
+
+    @Column(name = "time_to_first_audio_ms")
+    private Long timeToFirstAudioMs;
+
+    @Column(name = "turn_count")
+    private int turnCount;
+
+    @Column(name = "response_latency_p50_ms")
+    private Long responseLatencyP50Ms;
+
+    @Column(name = "response_latency_p90_ms")
+    private Long responseLatencyP90Ms;
+
+    @Column(name = "response_latency_max_ms")
+    private Long responseLatencyMaxMs;
+
+    @Column(name = "rtp_packets_received")
+    private long rtpPacketsReceived;
+
+    @Column(name = "rtp_packets_lost")
+    private long rtpPacketsLost;
+
+    @Column(name = "rtp_jitter_ms")
+    private double rtpJitterMs;
+
+    @Column(name = "bytes_to_openai")
+    private long bytesToOpenAi;
+
+    @Column(name = "bytes_from_openai")
+    private long bytesFromOpenAi;
+
+    @Column(name = "tool_call_count")
+    private int toolCallCount;
+
+    @Column(name = "tool_call_total_ms")
+    private long toolCallTotalMs;
+
+    @Column(name = "tool_call_max_ms")
+    private long toolCallMaxMs;
+
+    // Çağrı başka bir node'dan devralındı: süre conversation başından ölçülür,
+    // kurulum/ilk ses süreleri boştur ve sayaçlar sadece bu node'un kısmını kapsar
+    @Column(name = "taken_over")
+    private boolean takenOver;
+
+}
@@ -1,5 +1,6 @@
 package com.yusssss.vcmail.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -15,7 +16,11 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "conversations")
+@Table(name = "conversations", indexes = {
+        @Index(name = "idx_conversations_start_time_id", columnList = "start_time, id"),
+        @Index(name = "idx_conversations_status_start_time", columnList = "status, start_time, id"),
+        @Index(name = "idx_conversations_caller_start_time", columnList = "caller_phone_number, start_time, id")
+})
 public class Conversation {
 
     @Id
@@ -35,7 +40,9 @@ public class Conversation {
     @Column(name = "status")
     private String status;
 
-    @OneToMany(mappedBy = "conversation", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    // Mesajlar kendi endpoint'inden okunur: /api/conversations/{id}/messages
+    @JsonIgnore
+    @OneToMany(mappedBy = "conversation", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Message> messages = new ArrayList<>();
 
     @Column(name = "audio_recording_url")
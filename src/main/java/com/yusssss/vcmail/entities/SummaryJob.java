@@ -0,0 +1,48 @@
+package com.yusssss.vcmail.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "summary_jobs", indexes = {
+        @Index(name = "idx_summary_jobs_status_next", columnList = "status, next_attempt_at")
+})
+public class SummaryJob {
+
+    // Görüşme başına tek iş, görüşme kapanırken aynı transaction'da eklenir
+    @Id
+    @Column(name = "conversation_id")
+    private String conversationId;
+
+    // PENDING, RUNNING, DONE, FAILED
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "owner_node_id")
+    private String ownerNodeId;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+}
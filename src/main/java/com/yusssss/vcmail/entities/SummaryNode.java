@@ -0,0 +1,27 @@
+package com.yusssss.vcmail.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "summary_nodes")
+public class SummaryNode {
+
+    // Özet worker'ı çalışan node; rate limit payı canlı satır sayısına göre bölünür
+    @Id
+    @Column(name = "node_id")
+    private String nodeId;
+
+    @Column(name = "last_seen_at", nullable = false)
+    private LocalDateTime lastSeenAt;
+
+}
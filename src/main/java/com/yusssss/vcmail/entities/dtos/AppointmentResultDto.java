@@ -0,0 +1,27 @@
+package com.yusssss.vcmail.entities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AppointmentResultDto {
+
+    // BOOKED, UNAVAILABLE, INVALID
+    private String status;
+
+    private String appointmentId;
+
+    private LocalDateTime startTime;
+
+    // Dolu veya geçersiz istekte en yakın boş slotlar
+    private List<LocalDateTime> alternatives;
+
+}
@@ -0,0 +1,29 @@
+package com.yusssss.vcmail.entities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CallHealthDto {
+
+    private String channelId;
+
+    private String callerNumber;
+
+    private long packetsReceived;
+
+    private long packetsLost;
+
+    private double jitterMs;
+
+    private double egressLagMs;
+
+    // Ping/pong ölçülemediyse null
+    private Double openAiRttMs;
+
+}
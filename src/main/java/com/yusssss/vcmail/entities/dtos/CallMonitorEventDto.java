@@ -0,0 +1,25 @@
+package com.yusssss.vcmail.entities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CallMonitorEventDto {
+
+    // CALL_STARTED, CALL_ENDED, TRANSCRIPT_TURN, TOOL_CALL, CALL_HEALTH
+    private String type;
+
+    private String conversationId;
+
+    private LocalDateTime timestamp;
+
+    private Object data;
+
+}
@@ -0,0 +1,33 @@
+package com.yusssss.vcmail.entities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CallerProfileDto {
+
+    // Normalize edilmiş numara, cache anahtarı
+    private String phoneNumber;
+
+    // Son randevudaki ad, bilinmiyorsa null
+    private String callerName;
+
+    private List<ConversationSummaryDto> recentConversations;
+
+    private List<LocalDateTime> upcomingAppointments;
+
+    private String lastSummary;
+
+    public boolean isKnownCaller() {
+        return callerName != null || !recentConversations.isEmpty() || !upcomingAppointments.isEmpty();
+    }
+
+}
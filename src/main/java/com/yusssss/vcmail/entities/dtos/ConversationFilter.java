@@ -0,0 +1,24 @@
+package com.yusssss.vcmail.entities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConversationFilter {
+
+    private String status;
+
+    private String callerPhoneNumber;
+
+    private LocalDateTime from;
+
+    private LocalDateTime to;
+
+}
@@ -0,0 +1,21 @@
+package com.yusssss.vcmail.entities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConversationPageDto {
+
+    private List<ConversationSummaryDto> items;
+
+    // Bir sonraki sayfa için opak cursor, son sayfada null
+    private String nextCursor;
+
+}
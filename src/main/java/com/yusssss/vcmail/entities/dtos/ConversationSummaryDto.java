@@ -0,0 +1,28 @@
+package com.yusssss.vcmail.entities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConversationSummaryDto {
+
+    private String id;
+
+    private String callerPhoneNumber;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+
+    private String status;
+
+    private String audioRecordingUrl;
+
+}
@@ -0,0 +1,25 @@
+package com.yusssss.vcmail.entities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class LatencyReportDto {
+
+    // Node geneli raporda null
+    private String conversationId;
+
+    private int turnCount;
+
+    private List<StageLatencyDto> stages;
+
+    private List<TurnLatencyDto> turns;
+
+}
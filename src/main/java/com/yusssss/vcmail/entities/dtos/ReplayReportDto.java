@@ -0,0 +1,49 @@
+package com.yusssss.vcmail.entities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReplayReportDto {
+
+    private String file;
+
+    private String mode;
+
+    private String codec;
+
+    private long audioMs;
+
+    private long packetsSent;
+
+    private long packetsDropped;
+
+    private Long packetsLost;
+
+    private Double jitterMs;
+
+    private double wallMs;
+
+    // Tek thread'de çalıştığından aşama süreleri CPU süresine denktir
+    private Double cpuMs;
+
+    // Ses süresi / işlem süresi
+    private double realTimeFactor;
+
+    private Long outputBytes;
+
+    // Aynı kayıt ve ayarlarla değişmemeli; değiştiyse zincirin çıktısı değişmiştir
+    private String outputCrc32;
+
+    private Double maxSendLatenessMs;
+
+    private List<StageLatencyDto> stages;
+
+}
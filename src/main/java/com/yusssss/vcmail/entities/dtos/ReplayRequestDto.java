@@ -0,0 +1,39 @@
+package com.yusssss.vcmail.entities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReplayRequestDto {
+
+    // Kayıt dizininde glob, alt dizin içeremez; stereo call_ ve eski user_audio kayıtları
+    private String files = "{call_,user_audio_}*.wav";
+
+    // pipeline: bu instance'ın zincirinde sanal saatle, rtp: host:port'a UDP ile
+    private String mode = "pipeline";
+
+    // Sadece loopback veya replay.rtp.allowed-hosts
+    private String host = "127.0.0.1";
+
+    private Integer port;
+
+    // Sadece rtp modunda; 1 gerçek zaman, 0 beklemeden
+    private double speed = 1.0;
+
+    private double jitterMs;
+
+    private double lossPercent;
+
+    private long seed = 1;
+
+    // Boşsa yapılandırmadaki varsayılanlar
+    private String audioFormat;
+
+    private Boolean noiseSuppression;
+
+}
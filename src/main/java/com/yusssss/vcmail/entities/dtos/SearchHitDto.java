@@ -0,0 +1,23 @@
+package com.yusssss.vcmail.entities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchHitDto {
+
+    private String conversationId;
+
+    private float score;
+
+    // Eşleşen kelimeler <b>...</b> ile işaretli
+    private List<String> snippets;
+
+}
@@ -0,0 +1,26 @@
+package com.yusssss.vcmail.entities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class StageLatencyDto {
+
+    private String stage;
+
+    private int count;
+
+    private Double p50Ms;
+
+    private Double p90Ms;
+
+    private Double p99Ms;
+
+    private Double maxMs;
+
+}
@@ -0,0 +1,27 @@
+package com.yusssss.vcmail.entities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TranscriptTurnDto {
+
+    private int sequenceIndex;
+
+    private String speaker;
+
+    private String text;
+
+    private LocalDateTime timestamp;
+
+    // false: tur hâlâ konuşuluyor, metin parça parça geliyor
+    private boolean completed;
+
+}
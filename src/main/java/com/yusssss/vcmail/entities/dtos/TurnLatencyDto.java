@@ -0,0 +1,28 @@
+package com.yusssss.vcmail.entities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TurnLatencyDto {
+
+    private String conversationId;
+
+    private LocalDateTime completedAt;
+
+    private Double speechStoppedToResponseCreatedMs;
+
+    private Double responseCreatedToFirstAudioMs;
+
+    private double firstAudioToFirstRtpMs;
+
+    private double totalMs;
+
+}
@@ -0,0 +1,28 @@
+package com.yusssss.vcmail.webAPI;
+
+import com.yusssss.vcmail.business.abstracts.CallMonitorService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/monitor")
+public class CallMonitorController {
+
+    private final CallMonitorService callMonitorService;
+
+
+    public CallMonitorController(CallMonitorService callMonitorService) {
+        this.callMonitorService = callMonitorService;
+    }
+
+    // Canlı çağrı olayları: CALL_STARTED, CALL_ENDED, TRANSCRIPT_TURN, TOOL_CALL, CALL_HEALTH
+    @GetMapping(value = "/calls", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCallEvents() {
+
+        return callMonitorService.subscribe();
+
+    }
+}
@@ -1,14 +1,32 @@
 package com.yusssss.vcmail.webAPI;
 
+import com.yusssss.vcmail.business.abstracts.ConversationCacheService;
 import com.yusssss.vcmail.business.abstracts.ConversationService;
+import com.yusssss.vcmail.business.abstracts.LatencyService;
 import com.yusssss.vcmail.business.abstracts.MessageService;
+import com.yusssss.vcmail.business.abstracts.RecordingService;
+import com.yusssss.vcmail.business.abstracts.SearchService;
+import com.yusssss.vcmail.business.abstracts.TranscriptService;
 import com.yusssss.vcmail.core.utilities.results.SuccessDataResult;
 import com.yusssss.vcmail.entities.Conversation;
 import com.yusssss.vcmail.entities.Message;
+import com.yusssss.vcmail.entities.dtos.CacheStatsDto;
+import com.yusssss.vcmail.entities.dtos.ConversationFilter;
+import com.yusssss.vcmail.entities.dtos.ConversationPageDto;
+import com.yusssss.vcmail.entities.dtos.LatencyReportDto;
+import com.yusssss.vcmail.entities.dtos.SearchHitDto;
+import com.yusssss.vcmail.entities.dtos.TranscriptTurnDto;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -17,27 +35,106 @@ public class ConversationController {
 
     private final ConversationService conversationService;
     private final MessageService messageService;
-
-
-    public ConversationController(ConversationService conversationService, MessageService messageService) {
+    private final TranscriptService transcriptService;
+    private final SearchService searchService;
+    private final ConversationCacheService conversationCacheService;
+    private final RecordingService recordingService;
+    private final LatencyService latencyService;
+
+    private static final MediaType AUDIO_WAV = MediaType.parseMediaType("audio/wav");
+
+    public ConversationController(ConversationService conversationService, MessageService messageService,
+                                  TranscriptService transcriptService, SearchService searchService,
+                                  ConversationCacheService conversationCacheService, RecordingService recordingService,
+                                  LatencyService latencyService) {
         this.conversationService = conversationService;
         this.messageService = messageService;
+        this.transcriptService = transcriptService;
+        this.searchService = searchService;
+        this.conversationCacheService = conversationCacheService;
+        this.recordingService = recordingService;
+        this.latencyService = latencyService;
     }
 
     @GetMapping
-    public ResponseEntity<SuccessDataResult<List<Conversation>>> getAllConversations() {
+    public ResponseEntity<SuccessDataResult<ConversationPageDto>> listConversations(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String callerNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
 
-        List<Conversation> conversations = conversationService.getAllConversations();
+        ConversationFilter filter = new ConversationFilter(status, callerNumber, from, to);
+        ConversationPageDto page = conversationService.listConversations(filter, cursor, limit);
 
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(new SuccessDataResult<>(conversations,
+                .body(new SuccessDataResult<>(page,
                         "Conversations fetched successfully",
                         HttpStatus.OK));
 
     }
 
 
+    @GetMapping("/search")
+    public ResponseEntity<SuccessDataResult<List<SearchHitDto>>> searchConversations(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        List<SearchHitDto> hits = searchService.searchConversations(query, limit);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(new SuccessDataResult<>(hits,
+                        "Search completed successfully",
+                        HttpStatus.OK));
+
+    }
+
+
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<SuccessDataResult<Boolean>> rebuildSearchIndex() {
+
+        boolean started = searchService.rebuildIndex();
+
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(new SuccessDataResult<>(started,
+                        started ? "Search index rebuild started" : "Search index rebuild already running",
+                        HttpStatus.ACCEPTED));
+
+    }
+
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<SuccessDataResult<List<CacheStatsDto>>> getCacheStats() {
+
+        List<CacheStatsDto> stats = conversationCacheService.getStats();
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(new SuccessDataResult<>(stats,
+                        "Cache stats fetched successfully",
+                        HttpStatus.OK));
+
+    }
+
+
+    @GetMapping("/latency")
+    public ResponseEntity<SuccessDataResult<LatencyReportDto>> getFleetLatency() {
+
+        LatencyReportDto report = latencyService.getFleetReport();
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(new SuccessDataResult<>(report,
+                        "Turn latency report fetched successfully",
+                        HttpStatus.OK));
+
+    }
+
+
     @GetMapping("/{conversationId}")
     public ResponseEntity<SuccessDataResult<Conversation>> getConversationById(@PathVariable String conversationId) {
 
@@ -66,6 +163,71 @@ public class ConversationController {
     }
 
 
+    @GetMapping("/{conversationId}/latency")
+    public ResponseEntity<SuccessDataResult<LatencyReportDto>> getCallLatency(@PathVariable String conversationId) {
+
+        LatencyReportDto report = latencyService.getCallReport(conversationId);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(new SuccessDataResult<>(report,
+                        "Turn latency report fetched successfully",
+                        HttpStatus.OK));
+
+    }
+
+
+    @GetMapping("/{conversationId}/transcript")
+    public ResponseEntity<SuccessDataResult<List<TranscriptTurnDto>>> getTranscript(@PathVariable String conversationId) {
+
+        List<TranscriptTurnDto> transcript = transcriptService.getTranscript(conversationId);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(new SuccessDataResult<>(transcript,
+                        "Transcript fetched successfully",
+                        HttpStatus.OK));
+
+    }
+
+
+    // Range istekleri Spring tarafından ResourceRegion olarak akıtılır, dosya heap'e alınmaz.
+    // ETag/Last-Modified eşleşirse 304 döner
+    @GetMapping("/{conversationId}/recording")
+    public ResponseEntity<Resource> getRecording(@PathVariable String conversationId) throws IOException {
+
+        Resource recording = recordingService.getRecording(conversationId);
+        long lastModified = recording.lastModified();
+        String etag = Long.toHexString(recording.contentLength()) + "-" + Long.toHexString(lastModified);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(AUDIO_WAV)
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(CacheControl.noCache())
+                .body(recording);
+
+    }
+
+
+    @GetMapping("/{conversationId}/recording/preview")
+    public ResponseEntity<StreamingResponseBody> getRecordingPreview(@PathVariable String conversationId,
+                                                                     @RequestParam(defaultValue = "8000") int sampleRate) {
+
+        // Kayıt yoksa akış başlamadan 404
+        recordingService.getRecording(conversationId);
+
+        StreamingResponseBody body = outputStream -> recordingService.writePreview(conversationId, sampleRate, outputStream);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(AUDIO_WAV)
+                .body(body);
+
+    }
+
+
     @PostMapping("/start")
     public ResponseEntity<SuccessDataResult<Conversation>> startConversation() {
 
@@ -0,0 +1,40 @@
+package com.yusssss.vcmail.webAPI;
+
+import com.yusssss.vcmail.business.abstracts.ReplayService;
+import com.yusssss.vcmail.core.utilities.results.SuccessDataResult;
+import com.yusssss.vcmail.entities.dtos.ReplayReportDto;
+import com.yusssss.vcmail.entities.dtos.ReplayRequestDto;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/replay")
+public class ReplayController {
+
+    private final ReplayService replayService;
+
+
+    public ReplayController(ReplayService replayService) {
+        this.replayService = replayService;
+    }
+
+    // Kayıtlar sırayla oynatılır, rapor hepsi bitince döner. rtp modunda speed 1 ile kayıt süresi kadar sürer
+    @PostMapping
+    public ResponseEntity<SuccessDataResult<List<ReplayReportDto>>> replay(@RequestBody ReplayRequestDto request) {
+
+        List<ReplayReportDto> reports = replayService.replay(request);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(new SuccessDataResult<>(reports,
+                        "Recordings replayed successfully",
+                        HttpStatus.OK));
+
+    }
+}
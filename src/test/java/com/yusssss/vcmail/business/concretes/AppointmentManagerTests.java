@@ -0,0 +1,95 @@
+package com.yusssss.vcmail.business.concretes;
+
+import com.yusssss.vcmail.core.utilities.appointment.AppointmentSlotIndex;
+import com.yusssss.vcmail.dataAccess.AppointmentDao;
+import com.yusssss.vcmail.dataAccess.AppointmentDayDao;
+import com.yusssss.vcmail.entities.Appointment;
+import com.yusssss.vcmail.entities.AppointmentDay;
+import com.yusssss.vcmail.entities.dtos.AppointmentResultDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Eşzamanlı yazım DAO'dan fırlatılan hatalarla taklit edilir; işlem yöneticisi mock
+class AppointmentManagerTests {
+
+	// 09:00'dan 30 dakikalık slotlar: 10:00 -> 2, 10:30 -> 3
+	private static final LocalTime REQUESTED = LocalTime.of(10, 0);
+	private static final int REQUESTED_SLOT = 2;
+	private static final int NEIGHBOUR_SLOT = 3;
+
+	private final LocalDate date = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.next(DayOfWeek.TUESDAY));
+	private AppointmentDao appointmentDao;
+	private AppointmentDayDao appointmentDayDao;
+	private AppointmentManager appointmentManager;
+
+	@BeforeEach
+	void setUp() {
+		appointmentDao = mock(AppointmentDao.class);
+		appointmentDayDao = mock(AppointmentDayDao.class);
+		appointmentManager = new AppointmentManager(appointmentDao, appointmentDayDao, mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(appointmentManager, "openTime", "09:00");
+		ReflectionTestUtils.setField(appointmentManager, "closeTime", "18:00");
+		ReflectionTestUtils.setField(appointmentManager, "slotMinutes", 30);
+		ReflectionTestUtils.setField(appointmentManager, "workingDays", new String[]{"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY"});
+		ReflectionTestUtils.setField(appointmentManager, "horizonDays", 60);
+		ReflectionTestUtils.setField(appointmentManager, "alternativeCount", 3);
+		when(appointmentDayDao.findByAppointmentDateGreaterThanEqual(any())).thenReturn(List.of());
+		appointmentManager.loadIndex();
+
+		when(appointmentDao.save(any(Appointment.class))).thenAnswer(invocation -> {
+			Appointment appointment = invocation.getArgument(0);
+			appointment.setId("a1");
+			return appointment;
+		});
+	}
+
+	@Test
+	void optimisticLockFailureIsRetriedAndBooksWhenSlotIsStillFree() {
+		// Başka bir çağrı aynı güne komşu slotu yazdı
+		AppointmentDay concurrent = new AppointmentDay(date, AppointmentSlotIndex.setBit(new byte[0], NEIGHBOUR_SLOT), 1L);
+		when(appointmentDayDao.findById(date)).thenReturn(Optional.empty(), Optional.of(concurrent));
+		when(appointmentDayDao.saveAndFlush(any()))
+				.thenThrow(new OptimisticLockingFailureException("version changed"))
+				.thenAnswer(invocation -> invocation.getArgument(0));
+
+		AppointmentResultDto result = appointmentManager.bookAppointment("c1", "Ayşe", "905551112233", "kontrol", date, REQUESTED);
+
+		assertEquals("BOOKED", result.getStatus());
+		assertEquals("a1", result.getAppointmentId());
+		verify(appointmentDayDao, times(2)).saveAndFlush(any());
+		// Komşu slot da index'e yansıdı, artık alternatif olarak önerilmez
+		assertFalse(appointmentManager.findAvailableSlots(date, REQUESTED, 3).contains(date.atTime(10, 30)));
+	}
+
+	@Test
+	void concurrentInsertOfTheSameSlotReturnsUnavailableWithAlternatives() {
+		// Diğer node gün satırını ilk kez ekledi ve istenen slotu aldı
+		AppointmentDay concurrent = new AppointmentDay(date, AppointmentSlotIndex.setBit(new byte[0], REQUESTED_SLOT), 0L);
+		when(appointmentDayDao.findById(date)).thenReturn(Optional.empty(), Optional.of(concurrent));
+		when(appointmentDayDao.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+		AppointmentResultDto result = appointmentManager.bookAppointment("c1", "Ayşe", "905551112233", "kontrol", date, REQUESTED);
+
+		assertEquals("UNAVAILABLE", result.getStatus());
+		assertNull(result.getAppointmentId());
+		assertEquals(3, result.getAlternatives().size());
+		assertFalse(result.getAlternatives().contains(date.atTime(REQUESTED)));
+		verify(appointmentDayDao, times(1)).saveAndFlush(any());
+		verify(appointmentDao, never()).save(any());
+	}
+}
@@ -0,0 +1,139 @@
+package com.yusssss.vcmail.business.concretes;
+
+import com.yusssss.vcmail.dataAccess.CallLeaseDao;
+import com.yusssss.vcmail.entities.CallLease;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Heartbeat elle tetiklenir; zamanlayıcı başlatılmaz
+class CallLeaseManagerTests {
+
+	private CallLeaseDao callLeaseDao;
+	private CallLeaseManager callLeaseManager;
+	private final List<String> lost = new ArrayList<>();
+	private final List<CallLease> takenOver = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		callLeaseDao = mock(CallLeaseDao.class);
+		callLeaseManager = new CallLeaseManager(callLeaseDao);
+		ReflectionTestUtils.setField(callLeaseManager, "nodeId", "node-a");
+		ReflectionTestUtils.setField(callLeaseManager, "rtpAppHost", "10.0.0.1");
+		ReflectionTestUtils.setField(callLeaseManager, "leaseTtlSeconds", 15L);
+		callLeaseManager.onLeaseLost(lost::add);
+		callLeaseManager.onTakeover(takenOver::add);
+		when(callLeaseDao.findExpired()).thenReturn(List.of());
+	}
+
+	@Test
+	void onlyTheFirstInsertClaimsTheChannel() {
+		when(callLeaseDao.insertIfAbsent("ch1", "node-a", "10.0.0.1", "5551", 15L)).thenReturn(1);
+		when(callLeaseDao.insertIfAbsent("ch2", "node-a", "10.0.0.1", "5552", 15L)).thenReturn(0);
+		when(callLeaseDao.insertIfAbsent(eq("ch3"), any(), any(), any(), anyLong())).thenThrow(new RuntimeException("db down"));
+
+		assertTrue(callLeaseManager.tryClaim("ch1", "5551"));
+		assertFalse(callLeaseManager.tryClaim("ch2", "5552"));
+		assertFalse(callLeaseManager.tryClaim("ch3", "5553"));
+
+		// Sadece claim edilen channel heartbeat'te beklenir
+		when(callLeaseDao.renewLeases("node-a", 15L)).thenReturn(List.of());
+		callLeaseManager.heartbeat();
+		assertEquals(List.of("ch1"), lost);
+	}
+
+	@Test
+	void renewedLeasesAreKeptAndMissingOnesReportedOnce() {
+		when(callLeaseDao.insertIfAbsent(any(), any(), any(), any(), anyLong())).thenReturn(1);
+		callLeaseManager.tryClaim("ch1", "5551");
+		callLeaseManager.tryClaim("ch2", "5552");
+
+		when(callLeaseDao.renewLeases("node-a", 15L)).thenReturn(List.of("ch1", "ch2"));
+		callLeaseManager.heartbeat();
+		assertTrue(lost.isEmpty());
+
+		// ch2 başka bir node'a geçti
+		when(callLeaseDao.renewLeases("node-a", 15L)).thenReturn(List.of("ch1"));
+		callLeaseManager.heartbeat();
+		callLeaseManager.heartbeat();
+		assertEquals(List.of("ch2"), lost);
+	}
+
+	@Test
+	void releasedOrFailedRenewIsNotReportedAsLost() {
+		when(callLeaseDao.insertIfAbsent(any(), any(), any(), any(), anyLong())).thenReturn(1);
+		callLeaseManager.tryClaim("ch1", "5551");
+		callLeaseManager.release("ch1");
+		verify(callLeaseDao).deleteOwned("ch1", "node-a");
+
+		callLeaseManager.tryClaim("ch2", "5552");
+		when(callLeaseDao.renewLeases("node-a", 15L)).thenThrow(new RuntimeException("timeout"));
+		callLeaseManager.heartbeat();
+		verify(callLeaseDao, never()).findExpired();
+
+		doReturn(List.of("ch2")).when(callLeaseDao).renewLeases("node-a", 15L);
+		callLeaseManager.heartbeat();
+		assertTrue(lost.isEmpty());
+	}
+
+	@Test
+	void expiredLeasesAreTakenOverOnlyWhenTheUpdateWins() {
+		CallLease won = new CallLease("ch1", "node-b", "10.0.0.2", "5551", "conv1", "br1", "media1", LocalDateTime.now());
+		CallLease raced = new CallLease("ch2", "node-c", "10.0.0.3", "5552", "conv2", "br2", "media2", LocalDateTime.now());
+		when(callLeaseDao.renewLeases("node-a", 15L)).thenReturn(List.of());
+		when(callLeaseDao.findExpired()).thenReturn(List.of(won, raced));
+		when(callLeaseDao.takeOverExpired("ch1", "node-a", "10.0.0.1", 15L)).thenReturn(1);
+		when(callLeaseDao.takeOverExpired("ch2", "node-a", "10.0.0.1", 15L)).thenReturn(0);
+
+		callLeaseManager.heartbeat();
+		assertEquals(List.of(won), takenOver);
+
+		// Devralınan çağrı artık bu node'un; sonraki renew'da dönmezse kayıp sayılır
+		when(callLeaseDao.findExpired()).thenReturn(List.of());
+		when(callLeaseDao.renewLeases("node-a", 15L)).thenReturn(List.of("ch1"));
+		callLeaseManager.heartbeat();
+		assertTrue(lost.isEmpty());
+		when(callLeaseDao.renewLeases("node-a", 15L)).thenReturn(List.of());
+		callLeaseManager.heartbeat();
+		assertEquals(List.of("ch1"), lost);
+	}
+
+	@Test
+	void failedTakeoverReleasesItsLeaseAndTheOthersContinue() {
+		CallLease broken = new CallLease("ch1", "node-b", "10.0.0.2", "5551", "conv1", "br1", "media1", LocalDateTime.now());
+		CallLease healthy = new CallLease("ch2", "node-b", "10.0.0.2", "5552", "conv2", "br2", "media2", LocalDateTime.now());
+		callLeaseManager.onTakeover(lease -> {
+			if (lease == broken) {
+				throw new IllegalStateException("executor rejected");
+			}
+			takenOver.add(lease);
+		});
+		when(callLeaseDao.renewLeases("node-a", 15L)).thenReturn(List.of());
+		when(callLeaseDao.findExpired()).thenReturn(List.of(broken, healthy));
+		when(callLeaseDao.takeOverExpired(any(), eq("node-a"), eq("10.0.0.1"), eq(15L))).thenReturn(1);
+
+		callLeaseManager.heartbeat();
+
+		assertEquals(List.of(healthy), takenOver);
+		verify(callLeaseDao).deleteOwned("ch1", "node-a");
+		// Bırakılan lease sonraki heartbeat'te kayıp sayılmaz
+		when(callLeaseDao.findExpired()).thenReturn(List.of());
+		when(callLeaseDao.renewLeases("node-a", 15L)).thenReturn(List.of("ch2"));
+		callLeaseManager.heartbeat();
+		assertTrue(lost.isEmpty());
+	}
+
+	@Test
+	void shutdownExpiresOnlyThisNodesLeases() {
+		callLeaseManager.shutdown();
+		verify(callLeaseDao).expireLeases("node-a");
+	}
+}
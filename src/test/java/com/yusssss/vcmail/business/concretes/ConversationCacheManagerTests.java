@@ -0,0 +1,160 @@
+package com.yusssss.vcmail.business.concretes;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.yusssss.vcmail.core.utilities.search.TranscriptSearchIndex;
+import com.yusssss.vcmail.dataAccess.MessageDao;
+import com.yusssss.vcmail.entities.Conversation;
+import com.yusssss.vcmail.entities.Message;
+import com.yusssss.vcmail.entities.dtos.CacheStatsDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Süreler sahte saatle ilerletilir; yükleyici çağrı sayısı önbellekten mi okunduğunu gösterir
+class ConversationCacheManagerTests {
+
+	private final AtomicLong nanos = new AtomicLong();
+	private final AtomicInteger loads = new AtomicInteger();
+	private ConversationCacheManager cacheManager;
+
+	@BeforeEach
+	void setUp() {
+		cacheManager = new ConversationCacheManager(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(cacheManager, "conversationsMaxSize", 100L);
+		ReflectionTestUtils.setField(cacheManager, "endedTtl", Duration.ofHours(6));
+		ReflectionTestUtils.setField(cacheManager, "activeTtl", Duration.ofSeconds(5));
+		ReflectionTestUtils.setField(cacheManager, "messagesMaxWeight", 10_000L);
+		ReflectionTestUtils.setField(cacheManager, "messagesTtl", Duration.ofMinutes(30));
+		ReflectionTestUtils.setField(cacheManager, "ticker", (Ticker) nanos::get);
+		cacheManager.initialize();
+	}
+
+	@Test
+	void activeConversationExpiresAfterTheShortTtl() {
+		loadConversation("c1", "IN_PROGRESS");
+		advance(Duration.ofSeconds(4));
+		loadConversation("c1", "IN_PROGRESS");
+		assertEquals(1, loads.get());
+
+		advance(Duration.ofSeconds(2));
+		loadConversation("c1", "IN_PROGRESS");
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void endedConversationStaysForTheLongTtl() {
+		loadConversation("c1", "COMPLETED");
+		advance(Duration.ofHours(5).plusMinutes(59));
+		loadConversation("c1", "COMPLETED");
+		assertEquals(1, loads.get());
+
+		advance(Duration.ofMinutes(2));
+		loadConversation("c1", "COMPLETED");
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void messagesFollowTheCachedConversationsStatus() {
+		// Conversation'ı önbellekte olmayan liste aktif sayılır
+		loadMessages("unknown", 1);
+		loadConversation("active", "IN_PROGRESS");
+		loadMessages("active", 1);
+		loadConversation("ended", "COMPLETED");
+		loadMessages("ended", 1);
+		assertEquals(5, loads.get());
+
+		advance(Duration.ofSeconds(6));
+		loadMessages("unknown", 1);
+		loadMessages("active", 1);
+		loadMessages("ended", 1);
+		assertEquals(7, loads.get());
+
+		advance(Duration.ofMinutes(30));
+		loadMessages("ended", 1);
+		assertEquals(8, loads.get());
+	}
+
+	@Test
+	void savingAMessageInvalidatesTheCachedList() {
+		MessageDao messageDao = mock(MessageDao.class);
+		when(messageDao.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		MessageManager messageManager = new MessageManager(messageDao, mock(TranscriptSearchIndex.class), cacheManager);
+		Conversation conversation = conversation("c1", "COMPLETED");
+		cacheManager.getConversation("c1", id -> conversation);
+
+		loadMessages("c1", 1);
+		loadMessages("c1", 1);
+		assertEquals(1, loads.get());
+
+		Message message = message(10);
+		message.setConversation(conversation);
+		messageManager.save(message);
+
+		loadMessages("c1", 2);
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void messagesCacheIsBoundedByTextWeight() {
+		// Liste başına 64 + 2 * 936 = 2000 bayt, sınır 10 000 bayt
+		for (int i = 0; i < 20; i++) {
+			loadMessages("c" + i, 1, 936);
+		}
+		Cache<?, ?> messagesCache = (Cache<?, ?>) ReflectionTestUtils.getField(cacheManager, "messagesCache");
+		messagesCache.cleanUp();
+
+		long totalWeight = messagesCache.policy().eviction().orElseThrow().weightedSize().orElseThrow();
+		assertTrue(totalWeight <= 10_000, "weight " + totalWeight);
+		CacheStatsDto stats = cacheManager.getStats().get(1);
+		assertEquals("messages", stats.getName());
+		assertTrue(stats.getEvictionCount() >= 15, "evictions " + stats.getEvictionCount());
+	}
+
+	private void loadConversation(String id, String status) {
+		cacheManager.getConversation(id, key -> {
+			loads.incrementAndGet();
+			return conversation(key, status);
+		});
+	}
+
+	private void loadMessages(String id, int count) {
+		loadMessages(id, count, 10);
+	}
+
+	private void loadMessages(String id, int count, int textLength) {
+		cacheManager.getMessages(id, key -> {
+			loads.incrementAndGet();
+			return IntStream.range(0, count).mapToObj(i -> message(textLength)).toList();
+		});
+	}
+
+	private void advance(Duration duration) {
+		nanos.addAndGet(duration.toNanos());
+	}
+
+	private static Conversation conversation(String id, String status) {
+		Conversation conversation = new Conversation();
+		conversation.setId(id);
+		conversation.setStatus(status);
+		return conversation;
+	}
+
+	private static Message message(int textLength) {
+		Message message = new Message();
+		message.setText("a".repeat(textLength));
+		message.setSpeaker("user");
+		return message;
+	}
+}
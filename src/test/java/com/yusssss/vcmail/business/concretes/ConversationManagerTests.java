@@ -0,0 +1,141 @@
+package com.yusssss.vcmail.business.concretes;
+
+import com.yusssss.vcmail.business.abstracts.ConversationCacheService;
+import com.yusssss.vcmail.business.abstracts.MessageService;
+import com.yusssss.vcmail.business.abstracts.SummaryService;
+import com.yusssss.vcmail.core.exceptions.InvalidRequestException;
+import com.yusssss.vcmail.dataAccess.CallRecordDao;
+import com.yusssss.vcmail.dataAccess.ConversationDao;
+import com.yusssss.vcmail.entities.dtos.ConversationFilter;
+import com.yusssss.vcmail.entities.dtos.ConversationPageDto;
+import com.yusssss.vcmail.entities.dtos.ConversationSummaryDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// DAO, keyset sorgusunun anlamını (filtre, (start_time, id) < cursor, yeniden eskiye) bellekte uygular;
+// üretilen JPQL ConversationDaoImplTests'te doğrulanır
+class ConversationManagerTests {
+
+	private static final LocalDateTime T1 = LocalDateTime.of(2026, 3, 1, 10, 0, 0, 123_456_789);
+	private static final LocalDateTime T2 = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+	private final List<ConversationSummaryDto> rows = new ArrayList<>();
+	private ConversationDao conversationDao;
+	private ConversationManager conversationManager;
+
+	@BeforeEach
+	void setUp() {
+		// T1'de dört, T2'de üç görüşme: sayfa sınırı aynı start_time içine düşer
+		rows.add(row("c", "905551", T1, "COMPLETED"));
+		rows.add(row("a", "905552", T1, "COMPLETED"));
+		rows.add(row("d", "905551", T1, "FAILED"));
+		rows.add(row("b", "905551", T1, "COMPLETED"));
+		rows.add(row("f", "905551", T2, "COMPLETED"));
+		rows.add(row("e", "905552", T2, "COMPLETED"));
+		rows.add(row("g", "905551", T2, "FAILED"));
+
+		conversationDao = mock(ConversationDao.class);
+		when(conversationDao.findSummariesAfter(any(), any(), any(), anyInt())).thenAnswer(invocation -> {
+			ConversationFilter filter = invocation.getArgument(0);
+			LocalDateTime cursorStartTime = invocation.getArgument(1);
+			String cursorId = invocation.getArgument(2);
+			int limit = invocation.getArgument(3);
+			return rows.stream()
+					.filter(row -> filter.getStatus() == null || filter.getStatus().equals(row.getStatus()))
+					.filter(row -> filter.getCallerPhoneNumber() == null || filter.getCallerPhoneNumber().equals(row.getCallerPhoneNumber()))
+					.filter(row -> cursorStartTime == null || row.getStartTime().isBefore(cursorStartTime)
+							|| (row.getStartTime().isEqual(cursorStartTime) && row.getId().compareTo(cursorId) < 0))
+					.sorted(Comparator.comparing(ConversationSummaryDto::getStartTime)
+							.thenComparing(ConversationSummaryDto::getId).reversed())
+					.limit(limit)
+					.toList();
+		});
+		conversationManager = new ConversationManager(conversationDao, mock(MessageService.class), mock(CallRecordDao.class),
+				mock(ConversationCacheService.class), mock(SummaryService.class));
+	}
+
+	@Test
+	void pagingThroughEqualStartTimesReturnsEveryRowOnceOrderedById() {
+		List<String> ids = collectIds(new ConversationFilter(), 3);
+
+		assertEquals(List.of("d", "c", "b", "a", "g", "f", "e"), ids);
+	}
+
+	@Test
+	void cursorRoundTripsTheLastRowsKeyThroughUrlSafeBase64() {
+		ConversationPageDto first = conversationManager.listConversations(new ConversationFilter(), null, 2);
+		String cursor = first.getNextCursor();
+
+		assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+		assertEquals(T1 + "|c", new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+
+		conversationManager.listConversations(new ConversationFilter(), cursor, 2);
+		// Nanosaniyeler dahil son satırın anahtarı DAO'ya aynen döner
+		verify(conversationDao).findSummariesAfter(any(), eq(T1), eq("c"), eq(3));
+	}
+
+	@Test
+	void malformedCursorsAreRejectedBeforeQuerying() {
+		String noSeparator = Base64.getUrlEncoder().encodeToString("2026-03-01T10:00".getBytes(StandardCharsets.UTF_8));
+		String badTime = Base64.getUrlEncoder().encodeToString("yesterday|c".getBytes(StandardCharsets.UTF_8));
+
+		for (String cursor : List.of("not base64!", noSeparator, badTime)) {
+			assertThrows(InvalidRequestException.class,
+					() -> conversationManager.listConversations(new ConversationFilter(), cursor, 10), cursor);
+		}
+		verify(conversationDao, never()).findSummariesAfter(any(), any(), any(), anyInt());
+	}
+
+	@Test
+	void pageSizeIsClampedBetweenOneAndTheMaximum() {
+		conversationManager.listConversations(new ConversationFilter(), null, 10_000);
+		verify(conversationDao).findSummariesAfter(any(), isNull(), isNull(), eq(201));
+
+		ConversationPageDto page = conversationManager.listConversations(new ConversationFilter(), null, 0);
+		verify(conversationDao).findSummariesAfter(any(), isNull(), isNull(), eq(2));
+		assertEquals(1, page.getItems().size());
+		assertNotNull(page.getNextCursor());
+	}
+
+	@Test
+	void lastPageHasNoCursor() {
+		ConversationPageDto page = conversationManager.listConversations(new ConversationFilter(), null, 7);
+
+		assertEquals(7, page.getItems().size());
+		assertNull(page.getNextCursor());
+	}
+
+	@Test
+	void filtersStayAppliedOnEveryCursorPage() {
+		ConversationFilter filter = new ConversationFilter("COMPLETED", "905551", null, null);
+
+		assertEquals(List.of("c", "b", "f"), collectIds(filter, 1));
+		verify(conversationDao, times(3)).findSummariesAfter(same(filter), any(), any(), eq(2));
+	}
+
+	private List<String> collectIds(ConversationFilter filter, int pageSize) {
+		List<String> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			ConversationPageDto page = conversationManager.listConversations(filter, cursor, pageSize);
+			page.getItems().forEach(item -> ids.add(item.getId()));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		return ids;
+	}
+
+	private static ConversationSummaryDto row(String id, String caller, LocalDateTime startTime, String status) {
+		return new ConversationSummaryDto(id, caller, startTime, null, status, null);
+	}
+}
@@ -0,0 +1,186 @@
+package com.yusssss.vcmail.business.concretes;
+
+import com.yusssss.vcmail.business.abstracts.ConversationCacheService;
+import com.yusssss.vcmail.core.utilities.metrics.VoicePipelineMetrics;
+import com.yusssss.vcmail.core.utilities.search.TranscriptSearchIndex;
+import com.yusssss.vcmail.dataAccess.ConversationDao;
+import com.yusssss.vcmail.dataAccess.MessageDao;
+import com.yusssss.vcmail.entities.Message;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class MessageQueueManagerTests {
+
+	private MessageDao messageDao;
+	private TranscriptSearchIndex transcriptSearchIndex;
+	private MessageQueueManager messageQueueManager;
+	private final List<String> saved = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		messageDao = mock(MessageDao.class);
+		transcriptSearchIndex = mock(TranscriptSearchIndex.class);
+		messageQueueManager = new MessageQueueManager(messageDao, mock(ConversationDao.class),
+				mock(PlatformTransactionManager.class), transcriptSearchIndex,
+				mock(ConversationCacheService.class), new VoicePipelineMetrics(new SimpleMeterRegistry()));
+		ReflectionTestUtils.setField(messageQueueManager, "capacity", 100);
+		ReflectionTestUtils.setField(messageQueueManager, "batchSize", 50);
+		ReflectionTestUtils.setField(messageQueueManager, "flushIntervalMs", 20L);
+		ReflectionTestUtils.setField(messageQueueManager, "overflowPolicyName", "drop-oldest");
+		ReflectionTestUtils.setField(messageQueueManager, "retryAttempts", 3);
+		ReflectionTestUtils.setField(messageQueueManager, "retryBackoffMs", 1L);
+
+		// "bozuk" metinli mesaj içeren her yazım hata verir
+		when(messageDao.saveAll(anyList())).thenAnswer(invocation -> {
+			List<Message> messages = invocation.getArgument(0);
+			if (messages.stream().anyMatch(message -> message.getText().equals("bozuk"))) {
+				throw new IllegalStateException("constraint violation");
+			}
+			messages.forEach(message -> saved.add(message.getText()));
+			return messages;
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		messageQueueManager.shutdown();
+	}
+
+	@Test
+	void failingBatchFallsBackToRowWritesAndDropsOnlyTheBadRow() throws Exception {
+		messageQueueManager.start();
+		messageQueueManager.enqueue("c1", message("bir"));
+		messageQueueManager.enqueue("c1", message("bozuk"));
+		messageQueueManager.enqueue("c1", message("üç"));
+
+		messageQueueManager.flush("c1").get(5, TimeUnit.SECONDS);
+
+		assertEquals(List.of("bir", "üç"), saved);
+		assertEquals(1, messageQueueManager.getDroppedCount());
+		// Bozuk satır indekse de girmez
+		verify(transcriptSearchIndex, never()).indexMessages(argThat(messages -> messages.stream()
+				.anyMatch(message -> message.getText().equals("bozuk"))));
+	}
+
+	@Test
+	void transientFailureIsRetriedAsOneBatch() throws Exception {
+		when(messageDao.saveAll(anyList()))
+				.thenThrow(new IllegalStateException("connection reset"))
+				.thenAnswer(invocation -> {
+					List<Message> messages = invocation.getArgument(0);
+					messages.forEach(message -> saved.add(message.getText()));
+					return messages;
+				});
+		messageQueueManager.start();
+		messageQueueManager.enqueue("c1", message("bir"));
+		messageQueueManager.enqueue("c1", message("iki"));
+
+		messageQueueManager.flush("c1").get(5, TimeUnit.SECONDS);
+
+		assertEquals(List.of("bir", "iki"), saved);
+		assertEquals(0, messageQueueManager.getDroppedCount());
+	}
+
+	@Test
+	void flushDoesNotBlockWhenTheQueueIsFull() throws Exception {
+		ReflectionTestUtils.setField(messageQueueManager, "capacity", 2);
+		ReflectionTestUtils.setField(messageQueueManager, "flushIntervalMs", 50L);
+		messageQueueManager.start();
+		// Worker ilk batch'in denemelerinde ~300 ms bekler
+		ReflectionTestUtils.setField(messageQueueManager, "retryBackoffMs", 100L);
+		messageQueueManager.enqueue("c1", message("bozuk"));
+		Thread.sleep(80);
+		messageQueueManager.enqueue("c1", message("bir"));
+		messageQueueManager.enqueue("c1", message("iki"));
+
+		long start = System.nanoTime();
+		var barrier = messageQueueManager.flush("c1");
+		assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+
+		barrier.get(5, TimeUnit.SECONDS);
+		assertEquals(List.of("bir", "iki"), saved);
+	}
+
+	@Test
+	void concurrentOverflowNeverEvictsAPendingFlushBarrier() throws Exception {
+		CountDownLatch writerBlocked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			writerBlocked.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			List<Message> messages = invocation.getArgument(0);
+			messages.forEach(message -> saved.add(message.getText()));
+			return messages;
+		}).when(messageDao).saveAll(anyList());
+		ReflectionTestUtils.setField(messageQueueManager, "capacity", 4);
+		messageQueueManager.start();
+
+		// Worker ilk mesajın yazımında bekler, kuyruk dolu kalır
+		messageQueueManager.enqueue("c1", message("ilk"));
+		assertTrue(writerBlocked.await(5, TimeUnit.SECONDS));
+		messageQueueManager.enqueue("c1", message("bir"));
+		CompletableFuture<Void> barrier = messageQueueManager.flush("c1");
+		messageQueueManager.enqueue("c1", message("iki"));
+		messageQueueManager.enqueue("c1", message("üç"));
+
+		// Baştaki bariyer atlanır, yerine arkasındaki en eski mesaj atılır
+		assertTrue(messageQueueManager.enqueue("c1", message("dört")));
+		assertTrue(messageQueueManager.enqueue("c1", message("beş")));
+		assertEquals(2, messageQueueManager.getDroppedCount());
+
+		int producers = 8;
+		int perProducer = 200;
+		ExecutorService executor = Executors.newFixedThreadPool(producers);
+		CountDownLatch startSignal = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int p = 0; p < producers; p++) {
+			int producer = p;
+			futures.add(executor.submit(() -> {
+				startSignal.await();
+				for (int i = 0; i < perProducer; i++) {
+					messageQueueManager.enqueue("c2", message("p" + producer + "-" + i));
+				}
+				return null;
+			}));
+		}
+		startSignal.countDown();
+		for (Future<?> future : futures) {
+			future.get(10, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+		assertFalse(barrier.isDone());
+
+		release.countDown();
+		barrier.get(5, TimeUnit.SECONDS);
+		messageQueueManager.flush("c2").get(5, TimeUnit.SECONDS);
+
+		// Yeni mesajlar her zaman kabul edilir, sadece eskiler atılır
+		assertEquals(6 + producers * perProducer, saved.size() + messageQueueManager.getDroppedCount());
+		assertEquals(4, saved.size());
+	}
+
+	private static Message message(String text) {
+		Message message = new Message();
+		message.setText(text);
+		message.setSpeaker("user");
+		return message;
+	}
+}
@@ -0,0 +1,106 @@
+package com.yusssss.vcmail.business.concretes;
+
+import com.yusssss.vcmail.core.exceptions.InvalidRequestException;
+import com.yusssss.vcmail.core.utilities.audio.pipeline.AudioChainFactory;
+import com.yusssss.vcmail.core.utilities.metrics.VoicePipelineMetrics;
+import com.yusssss.vcmail.core.utilities.replay.RecordedCall;
+import com.yusssss.vcmail.entities.dtos.ReplayReportDto;
+import com.yusssss.vcmail.entities.dtos.ReplayRequestDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.net.DatagramSocket;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayManagerTests {
+
+	private static final int SAMPLE_RATE = 16000;
+
+	@TempDir
+	Path recordings;
+
+	private ReplayManager replayManager;
+
+	@BeforeEach
+	void setUp() {
+		AudioChainFactory factory = new AudioChainFactory(new VoicePipelineMetrics(new SimpleMeterRegistry()),
+				"decode,denoise,resample,agc,encode", "decode,resample,encode", 0.7f, true, 0.1f, 500);
+		replayManager = new ReplayManager(factory);
+		ReflectionTestUtils.setField(replayManager, "enabled", true);
+		ReflectionTestUtils.setField(replayManager, "recordingDirectory", recordings.toString());
+		ReflectionTestUtils.setField(replayManager, "defaultRealtimeAudioFormat", "pcm");
+		ReflectionTestUtils.setField(replayManager, "rtpAllowedHosts", new String[0]);
+	}
+
+	@Test
+	void defaultPatternReplaysTheCallerChannelOfStereoRecordings() throws Exception {
+		byte[] caller = writeStereoCall("call_c1.wav");
+
+		assertArrayEquals(caller, RecordedCall.load(recordings.resolve("call_c1.wav")).getAudio());
+
+		// Canlıdaki gibi sanal thread'den çağrılır; CPU süresi yine ölçülür
+		AtomicReference<List<ReplayReportDto>> reports = new AtomicReference<>();
+		Thread.ofVirtual().start(() -> reports.set(replayManager.replay(new ReplayRequestDto()))).join();
+
+		assertEquals(1, reports.get().size());
+		ReplayReportDto report = reports.get().get(0);
+		assertEquals("call_c1.wav", report.getFile());
+		assertEquals("slin16", report.getCodec());
+		assertEquals(1000L, report.getAudioMs());
+		assertTrue(report.getCpuMs() > 0);
+	}
+
+	@Test
+	void rtpReplayOnlyTargetsLoopbackUnlessTheHostIsAllowed() throws Exception {
+		writeStereoCall("call_c1.wav");
+		try (DatagramSocket receiver = new DatagramSocket()) {
+			ReplayRequestDto request = new ReplayRequestDto();
+			request.setMode("rtp");
+			request.setSpeed(0);
+			request.setPort(receiver.getLocalPort());
+
+			request.setHost("10.1.2.3");
+			assertThrows(InvalidRequestException.class, () -> replayManager.replay(request));
+
+			request.setHost("127.0.0.1");
+			assertEquals(50, replayManager.replay(request).get(0).getPacketsSent());
+
+			// Listede olan host kabul edilir (gönderim loopback'e)
+			ReflectionTestUtils.setField(replayManager, "rtpAllowedHosts", new String[]{"localhost"});
+			request.setHost("localhost");
+			assertEquals(50, replayManager.replay(request).get(0).getPacketsSent());
+		}
+	}
+
+	// 1 saniyelik slin16 stereo kayıt: solda arayanın rampası, sağda sabit asistan sesi
+	private byte[] writeStereoCall(String name) throws Exception {
+		byte[] caller = new byte[SAMPLE_RATE * 2];
+		byte[] interleaved = new byte[SAMPLE_RATE * 4];
+		for (int i = 0; i < SAMPLE_RATE; i++) {
+			short left = (short) (8000 * Math.sin(2 * Math.PI * 440 * i / SAMPLE_RATE));
+			caller[2 * i] = (byte) left;
+			caller[2 * i + 1] = (byte) (left >> 8);
+			interleaved[4 * i] = (byte) left;
+			interleaved[4 * i + 1] = (byte) (left >> 8);
+			interleaved[4 * i + 2] = 0x10;
+			interleaved[4 * i + 3] = 0x27;
+		}
+		AudioFormat format = new AudioFormat(SAMPLE_RATE, 16, 2, true, false);
+		try (AudioInputStream in = new AudioInputStream(new ByteArrayInputStream(interleaved), format, SAMPLE_RATE)) {
+			AudioSystem.write(in, AudioFileFormat.Type.WAVE, recordings.resolve(name).toFile());
+		}
+		return caller;
+	}
+}
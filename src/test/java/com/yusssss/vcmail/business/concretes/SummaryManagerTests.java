@@ -0,0 +1,80 @@
+package com.yusssss.vcmail.business.concretes;
+
+import com.yusssss.vcmail.business.abstracts.CallerProfileService;
+import com.yusssss.vcmail.business.abstracts.ConversationCacheService;
+import com.yusssss.vcmail.core.utilities.metrics.VoicePipelineMetrics;
+import com.yusssss.vcmail.core.utilities.summary.SummaryClient;
+import com.yusssss.vcmail.dataAccess.ConversationDao;
+import com.yusssss.vcmail.dataAccess.MessageDao;
+import com.yusssss.vcmail.dataAccess.SummaryJobDao;
+import com.yusssss.vcmail.dataAccess.SummaryNodeDao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+// Poll zamanlayıcısı uzun aralıkla başlatılır, pay elle yenilenir
+class SummaryManagerTests {
+
+	private SummaryNodeDao summaryNodeDao;
+	private SummaryManager summaryManager;
+
+	@BeforeEach
+	void setUp() {
+		summaryNodeDao = mock(SummaryNodeDao.class);
+		summaryManager = new SummaryManager(mock(SummaryJobDao.class), summaryNodeDao, mock(ConversationDao.class),
+				mock(MessageDao.class), mock(SummaryClient.class), mock(ConversationCacheService.class),
+				mock(CallerProfileService.class), new VoicePipelineMetrics(new SimpleMeterRegistry()));
+		ReflectionTestUtils.setField(summaryManager, "enabled", true);
+		ReflectionTestUtils.setField(summaryManager, "nodeId", "node-a");
+		ReflectionTestUtils.setField(summaryManager, "workerCount", 2);
+		ReflectionTestUtils.setField(summaryManager, "ratePerMinute", 30);
+		ReflectionTestUtils.setField(summaryManager, "pollIntervalMs", 60_000L);
+		ReflectionTestUtils.setField(summaryManager, "maxAttempts", 5);
+		ReflectionTestUtils.setField(summaryManager, "retryBackoff", Duration.ofSeconds(30));
+		ReflectionTestUtils.setField(summaryManager, "staleAfter", Duration.ofMinutes(10));
+		summaryManager.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		summaryManager.shutdown();
+	}
+
+	@Test
+	void rateShareFollowsTheLiveNodeCount() {
+		when(summaryNodeDao.countAlive(anyLong())).thenReturn(3L);
+		summaryManager.refreshNodeShare();
+		assertEquals(10, summaryManager.getNodeRatePerMinute());
+
+		// Node eklendi
+		when(summaryNodeDao.countAlive(anyLong())).thenReturn(4L);
+		summaryManager.refreshNodeShare();
+		assertEquals(7, summaryManager.getNodeRatePerMinute());
+
+		// Diğerleri düştü, bu node tüm limiti kullanır
+		when(summaryNodeDao.countAlive(anyLong())).thenReturn(1L);
+		summaryManager.refreshNodeShare();
+		assertEquals(30, summaryManager.getNodeRatePerMinute());
+
+		// Limit node sayısından küçükse her node yine dakikada bir istek yapar
+		when(summaryNodeDao.countAlive(anyLong())).thenReturn(40L);
+		summaryManager.refreshNodeShare();
+		assertEquals(1, summaryManager.getNodeRatePerMinute());
+
+		verify(summaryNodeDao, times(4)).heartbeat("node-a");
+	}
+
+	@Test
+	void shutdownRemovesThisNodeFromTheShare() {
+		summaryManager.shutdown();
+		verify(summaryNodeDao).deleteNode("node-a");
+	}
+}
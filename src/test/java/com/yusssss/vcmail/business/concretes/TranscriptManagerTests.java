@@ -0,0 +1,80 @@
+package com.yusssss.vcmail.business.concretes;
+
+import com.yusssss.vcmail.business.abstracts.CallMonitorService;
+import com.yusssss.vcmail.business.abstracts.MessageQueueService;
+import com.yusssss.vcmail.business.abstracts.MessageService;
+import com.yusssss.vcmail.core.utilities.openai.TranscriptEvent;
+import com.yusssss.vcmail.entities.Message;
+import com.yusssss.vcmail.entities.dtos.TranscriptTurnDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TranscriptManagerTests {
+
+	private MessageQueueService messageQueueService;
+	private TranscriptManager transcriptManager;
+
+	@BeforeEach
+	void setUp() {
+		MessageService messageService = mock(MessageService.class);
+		when(messageService.getLastSequenceIndex("c1")).thenReturn(4);
+		messageQueueService = mock(MessageQueueService.class);
+		transcriptManager = new TranscriptManager(messageService, messageQueueService, mock(CallMonitorService.class));
+		transcriptManager.startTranscript("c1");
+	}
+
+	@Test
+	void deltasAreCoalescedIntoOneMessagePerTurn() {
+		transcriptManager.onTranscriptEvent("c1", new TranscriptEvent(TranscriptEvent.Kind.DELTA, TranscriptEvent.ASSISTANT, "a1", "Merhaba, "));
+		transcriptManager.onTranscriptEvent("c1", new TranscriptEvent(TranscriptEvent.Kind.DELTA, TranscriptEvent.ASSISTANT, "a1", "hoş geldiniz"));
+
+		List<TranscriptTurnDto> live = transcriptManager.getTranscript("c1");
+		assertEquals(1, live.size());
+		assertEquals("Merhaba, hoş geldiniz", live.get(0).getText());
+		assertFalse(live.get(0).isCompleted());
+		verifyNoInteractions(messageQueueService);
+
+		transcriptManager.onTranscriptEvent("c1", new TranscriptEvent(TranscriptEvent.Kind.COMPLETED, TranscriptEvent.ASSISTANT, "a1", "Merhaba, hoş geldiniz."));
+
+		ArgumentCaptor<Message> captor = ArgumentCaptor.forClass(Message.class);
+		verify(messageQueueService).enqueue(eq("c1"), captor.capture());
+		assertEquals("Merhaba, hoş geldiniz.", captor.getValue().getText());
+		assertEquals(5, captor.getValue().getSequenceIndex());
+	}
+
+	@Test
+	void turnsKeepStartOrderWhenCompletedOutOfOrder() {
+		transcriptManager.onTranscriptEvent("c1", new TranscriptEvent(TranscriptEvent.Kind.STARTED, TranscriptEvent.USER, "u1", null));
+		transcriptManager.onTranscriptEvent("c1", new TranscriptEvent(TranscriptEvent.Kind.DELTA, TranscriptEvent.ASSISTANT, "a1", "Tabii"));
+		transcriptManager.onTranscriptEvent("c1", new TranscriptEvent(TranscriptEvent.Kind.COMPLETED, TranscriptEvent.ASSISTANT, "a1", "Tabii."));
+		transcriptManager.onTranscriptEvent("c1", new TranscriptEvent(TranscriptEvent.Kind.COMPLETED, TranscriptEvent.USER, "u1", "Randevu istiyorum"));
+
+		List<TranscriptTurnDto> turns = transcriptManager.getTranscript("c1");
+		assertEquals(TranscriptEvent.USER, turns.get(0).getSpeaker());
+		assertEquals(5, turns.get(0).getSequenceIndex());
+		assertEquals(TranscriptEvent.ASSISTANT, turns.get(1).getSpeaker());
+		assertEquals(6, turns.get(1).getSequenceIndex());
+	}
+
+	@Test
+	void messagesAppendedAfterEndContinueTheSequence() {
+		transcriptManager.appendMessage("c1", TranscriptEvent.ASSISTANT, "Randevunuz oluşturuldu");
+		transcriptManager.endTranscript("c1");
+
+		// Kapanıştan sonra biten tool çağrısı; kuyruktaki mesajlar henüz DB'de değil
+		transcriptManager.appendMessage("c1", "tool", "book_appointment: BOOKED");
+		transcriptManager.appendMessage("c1", "tool", "send_sms: OK");
+
+		ArgumentCaptor<Message> captor = ArgumentCaptor.forClass(Message.class);
+		verify(messageQueueService, times(3)).enqueue(eq("c1"), captor.capture());
+		assertEquals(List.of(5, 6, 7), captor.getAllValues().stream().map(Message::getSequenceIndex).toList());
+	}
+
+}
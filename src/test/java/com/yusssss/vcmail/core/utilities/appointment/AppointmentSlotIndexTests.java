@@ -0,0 +1,52 @@
+package com.yusssss.vcmail.core.utilities.appointment;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppointmentSlotIndexTests {
+
+	// 2026-03-06 Cuma
+	private static final LocalDate FRIDAY = LocalDate.of(2026, 3, 6);
+
+	private final AppointmentSlotIndex index = new AppointmentSlotIndex(LocalTime.of(9, 0), LocalTime.of(18, 0), 30,
+			EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+
+	@Test
+	void nearestFreeSlotsExpandAroundRequestThenRollToNextWorkingDay() {
+		int tenOClock = index.slotOf(LocalTime.of(10, 0));
+		index.markBooked(FRIDAY, tenOClock);
+
+		assertFalse(index.isFree(FRIDAY, tenOClock));
+		assertEquals(-1, index.slotOf(LocalTime.of(10, 15)));
+
+		List<LocalDateTime> nearest = index.findNearestFree(FRIDAY, LocalTime.of(10, 0),
+				FRIDAY.atTime(9, 45), 3, 30);
+		assertEquals(List.of(FRIDAY.atTime(10, 30), FRIDAY.atTime(11, 0), FRIDAY.atTime(11, 30)), nearest);
+
+		// Cuma son slot: hafta sonu atlanır, pazartesi sabahına geçer
+		List<LocalDateTime> late = index.findNearestFree(FRIDAY, LocalTime.of(17, 30),
+				FRIDAY.atTime(17, 45), 1, 30);
+		assertEquals(List.of(LocalDate.of(2026, 3, 9).atTime(9, 0)), late);
+	}
+
+	@Test
+	void persistedBitmapRoundTripsIntoIndex() {
+		byte[] stored = AppointmentSlotIndex.setBit(AppointmentSlotIndex.setBit(new byte[0], 0), 17);
+
+		assertTrue(AppointmentSlotIndex.isBitSet(stored, 17));
+		index.load(FRIDAY, stored);
+
+		assertFalse(index.isFree(FRIDAY, 0));
+		assertFalse(index.isFree(FRIDAY, 17));
+		assertTrue(index.isFree(FRIDAY, 1));
+		assertFalse(index.isFree(FRIDAY.plusDays(1), 1));
+	}
+}
@@ -0,0 +1,49 @@
+package com.yusssss.vcmail.core.utilities.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AudioConversionServiceTests {
+
+	private final AudioConversionService audioConversionService = new AudioConversionService();
+
+	@Test
+	void slin16FrameIsUpsampledToOpenAiRate() {
+		byte[] frame = constantPcm(320, (short) 1000);
+
+		byte[] converted = audioConversionService.convertSlin16ToOpenAi(frame);
+
+		assertEquals(480 * 2, converted.length);
+		assertConstant(converted, (short) 1000);
+	}
+
+	@Test
+	void openAiAudioIsDownsampledToSlin16Rate() {
+		byte[] chunk = constantPcm(480, (short) -1200);
+
+		byte[] converted = audioConversionService.convertOpenAiToSlin16(chunk);
+
+		assertEquals(320 * 2, converted.length);
+		assertConstant(converted, (short) -1200);
+	}
+
+	private static byte[] constantPcm(int samples, short value) {
+		ByteBuffer buffer = ByteBuffer.allocate(samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = 0; i < samples; i++) {
+			buffer.putShort(value);
+		}
+		return buffer.array();
+	}
+
+	private static void assertConstant(byte[] pcm, short expected) {
+		ByteBuffer buffer = ByteBuffer.wrap(pcm).order(ByteOrder.LITTLE_ENDIAN);
+		while (buffer.hasRemaining()) {
+			assertEquals(expected, buffer.getShort());
+		}
+	}
+
+}
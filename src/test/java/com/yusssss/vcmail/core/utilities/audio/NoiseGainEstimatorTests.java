@@ -0,0 +1,42 @@
+package com.yusssss.vcmail.core.utilities.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NoiseGainEstimatorTests {
+
+	@Test
+	void stationaryNoiseIsPulledToTheFloorWhileLoudBinsPass() {
+		NoiseGainEstimator estimator = new NoiseGainEstimator(4, 0.1f);
+		float[] noise = {100, 100, 100, 100};
+		for (int frame = 0; frame < 50; frame++) {
+			estimator.update(noise);
+		}
+		assertEquals(100, estimator.getNoisePower()[0], 1);
+
+		// 2. bin'de 30 dB üstünde konuşma
+		float[] speech = {100, 100, 100_000, 100};
+		float[] gains = null;
+		for (int frame = 0; frame < 5; frame++) {
+			gains = estimator.update(speech);
+		}
+		assertEquals(0.1f, gains[0], 0.01f);
+		assertTrue(gains[2] > 0.95f, Arrays.toString(gains));
+	}
+
+	@Test
+	void noiseFloorFollowsALowerLevelQuickly() {
+		NoiseGainEstimator estimator = new NoiseGainEstimator(1, 0.1f);
+		for (int frame = 0; frame < 20; frame++) {
+			estimator.update(new float[]{1000});
+		}
+		for (int frame = 0; frame < 20; frame++) {
+			estimator.update(new float[]{10});
+		}
+		assertEquals(10, estimator.getNoisePower()[0], 1);
+	}
+}
@@ -0,0 +1,45 @@
+package com.yusssss.vcmail.core.utilities.audio;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Duvar saati ölçer, makineye göre değişir; sadece mvn test -Pbenchmark ile koşar
+@Tag("benchmark")
+class NoiseSuppressorBenchmarkTests {
+
+	// application.yml audio.pipeline.denoise.budget-micros ile aynı
+	private static final long BUDGET_NANOS = 500_000;
+
+	// En pahalı durum: slin16, frame başına 640 noktalı FFT
+	@Test
+	void widebandFrameStaysWithinBudget() {
+		NoiseSuppressor suppressor = new NoiseSuppressor(16000, 0.1f);
+		Random random = new Random(7);
+		short[] frame = new short[320];
+
+		for (int i = 0; i < 2000; i++) {
+			fillNoise(frame, random);
+			suppressor.process(frame, frame.length);
+		}
+
+		int frames = 2000;
+		long start = System.nanoTime();
+		for (int i = 0; i < frames; i++) {
+			fillNoise(frame, random);
+			suppressor.process(frame, frame.length);
+		}
+		long perFrame = (System.nanoTime() - start) / frames;
+
+		assertTrue(perFrame < BUDGET_NANOS, "Noise suppression took " + perFrame / 1000 + " µs per 20 ms frame");
+	}
+
+	private static void fillNoise(short[] frame, Random random) {
+		for (int i = 0; i < frame.length; i++) {
+			frame[i] = (short) (random.nextGaussian() * 500 + 3000 * Math.sin(i * 0.2));
+		}
+	}
+}
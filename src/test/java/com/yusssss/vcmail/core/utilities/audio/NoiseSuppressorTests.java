@@ -0,0 +1,32 @@
+package com.yusssss.vcmail.core.utilities.audio;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class NoiseSuppressorTests {
+
+	@Test
+	void bypassDelaysByExactlyOneFrame() {
+		NoiseSuppressor suppressor = new NoiseSuppressor(8000, 0.1f);
+		suppressor.setBypassed(true);
+
+		short[] first = ramp(160, 0);
+		short[] second = ramp(160, 160);
+		short[] expected = ramp(160, 0);
+
+		suppressor.process(first, 160);
+		suppressor.process(second, 160);
+
+		assertArrayEquals(new short[160], first);
+		assertArrayEquals(expected, second);
+	}
+
+	private static short[] ramp(int length, int start) {
+		short[] samples = new short[length];
+		for (int i = 0; i < length; i++) {
+			samples[i] = (short) (start + i);
+		}
+		return samples;
+	}
+}
@@ -0,0 +1,73 @@
+package com.yusssss.vcmail.core.utilities.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PcmResamplerTests {
+
+	private static final int[][] RATES = {{24000, 16000}, {16000, 24000}, {24000, 8000}, {8000, 24000}, {16000, 8000}};
+	private static final int[] CHUNKS = {7, 160, 33, 481, 1, 240, 95};
+
+	@Test
+	void chunkedStreamMatchesOneContinuousStream() {
+		short[] signal = sine(24000, 440, 4800);
+		for (int[] rates : RATES) {
+			short[] whole = streamInChunks(signal, rates[0], rates[1], new int[]{signal.length});
+			short[] chunked = streamInChunks(signal, rates[0], rates[1], CHUNKS);
+			assertArrayEquals(whole, chunked, rates[0] + " -> " + rates[1]);
+		}
+	}
+
+	@Test
+	void twentyMillisecondFramesKeepTheirLength() {
+		for (int[] rates : RATES) {
+			PcmResampler resampler = new PcmResampler(rates[0], rates[1]);
+			short[] frame = Arrays.copyOf(sine(rates[0], 440, rates[0] / 50), rates[0] / 50);
+			for (int i = 0; i < 3; i++) {
+				short[] out = new short[resampler.maxOutputLength(frame.length)];
+				assertEquals(rates[1] / 50, resampler.process(frame, frame.length, out), rates[0] + " -> " + rates[1]);
+			}
+		}
+	}
+
+	@Test
+	void constantSignalStaysConstantAcrossChunkBoundaries() {
+		short[] signal = new short[2400];
+		Arrays.fill(signal, (short) -1200);
+		for (int[] rates : RATES) {
+			for (short sample : streamInChunks(signal, rates[0], rates[1], CHUNKS)) {
+				assertEquals(-1200, sample, rates[0] + " -> " + rates[1]);
+			}
+		}
+	}
+
+	private static short[] streamInChunks(short[] signal, int sourceRate, int targetRate, int[] chunkSizes) {
+		// Kaynak orana göre ölçeklenmiş girdi
+		short[] input = Arrays.copyOf(signal, signal.length * sourceRate / 24000);
+		PcmResampler resampler = new PcmResampler(sourceRate, targetRate);
+		short[] result = new short[0];
+		int offset = 0;
+		for (int i = 0; offset < input.length; i++) {
+			int count = Math.min(chunkSizes[i % chunkSizes.length], input.length - offset);
+			short[] out = new short[resampler.maxOutputLength(count)];
+			int produced = resampler.process(Arrays.copyOfRange(input, offset, offset + count), count, out);
+			int previous = result.length;
+			result = Arrays.copyOf(result, previous + produced);
+			System.arraycopy(out, 0, result, previous, produced);
+			offset += count;
+		}
+		return result;
+	}
+
+	private static short[] sine(int rate, double frequency, int samples) {
+		short[] out = new short[samples];
+		for (int i = 0; i < samples; i++) {
+			out[i] = (short) (8000 * Math.sin(2 * Math.PI * frequency * i / rate));
+		}
+		return out;
+	}
+}
@@ -0,0 +1,130 @@
+package com.yusssss.vcmail.core.utilities.audio.kernel;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Duvar saati ölçer; sadece mvn test -Pbenchmark ile koşar. Her çekirdek 20 ms'lik 8 ve 16 kHz
+// frame'lerde (160 ve 320 örnek) skaler sürümle karşılaştırılır, medyan ns/çağrı yazdırılır.
+// JMH depoda yok; ısınma ve medyan, JIT derlemesini ve GC gürültüsünü ayıklamaya yeter
+@Tag("benchmark")
+class SampleKernelsBenchmarkTests {
+
+	private static final int[] FRAMES = {160, 320};
+	private static final int CALLS_PER_ROUND = 20_000;
+	private static final int WARMUP_ROUNDS = 100;
+	private static final int ROUNDS = 15;
+	// Vektör sürümü bu oranın altında kalmalı; kalamayan çekirdek skalere devredilir
+	private static final double MAX_RATIO = 0.9;
+	// VectorSampleKernels'te skaler döngüye devredilenler; sadece raporlanır
+	private static final Set<String> SCALAR_IN_BOTH = Set.of("multiply");
+
+	private final SampleKernels scalar = new ScalarSampleKernels();
+	private final SampleKernels vector = new VectorSampleKernels();
+	private final Random random = new Random(11);
+	private double sink;
+
+	@Test
+	void vectorKernelsBeatScalarOnCallFrames() {
+		List<String> slower = new ArrayList<>();
+		for (int frame : FRAMES) {
+			short[] samples = new short[frame];
+			short[] gainBuffer = new short[frame];
+			byte[] bytes = new byte[frame * 2];
+			float[] a = new float[frame];
+			float[] b = new float[frame];
+			float[] out = new float[frame];
+			for (int i = 0; i < frame; i++) {
+				samples[i] = (short) random.nextInt(Short.MIN_VALUE, Short.MAX_VALUE + 1);
+				a[i] = random.nextFloat();
+				b[i] = random.nextFloat();
+			}
+			scalar.packLittleEndian(samples, frame, bytes);
+
+			compare("energy", frame, slower, (k, calls) -> {
+				double sum = 0;
+				for (int i = 0; i < calls; i++) {
+					sum += k.energy(samples, frame);
+				}
+				return sum;
+			});
+			compare("applyGain", frame, slower, (k, calls) -> {
+				double sum = 0;
+				for (int i = 0; i < calls; i++) {
+					System.arraycopy(samples, 0, gainBuffer, 0, frame);
+					k.applyGain(gainBuffer, frame, 0.7f);
+					sum += gainBuffer[frame - 1];
+				}
+				return sum;
+			});
+			compare("multiply", frame, slower, (k, calls) -> {
+				double sum = 0;
+				for (int i = 0; i < calls; i++) {
+					k.multiply(a, b, out, frame);
+					sum += out[frame - 1];
+				}
+				return sum;
+			});
+			compare("packLittleEndian", frame, slower, (k, calls) -> {
+				double sum = 0;
+				for (int i = 0; i < calls; i++) {
+					k.packLittleEndian(samples, frame, bytes);
+					sum += bytes[frame];
+				}
+				return sum;
+			});
+			compare("unpackLittleEndian", frame, slower, (k, calls) -> {
+				double sum = 0;
+				for (int i = 0; i < calls; i++) {
+					k.unpackLittleEndian(bytes, frame, gainBuffer);
+					sum += gainBuffer[frame - 1];
+				}
+				return sum;
+			});
+		}
+		System.out.println("sink " + sink);
+		assertTrue(slower.isEmpty(), "Vector kernels without a speedup: " + slower);
+	}
+
+	private void compare(String kernel, int frame, List<String> slower, Round round) {
+		double scalarNanos = measure(scalar, round);
+		double vectorNanos = measure(vector, round);
+		double ratio = vectorNanos / scalarNanos;
+		System.out.printf("%-20s %4d samples  scalar %8.1f ns  %s %8.1f ns  x%.2f%n",
+				kernel, frame, scalarNanos, vector.getName(), vectorNanos, scalarNanos / vectorNanos);
+		if (ratio > MAX_RATIO && !SCALAR_IN_BOTH.contains(kernel)) {
+			slower.add(kernel + "/" + frame);
+		}
+	}
+
+	// Tur başına ortalama, turların medyanı
+	private double measure(SampleKernels kernels, Round round) {
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			runRound(kernels, round);
+		}
+		double[] rounds = new double[ROUNDS];
+		for (int i = 0; i < ROUNDS; i++) {
+			rounds[i] = runRound(kernels, round);
+		}
+		Arrays.sort(rounds);
+		return rounds[ROUNDS / 2];
+	}
+
+	private double runRound(SampleKernels kernels, Round round) {
+		long start = System.nanoTime();
+		sink += round.run(kernels, CALLS_PER_ROUND);
+		return (double) (System.nanoTime() - start) / CALLS_PER_ROUND;
+	}
+
+	// Döngü her çekirdeğin kendi gövdesinde: çekirdek çağrısı inline edilir, ölçüme sanal çağrı karışmaz
+	private interface Round {
+		double run(SampleKernels kernels, int calls);
+	}
+}
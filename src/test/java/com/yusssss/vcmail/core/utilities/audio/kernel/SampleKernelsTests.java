@@ -0,0 +1,77 @@
+package com.yusssss.vcmail.core.utilities.audio.kernel;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// SIMD sürümü, vektör boyunun katı olmayan uzunluklar dahil skaler sürümle aynı sonucu vermeli
+class SampleKernelsTests {
+
+	private static final int[] LENGTHS = {0, 1, 7, 8, 15, 16, 17, 31, 33, 160, 320, 479, 480, 1001};
+
+	private final SampleKernels scalar = new ScalarSampleKernels();
+	private final SampleKernels vector = new VectorSampleKernels();
+	private final Random random = new Random(42);
+
+	@Test
+	void packingRoundTripsAndMatchesScalar() {
+		for (int length : LENGTHS) {
+			short[] samples = randomSamples(length);
+			byte[] expected = new byte[length * 2];
+			byte[] actual = new byte[length * 2];
+
+			scalar.packLittleEndian(samples, length, expected);
+			vector.packLittleEndian(samples, length, actual);
+			assertArrayEquals(expected, actual, "length " + length);
+
+			short[] unpacked = new short[length];
+			vector.unpackLittleEndian(actual, length, unpacked);
+			assertArrayEquals(samples, unpacked, "length " + length);
+		}
+	}
+
+	@Test
+	void gainSaturatesExactlyLikeScalar() {
+		for (int length : LENGTHS) {
+			for (float gain : new float[]{0.1f, 0.7f, 1.37f, 4f}) {
+				short[] expected = randomSamples(length);
+				short[] actual = expected.clone();
+
+				scalar.applyGain(expected, length, gain);
+				vector.applyGain(actual, length, gain);
+				assertArrayEquals(expected, actual, "length " + length + ", gain " + gain);
+			}
+		}
+	}
+
+	@Test
+	void energyAndWindowMatchScalar() {
+		for (int length : LENGTHS) {
+			short[] samples = randomSamples(length);
+			double expected = scalar.energy(samples, length);
+			assertEquals(expected, vector.energy(samples, length), Math.max(1, expected * 1e-5), "length " + length);
+
+			float[] a = new float[length];
+			float[] b = new float[length];
+			for (int i = 0; i < length; i++) {
+				a[i] = samples[i];
+				b[i] = random.nextFloat();
+			}
+			float[] expectedProduct = new float[length];
+			scalar.multiply(a, b, expectedProduct, length);
+			vector.multiply(a, b, a, length);
+			assertArrayEquals(expectedProduct, a, "length " + length);
+		}
+	}
+
+	private short[] randomSamples(int length) {
+		short[] samples = new short[length];
+		for (int i = 0; i < length; i++) {
+			samples[i] = (short) random.nextInt(Short.MIN_VALUE, Short.MAX_VALUE + 1);
+		}
+		return samples;
+	}
+}
@@ -0,0 +1,70 @@
+package com.yusssss.vcmail.core.utilities.audio.pipeline;
+
+import com.yusssss.vcmail.core.utilities.metrics.VoicePipelineMetrics;
+import com.yusssss.vcmail.core.utilities.openai.RealtimeAudioFormat;
+import com.yusssss.vcmail.core.utilities.rtp.RtpCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AudioChainFactoryTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final AudioChainFactory factory = new AudioChainFactory(new VoicePipelineMetrics(registry),
+			"tap:caller,decode,denoise,resample,tap:openai,encode", "decode,resample,encode", 0.7f, false, 0.1f, 500);
+
+	@Test
+	void slin16FrameReachesOpenAiRateAndEveryStageIsTimed() {
+		ByteArrayOutputStream caller = new ByteArrayOutputStream();
+		AudioChain chain = factory.createInbound(RtpCodec.SLIN16, RealtimeAudioFormat.PCM, Map.of("caller", caller), false);
+
+		byte[] packet = new byte[640];
+		for (int i = 0; i < packet.length; i += 2) {
+			packet[i] = (byte) 0xE8;
+			packet[i + 1] = 0x03;
+		}
+
+		AudioFrame frame = chain.process(packet);
+		assertEquals(960, frame.getLength());
+		for (int i = 0; i < frame.getLength(); i += 2) {
+			assertEquals(1000, (short) ((frame.getData()[i + 1] << 8) | (frame.getData()[i] & 0xFF)));
+		}
+
+		// Aynı frame bir sonraki pakette tekrar kullanılır
+		assertSame(frame, chain.process(packet));
+		assertEquals(2 * 640, caller.size());
+
+		// tap:openai tamponu yok, gürültü bastırma bu çağrıda kapalı
+		assertEquals(List.of("tap:caller", "decode", "resample", "encode"), chain.getStageNames());
+		assertEquals(2, registry.get("vcmail.audio.stage").tag("chain", "inbound").tag("stage", "resample").timer().count());
+	}
+
+	@Test
+	void passthroughKeepsOnlyTapsAheadOfDecode() {
+		ByteArrayOutputStream caller = new ByteArrayOutputStream();
+		AudioChain chain = factory.createInbound(RtpCodec.ULAW, RealtimeAudioFormat.PCMU,
+				Map.of("caller", caller, "openai", new ByteArrayOutputStream()), true);
+		byte[] packet = new byte[160];
+
+		assertEquals(List.of("tap:caller"), chain.getStageNames());
+		assertArrayEquals(packet, chain.process(packet).getData());
+		assertEquals(160, caller.size());
+	}
+
+	@Test
+	void misorderedConfigurationFailsAtStartup() {
+		VoicePipelineMetrics metrics = new VoicePipelineMetrics(registry);
+		assertThrows(IllegalStateException.class,
+				() -> new AudioChainFactory(metrics, "agc,decode,resample,encode", "decode,resample,encode", 0.7f, false, 0.1f, 500));
+		assertThrows(IllegalStateException.class,
+				() -> new AudioChainFactory(metrics, "decode,resample,encode", "decode,resample,echo,encode", 0.7f, false, 0.1f, 500));
+	}
+}
@@ -0,0 +1,26 @@
+package com.yusssss.vcmail.core.utilities.caller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PhoneNumbersTests {
+
+	@Test
+	void nationalAndInternationalFormsShareOneKey() {
+		assertEquals("905551234567", PhoneNumbers.normalize("+90 555 123 45 67", "90"));
+		assertEquals("905551234567", PhoneNumbers.normalize("0090 555 123 4567", "90"));
+		assertEquals("905551234567", PhoneNumbers.normalize("0 (555) 123-45-67", "90"));
+		assertEquals("905551234567", PhoneNumbers.normalize("5551234567", "90"));
+		assertEquals("905551234567", PhoneNumbers.normalize("905551234567", "90"));
+		assertEquals("441632960961", PhoneNumbers.normalize("+44 1632 960961", "90"));
+	}
+
+	@Test
+	void extensionsStayAsIsAndEmptyNumbersAreIgnored() {
+		assertEquals("1001", PhoneNumbers.normalize("1001", "90"));
+		assertNull(PhoneNumbers.normalize("anonymous", "90"));
+		assertNull(PhoneNumbers.normalize(null, "90"));
+	}
+}
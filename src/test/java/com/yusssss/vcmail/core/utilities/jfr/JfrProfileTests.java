@@ -0,0 +1,45 @@
+package com.yusssss.vcmail.core.utilities.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JfrProfileTests {
+
+	@Test
+	void shippedProfileRecordsApplicationEvents(@TempDir Path tempDir) throws Exception {
+		Configuration configuration = Configuration.create(Path.of("jfr", "vcmail.jfc"));
+		Path output = tempDir.resolve("vcmail.jfr");
+
+		try (Recording recording = new Recording(configuration)) {
+			recording.start();
+
+			ToolExecutedEvent event = new ToolExecutedEvent();
+			event.begin();
+			event.end();
+			event.conversationId = "conv-1";
+			event.toolName = "save_caller_message";
+			event.success = true;
+			event.commit();
+
+			recording.stop();
+			recording.dump(output);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(output).stream()
+				.filter(recorded -> recorded.getEventType().getName().equals("vcmail.ToolExecuted"))
+				.toList();
+		assertEquals(1, events.size());
+		assertEquals("conv-1", events.get(0).getString("conversationId"));
+		assertTrue(events.get(0).getBoolean("success"));
+	}
+}
@@ -0,0 +1,85 @@
+package com.yusssss.vcmail.core.utilities.monitor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseBroadcasterTests {
+
+	@Test
+	void subscriberLimitIsEnforced() {
+		SseBroadcaster broadcaster = new SseBroadcaster("test", 4, 1);
+
+		assertNotNull(broadcaster.subscribe(60_000));
+		assertNull(broadcaster.subscribe(60_000));
+		assertEquals(1, broadcaster.getSubscriberCount());
+	}
+
+	@Test
+	void slowSubscriberDropsOldestWhileFastOneGetsEverything() throws Exception {
+		SseBroadcaster broadcaster = new SseBroadcaster("test", 3, 2);
+		RecordingEmitter slow = new RecordingEmitter(new CountDownLatch(1));
+		RecordingEmitter fast = new RecordingEmitter(null);
+		broadcaster.subscribe(slow);
+		broadcaster.subscribe(fast);
+
+		// Yavaş abone ilk olayı göndermeye çalışırken takılır
+		broadcaster.publish("e1", "x");
+		assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+		// Hızlı abone her olayı bir sonrakinden önce alır
+		awaitEvents(fast, 1);
+		for (int i = 2; i <= 6; i++) {
+			broadcaster.publish("e" + i, "x");
+			awaitEvents(fast, i);
+		}
+		assertEquals(List.of("e1", "e2", "e3", "e4", "e5", "e6"), fast.events);
+		assertEquals(2, broadcaster.getDroppedCount());
+
+		// Kuyruk 3: e2 ve e3 atıldı, yerlerine tek overflow olayı gelir
+		slow.release.countDown();
+		awaitEvents(slow, 5);
+		assertEquals(List.of("e1", "overflow:2", "e4", "e5", "e6"), slow.events);
+	}
+
+	private static void awaitEvents(RecordingEmitter emitter, int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (emitter.events.size() < count && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+	}
+
+	// Olay adlarını kaydeder; release verilmişse ilk gönderimde açılana kadar bekler
+	private static class RecordingEmitter extends SseEmitter {
+		private final List<String> events = new CopyOnWriteArrayList<>();
+		private final CountDownLatch sending = new CountDownLatch(1);
+		private final CountDownLatch release;
+
+		RecordingEmitter(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) {
+			sending.countDown();
+			if (release != null) {
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			String frame = builder.build().stream()
+					.map(part -> String.valueOf(part.getData()))
+					.collect(Collectors.joining());
+			String name = frame.substring(frame.indexOf("event:") + 6, frame.indexOf('\n', frame.indexOf("event:")));
+			events.add(name.equals("overflow") ? "overflow:" + frame.split("data:")[1].trim() : name);
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.yusssss.vcmail.core.utilities.prompt;
+
+import com.yusssss.vcmail.core.utilities.rtp.RtpCodec;
+import org.junit.jupiter.api.Test;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import java.io.ByteArrayInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PromptLibraryTests {
+
+	@Test
+	void ulawPromptIsSplitIntoFullFramesPaddedWithSilence() throws Exception {
+		// 8 kHz, 250 ms: 12 tam paket + yarım paket
+		PromptClip clip = PromptLibrary.encode("greeting.wav", pcmStream(8000, 2000, (short) 1000), RtpCodec.ULAW);
+
+		assertEquals(13, clip.getFrameCount());
+		assertEquals(260, clip.getDurationMillis());
+		for (byte[] frame : clip.getWireFrames()) {
+			assertEquals(160, frame.length);
+		}
+		byte[] last = clip.getWireFrames()[12];
+		assertEquals((byte) 0xFF, last[80]);
+		assertEquals((byte) 0xFF, last[159]);
+	}
+
+	@Test
+	void slin16PromptIsResampledAndStoredInNetworkByteOrder() throws Exception {
+		// 8 kHz kaynak 16 kHz'e çıkar: 1600 örnek -> 3200 örnek = 10 paket
+		PromptClip clip = PromptLibrary.encode("filler_1.wav", pcmStream(8000, 1600, (short) 0x0102), RtpCodec.SLIN16);
+
+		assertEquals(10, clip.getFrameCount());
+		byte[] wire = clip.getWireFrames()[3];
+		byte[] local = clip.getLocalFrames()[3];
+		assertEquals(640, wire.length);
+		assertEquals(0x01, wire[0]);
+		assertEquals(0x02, wire[1]);
+		assertEquals(0x02, local[0]);
+		assertEquals(0x01, local[1]);
+	}
+
+	private static AudioInputStream pcmStream(int sampleRate, int samples, short value) {
+		byte[] pcm = new byte[samples * 2];
+		for (int i = 0; i < samples; i++) {
+			pcm[i * 2] = (byte) value;
+			pcm[i * 2 + 1] = (byte) (value >> 8);
+		}
+		AudioFormat format = new AudioFormat(sampleRate, 16, 1, true, false);
+		return new AudioInputStream(new ByteArrayInputStream(pcm), format, samples);
+	}
+}
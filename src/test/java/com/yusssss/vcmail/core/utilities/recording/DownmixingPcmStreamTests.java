@@ -0,0 +1,33 @@
+package com.yusssss.vcmail.core.utilities.recording;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DownmixingPcmStreamTests {
+
+	@Test
+	void stereoIsAveragedIntoMonoAtTargetRate() throws Exception {
+		// 16 kHz stereo, 320 frame: sol 1000, sağ 3000
+		ByteBuffer source = ByteBuffer.allocate(320 * 4).order(ByteOrder.LITTLE_ENDIAN);
+		for (int frame = 0; frame < 320; frame++) {
+			source.putShort((short) 1000);
+			source.putShort((short) 3000);
+		}
+
+		byte[] preview;
+		try (DownmixingPcmStream stream = new DownmixingPcmStream(new ByteArrayInputStream(source.array()), 2, 16000, 4000)) {
+			preview = stream.readAllBytes();
+		}
+
+		assertEquals(80 * 2, preview.length);
+		ByteBuffer samples = ByteBuffer.wrap(preview).order(ByteOrder.LITTLE_ENDIAN);
+		while (samples.hasRemaining()) {
+			assertEquals(2000, samples.getShort());
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.yusssss.vcmail.core.utilities.recording;
+
+import com.yusssss.vcmail.core.utilities.rtp.RtpCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StereoCallRecordingTests {
+
+	private static final byte SILENCE = (byte) 0xFF;
+
+	@Test
+	void outboundPacketsAreContiguousWithinAResponseAndAlignedAcrossGaps() {
+		long start = 1_000_000_000L;
+		StereoCallRecording recording = new StereoCallRecording(RtpCodec.ULAW, start);
+
+		recording.writeOutbound(filled(160, (byte) 0x11), start);
+		// 1 ms pacing gecikmesi boşluk yaratmamalı
+		recording.writeOutbound(filled(160, (byte) 0x22), start + 21_000_000L);
+		recording.writeOutbound(filled(160, (byte) 0x33), start + 2_000_000_000L);
+
+		byte[] interleaved = recording.toInterleaved();
+
+		assertEquals((16000 + 160) * 2, interleaved.length);
+		assertEquals(0x11, right(interleaved, 0));
+		assertEquals(0x22, right(interleaved, 160));
+		assertEquals(0x22, right(interleaved, 319));
+		assertEquals(SILENCE, (byte) right(interleaved, 320));
+		assertEquals(0x33, right(interleaved, 16000));
+		assertEquals(SILENCE, (byte) left(interleaved, 16000));
+	}
+
+	@Test
+	void inboundPacketsArePlacedByRtpTimestamp() {
+		StereoCallRecording recording = new StereoCallRecording(RtpCodec.ULAW, System.nanoTime());
+
+		recording.writeInbound(filled(160, (byte) 0x44), 5000);
+		// Kayıp paket: timestamp 5160 hiç gelmedi
+		recording.writeInbound(filled(160, (byte) 0x55), 5320);
+
+		byte[] interleaved = recording.toInterleaved();
+		int anchor = firstLeftIndexOf(interleaved, (byte) 0x44);
+
+		assertEquals(0x44, left(interleaved, anchor + 159));
+		assertEquals(SILENCE, (byte) left(interleaved, anchor + 160));
+		assertEquals(SILENCE, (byte) left(interleaved, anchor + 319));
+		assertEquals(0x55, left(interleaved, anchor + 320));
+	}
+
+	private static byte[] filled(int length, byte value) {
+		byte[] data = new byte[length];
+		Arrays.fill(data, value);
+		return data;
+	}
+
+	private static int left(byte[] interleaved, int frame) {
+		return interleaved[frame * 2];
+	}
+
+	private static int right(byte[] interleaved, int frame) {
+		return interleaved[frame * 2 + 1];
+	}
+
+	private static int firstLeftIndexOf(byte[] interleaved, byte value) {
+		for (int frame = 0; frame < interleaved.length / 2; frame++) {
+			if (interleaved[frame * 2] == value) {
+				return frame;
+			}
+		}
+		return -1;
+	}
+}
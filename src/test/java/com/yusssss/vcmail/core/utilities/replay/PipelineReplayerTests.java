@@ -0,0 +1,88 @@
+package com.yusssss.vcmail.core.utilities.replay;
+
+import com.yusssss.vcmail.core.utilities.audio.pipeline.AudioChain;
+import com.yusssss.vcmail.core.utilities.audio.pipeline.AudioChainFactory;
+import com.yusssss.vcmail.core.utilities.metrics.VoicePipelineMetrics;
+import com.yusssss.vcmail.core.utilities.openai.RealtimeAudioFormat;
+import com.yusssss.vcmail.core.utilities.rtp.RtpCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PipelineReplayerTests {
+
+	private final AudioChainFactory factory = new AudioChainFactory(new VoicePipelineMetrics(new SimpleMeterRegistry()),
+			"decode,denoise,resample,agc,encode", "decode,resample,encode", 0.7f, true, 0.1f, 500);
+
+	@Test
+	void sameRecordingAndSeedGiveIdenticalOutput() {
+		RecordedCall call = tone(RtpCodec.SLIN16, 3);
+		ReplayOptions options = new ReplayOptions(15, 2, 42);
+
+		ReplayResult first = PipelineReplayer.replay(ReplaySchedule.of(call, options), newChain(RtpCodec.SLIN16));
+		ReplayResult second = PipelineReplayer.replay(ReplaySchedule.of(call, options), newChain(RtpCodec.SLIN16));
+
+		assertEquals(first.getOutputCrc32(), second.getOutputCrc32());
+		assertEquals(first.getOutputBytes(), second.getOutputBytes());
+		assertEquals(first.getJitterMillis(), second.getJitterMillis());
+		assertEquals(first.getPacketsLost(), second.getPacketsLost());
+		assertTrue(first.getJitterMillis() > 0);
+
+		ReplayResult otherSeed = PipelineReplayer.replay(ReplaySchedule.of(call, new ReplayOptions(15, 2, 7)), newChain(RtpCodec.SLIN16));
+		assertNotEquals(first.getOutputCrc32(), otherSeed.getOutputCrc32());
+	}
+
+	@Test
+	void cleanNetworkHasNoJitterOrLoss() {
+		RecordedCall call = tone(RtpCodec.ULAW, 1);
+		ReplaySchedule schedule = ReplaySchedule.of(call, new ReplayOptions(0, 0, 1));
+
+		ReplayResult result = PipelineReplayer.replay(schedule, newChain(RtpCodec.ULAW));
+
+		assertEquals(50, result.getPacketsSent());
+		assertEquals(50, result.getPacketsReceived());
+		assertEquals(0, result.getPacketsLost());
+		assertEquals(0.0, result.getJitterMillis());
+		// 8 kHz μ-law -> 24 kHz 16-bit PCM: 1 saniye 48000 bayt
+		assertEquals(48000, result.getOutputBytes());
+	}
+
+	@Test
+	void droppedPacketsShowUpAsLoss() {
+		RecordedCall call = tone(RtpCodec.ULAW, 2);
+		ReplaySchedule schedule = ReplaySchedule.of(call, new ReplayOptions(0, 10, 3));
+
+		ReplayResult result = PipelineReplayer.replay(schedule, newChain(RtpCodec.ULAW));
+
+		assertTrue(schedule.getDroppedCount() > 0);
+		assertEquals(100, result.getPacketsSent() + result.getPacketsDropped());
+		// Sondaki kayıplar sıra numarasından görünmez
+		assertTrue(result.getPacketsLost() > 0 && result.getPacketsLost() <= schedule.getDroppedCount());
+	}
+
+	private AudioChain newChain(RtpCodec codec) {
+		return factory.forReplay(new VoicePipelineMetrics(new SimpleMeterRegistry()))
+				.createInbound(codec, RealtimeAudioFormat.PCM, Map.of(), true);
+	}
+
+	// 440 Hz ton; slin16 little endian, μ-law için sabit bir desen yeterli
+	private static RecordedCall tone(RtpCodec codec, int seconds) {
+		int samples = codec.getSampleRate() * seconds;
+		byte[] audio = new byte[samples * codec.getBytesPerSample()];
+		for (int i = 0; i < samples; i++) {
+			short sample = (short) (8000 * Math.sin(2 * Math.PI * 440 * i / codec.getSampleRate()));
+			if (codec.isLinear()) {
+				audio[2 * i] = (byte) sample;
+				audio[2 * i + 1] = (byte) (sample >> 8);
+			} else {
+				audio[i] = (byte) (i % 64 + 0x40);
+			}
+		}
+		return new RecordedCall("tone.wav", codec, audio);
+	}
+}
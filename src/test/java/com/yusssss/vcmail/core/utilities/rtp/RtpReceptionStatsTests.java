@@ -0,0 +1,64 @@
+package com.yusssss.vcmail.core.utilities.rtp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RtpReceptionStatsTests {
+
+	private static final long FRAME_NANOS = 20_000_000L;
+
+	@Test
+	void longUptimeDoesNotOverflowTheArrivalClock() {
+		RtpReceptionStats stats = new RtpReceptionStats(16000);
+		// arrivalNanos * 16000 paketlerin ortasında Long.MAX_VALUE'yu aşar (~6.7 gün uptime)
+		long start = Long.MAX_VALUE / 16000 - 10 * FRAME_NANOS;
+
+		for (int i = 0; i < 20; i++) {
+			stats.update(packet(i, 1000 + i * 320L), 0, start + i * FRAME_NANOS);
+		}
+
+		assertEquals(0.0, stats.getJitterMillis(), 0.01);
+		assertEquals(20, stats.getPacketsReceived());
+		assertEquals(0, stats.getPacketsLost());
+	}
+
+	@Test
+	void rtpTimestampWrapDoesNotShowUpAsJitter() {
+		RtpReceptionStats stats = new RtpReceptionStats(8000);
+		long timestamp = 0xFFFFFFFFL - 5 * 160;
+
+		for (int i = 0; i < 20; i++) {
+			stats.update(packet(65530 + i, (timestamp + i * 160L) & 0xFFFFFFFFL), 0, i * FRAME_NANOS);
+		}
+
+		assertEquals(0.0, stats.getJitterMillis(), 0.01);
+		assertEquals(0, stats.getPacketsLost());
+	}
+
+	@Test
+	void lateArrivalsRaiseJitter() {
+		RtpReceptionStats stats = new RtpReceptionStats(8000);
+
+		for (int i = 0; i < 50; i++) {
+			// Her ikinci paket 10 ms geç
+			long late = i % 2 == 1 ? 10_000_000L : 0;
+			stats.update(packet(i, i * 160L), 0, i * FRAME_NANOS + late);
+		}
+
+		// |D| her pakette 10 ms; tahmin oraya yaklaşır
+		assertEquals(10.0, stats.getJitterMillis(), 1.0);
+	}
+
+	private static byte[] packet(int sequence, long timestamp) {
+		byte[] data = new byte[12];
+		data[0] = (byte) 0x80;
+		data[2] = (byte) (sequence >> 8);
+		data[3] = (byte) sequence;
+		data[4] = (byte) (timestamp >> 24);
+		data[5] = (byte) (timestamp >> 16);
+		data[6] = (byte) (timestamp >> 8);
+		data[7] = (byte) timestamp;
+		return data;
+	}
+}
@@ -0,0 +1,78 @@
+package com.yusssss.vcmail.core.utilities.search;
+
+import com.yusssss.vcmail.entities.Conversation;
+import com.yusssss.vcmail.entities.Message;
+import com.yusssss.vcmail.entities.dtos.SearchHitDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TranscriptSearchIndexTests {
+
+	@TempDir
+	Path indexDir;
+
+	private TranscriptSearchIndex transcriptSearchIndex;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		transcriptSearchIndex = new TranscriptSearchIndex();
+		ReflectionTestUtils.setField(transcriptSearchIndex, "indexPath", indexDir.toString());
+		transcriptSearchIndex.open();
+	}
+
+	@AfterEach
+	void tearDown() {
+		transcriptSearchIndex.close();
+	}
+
+	@Test
+	void syncPositionSurvivesReopen() throws Exception {
+		LocalDateTime syncedUntil = LocalDateTime.of(2026, 3, 1, 12, 30);
+		transcriptSearchIndex.setSyncedUntil(syncedUntil);
+		transcriptSearchIndex.commit();
+		transcriptSearchIndex.close();
+
+		transcriptSearchIndex = new TranscriptSearchIndex();
+		ReflectionTestUtils.setField(transcriptSearchIndex, "indexPath", indexDir.toString());
+		transcriptSearchIndex.open();
+
+		assertEquals(syncedUntil, transcriptSearchIndex.getSyncedUntil());
+	}
+
+	@Test
+	void findsConversationsByStemmedTurkishWords() throws Exception {
+		transcriptSearchIndex.indexMessages(List.of(
+				message("m1", "c1", "Yarın için randevu almak istiyorum"),
+				message("m2", "c2", "Doktor Bey'e mesajımı iletir misiniz")));
+		transcriptSearchIndex.commit();
+		ReflectionTestUtils.invokeMethod(transcriptSearchIndex, "refresh");
+
+		List<SearchHitDto> hits = transcriptSearchIndex.search("randevular", 10);
+
+		assertEquals(1, hits.size());
+		assertEquals("c1", hits.get(0).getConversationId());
+		assertTrue(hits.get(0).getSnippets().get(0).contains("<b>randevu</b>"));
+	}
+
+	private static Message message(String id, String conversationId, String text) {
+		Conversation conversation = new Conversation();
+		conversation.setId(conversationId);
+		Message message = new Message();
+		message.setId(id);
+		message.setConversation(conversation);
+		message.setSpeaker("USER");
+		message.setText(text);
+		return message;
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.yusssss.vcmail.core.utilities.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TurnTracerTests {
+
+	@Test
+	void firstRtpPacketAfterAudioClosesTheTurn() {
+		TurnTraceRegistry registry = new TurnTraceRegistry(10, 10);
+		TurnTracer tracer = registry.startCall("conv-1");
+
+		// Tur açılmadan gönderilen paketler (karşılama) iz üretmez
+		tracer.onRtpSent(50);
+		tracer.onSpeechStopped(1_000);
+		tracer.onResponseCreated(4_000);
+		tracer.onRtpSent(5_000);
+		tracer.onAudioDelta(9_000);
+		tracer.onRtpSent(10_000);
+		tracer.onRtpSent(30_000);
+
+		List<TurnTrace> turns = registry.getCallTurns("conv-1");
+		assertEquals(1, turns.size());
+		TurnTrace turn = turns.get(0);
+		assertEquals(3_000, turn.getSpeechStoppedToResponseCreatedNanos());
+		assertEquals(5_000, turn.getResponseCreatedToFirstAudioNanos());
+		assertEquals(1_000, turn.getFirstAudioToFirstRtpNanos());
+		assertEquals(9_000, turn.getTotalNanos());
+
+		// Çağrı bitince turlar node halkasından okunur
+		registry.endCall("conv-1");
+		assertEquals(1, registry.getCallTurns("conv-1").size());
+	}
+
+	@Test
+	void ringKeepsOnlyTheLatestTurnsInOrder() {
+		TurnTraceRing ring = new TurnTraceRing(3);
+		for (int i = 0; i < 5; i++) {
+			ring.add(new TurnTrace("conv-" + i, null, 0, 0, 0, i));
+		}
+
+		List<TurnTrace> snapshot = ring.snapshot();
+		assertEquals(3, snapshot.size());
+		assertEquals("conv-2", snapshot.get(0).getConversationId());
+		assertEquals("conv-4", snapshot.get(2).getConversationId());
+		assertTrue(snapshot.stream().noneMatch(trace -> trace.getConversationId().equals("conv-0")));
+	}
+}
@@ -0,0 +1,71 @@
+package com.yusssss.vcmail.core.utilities.summary;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Yerel stub sunucu: gerçek model çağrılmadan istek/yanıt ve hata sınıflandırması
+class ChatCompletionSummaryClientTests {
+
+	private HttpServer server;
+	private final AtomicInteger status = new AtomicInteger(200);
+	private final AtomicReference<String> responseBody = new AtomicReference<>();
+	private final AtomicReference<String> requestBody = new AtomicReference<>();
+	private ChatCompletionSummaryClient client;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/v1/chat/completions", exchange -> {
+			requestBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+			byte[] body = responseBody.get().getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(status.get(), body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.start();
+		String endpoint = "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions";
+		client = new ChatCompletionSummaryClient(endpoint, "stub-model", "test-key", Duration.ofSeconds(5));
+	}
+
+	@AfterEach
+	void stopServer() {
+		server.stop(0);
+	}
+
+	@Test
+	void returnsFirstChoiceContent() throws SummaryException {
+		responseBody.set("{\"choices\":[{\"message\":{\"role\":\"assistant\",\"content\":\" Randevu alındı. \"}}]}");
+
+		assertEquals("Randevu alındı.", client.summarize("USER: yarın randevu istiyorum"));
+		assertTrue(requestBody.get().contains("\"model\":\"stub-model\""));
+		assertTrue(requestBody.get().contains("yarın randevu istiyorum"));
+	}
+
+	@Test
+	void rateLimitIsRetryableButClientErrorsAreNot() {
+		responseBody.set("{\"error\":{\"message\":\"slow down\"}}");
+
+		status.set(429);
+		assertTrue(assertThrows(SummaryException.class, () -> client.summarize("USER: merhaba")).isRetryable());
+
+		status.set(401);
+		assertFalse(assertThrows(SummaryException.class, () -> client.summarize("USER: merhaba")).isRetryable());
+	}
+}
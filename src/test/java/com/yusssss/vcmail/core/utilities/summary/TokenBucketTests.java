@@ -0,0 +1,41 @@
+package com.yusssss.vcmail.core.utilities.summary;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTests {
+
+	@Test
+	void burstIsSpentThenRefillsAtConfiguredRate() {
+		TokenBucket bucket = new TokenBucket(60, 2, 0);
+
+		assertTrue(bucket.tryAcquire(0));
+		assertTrue(bucket.tryAcquire(0));
+		assertFalse(bucket.tryAcquire(0));
+
+		// Dakikada 60 istek: saniyede bir token
+		assertEquals(0, bucket.available(500_000_000L));
+		assertTrue(bucket.tryAcquire(1_000_000_000L));
+		assertEquals(2, bucket.available(60_000_000_000L));
+	}
+
+	@Test
+	void rateChangeKeepsElapsedTokensAndClampsToTheNewBurst() {
+		TokenBucket bucket = new TokenBucket(60, 4, 0);
+		for (int i = 0; i < 4; i++) {
+			assertTrue(bucket.tryAcquire(0));
+		}
+
+		// İlk 2 saniye eski hızla: 2 token
+		bucket.setRate(30, 1, 2_000_000_000L);
+		assertEquals(1, bucket.available(2_000_000_000L));
+		assertTrue(bucket.tryAcquire(2_000_000_000L));
+
+		// Dakikada 30: iki saniyede bir token
+		assertEquals(0, bucket.available(3_000_000_000L));
+		assertEquals(1, bucket.available(4_000_000_000L));
+	}
+}
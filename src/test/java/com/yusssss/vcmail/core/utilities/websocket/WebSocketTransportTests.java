@@ -0,0 +1,211 @@
+package com.yusssss.vcmail.core.utilities.websocket;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Yerel, tek bağlantılık WebSocket sunucusu: handshake ve frame'ler elle yazılır
+class WebSocketTransportTests {
+
+	private static final String GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+	private ServerSocket serverSocket;
+	private ExecutorService deliveryExecutor;
+	private WebSocketTransport transport;
+	private final List<String> events = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	void start() throws IOException {
+		serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+		deliveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+		transport = new WebSocketTransport(deliveryExecutor, 1, Duration.ofSeconds(5));
+	}
+
+	@AfterEach
+	void stop() throws IOException {
+		transport.shutdown();
+		deliveryExecutor.close();
+		serverSocket.close();
+	}
+
+	@Test
+	void aggregatesFragmentsAndReportsRemoteClose() throws Exception {
+		CountDownLatch closed = new CountDownLatch(1);
+		WebSocketConnection connection = newConnection(closed, null);
+		connection.addHeader("Authorization", "Bearer test-key");
+		connection.connect();
+
+		try (Socket socket = serverSocket.accept()) {
+			List<String> headers = handshake(socket);
+			assertTrue(headers.contains("authorization: bearer test-key"));
+
+			OutputStream out = socket.getOutputStream();
+			writeFrame(out, false, 0x1, "mer".getBytes(StandardCharsets.UTF_8));
+			writeFrame(out, true, 0x0, "haba".getBytes(StandardCharsets.UTF_8));
+			writeFrame(out, true, 0x1, "ikinci".getBytes(StandardCharsets.UTF_8));
+
+			awaitEvents(3);
+			connection.send("selam");
+			DataInputStream in = new DataInputStream(socket.getInputStream());
+			assertEquals("selam", new String(readFrame(in), StandardCharsets.UTF_8));
+
+			writeFrame(out, true, 0x8, new byte[]{0x03, (byte) 0xE8});
+			assertTrue(closed.await(5, TimeUnit.SECONDS));
+		}
+
+		assertEquals(List.of("open", "merhaba", "ikinci", "close:1000:true"), events);
+	}
+
+	@Test
+	void nextMessageIsNotDeliveredBeforeListenerReturns() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		WebSocketConnection connection = newConnection(new CountDownLatch(1), release);
+		connection.connect();
+
+		try (Socket socket = serverSocket.accept()) {
+			handshake(socket);
+			OutputStream out = socket.getOutputStream();
+			for (String message : List.of("bir", "iki", "üç")) {
+				writeFrame(out, true, 0x1, message.getBytes(StandardCharsets.UTF_8));
+			}
+
+			awaitEvents(2);
+			Thread.sleep(200);
+			assertEquals(List.of("open", "bir"), events);
+
+			release.countDown();
+			awaitEvents(4);
+			assertEquals(List.of("open", "bir", "iki", "üç"), events);
+		}
+	}
+
+	@Test
+	void failedConnectReportsErrorThenClose() throws Exception {
+		int port = serverSocket.getLocalPort();
+		serverSocket.close();
+		CountDownLatch closed = new CountDownLatch(1);
+		WebSocketConnection connection = transport.newConnection(URI.create("ws://127.0.0.1:" + port + "/"), new WebSocketListener() {
+			@Override
+			public void onMessage(String message) {
+			}
+
+			@Override
+			public void onClose(int code, String reason, boolean remote) {
+				events.add("close:" + code + ":" + remote);
+				closed.countDown();
+			}
+
+			@Override
+			public void onError(Throwable error) {
+				events.add("error");
+			}
+		});
+		connection.connect();
+
+		assertTrue(closed.await(5, TimeUnit.SECONDS));
+		assertEquals(List.of("error", "close:" + WebSocketConnection.NEVER_CONNECTED + ":false"), events);
+	}
+
+	private WebSocketConnection newConnection(CountDownLatch closed, CountDownLatch release) {
+		URI uri = URI.create("ws://127.0.0.1:" + serverSocket.getLocalPort() + "/events");
+		return transport.newConnection(uri, new WebSocketListener() {
+			@Override
+			public void onOpen() {
+				events.add("open");
+			}
+
+			@Override
+			public void onMessage(String message) {
+				events.add(message);
+				if (release != null) {
+					try {
+						release.await(5, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+
+			@Override
+			public void onClose(int code, String reason, boolean remote) {
+				events.add("close:" + code + ":" + remote);
+				closed.countDown();
+			}
+
+			@Override
+			public void onError(Throwable error) {
+				events.add("error");
+			}
+		});
+	}
+
+	private void awaitEvents(int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (events.size() < count && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+	}
+
+	private static List<String> handshake(Socket socket) throws Exception {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+		List<String> headers = new ArrayList<>();
+		String key = null;
+		String line;
+		while ((line = reader.readLine()) != null && !line.isEmpty()) {
+			headers.add(line.toLowerCase());
+			if (line.toLowerCase().startsWith("sec-websocket-key:")) {
+				key = line.substring(line.indexOf(':') + 1).trim();
+			}
+		}
+		byte[] digest = MessageDigest.getInstance("SHA-1").digest((key + GUID).getBytes(StandardCharsets.ISO_8859_1));
+		String response = "HTTP/1.1 101 Switching Protocols\r\n" +
+				"Upgrade: websocket\r\n" +
+				"Connection: Upgrade\r\n" +
+				"Sec-WebSocket-Accept: " + Base64.getEncoder().encodeToString(digest) + "\r\n\r\n";
+		socket.getOutputStream().write(response.getBytes(StandardCharsets.ISO_8859_1));
+		return headers;
+	}
+
+	private static void writeFrame(OutputStream out, boolean fin, int opcode, byte[] payload) throws IOException {
+		out.write((fin ? 0x80 : 0) | opcode);
+		out.write(payload.length);
+		out.write(payload);
+		out.flush();
+	}
+
+	// İstemci frame'leri maskelidir
+	private static byte[] readFrame(DataInputStream in) throws IOException {
+		in.readUnsignedByte();
+		int length = in.readUnsignedByte() & 0x7F;
+		byte[] mask = in.readNBytes(4);
+		byte[] payload = in.readNBytes(length);
+		for (int i = 0; i < payload.length; i++) {
+			payload[i] ^= mask[i % 4];
+		}
+		return payload;
+	}
+}
@@ -0,0 +1,88 @@
+package com.yusssss.vcmail.dataAccess;
+
+import com.yusssss.vcmail.entities.dtos.ConversationFilter;
+import com.yusssss.vcmail.entities.dtos.ConversationSummaryDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Veritabanı yok; üretilen JPQL ve bağlanan parametreler doğrulanır
+class ConversationDaoImplTests {
+
+	private static final LocalDateTime CURSOR_TIME = LocalDateTime.of(2026, 3, 1, 10, 0);
+
+	private EntityManager entityManager;
+	private TypedQuery<ConversationSummaryDto> query;
+	private ConversationDaoImpl conversationDao;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		entityManager = mock(EntityManager.class);
+		query = mock(TypedQuery.class);
+		when(entityManager.createQuery(anyString(), eq(ConversationSummaryDto.class))).thenReturn(query);
+		when(query.setParameter(anyString(), any())).thenReturn(query);
+		when(query.setMaxResults(anyInt())).thenReturn(query);
+		when(query.getResultList()).thenReturn(List.of());
+		conversationDao = new ConversationDaoImpl();
+		ReflectionTestUtils.setField(conversationDao, "entityManager", entityManager);
+	}
+
+	@Test
+	void cursorTieBreaksOnIdAndKeepsTheKeysetOrder() {
+		conversationDao.findSummariesAfter(new ConversationFilter(), CURSOR_TIME, "c", 21);
+
+		String jpql = capturedJpql();
+		assertTrue(jpql.contains("(c.startTime < :cursorStartTime OR (c.startTime = :cursorStartTime AND c.id < :cursorId))"), jpql);
+		assertTrue(jpql.endsWith("ORDER BY c.startTime DESC, c.id DESC"), jpql);
+		verify(query).setParameter("cursorStartTime", CURSOR_TIME);
+		verify(query).setParameter("cursorId", "c");
+		verify(query).setMaxResults(21);
+	}
+
+	@Test
+	void filtersAreCombinedWithTheCursor() {
+		LocalDateTime from = CURSOR_TIME.minusDays(7);
+		ConversationFilter filter = new ConversationFilter("COMPLETED", "905551", from, CURSOR_TIME);
+
+		conversationDao.findSummariesAfter(filter, CURSOR_TIME, "c", 5);
+
+		String jpql = capturedJpql();
+		for (String predicate : List.of("c.status = :status", "c.callerPhoneNumber = :callerPhoneNumber",
+				"c.startTime >= :from", "c.startTime < :to", "(c.startTime < :cursorStartTime OR")) {
+			assertTrue(jpql.contains(" AND " + predicate), predicate);
+		}
+		verify(query).setParameter("status", "COMPLETED");
+		verify(query).setParameter("callerPhoneNumber", "905551");
+		verify(query).setParameter("from", from);
+		verify(query).setParameter("to", CURSOR_TIME);
+		verify(query).setParameter("cursorStartTime", CURSOR_TIME);
+		verify(query).setParameter("cursorId", "c");
+	}
+
+	@Test
+	void firstPageWithoutFiltersBindsNothing() {
+		conversationDao.findSummariesAfter(new ConversationFilter(), null, null, 51);
+
+		String jpql = capturedJpql();
+		assertFalse(jpql.contains(":"), jpql);
+		verify(query, never()).setParameter(anyString(), any());
+		verify(query).setMaxResults(51);
+	}
+
+	private String capturedJpql() {
+		ArgumentCaptor<String> jpql = ArgumentCaptor.forClass(String.class);
+		verify(entityManager).createQuery(jpql.capture(), eq(ConversationSummaryDto.class));
+		return jpql.getValue();
+	}
+}